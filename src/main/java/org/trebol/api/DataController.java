@@ -20,7 +20,11 @@
 
 package org.trebol.api;
 
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.trebol.api.models.DataPagePojo;
+import org.trebol.common.exceptions.BadInputException;
 
 import javax.validation.constraints.NotNull;
 import java.util.Map;
@@ -36,7 +40,19 @@ public interface DataController<M> {
    * Get a paged collection of data.
    *
    * @param requestParams A {@link java.util.Map} of key/value String pairs containing the parameters for reading the data.
-   * @return An instance of {@link org.trebol.api.models.DataPagePojo} containing the data itself, and information about that page of data.
+   * @param request       The current request, used to answer conditional requests.
+   * @return An instance of {@link org.trebol.api.models.DataPagePojo} containing the data itself, and information about that page of data;
+   * or nothing when the client already has its latest version.
+   * @throws BadInputException When the parameters for reading the data are invalid.
    */
-  DataPagePojo<M> readMany(@NotNull Map<String, String> requestParams);
+  DataPagePojo<M> readMany(@NotNull Map<String, String> requestParams, WebRequest request) throws BadInputException;
+
+  /**
+   * Get all data at once, streamed in a single response instead of paged.
+   *
+   * @param requestParams A {@link java.util.Map} of key/value String pairs containing the parameters for reading the data.
+   * @return A response with a body that writes the data as it is read.
+   * @throws BadInputException When the parameters for reading the data are invalid.
+   */
+  ResponseEntity<StreamingResponseBody> export(@NotNull Map<String, String> requestParams) throws BadInputException;
 }
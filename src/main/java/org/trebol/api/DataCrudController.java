@@ -20,17 +20,24 @@
 
 package org.trebol.api;
 
+import org.trebol.api.models.BatchResultPojo;
+import org.trebol.api.models.BulkUpdateResultPojo;
 import org.trebol.common.exceptions.BadInputException;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
+import java.util.List;
 import java.util.Map;
 
 public interface DataCrudController<M> {
 
   void create(M input) throws BadInputException, EntityExistsException;
 
+  BatchResultPojo createAll(List<M> inputs);
+
   void update(M input, Map<String, String> requestParams) throws BadInputException, EntityNotFoundException;
 
+  BulkUpdateResultPojo updateAll(M input, Map<String, String> requestParams) throws BadInputException, EntityNotFoundException;
+
   void delete(Map<String, String> requestParams) throws EntityNotFoundException;
 }
@@ -21,6 +21,9 @@
 package org.trebol.api;
 
 import com.querydsl.core.types.Predicate;
+import org.trebol.api.models.BatchResultPojo;
+import org.trebol.api.models.BulkUpdateResultPojo;
+import org.trebol.api.services.ExportService;
 import org.trebol.api.services.PaginationService;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.services.CrudService;
@@ -29,6 +32,7 @@ import org.trebol.jpa.services.SortSpecParserService;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -46,9 +50,10 @@ public abstract class DataCrudGenericController<M, E>
     PaginationService paginationService,
     SortSpecParserService sortSpecParserService,
     CrudService<M, E> crudService,
-    PredicateService predicateService
+    PredicateService predicateService,
+    ExportService exportService
   ) {
-    super(paginationService, sortSpecParserService, crudService, predicateService);
+    super(paginationService, sortSpecParserService, crudService, predicateService, exportService);
   }
 
   @Override
@@ -57,6 +62,11 @@ public abstract class DataCrudGenericController<M, E>
     crudService.create(input);
   }
 
+  @Override
+  public BatchResultPojo createAll(List<M> inputs) {
+    return crudService.createAll(inputs);
+  }
+
   @Override
   public void update(M input, Map<String, String> requestParams)
     throws BadInputException, EntityNotFoundException {
@@ -68,6 +78,16 @@ public abstract class DataCrudGenericController<M, E>
     }
   }
 
+  @Override
+  public BulkUpdateResultPojo updateAll(M input, Map<String, String> requestParams)
+    throws BadInputException, EntityNotFoundException {
+    if (requestParams.isEmpty()) {
+      throw new BadInputException("Filters are required to update many items at once");
+    }
+    Predicate predicate = predicateService.parseMap(requestParams);
+    return new BulkUpdateResultPojo(crudService.updateAll(input, predicate));
+  }
+
   @Override
   public void delete(Map<String, String> requestParams)
     throws EntityNotFoundException {
@@ -22,15 +22,31 @@ package org.trebol.api;
 
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Predicate;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.GenericTypeResolver;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.trebol.api.models.DataPagePojo;
+import org.trebol.api.services.ExportFormat;
+import org.trebol.api.services.ExportService;
 import org.trebol.api.services.PaginationService;
+import org.trebol.common.exceptions.BadInputException;
+import org.trebol.jpa.services.CountMode;
 import org.trebol.jpa.services.CrudService;
 import org.trebol.jpa.services.PredicateService;
 import org.trebol.jpa.services.SortSpecParserService;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Base class that implements {@link org.trebol.api.DataController}.<br/>
@@ -45,43 +61,172 @@ public abstract class DataGenericController<M, E>
   protected final SortSpecParserService sortService;
   protected final CrudService<M, E> crudService;
   protected final PredicateService predicateService;
+  protected final ExportService exportService;
 
   protected abstract Map<String, OrderSpecifier<?>> getOrderSpecMap();
 
+  /**
+   * Maps the names of the query params that request specific items by a key (e.g. <b>ids</b>) to the properties of
+   * the models that hold those keys (e.g. <b>id</b>); the predicate service must filter by each of these params.
+   * Items of this type cannot be requested this way by default.
+   */
+  protected Map<String, String> getMultiGetKeyMap() {
+    return Map.of();
+  }
+
   protected DataGenericController(
     PaginationService paginationService,
     SortSpecParserService sortService,
     CrudService<M, E> crudService,
-    PredicateService predicateService
+    PredicateService predicateService,
+    ExportService exportService
   ) {
     this.paginationService = paginationService;
     this.sortService = sortService;
     this.crudService = crudService;
     this.predicateService = predicateService;
+    this.exportService = exportService;
   }
 
   /**
    * Retrieve a page of items with a fixed size and offset index.
-   * An optional Map (like query string parameters) can be provided for filtering criteria
+   * An optional Map (like query string parameters) can be provided for filtering criteria.<br/>
+   * When an <b>after</b> parameter is present, keyset pagination is used instead of the offset index; its value must
+   * be the <b>nextCursor</b> of the previous page, or left empty to fetch the first page.<br/>
+   * A <b>withCount</b> parameter can be set to 'false' or 'estimate' to skip counting all items, or to reuse a recent count.<br/>
+   * A <b>fields</b> parameter can list, separated by commas, the only properties that items should include.<br/>
+   * When one of the params of {@link #getMultiGetKeyMap()} is present (e.g. <b>ids=3,1,2</b>), only the items with
+   * the listed keys are read, with a single query, and they are returned in the same order as their keys;
+   * pagination and sorting parameters are ignored then.<br/>
+   * When items of this type are versioned, responses carry an ETag, and requests whose <b>If-None-Match</b> header
+   * matches it are answered with 304 (Not Modified) without reading the items.
    *
-   * @param requestParams May contain filtering conditions and/or page size & page index parameters.
-   * @return A paged collection of Pojos.
+   * @param requestParams May contain filtering conditions and/or page size & page index (or cursor) parameters.
+   * @param request       The current request.
+   * @return A paged collection of Pojos, or nothing if it has not been modified.
+   * @throws BadInputException When the cursor is malformed or does not match the requested sorting order,
+   *                           when the count mode is not valid, or when too many keys are requested.
    */
   @Override
-  public DataPagePojo<M> readMany(@Nullable Map<String, String> requestParams) {
+  @Nullable
+  public DataPagePojo<M> readMany(@Nullable Map<String, String> requestParams, WebRequest request)
+    throws BadInputException {
+    Optional<String> multiGetParam = this.findMultiGetParam(requestParams);
+    if (multiGetParam.isPresent()) {
+      return this.readManyByKeys(requestParams, multiGetParam.get(), request);
+    }
+
     int pageIndex = paginationService.determineRequestedPageIndex(requestParams);
     int pageSize = paginationService.determineRequestedPageSize(requestParams);
+    CountMode countMode = paginationService.determineRequestedCountMode(requestParams);
+    Set<String> fields = paginationService.determineRequestedFields(requestParams);
+
+    Sort order = this.parseOrder(requestParams);
+    Predicate filters = this.parseFilters(requestParams);
 
-    Sort order = null;
-    if (requestParams != null && !requestParams.isEmpty()) {
-      order = sortService.parse(getOrderSpecMap(), requestParams);
+    Optional<String> versionTag = crudService.readVersionTag();
+    if (versionTag.isPresent() && request.checkNotModified(versionTag.get())) {
+      return null;
     }
 
-    Predicate filters = null;
-    if (requestParams != null && !requestParams.isEmpty()) {
-      filters = predicateService.parseMap(requestParams);
+    if (requestParams != null && requestParams.containsKey("after")) {
+      return crudService.readMany(requestParams.get("after"), pageSize, order, filters, countMode, fields);
+    }
+    return crudService.readMany(pageIndex, pageSize, order, filters, countMode, fields);
+  }
+
+  /**
+   * Retrieve all items that match the filtering criteria in a single response, writing each one of them as soon as
+   * it is read from the database, so that memory usage does not grow with the amount of items.<br/>
+   * Accepts the same filtering, sorting and <b>fields</b> parameters as {@link #readMany(Map, WebRequest)}, but no pagination ones.
+   * A <b>format</b> parameter can be set to 'ndjson' (the default) or 'csv'.
+   *
+   * @param requestParams May contain filtering conditions, sorting order and the output format.
+   * @return A response whose body writes one item per line.
+   * @throws BadInputException When the format is not valid.
+   */
+  @Override
+  public ResponseEntity<StreamingResponseBody> export(@Nullable Map<String, String> requestParams)
+    throws BadInputException {
+    ExportFormat format = exportService.determineRequestedFormat(requestParams);
+    Set<String> fields = paginationService.determineRequestedFields(requestParams);
+    Sort order = this.parseOrder(requestParams);
+    Predicate filters = this.parseFilters(requestParams);
+    StreamingResponseBody body = exportService.export(format, this.getModelClass(), fields,
+      action -> crudService.readAll(order, filters, fields, action));
+    return ResponseEntity.ok()
+      .contentType(format.getMediaType())
+      .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=export." + format.getParamValue())
+      .body(body);
+  }
+
+  @Nullable
+  private DataPagePojo<M> readManyByKeys(Map<String, String> requestParams, String paramName, WebRequest request)
+    throws BadInputException {
+    List<String> keys = paginationService.determineRequestedKeys(requestParams, paramName);
+    if (keys.isEmpty()) {
+      return new DataPagePojo<>(List.of(), 0, 0, 0);
+    }
+    String keyProperty = this.getMultiGetKeyMap().get(paramName);
+    Set<String> fields = paginationService.determineRequestedFields(requestParams);
+    if (fields != null) {
+      fields = new HashSet<>(fields);
+      fields.add(keyProperty);
     }
+    Predicate filters = predicateService.parseMap(requestParams);
 
-    return crudService.readMany(pageIndex, pageSize, order, filters);
+    Optional<String> versionTag = crudService.readVersionTag();
+    if (versionTag.isPresent() && request.checkNotModified(versionTag.get())) {
+      return null;
+    }
+
+    DataPagePojo<M> page = crudService.readMany(0, keys.size(), null, filters, CountMode.NONE, fields);
+    Map<String, M> itemsByKey = new HashMap<>();
+    for (M item : page.getItems()) {
+      Object key = PropertyAccessorFactory.forBeanPropertyAccess(item).getPropertyValue(keyProperty);
+      itemsByKey.put(String.valueOf(key), item);
+    }
+    List<M> items = new ArrayList<>(keys.size());
+    for (String key : keys) {
+      M item = itemsByKey.get(key);
+      if (item != null) {
+        items.add(item);
+      }
+    }
+    return new DataPagePojo<>(items, 0, items.size(), keys.size());
+  }
+
+  private Optional<String> findMultiGetParam(@Nullable Map<String, String> requestParams) {
+    if (requestParams == null || requestParams.isEmpty()) {
+      return Optional.empty();
+    }
+    return this.getMultiGetKeyMap().keySet().stream()
+      .filter(requestParams::containsKey)
+      .findFirst();
+  }
+
+  @Nullable
+  private Sort parseOrder(@Nullable Map<String, String> requestParams) {
+    if (requestParams == null || requestParams.isEmpty()) {
+      return null;
+    }
+    return sortService.parse(getOrderSpecMap(), requestParams);
+  }
+
+  @Nullable
+  private Predicate parseFilters(@Nullable Map<String, String> requestParams) {
+    if (requestParams == null || requestParams.isEmpty()) {
+      return null;
+    }
+    return predicateService.parseMap(requestParams);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Class<M> getModelClass() {
+    Class<?>[] typeArguments = GenericTypeResolver.resolveTypeArguments(this.getClass(), DataGenericController.class);
+    if (typeArguments == null) {
+      throw new IllegalStateException("Could not resolve the model class of " + this.getClass().getName());
+    }
+    return (Class<M>) typeArguments[0];
   }
 }
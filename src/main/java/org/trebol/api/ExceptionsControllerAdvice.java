@@ -20,6 +20,7 @@
 
 package org.trebol.api;
 
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -33,6 +34,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
 /**
@@ -44,6 +46,7 @@ import static org.springframework.http.HttpStatus.NOT_FOUND;
  * <li>{@link javax.persistence.EntityExistsException}</li> ->
  * <li>{@link org.trebol.common.exceptions.BadInputException}</li>
  * <li>{@link org.springframework.web.bind.MethodArgumentNotValidException}</li>
+ * <li>{@link org.springframework.orm.ObjectOptimisticLockingFailureException}</li> -> 409 CONFLICT
  * </ul>
  * @see org.springframework.http.HttpStatus
  */
@@ -79,4 +82,10 @@ public class ExceptionsControllerAdvice {
     });
     return errors;
   }
+
+  @ResponseStatus(CONFLICT)
+  @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+  public String handleException(ObjectOptimisticLockingFailureException ex) {
+    return "The requested item was modified concurrently, please retry";
+  }
 }
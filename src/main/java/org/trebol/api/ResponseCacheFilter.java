@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.trebol.api.services.CachedResponse;
+import org.trebol.api.services.ResponseCacheService;
+import org.trebol.api.services.ResponseCacheSource;
+import org.trebol.jpa.ReadReplicaRoutingDataSource;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.trebol.api.services.ResponseCacheSource.PRODUCTS;
+import static org.trebol.api.services.ResponseCacheSource.PRODUCT_CATEGORIES;
+import static org.trebol.api.services.ResponseCacheSource.PRODUCT_LISTS;
+
+/**
+ * Answers anonymous reads of the catalog with cached responses, when there are any; otherwise, lets the request
+ * through and caches its response if it was successful.<br/>
+ * Requests are told apart by their path and parameters, regardless of the order of the latter. Cached responses are
+ * written compressed to clients that accept gzip, and are answered with 304 (Not Modified) when their ETag matches.<br/>
+ * Requests that will fill the cache read from the primary database, since a response built from a lagging read replica
+ * right after an invalidation would otherwise be served for as long as it lives.
+ */
+public class ResponseCacheFilter
+  extends OncePerRequestFilter {
+  private static final Map<String, Set<ResponseCacheSource>> SOURCES_BY_PATH = Map.of(
+    "/data/products", EnumSet.of(PRODUCTS, PRODUCT_CATEGORIES),
+    "/data/products/facets", EnumSet.of(PRODUCTS, PRODUCT_CATEGORIES),
+    "/data/product_categories", EnumSet.of(PRODUCT_CATEGORIES),
+    "/data/product_categories/tree", EnumSet.of(PRODUCT_CATEGORIES),
+    "/data/product_list_contents", EnumSet.of(PRODUCT_LISTS, PRODUCTS, PRODUCT_CATEGORIES));
+  private static final String GZIP = "gzip";
+  private final ResponseCacheService responseCacheService;
+
+  public ResponseCacheFilter(
+    ResponseCacheService responseCacheService
+  ) {
+    super();
+    this.responseCacheService = responseCacheService;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(@NotNull HttpServletRequest request) {
+    return !responseCacheService.isEnabled() ||
+      !HttpMethod.GET.matches(request.getMethod()) ||
+      request.getHeader(HttpHeaders.AUTHORIZATION) != null ||
+      !SOURCES_BY_PATH.containsKey(pathOf(request));
+  }
+
+  @Override
+  protected void doFilterInternal(@NotNull HttpServletRequest request,
+                                  @NotNull HttpServletResponse response,
+                                  @NotNull FilterChain filterChain)
+    throws ServletException, IOException {
+    String path = pathOf(request);
+    String key = keyOf(path, request);
+    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    Optional<CachedResponse> cached = responseCacheService.get(key);
+    if (cached.isPresent()) {
+      this.writeCachedResponse(cached.get(), request, response);
+      return;
+    }
+
+    ReadReplicaRoutingDataSource.pinCurrentRequestToPrimary();
+    long version = responseCacheService.getCurrentVersion();
+    ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+    try {
+      filterChain.doFilter(request, responseWrapper);
+      if (responseWrapper.getStatus() == HttpServletResponse.SC_OK) {
+        CachedResponse fresh = CachedResponse.of(responseWrapper.getContentType(),
+          responseWrapper.getHeader(HttpHeaders.ETAG), responseWrapper.getContentAsByteArray());
+        responseCacheService.put(key, SOURCES_BY_PATH.get(path), fresh, version);
+      }
+    } finally {
+      responseWrapper.copyBodyToResponse();
+    }
+  }
+
+  private void writeCachedResponse(CachedResponse cached, HttpServletRequest request, HttpServletResponse response)
+    throws IOException {
+    if (cached.getETag() != null && new ServletWebRequest(request, response).checkNotModified(cached.getETag())) {
+      return;
+    }
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType(cached.getContentType());
+    String acceptedEncodings = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    byte[] body;
+    if (acceptedEncodings != null && acceptedEncodings.contains(GZIP)) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+      body = cached.getGzippedBody();
+    } else {
+      body = cached.getBody();
+    }
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  private static String pathOf(HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    return (path.length() > 1 && path.endsWith("/")) ? path.substring(0, path.length() - 1) : path;
+  }
+
+  /**
+   * Sorts parameters by name; the values of each parameter are kept in their order, as it may be meaningful.
+   */
+  private static String keyOf(String path, HttpServletRequest request) {
+    StringBuilder key = new StringBuilder(path).append('?');
+    for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+      for (String value : parameter.getValue()) {
+        key.append(URLEncoder.encode(parameter.getKey(), StandardCharsets.UTF_8))
+          .append('=')
+          .append(URLEncoder.encode(value, StandardCharsets.UTF_8))
+          .append('&');
+      }
+    }
+    return key.toString();
+  }
+}
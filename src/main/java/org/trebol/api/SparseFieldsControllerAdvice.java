@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+import org.trebol.api.models.DataPagePojo;
+import org.trebol.api.services.PaginationService;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import static org.trebol.config.JacksonConfig.SPARSE_FIELDS_FILTER;
+
+/**
+ * Leaves out of the items of data pages the properties that were not requested through the <b>fields</b> parameter.
+ */
+@RestControllerAdvice
+public class SparseFieldsControllerAdvice
+  extends AbstractMappingJacksonResponseBodyAdvice {
+  private static final String FIELDS_PARAM = "fields";
+  private final PaginationService paginationService;
+
+  @Autowired
+  public SparseFieldsControllerAdvice(PaginationService paginationService) {
+    this.paginationService = paginationService;
+  }
+
+  @Override
+  public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return super.supports(returnType, converterType)
+      && DataGenericController.class.isAssignableFrom(returnType.getContainingClass());
+  }
+
+  @Override
+  protected void beforeBodyWriteInternal(
+    MappingJacksonValue bodyContainer,
+    MediaType contentType,
+    MethodParameter returnType,
+    ServerHttpRequest request,
+    ServerHttpResponse response
+  ) {
+    if (!(bodyContainer.getValue() instanceof DataPagePojo) || !(request instanceof ServletServerHttpRequest)) {
+      return;
+    }
+    String fieldsParam = ((ServletServerHttpRequest) request).getServletRequest().getParameter(FIELDS_PARAM);
+    Set<String> fields = paginationService.determineRequestedFields(
+      (fieldsParam == null) ? Map.of() : Map.of(FIELDS_PARAM, fieldsParam));
+    Collection<?> items = ((DataPagePojo<?>) bodyContainer.getValue()).getItems();
+    if (fields == null || items == null || items.isEmpty()) {
+      return;
+    }
+    Class<?> itemClass = items.iterator().next().getClass();
+    bodyContainer.setFilters(new SimpleFilterProvider()
+      .addFilter(SPARSE_FIELDS_FILTER, new ItemFieldsFilter(itemClass, fields)));
+  }
+
+  /**
+   * Filters the properties of items only; nested objects of other classes are serialized whole.
+   */
+  private static class ItemFieldsFilter
+    extends SimpleBeanPropertyFilter {
+    private final Class<?> itemClass;
+    private final Set<String> fields;
+
+    private ItemFieldsFilter(Class<?> itemClass, Set<String> fields) {
+      this.itemClass = itemClass;
+      this.fields = fields;
+    }
+
+    @Override
+    public void serializeAsField(Object pojo, JsonGenerator jgen, SerializerProvider provider, PropertyWriter writer)
+      throws Exception {
+      if (pojo.getClass() != itemClass || fields.contains(writer.getName())) {
+        writer.serializeAsField(pojo, jgen, provider);
+      } else if (!jgen.canOmitFields()) {
+        writer.serializeAsOmittedField(pojo, jgen, provider);
+      }
+    }
+  }
+}
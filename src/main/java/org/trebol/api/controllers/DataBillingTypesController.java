@@ -22,14 +22,19 @@ package org.trebol.api.controllers;
 
 import com.querydsl.core.types.OrderSpecifier;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.trebol.api.DataGenericController;
 import org.trebol.api.models.BillingTypePojo;
 import org.trebol.api.models.DataPagePojo;
+import org.trebol.api.services.ExportService;
 import org.trebol.api.services.PaginationService;
+import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.BillingType;
 import org.trebol.jpa.services.SortSpecParserService;
 import org.trebol.jpa.services.crud.BillingTypesCrudService;
@@ -48,15 +53,24 @@ public class DataBillingTypesController
     PaginationService paginationService,
     SortSpecParserService sortSpecParserService,
     BillingTypesCrudService crudService,
-    BillingTypesPredicateService predicateService
+    BillingTypesPredicateService predicateService,
+    ExportService exportService
   ) {
-    super(paginationService, sortSpecParserService, crudService, predicateService);
+    super(paginationService, sortSpecParserService, crudService, predicateService, exportService);
   }
 
   @Override
   @GetMapping({"", "/"})
-  public DataPagePojo<BillingTypePojo> readMany(@RequestParam Map<String, String> allRequestParams) {
-    return super.readMany(allRequestParams);
+  public DataPagePojo<BillingTypePojo> readMany(@RequestParam Map<String, String> allRequestParams, WebRequest request)
+    throws BadInputException {
+    return super.readMany(allRequestParams, request);
+  }
+
+  @Override
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> export(@RequestParam Map<String, String> allRequestParams)
+    throws BadInputException {
+    return super.export(allRequestParams);
   }
 
   @Override
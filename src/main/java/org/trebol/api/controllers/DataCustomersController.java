@@ -22,11 +22,16 @@ package org.trebol.api.controllers;
 
 import com.querydsl.core.types.OrderSpecifier;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.trebol.api.DataCrudGenericController;
+import org.trebol.api.models.BatchResultPojo;
 import org.trebol.api.models.CustomerPojo;
 import org.trebol.api.models.DataPagePojo;
+import org.trebol.api.services.ExportService;
 import org.trebol.api.services.PaginationService;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Customer;
@@ -38,6 +43,7 @@ import org.trebol.jpa.sortspecs.CustomersSortSpec;
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
 import javax.validation.Valid;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -51,16 +57,26 @@ public class DataCustomersController
     PaginationService paginationService,
     SortSpecParserService sortSpecParserService,
     CustomersCrudService crudService,
-    CustomersPredicateService predicateService
+    CustomersPredicateService predicateService,
+    ExportService exportService
   ) {
-    super(paginationService, sortSpecParserService, crudService, predicateService);
+    super(paginationService, sortSpecParserService, crudService, predicateService, exportService);
   }
 
   @Override
   @GetMapping({"", "/"})
   @PreAuthorize("hasAuthority('customers:read')")
-  public DataPagePojo<CustomerPojo> readMany(@RequestParam Map<String, String> allRequestParams) {
-    return super.readMany(allRequestParams);
+  public DataPagePojo<CustomerPojo> readMany(@RequestParam Map<String, String> allRequestParams, WebRequest request)
+    throws BadInputException {
+    return super.readMany(allRequestParams, request);
+  }
+
+  @Override
+  @GetMapping("/export")
+  @PreAuthorize("hasAuthority('customers:read')")
+  public ResponseEntity<StreamingResponseBody> export(@RequestParam Map<String, String> allRequestParams)
+    throws BadInputException {
+    return super.export(allRequestParams);
   }
 
   @Override
@@ -71,6 +87,13 @@ public class DataCustomersController
     super.create(input);
   }
 
+  @Override
+  @PostMapping("/batch")
+  @PreAuthorize("hasAuthority('customers:create')")
+  public BatchResultPojo createAll(@RequestBody List<CustomerPojo> inputs) {
+    return super.createAll(inputs);
+  }
+
   @Override
   @PutMapping({"", "/"})
   @PreAuthorize("hasAuthority('customers:update')")
@@ -22,11 +22,15 @@ package org.trebol.api.controllers;
 
 import com.querydsl.core.types.OrderSpecifier;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.trebol.api.DataCrudGenericController;
 import org.trebol.api.models.DataPagePojo;
 import org.trebol.api.models.ImagePojo;
+import org.trebol.api.services.ExportService;
 import org.trebol.api.services.PaginationService;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Image;
@@ -51,16 +55,26 @@ public class DataImagesController
     PaginationService paginationService,
     SortSpecParserService sortService,
     ImagesCrudService crudService,
-    ImagesPredicateService predicateService
+    ImagesPredicateService predicateService,
+    ExportService exportService
   ) {
-    super(paginationService, sortService, crudService, predicateService);
+    super(paginationService, sortService, crudService, predicateService, exportService);
   }
 
   @Override
   @GetMapping({"", "/"})
   @PreAuthorize("hasAuthority('images:read')")
-  public DataPagePojo<ImagePojo> readMany(@RequestParam Map<String, String> allRequestParams) {
-    return super.readMany(allRequestParams);
+  public DataPagePojo<ImagePojo> readMany(@RequestParam Map<String, String> allRequestParams, WebRequest request)
+    throws BadInputException {
+    return super.readMany(allRequestParams, request);
+  }
+
+  @Override
+  @GetMapping("/export")
+  @PreAuthorize("hasAuthority('images:read')")
+  public ResponseEntity<StreamingResponseBody> export(@RequestParam Map<String, String> allRequestParams)
+    throws BadInputException {
+    return super.export(allRequestParams);
   }
 
   @Override
@@ -91,4 +105,11 @@ public class DataImagesController
   protected Map<String, OrderSpecifier<?>> getOrderSpecMap() {
     return ImagesSortSpec.ORDER_SPEC_MAP;
   }
+
+  @Override
+  protected Map<String, String> getMultiGetKeyMap() {
+    return Map.of(
+      "ids", "id",
+      "codes", "code");
+  }
 }
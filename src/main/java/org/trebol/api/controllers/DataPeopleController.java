@@ -22,15 +22,20 @@ package org.trebol.api.controllers;
 
 import com.querydsl.core.types.OrderSpecifier;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.trebol.api.DataGenericController;
 import org.trebol.api.models.DataPagePojo;
 import org.trebol.api.models.PersonPojo;
+import org.trebol.api.services.ExportService;
 import org.trebol.api.services.PaginationService;
+import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Person;
 import org.trebol.jpa.services.SortSpecParserService;
 import org.trebol.jpa.services.crud.PeopleCrudService;
@@ -50,16 +55,26 @@ public class DataPeopleController
     PaginationService paginationService,
     SortSpecParserService sortService,
     PeopleCrudService crudService,
-    PeoplePredicateService predicateService
+    PeoplePredicateService predicateService,
+    ExportService exportService
   ) {
-    super(paginationService, sortService, crudService, predicateService);
+    super(paginationService, sortService, crudService, predicateService, exportService);
   }
 
   @Override
   @GetMapping({"", "/"})
   @PreAuthorize("hasAuthority('people:read')")
-  public DataPagePojo<PersonPojo> readMany(@RequestParam Map<String, String> allRequestParams) {
-    return super.readMany(allRequestParams);
+  public DataPagePojo<PersonPojo> readMany(@RequestParam Map<String, String> allRequestParams, WebRequest request)
+    throws BadInputException {
+    return super.readMany(allRequestParams, request);
+  }
+
+  @Override
+  @GetMapping("/export")
+  @PreAuthorize("hasAuthority('people:read')")
+  public ResponseEntity<StreamingResponseBody> export(@RequestParam Map<String, String> allRequestParams)
+    throws BadInputException {
+    return super.export(allRequestParams);
   }
 
   @Override
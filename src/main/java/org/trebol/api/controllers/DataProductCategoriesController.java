@@ -22,14 +22,21 @@ package org.trebol.api.controllers;
 
 import com.querydsl.core.types.OrderSpecifier;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.trebol.api.DataCrudGenericController;
 import org.trebol.api.models.DataPagePojo;
 import org.trebol.api.models.ProductCategoryPojo;
+import org.trebol.api.services.ExportService;
 import org.trebol.api.services.PaginationService;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.ProductCategory;
+import org.trebol.jpa.services.ProductCategoryTree;
+import org.trebol.jpa.services.ProductCategoryTreeResolverService;
 import org.trebol.jpa.services.SortSpecParserService;
 import org.trebol.jpa.services.crud.ProductCategoriesCrudService;
 import org.trebol.jpa.services.predicates.ProductCategoriesPredicateService;
@@ -38,30 +45,61 @@ import org.trebol.jpa.sortspecs.ProductCategoriesSortSpec;
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
 import javax.validation.Valid;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/data/product_categories")
 public class DataProductCategoriesController
   extends DataCrudGenericController<ProductCategoryPojo, ProductCategory> {
+  private final ProductCategoryTreeResolverService treeResolverService;
 
   @Autowired
   public DataProductCategoriesController(
     PaginationService paginationService,
     SortSpecParserService sortService,
     ProductCategoriesCrudService crudService,
-    ProductCategoriesPredicateService predicateService
+    ProductCategoriesPredicateService predicateService,
+    ExportService exportService,
+    ProductCategoryTreeResolverService treeResolverService
   ) {
-    super(paginationService, sortService, crudService, predicateService);
+    super(paginationService, sortService, crudService, predicateService, exportService);
+    this.treeResolverService = treeResolverService;
   }
 
   @Override
   @GetMapping({"", "/"})
-  public DataPagePojo<ProductCategoryPojo> readMany(@RequestParam Map<String, String> allRequestParams) {
+  public DataPagePojo<ProductCategoryPojo> readMany(@RequestParam Map<String, String> allRequestParams, WebRequest request)
+    throws BadInputException {
     if (allRequestParams == null || allRequestParams.isEmpty()) {
       allRequestParams = Map.of("parentId", "");
     }
-    return super.readMany(allRequestParams);
+    return super.readMany(allRequestParams, request);
+  }
+
+  /**
+   * Retrieve all categories at once, with their children nested in them.<br/>
+   * Responses carry an ETag, and requests whose <b>If-None-Match</b> header matches it are answered with
+   * 304 (Not Modified).
+   *
+   * @param request The current request.
+   * @return The categories without parent, or nothing if none of the categories has been modified.
+   */
+  @GetMapping("/tree")
+  @Nullable
+  public List<ProductCategoryPojo> readTree(WebRequest request) {
+    ProductCategoryTree tree = treeResolverService.getTree();
+    if (request.checkNotModified(tree.getVersionTag())) {
+      return null;
+    }
+    return tree.toPojos();
+  }
+
+  @Override
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> export(@RequestParam Map<String, String> allRequestParams)
+    throws BadInputException {
+    return super.export(allRequestParams);
   }
 
   @Override
@@ -92,4 +130,11 @@ public class DataProductCategoriesController
   protected Map<String, OrderSpecifier<?>> getOrderSpecMap() {
     return ProductCategoriesSortSpec.ORDER_SPEC_MAP;
   }
+
+  @Override
+  protected Map<String, String> getMultiGetKeyMap() {
+    return Map.of(
+      "ids", "id",
+      "codes", "code");
+  }
 }
@@ -24,11 +24,15 @@ import com.querydsl.core.types.Predicate;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
+import org.springframework.lang.Nullable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.trebol.api.models.DataPagePojo;
 import org.trebol.api.models.ProductPojo;
 import org.trebol.api.services.PaginationService;
+import org.trebol.api.services.ResponseCacheService;
+import org.trebol.api.services.ResponseCacheSource;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.*;
 import org.trebol.jpa.repositories.ProductListItemsRepository;
@@ -54,6 +58,7 @@ public class DataProductListContentsController {
   private final ProductListItemsPredicateService listItemsPredicateService;
   private final ProductsCrudService productCrudService;
   private final ProductListItemsConverterService itemConverterService;
+  private final ResponseCacheService responseCacheService;
 
   @Autowired
   public DataProductListContentsController(
@@ -63,7 +68,8 @@ public class DataProductListContentsController {
     ProductListsRepository listsRepository,
     ProductListItemsPredicateService listItemsPredicateService,
     ProductsCrudService productCrudService,
-    ProductListItemsConverterService itemConverterService
+    ProductListItemsConverterService itemConverterService,
+    ResponseCacheService responseCacheService
   ) {
     this.paginationService = paginationService;
     this.sortService = sortService;
@@ -72,16 +78,29 @@ public class DataProductListContentsController {
     this.listItemsPredicateService = listItemsPredicateService;
     this.productCrudService = productCrudService;
     this.itemConverterService = itemConverterService;
+    this.responseCacheService = responseCacheService;
   }
 
+  /**
+   * Responses carry an ETag that covers both the items of the list and their products; requests whose
+   * <b>If-None-Match</b> header matches it are answered with 304 (Not Modified) without reading the items.
+   */
   @GetMapping({"", "/"})
-  public DataPagePojo<ProductPojo> readContents(@RequestParam Map<String, String> requestParams)
+  @Nullable
+  public DataPagePojo<ProductPojo> readContents(@RequestParam Map<String, String> requestParams, WebRequest request)
     throws BadInputException, EntityNotFoundException {
     Optional<ProductList> match = this.fetchProductListByCode(requestParams);
     if (match.isEmpty()) {
       throw new EntityNotFoundException(ITEM_NOT_FOUND);
     }
 
+    Predicate predicate = listItemsPredicateService.parseMap(requestParams);
+    Optional<String> versionTag = listItemsRepository.findVersionTag(
+      Product.class, ProductCategory.class, Image.class, ProductImage.class);
+    if (versionTag.isPresent() && request.checkNotModified(versionTag.get())) {
+      return null;
+    }
+
     int pageIndex = paginationService.determineRequestedPageIndex(requestParams);
     int pageSize = paginationService.determineRequestedPageSize(requestParams);
 
@@ -93,13 +112,8 @@ public class DataProductListContentsController {
       pagination = PageRequest.of(pageIndex, pageSize);
     }
 
-    Predicate predicate = listItemsPredicateService.parseMap(requestParams);
     Page<ProductListItem> listItems = listItemsRepository.findAll(predicate, pagination);
-    List<ProductPojo> products = new ArrayList<>();
-    for (ProductListItem item : listItems) {
-      ProductPojo productPojo = itemConverterService.convertToPojo(item);
-      products.add(productPojo);
-    }
+    List<ProductPojo> products = itemConverterService.convertToPojos(listItems.getContent());
     long totalCount = listItemsRepository.count(QProductListItem.productListItem.list.id.eq(match.get().getId()));
 
     return new DataPagePojo<>(products, pageIndex, totalCount, pageSize);
@@ -123,6 +137,7 @@ public class DataProductListContentsController {
         .build();
       if (!listItemsRepository.exists(Example.of(listItem))) {
         listItemsRepository.save(listItem);
+        responseCacheService.invalidate(ResponseCacheSource.PRODUCT_LISTS);
       }
     }
   }
@@ -150,6 +165,7 @@ public class DataProductListContentsController {
         }
       }
     }
+    responseCacheService.invalidate(ResponseCacheSource.PRODUCT_LISTS);
   }
 
   @DeleteMapping({"", "/"})
@@ -163,6 +179,7 @@ public class DataProductListContentsController {
 
     Predicate predicate = listItemsPredicateService.parseMap(requestParams);
     listItemsRepository.deleteAll(listItemsRepository.findAll(predicate));
+    responseCacheService.invalidate(ResponseCacheSource.PRODUCT_LISTS);
   }
 
   private Optional<ProductList> fetchProductListByCode(Map<String, String> requestParams) throws BadInputException {
@@ -22,11 +22,15 @@ package org.trebol.api.controllers;
 
 import com.querydsl.core.types.OrderSpecifier;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.trebol.api.DataCrudGenericController;
 import org.trebol.api.models.DataPagePojo;
 import org.trebol.api.models.ProductListPojo;
+import org.trebol.api.services.ExportService;
 import org.trebol.api.services.PaginationService;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.ProductList;
@@ -50,15 +54,24 @@ public class DataProductListsController
     PaginationService paginationService,
     SortSpecParserService sortService,
     ProductListCrudService crudService,
-    ProductListsPredicateService predicateService
+    ProductListsPredicateService predicateService,
+    ExportService exportService
   ) {
-    super(paginationService, sortService, crudService, predicateService);
+    super(paginationService, sortService, crudService, predicateService, exportService);
   }
 
   @Override
   @GetMapping({"", "/"})
-  public DataPagePojo<ProductListPojo> readMany(@RequestParam Map<String, String> allRequestParams) {
-    return super.readMany(allRequestParams);
+  public DataPagePojo<ProductListPojo> readMany(@RequestParam Map<String, String> allRequestParams, WebRequest request)
+    throws BadInputException {
+    return super.readMany(allRequestParams, request);
+  }
+
+  @Override
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> export(@RequestParam Map<String, String> allRequestParams)
+    throws BadInputException {
+    return super.export(allRequestParams);
   }
 
   @Override
@@ -20,16 +20,29 @@
 
 package org.trebol.api.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.trebol.api.DataCrudGenericController;
+import org.trebol.api.models.BatchResultPojo;
+import org.trebol.api.models.BulkUpdateResultPojo;
 import org.trebol.api.models.DataPagePojo;
+import org.trebol.api.models.ProductFacetsPojo;
 import org.trebol.api.models.ProductPojo;
+import org.trebol.api.services.ExportFormat;
+import org.trebol.api.services.ExportService;
 import org.trebol.api.services.PaginationService;
+import org.trebol.api.services.ProductImportService;
 import org.trebol.common.exceptions.BadInputException;
+import org.trebol.config.ApiProperties;
 import org.trebol.jpa.entities.Product;
+import org.trebol.jpa.services.ProductFacetsService;
 import org.trebol.jpa.services.SortSpecParserService;
 import org.trebol.jpa.services.crud.ProductsCrudService;
 import org.trebol.jpa.services.predicates.ProductsPredicateService;
@@ -37,28 +50,81 @@ import org.trebol.jpa.sortspecs.ProductsSortSpec;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/data/products")
 public class DataProductsController
   extends DataCrudGenericController<ProductPojo, Product> {
+  private final ProductFacetsService facetsService;
+  private final ApiProperties apiProperties;
+  private final ProductImportService importService;
+  private final ObjectMapper objectMapper;
 
   @Autowired
   public DataProductsController(
     PaginationService paginationService,
     SortSpecParserService sortService,
     ProductsCrudService crudService,
-    ProductsPredicateService predicateService
+    ProductsPredicateService predicateService,
+    ExportService exportService,
+    ProductFacetsService facetsService,
+    ApiProperties apiProperties,
+    ProductImportService importService,
+    ObjectMapper objectMapper
   ) {
-    super(paginationService, sortService, crudService, predicateService);
+    super(paginationService, sortService, crudService, predicateService, exportService);
+    this.facetsService = facetsService;
+    this.apiProperties = apiProperties;
+    this.importService = importService;
+    this.objectMapper = objectMapper;
   }
 
   @Override
   @GetMapping({"", "/"})
-  public DataPagePojo<ProductPojo> readMany(@RequestParam Map<String, String> allRequestParams) {
-    return super.readMany(allRequestParams);
+  public DataPagePojo<ProductPojo> readMany(@RequestParam Map<String, String> allRequestParams, WebRequest request)
+    throws BadInputException {
+    return super.readMany(allRequestParams, request);
+  }
+
+  /**
+   * Count the products that match the filtering criteria, by category, price range and availability.<br/>
+   * Accepts the same filtering parameters as {@link #readMany(Map, WebRequest)}, plus a <b>priceStep</b> parameter
+   * that sets the width of the price ranges.
+   *
+   * @param allRequestParams May contain filtering conditions and the width of the price ranges.
+   * @return The amounts of matching products.
+   * @throws BadInputException When the price step is not a positive number, or too small for the matching prices.
+   */
+  @GetMapping("/facets")
+  public ProductFacetsPojo readFacets(@RequestParam Map<String, String> allRequestParams)
+    throws BadInputException {
+    int priceStep = apiProperties.getProductFacetsPriceStep();
+    if (allRequestParams.containsKey("priceStep")) {
+      try {
+        priceStep = Integer.parseInt(allRequestParams.get("priceStep"));
+      } catch (NumberFormatException ex) {
+        throw new BadInputException("The price step must be a positive number");
+      }
+    }
+    Predicate filters = (allRequestParams.isEmpty() ? null : predicateService.parseMap(allRequestParams));
+    return facetsService.readFacets(filters, priceStep);
+  }
+
+  @Override
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> export(@RequestParam Map<String, String> allRequestParams)
+    throws BadInputException {
+    return super.export(allRequestParams);
   }
 
   @Override
@@ -69,6 +135,49 @@ public class DataProductsController
     super.create(input);
   }
 
+  @Override
+  @PostMapping("/batch")
+  @PreAuthorize("hasAuthority('products:create')")
+  public BatchResultPojo createAll(@RequestBody List<ProductPojo> inputs) {
+    return super.createAll(inputs);
+  }
+
+  /**
+   * Create or update products from a CSV or NDJSON request body of any size, matching them by barcode, as it is read.
+   * The body must be in the same representation as {@link #export(Map)} writes, and in the format named by the same
+   * <b>format</b> parameter.<br/>
+   * The response is written as the import goes: an NDJSON line after each chunk of rows, with the amounts of rows
+   * processed so far and the errors found in that chunk, and a last line once it is finished.
+   *
+   * @param allRequestParams May contain the format of the body.
+   * @throws BadInputException When the format is not valid.
+   * @throws IOException       When the body cannot be read, or the response cannot be written.
+   */
+  @PostMapping("/import")
+  @PreAuthorize("hasAuthority('products:create') and hasAuthority('products:update')")
+  public void importAll(@RequestParam Map<String, String> allRequestParams, HttpServletRequest request,
+                        HttpServletResponse response)
+    throws BadInputException, IOException {
+    ExportFormat format = exportService.determineRequestedFormat(allRequestParams);
+    response.setContentType(ExportFormat.NDJSON.getMediaType().toString());
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    Writer writer = response.getWriter();
+    try {
+      importService.importProducts(format, new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8),
+        progress -> {
+          try {
+            writer.write(objectMapper.writeValueAsString(progress));
+            writer.write("\n");
+            writer.flush();
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+  }
+
   @Override
   @PutMapping({"", "/"})
   @PreAuthorize("hasAuthority('products:update')")
@@ -77,6 +186,14 @@ public class DataProductsController
     super.update(input, requestParams);
   }
 
+  @Override
+  @PutMapping("/bulk")
+  @PreAuthorize("hasAuthority('products:update')")
+  public BulkUpdateResultPojo updateAll(@RequestBody ProductPojo input, @RequestParam Map<String, String> requestParams)
+    throws BadInputException, EntityNotFoundException {
+    return super.updateAll(input, requestParams);
+  }
+
   @Override
   @DeleteMapping({"", "/"})
   @PreAuthorize("hasAuthority('products:delete')")
@@ -89,4 +206,11 @@ public class DataProductsController
   protected Map<String, OrderSpecifier<?>> getOrderSpecMap() {
     return ProductsSortSpec.ORDER_SPEC_MAP;
   }
+
+  @Override
+  protected Map<String, String> getMultiGetKeyMap() {
+    return Map.of(
+      "ids", "id",
+      "barcodes", "barcode");
+  }
 }
@@ -23,12 +23,17 @@ package org.trebol.api.controllers;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.trebol.api.DataCrudGenericController;
+import org.trebol.api.models.BulkUpdateResultPojo;
 import org.trebol.api.models.DataPagePojo;
 import org.trebol.api.models.SellPojo;
+import org.trebol.api.services.ExportService;
 import org.trebol.api.services.PaginationService;
 import org.trebol.api.services.SalesProcessService;
 import org.trebol.common.exceptions.BadInputException;
@@ -62,10 +67,11 @@ public class DataSalesController
     SortSpecParserService sortService,
     SalesCrudService crudService,
     SalesPredicateService predicateService,
+    ExportService exportService,
     SalesProcessService processService,
     @Autowired(required = false) MailingService mailingService
   ) {
-    super(paginationService, sortService, crudService, predicateService);
+    super(paginationService, sortService, crudService, predicateService, exportService);
     this.processService = processService;
     this.mailingService = mailingService;
   }
@@ -73,7 +79,8 @@ public class DataSalesController
   @Override
   @GetMapping({"", "/"})
   @PreAuthorize("hasAuthority('sales:read')")
-  public DataPagePojo<SellPojo> readMany(@RequestParam Map<String, String> allRequestParams) {
+  public DataPagePojo<SellPojo> readMany(@RequestParam Map<String, String> allRequestParams, WebRequest request)
+    throws BadInputException {
     if (allRequestParams != null) {
       if (allRequestParams.containsKey("buyOrder")) {
         Predicate predicate = predicateService.parseMap(allRequestParams);
@@ -90,7 +97,15 @@ public class DataSalesController
         allRequestParams.put("order", "desc");
       }
     }
-    return super.readMany(allRequestParams);
+    return super.readMany(allRequestParams, request);
+  }
+
+  @Override
+  @GetMapping("/export")
+  @PreAuthorize("hasAuthority('sales:read')")
+  public ResponseEntity<StreamingResponseBody> export(@RequestParam Map<String, String> allRequestParams)
+    throws BadInputException {
+    return super.export(allRequestParams);
   }
 
   @Override
@@ -109,6 +124,14 @@ public class DataSalesController
     super.update(input, requestParams);
   }
 
+  @Override
+  @PutMapping("/bulk")
+  @PreAuthorize("hasAuthority('sales:update')")
+  public BulkUpdateResultPojo updateAll(@RequestBody SellPojo input, @RequestParam Map<String, String> requestParams)
+    throws BadInputException, EntityNotFoundException {
+    return super.updateAll(input, requestParams);
+  }
+
   @Override
   @DeleteMapping({"", "/"})
   @PreAuthorize("hasAuthority('sales:delete')")
@@ -21,12 +21,16 @@
 package org.trebol.api.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.trebol.api.models.CompanyDetailsPojo;
 import org.trebol.api.services.CompanyService;
 
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/public/about")
 public class PublicAboutController {
@@ -38,8 +42,17 @@ public class PublicAboutController {
     this.companyService = companyService;
   }
 
+  /**
+   * Reads the business details. Responses carry an ETag, and a request whose If-None-Match header matches it
+   * is answered with an empty 304 (Not Modified) response instead.
+   */
   @GetMapping({"", "/"})
-  public CompanyDetailsPojo readCompanyDetails() {
+  @Nullable
+  public CompanyDetailsPojo readCompanyDetails(WebRequest request) {
+    Optional<String> versionTag = companyService.readDetailsVersionTag();
+    if (versionTag.isPresent() && request.checkNotModified(versionTag.get())) {
+      return null;
+    }
     return companyService.readDetails();
   }
 }
@@ -23,18 +23,21 @@ package org.trebol.api.controllers;
 import com.querydsl.core.types.Predicate;
 import io.jsonwebtoken.lang.Maps;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.trebol.api.models.PaymentRedirectionDetailsPojo;
 import org.trebol.api.models.SellPojo;
 import org.trebol.api.services.CheckoutService;
 import org.trebol.common.exceptions.BadInputException;
+import org.trebol.common.integration.IntegrationExecutor;
+import org.trebol.config.IntegrationProperties;
 import org.trebol.jpa.services.crud.SalesCrudService;
 import org.trebol.jpa.services.predicates.SalesPredicateService;
 import org.trebol.mailing.MailingService;
-import org.trebol.mailing.MailingServiceException;
 import org.trebol.payment.PaymentServiceException;
 
 import javax.persistence.EntityExistsException;
@@ -46,6 +49,7 @@ import java.util.Map;
 
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.SEE_OTHER;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 import static org.trebol.config.Constants.WEBPAY_ABORTION_TOKEN_HEADER_NAME;
 import static org.trebol.config.Constants.WEBPAY_SUCCESS_TOKEN_HEADER_NAME;
 
@@ -55,6 +59,8 @@ public class PublicCheckoutController {
   private final CheckoutService service;
   private final SalesCrudService salesCrudService;
   private final SalesPredicateService salesPredicateService;
+  private final IntegrationExecutor integrationExecutor;
+  private final IntegrationProperties integrationProperties;
   @Nullable
   private final MailingService mailingService;
 
@@ -63,11 +69,15 @@ public class PublicCheckoutController {
     CheckoutService service,
     SalesCrudService salesCrudService,
     SalesPredicateService salesPredicateService,
+    IntegrationExecutor integrationExecutor,
+    IntegrationProperties integrationProperties,
     @Autowired(required = false) MailingService mailingService
   ) {
     this.service = service;
     this.salesCrudService = salesCrudService;
     this.salesPredicateService = salesPredicateService;
+    this.integrationExecutor = integrationExecutor;
+    this.integrationProperties = integrationProperties;
     this.mailingService = mailingService;
   }
 
@@ -90,30 +100,43 @@ public class PublicCheckoutController {
   }
 
   /**
-   * Validate token sent from WebPay Plus after a succesful transaction
+   * Validate token sent from WebPay Plus after a succesful transaction.<br/>
+   * Confirming the transaction and notifying the customer is done by the integration executor, so the request
+   * thread is released while waiting on those services. If they take longer than the configured response timeout,
+   * the user is redirected to the result page anyway, while the confirmation keeps running in the background.
    *
    * @param transactionData The HTTP headers
-   * @return A 303 SEE OTHER response
+   * @return A 303 SEE OTHER response, deferred until the transaction has been confirmed
    * @throws BadInputException       If the expected token is not present in the request
-   * @throws EntityNotFoundException If the token does not match that of any "pending" transaction
-   * @throws PaymentServiceException If an error happens during internal API calls
    */
   @GetMapping({"/validate", "/validate/"})
-  public ResponseEntity<Void> validateSuccesfulTransaction(@RequestParam Map<String, String> transactionData)
-    throws BadInputException, EntityNotFoundException, PaymentServiceException, MailingServiceException {
+  public DeferredResult<ResponseEntity<Void>> validateSuccesfulTransaction(@RequestParam Map<String, String> transactionData)
+    throws BadInputException {
     if (!transactionData.containsKey(WEBPAY_SUCCESS_TOKEN_HEADER_NAME)) { // success
       throw new BadInputException("No transaction token was provided");
     }
     String token = transactionData.get(WEBPAY_SUCCESS_TOKEN_HEADER_NAME);
-    SellPojo sellPojo = service.confirmTransaction(token, false);
-    if (this.mailingService != null) {
-      mailingService.notifyOrderStatusToClient(sellPojo);
-    }
     URI transactionUri = service.generateResultPageUrl(token);
-    return ResponseEntity
+    ResponseEntity<Void> redirection = ResponseEntity
       .status(SEE_OTHER)
       .location(transactionUri)
       .build();
+    DeferredResult<ResponseEntity<Void>> deferredResult = new DeferredResult<>(
+      integrationProperties.getResponseTimeoutMillis(), redirection);
+    integrationExecutor.supply(() -> {
+      SellPojo sellPojo = service.confirmTransaction(token, false);
+      if (this.mailingService != null) {
+        mailingService.notifyOrderStatusToClient(sellPojo);
+      }
+      return redirection;
+    }).whenComplete((response, error) -> {
+      if (error != null) {
+        deferredResult.setErrorResult(error);
+      } else {
+        deferredResult.setResult(response);
+      }
+    });
+    return deferredResult;
   }
 
   /**
@@ -161,4 +184,10 @@ public class PublicCheckoutController {
   public String handleException(PaymentServiceException ex) {
     return ex.getMessage();
   }
+
+  @ResponseStatus(SERVICE_UNAVAILABLE)
+  @ExceptionHandler(TaskRejectedException.class)
+  public String handleException(TaskRejectedException ex) {
+    return "The server is too busy to confirm the transaction right now, please try again";
+  }
 }
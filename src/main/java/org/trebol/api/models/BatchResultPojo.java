@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A report of the outcome of a batch of items submitted at once, with one result per item, in the same order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude
+public class BatchResultPojo {
+  private int createdCount = 0;
+  private int failedCount = 0;
+  private List<BatchItemResultPojo> items = new ArrayList<>();
+
+  public void addCreated(int index) {
+    this.items.add(BatchItemResultPojo.builder().index(index).created(true).build());
+    this.createdCount++;
+  }
+
+  public void addFailed(int index, String error) {
+    this.items.add(BatchItemResultPojo.builder().index(index).created(false).error(error).build());
+    this.failedCount++;
+  }
+}
@@ -28,9 +28,12 @@ import lombok.NoArgsConstructor;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
 /**
  * A container object that holds a page of data for a specific type, and information about that page.<br/>
- * By default, it uses an {@link java.util.ArrayList}, but any {@link java.util.Collection} may be used.
+ * By default, it uses an {@link java.util.ArrayList}, but any {@link java.util.Collection} may be used.<br/>
+ * When items are not counted, <b>totalCount</b> is left as zero and <b>hasNext</b> tells whether there are more pages.
  *
  * @param <T> The type of data of this container.
  */
@@ -43,4 +46,15 @@ public class DataPagePojo<T> {
   private int pageIndex = 0;
   private long totalCount = 0;
   private int pageSize = 0;
+  @JsonInclude(NON_NULL)
+  private Boolean hasNext;
+  @JsonInclude(NON_NULL)
+  private String nextCursor;
+
+  public DataPagePojo(Collection<T> items, int pageIndex, long totalCount, int pageSize) {
+    this.items = items;
+    this.pageIndex = pageIndex;
+    this.totalCount = totalCount;
+    this.pageSize = pageSize;
+  }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+/**
+ * A report of the progress of an import, sent after each chunk of rows: the amounts of rows processed so far,
+ * and the errors found in that chunk, each with the index of its row.<br/>
+ * The last report is marked as finished; it carries an error of its own if the input could not be read to its end.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude
+public class ImportProgressPojo {
+  private int processedCount = 0;
+  private int createdCount = 0;
+  private int updatedCount = 0;
+  private int unchangedCount = 0;
+  private int failedCount = 0;
+  private boolean finished = false;
+  @JsonInclude(NON_NULL)
+  private String error;
+  private List<BatchItemResultPojo> errors = new ArrayList<>();
+
+  public void addCreated() {
+    this.createdCount++;
+    this.processedCount++;
+  }
+
+  public void addUpdated() {
+    this.updatedCount++;
+    this.processedCount++;
+  }
+
+  public void addUnchanged() {
+    this.unchangedCount++;
+    this.processedCount++;
+  }
+
+  public void addFailed(int index, String error) {
+    this.errors.add(BatchItemResultPojo.builder().index(index).created(false).error(error).build());
+    this.failedCount++;
+    this.processedCount++;
+  }
+}
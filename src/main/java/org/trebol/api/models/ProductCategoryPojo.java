@@ -28,7 +28,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import javax.validation.constraints.NotBlank;
+import java.util.List;
 
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
 
 // TODO introduce a POJO for POST requests - where all fields are required - and a second POJO for PATCH requests - where not all fields may be included (perhaps implemented using Java Optionals)
@@ -46,4 +48,6 @@ public class ProductCategoryPojo {
   private String name;
   @JsonInclude(NON_NULL)
   private ProductCategoryPojo parent;
+  @JsonInclude(NON_EMPTY)
+  private List<ProductCategoryPojo> children;
 }
@@ -22,17 +22,20 @@ package org.trebol.api.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.util.Collection;
 
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+import static com.fasterxml.jackson.annotation.JsonProperty.Access.WRITE_ONLY;
 
 // TODO introduce a POJO for POST requests - where all fields are required - and a second POJO for PATCH requests - where not all fields may be included (perhaps implemented using Java Optionals)
 @Data
@@ -51,9 +54,12 @@ public class ProductPojo {
   private String description;
   @NotNull
   private Integer price;
-  @JsonIgnore
-  @Builder.Default
-  private Integer currentStock = 0;
+  /**
+   * Units in stock. When omitted from changes, the stock is left as it is.
+   */
+  @Min(0)
+  @JsonProperty(access = WRITE_ONLY)
+  private Integer currentStock;
   @JsonIgnore
   @Builder.Default
   private Integer criticalStock = 0;
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api.services;
+
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A successful response, as it was written for the first request that asked for it.<br/>
+ * Its body is kept compressed with gzip, so that it can be written as is to most clients.
+ */
+public final class CachedResponse {
+  @Nullable
+  private final String contentType;
+  @Nullable
+  private final String eTag;
+  private final byte[] gzippedBody;
+
+  private CachedResponse(@Nullable String contentType, @Nullable String eTag, byte[] gzippedBody) {
+    this.contentType = contentType;
+    this.eTag = eTag;
+    this.gzippedBody = gzippedBody;
+  }
+
+  /**
+   * @param contentType The value of the Content-Type header of the response
+   * @param eTag        The value of the ETag header of the response
+   * @param body        The uncompressed body of the response
+   * @return A new cached response, with its body compressed
+   */
+  public static CachedResponse of(@Nullable String contentType, @Nullable String eTag, byte[] body) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(body);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return new CachedResponse(contentType, eTag, compressed.toByteArray());
+  }
+
+  @Nullable
+  public String getContentType() {
+    return contentType;
+  }
+
+  @Nullable
+  public String getETag() {
+    return eTag;
+  }
+
+  /**
+   * @return The compressed body, which must not be modified
+   */
+  public byte[] getGzippedBody() {
+    return gzippedBody;
+  }
+
+  /**
+   * @return The body decompressed again, for clients that do not accept gzip
+   */
+  public byte[] getBody() {
+    try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzippedBody))) {
+      return gzip.readAllBytes();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * @return An estimate of the memory taken by this response, in bytes
+   */
+  public long getSize() {
+    return gzippedBody.length
+      + (contentType == null ? 0 : contentType.length() * 2L)
+      + (eTag == null ? 0 : eTag.length() * 2L);
+  }
+}
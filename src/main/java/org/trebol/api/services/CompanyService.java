@@ -22,6 +22,8 @@ package org.trebol.api.services;
 
 import org.trebol.api.models.CompanyDetailsPojo;
 
+import java.util.Optional;
+
 /**
  * Service that informs about the business itself. As this data is constant, it should be provided faster than anything else.
  */
@@ -31,4 +33,10 @@ public interface CompanyService {
    * @return An object containing all general and relevant information about the business.
    */
   CompanyDetailsPojo readDetails();
+
+  /**
+   * Computes an opaque tag that changes whenever the information returned by {@link #readDetails()} does.
+   * @return The current version tag of the business details, or nothing if changes to them cannot be tracked.
+   */
+  Optional<String> readDetailsVersionTag();
 }
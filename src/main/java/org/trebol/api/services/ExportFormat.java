@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api.services;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formats in which data can be exported and imported, one item per line.
+ */
+public enum ExportFormat {
+  /**
+   * Newline-delimited JSON, one object per item
+   */
+  NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+  /**
+   * Comma-separated values, with a header line naming the properties of items
+   */
+  CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8"));
+
+  private final String paramValue;
+  private final MediaType mediaType;
+
+  ExportFormat(String paramValue, MediaType mediaType) {
+    this.paramValue = paramValue;
+    this.mediaType = mediaType;
+  }
+
+  public String getParamValue() {
+    return paramValue;
+  }
+
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+}
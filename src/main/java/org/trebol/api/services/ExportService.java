@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api.services;
+
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.trebol.common.exceptions.BadInputException;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Writes collections of data of any size to HTTP responses, as they are read.
+ */
+public interface ExportService {
+
+  /**
+   * Dictates the format in which data should be exported.
+   *
+   * @param requestParams Input request params stored as key-value String pairs.
+   * @return The requested format, or {@link ExportFormat#NDJSON} if none was specified.
+   * @throws BadInputException If the requested format is not one of 'ndjson' or 'csv'.
+   */
+  ExportFormat determineRequestedFormat(Map<String, String> requestParams) throws BadInputException;
+
+  /**
+   * Prepares a response body that writes each item as soon as it is read, so that no more than one of them
+   * needs to be held in memory at once.
+   *
+   * @param format    The format to write items in
+   * @param itemClass The class of the items
+   * @param fields    Names of the only properties to write, or null to write all of them
+   * @param reader    Reads all items, passing each one of them to the given action
+   * @param <M>       The class of the items
+   * @return A body that reads and writes the items when the response is sent
+   */
+  <M> StreamingResponseBody export(ExportFormat format, Class<M> itemClass, @Nullable Set<String> fields, Consumer<Consumer<M>> reader);
+}
@@ -20,7 +20,13 @@
 
 package org.trebol.api.services;
 
+import org.springframework.lang.Nullable;
+import org.trebol.common.exceptions.BadInputException;
+import org.trebol.jpa.services.CountMode;
+
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Reads and parses information stored in {@link java.util.Map}s as parameters for pagination of data.
@@ -44,4 +50,33 @@ public interface PaginationService {
    * @throws NumberFormatException If the requested page size is not a number.
    */
   int determineRequestedPageSize(Map<String, String> requestParams) throws NumberFormatException;
+
+  /**
+   * Dictates how the total amount of items should be computed for the page to be fetched.
+   *
+   * @param requestParams Input request params stored as key-value String pairs.
+   * @return The requested count mode, or {@link org.trebol.jpa.services.CountMode#EXACT} if none was specified.
+   * @throws BadInputException If the requested count mode is not one of 'false', 'exact' or 'estimate'.
+   */
+  CountMode determineRequestedCountMode(Map<String, String> requestParams) throws BadInputException;
+
+  /**
+   * Dictates which properties of the items should be included in the page to be fetched.
+   *
+   * @param requestParams Input request params stored as key-value String pairs.
+   * @return The names of the requested properties, or null if all of them should be included.
+   */
+  @Nullable
+  Set<String> determineRequestedFields(Map<String, String> requestParams);
+
+  /**
+   * Dictates which items should be fetched by a key, such as <b>ids=1,2,3</b>, regardless of pagination.
+   *
+   * @param requestParams Input request params stored as key-value String pairs.
+   * @param paramName     The name of the param that lists the keys, separated by commas.
+   * @return The distinct requested keys, in the order in which they were requested.
+   * @throws BadInputException If more keys than the maximum allowed page size were requested, or if <b>ids</b> lists
+   *                           anything other than identifiers.
+   */
+  List<String> determineRequestedKeys(Map<String, String> requestParams, String paramName) throws BadInputException;
 }
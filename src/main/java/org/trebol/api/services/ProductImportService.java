@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api.services;
+
+import org.trebol.api.models.ImportProgressPojo;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * Creates and updates products from collections of any size, as they are read.
+ */
+public interface ProductImportService {
+
+  /**
+   * Reads products in the same representation as they are exported, saving them in chunks of rows as soon as each
+   * chunk is read, so that no more than one chunk needs to be held in memory at once.<br/>
+   * Products are matched by barcode: those already registered are updated, and the rest are created.
+   * Rows that cannot be saved are reported, and do not prevent the others from being saved.
+   *
+   * @param format           The format of the input
+   * @param input            The rows to import
+   * @param progressListener Receives a report after each chunk, and a last one when the import is finished
+   * @return The same last report
+   * @throws IOException If the input cannot be read
+   */
+  ImportProgressPojo importProducts(ExportFormat format, Reader input, Consumer<ImportProgressPojo> progressListener)
+    throws IOException;
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api.services;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Keeps the responses to frequent anonymous reads, so that the same request is not read from the database and
+ * serialized again until the data it was built from changes.
+ */
+public interface ResponseCacheService {
+  /**
+   * @return Whether responses are cached at all
+   */
+  boolean isEnabled();
+
+  /**
+   * Reads the version of the cache, which increases with every invalidation. It must be read before building
+   * a response, and passed along with it when storing it.
+   *
+   * @return The current version
+   */
+  long getCurrentVersion();
+
+  /**
+   * @param key A key, as built from a normalized request
+   * @return The response stored under the key, if there is any that has not expired
+   */
+  Optional<CachedResponse> get(String key);
+
+  /**
+   * Stores a response, unless any of the data that it was built from has changed since it started being built,
+   * or it is too large. Least recently used responses are discarded to make room for it when needed.
+   *
+   * @param key      A key, as built from a normalized request
+   * @param sources  The kinds of data that the response was built from
+   * @param response The response
+   * @param version  The version of the cache before the response started being built
+   */
+  void put(String key, Set<ResponseCacheSource> sources, CachedResponse response, long version);
+
+  /**
+   * Discards all responses built from some kind of data.<br/>
+   * Within a transaction, they are discarded once it commits.
+   *
+   * @param source The kind of data that changed
+   */
+  void invalidate(ResponseCacheSource source);
+
+  /**
+   * @return How many requests were answered with a stored response
+   */
+  long getHitCount();
+
+  /**
+   * @return How many requests found no stored response
+   */
+  long getMissCount();
+
+  /**
+   * @return The fraction of requests that were answered with a stored response, or zero if there were none
+   */
+  double getHitRatio();
+
+  /**
+   * @return An estimate of the memory taken by all stored responses, in bytes
+   */
+  long getSizeInBytes();
+}
@@ -22,12 +22,16 @@ package org.trebol.api.services.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.trebol.api.models.CompanyDetailsPojo;
 import org.trebol.api.services.CompanyService;
 import org.trebol.jpa.entities.Param;
 import org.trebol.jpa.repositories.ParamsRepository;
 
+import java.util.Optional;
+
 @Service
+@Transactional(readOnly = true)
 public class CompanyServiceImpl
   implements CompanyService {
   private final ParamsRepository paramsRepository;
@@ -64,4 +68,9 @@ public class CompanyServiceImpl
     }
     return target;
   }
+
+  @Override
+  public Optional<String> readDetailsVersionTag() {
+    return paramsRepository.findVersionTag();
+  }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api.services.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.trebol.api.services.ExportFormat;
+import org.trebol.api.services.ExportService;
+import org.trebol.common.exceptions.BadInputException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Service that writes items as NDJSON or CSV lines, using the same JSON representation as the rest of the API.<br/>
+ * In CSV, nested objects and arrays are written as JSON text within their column.
+ */
+@Service
+public class ExportServiceImpl
+  implements ExportService {
+  private static final String FORMAT_PARAM = "format";
+  private static final String CSV_SEPARATOR = ",";
+  private static final String CSV_LINE_END = "\r\n";
+  private static final String NDJSON_LINE_END = "\n";
+  private final ObjectMapper objectMapper;
+
+  @Autowired
+  public ExportServiceImpl(
+    ObjectMapper objectMapper
+  ) {
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public ExportFormat determineRequestedFormat(Map<String, String> requestParams)
+    throws BadInputException {
+    if (requestParams == null || !requestParams.containsKey(FORMAT_PARAM)) {
+      return ExportFormat.NDJSON;
+    }
+    String requestedFormat = requestParams.get(FORMAT_PARAM);
+    for (ExportFormat format : ExportFormat.values()) {
+      if (format.getParamValue().equals(requestedFormat)) {
+        return format;
+      }
+    }
+    throw new BadInputException("format query param must be one of 'ndjson' or 'csv'");
+  }
+
+  @Override
+  public <M> StreamingResponseBody export(ExportFormat format, Class<M> itemClass, @Nullable Set<String> fields, Consumer<Consumer<M>> reader) {
+    return outputStream -> {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+      List<String> columns = List.of();
+      if (format == ExportFormat.CSV) {
+        columns = this.findColumns(itemClass, fields);
+        writer.write(toCsvLine(columns));
+      }
+      List<String> itemColumns = columns;
+      try {
+        reader.accept(item -> {
+          try {
+            writer.write(this.formatLine(format, item, itemColumns, fields));
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+      } catch (UncheckedIOException ex) {
+        throw ex.getCause();
+      }
+      writer.flush();
+    };
+  }
+
+  private String formatLine(ExportFormat format, Object item, List<String> columns, @Nullable Set<String> fields)
+    throws IOException {
+    JsonNode tree = objectMapper.valueToTree(item);
+    if (format == ExportFormat.CSV) {
+      List<String> values = columns.stream()
+        .map(column -> toCsvValue(tree.get(column)))
+        .collect(Collectors.toList());
+      return toCsvLine(values);
+    }
+    if (fields != null && tree instanceof ObjectNode) {
+      ((ObjectNode) tree).retain(fields);
+    }
+    return objectMapper.writeValueAsString(tree) + NDJSON_LINE_END;
+  }
+
+  /**
+   * Lists the names of the properties that the JSON representation of the items may have, in their usual order.
+   */
+  private List<String> findColumns(Class<?> itemClass, @Nullable Set<String> fields)
+    throws IOException {
+    List<String> columns = new ArrayList<>();
+    objectMapper.getSerializerProviderInstance()
+      .findValueSerializer(itemClass)
+      .properties()
+      .forEachRemaining(property -> {
+        if (fields == null || fields.contains(property.getName())) {
+          columns.add(property.getName());
+        }
+      });
+    return columns;
+  }
+
+  private static String toCsvValue(@Nullable JsonNode value) {
+    if (value == null || value.isNull()) {
+      return "";
+    }
+    return (value.isValueNode() ?
+      value.asText() :
+      value.toString());
+  }
+
+  private static String toCsvLine(List<String> values) {
+    return values.stream()
+      .map(value -> (StringUtils.containsAny(value, ",\"\r\n") ?
+        '"' + value.replace("\"", "\"\"") + '"' :
+        value))
+      .collect(Collectors.joining(CSV_SEPARATOR, "", CSV_LINE_END));
+  }
+}
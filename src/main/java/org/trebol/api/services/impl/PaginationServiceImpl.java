@@ -20,12 +20,24 @@
 
 package org.trebol.api.services.impl;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.trebol.api.services.PaginationService;
+import org.trebol.common.exceptions.BadInputException;
 import org.trebol.config.ApiProperties;
+import org.trebol.jpa.services.CountMode;
+import org.trebol.jpa.services.PredicateService;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Service that reads pagination params from String-to-String <i>Map</i>s that represent HTTP query params.
@@ -33,6 +45,7 @@ import java.util.Map;
 @Service
 public class PaginationServiceImpl
   implements PaginationService {
+  private static final String IDS_PARAM = "ids";
   protected final ApiProperties apiProperties;
 
   @Autowired
@@ -63,4 +76,63 @@ public class PaginationServiceImpl
       pageSize :
       maxAllowedPageSize;
   }
+
+  @Override
+  public CountMode determineRequestedCountMode(Map<String, String> requestParams)
+    throws BadInputException {
+    if (requestParams == null || !requestParams.containsKey("withCount")) {
+      return CountMode.EXACT;
+    }
+    switch (requestParams.get("withCount")) {
+      case "false":
+        return CountMode.NONE;
+      case "exact":
+        return CountMode.EXACT;
+      case "estimate":
+        return CountMode.ESTIMATE;
+      default:
+        throw new BadInputException("withCount query param must be one of 'false', 'exact' or 'estimate'");
+    }
+  }
+
+  @Nullable
+  @Override
+  public Set<String> determineRequestedFields(Map<String, String> requestParams) {
+    if (requestParams == null || StringUtils.isBlank(requestParams.get("fields"))) {
+      return null;
+    }
+    return Arrays.stream(requestParams.get("fields").split(","))
+      .map(String::trim)
+      .filter(field -> !field.isEmpty())
+      .collect(Collectors.toSet());
+  }
+
+  /**
+   * Identifiers are validated here, rather than when filtering by them, so that a malformed one is not silently
+   * left out of the filters; they are also normalized (e.g. <b>01</b> becomes <b>1</b>) to match the items read.
+   */
+  @Override
+  public List<String> determineRequestedKeys(Map<String, String> requestParams, String paramName)
+    throws BadInputException {
+    List<String> keys = PredicateService.splitValues(requestParams.get(paramName));
+    Integer maxAllowedPageSize = apiProperties.getMaxAllowedPageSize();
+    if (keys.size() > maxAllowedPageSize) {
+      throw new BadInputException(paramName + " query param cannot list more than " + maxAllowedPageSize + " items");
+    }
+    if (IDS_PARAM.equals(paramName)) {
+      return this.normalizeIds(keys, paramName);
+    }
+    return keys;
+  }
+
+  private List<String> normalizeIds(List<String> keys, String paramName) throws BadInputException {
+    Set<String> ids = new LinkedHashSet<>();
+    for (String key : keys) {
+      if (!NumberUtils.isDigits(key) || NumberUtils.toLong(key, -1L) < 0) {
+        throw new BadInputException(paramName + " query param can only list identifiers, but '" + key + "' is not one");
+      }
+      ids.add(Long.toString(Long.parseLong(key)));
+    }
+    return new ArrayList<>(ids);
+  }
 }
@@ -0,0 +1,575 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.trebol.api.models.BatchItemResultPojo;
+import org.trebol.api.models.ImagePojo;
+import org.trebol.api.models.ImportProgressPojo;
+import org.trebol.api.models.ProductPojo;
+import org.trebol.api.services.ExportFormat;
+import org.trebol.api.services.ProductImportService;
+import org.trebol.api.services.ResponseCacheService;
+import org.trebol.api.services.ResponseCacheSource;
+import org.trebol.common.exceptions.BadInputException;
+import org.trebol.config.ApiProperties;
+import org.trebol.jpa.entities.Image;
+import org.trebol.jpa.entities.Product;
+import org.trebol.jpa.entities.ProductCategory;
+import org.trebol.jpa.entities.ProductImage;
+import org.trebol.jpa.entities.QImage;
+import org.trebol.jpa.entities.QProduct;
+import org.trebol.jpa.entities.QProductImage;
+import org.trebol.jpa.projections.ProductsProjection;
+import org.trebol.jpa.repositories.ImagesRepository;
+import org.trebol.jpa.repositories.ProductImagesRepository;
+import org.trebol.jpa.repositories.ProductsCategoriesRepository;
+import org.trebol.jpa.repositories.ProductsRepository;
+import org.trebol.jpa.services.ChangeSet;
+import org.trebol.jpa.services.ProductCategoryTree;
+import org.trebol.jpa.services.ProductCategoryTreeResolverService;
+import org.trebol.jpa.services.ProductSearchIndexService;
+import org.trebol.jpa.services.conversion.ProductsConverterService;
+import org.trebol.jpa.services.crud.CrudGenericService;
+import org.trebol.jpa.services.patch.ProductsPatchService;
+
+import javax.persistence.PersistenceException;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Reads NDJSON and CSV input in the same representation as {@link ExportServiceImpl} writes it, so that exported
+ * products can be imported back; in CSV, nested objects and arrays are read as JSON text within their column.<br/>
+ * Categories are resolved from the in-memory snapshot of their tree, taken once per import. Each chunk of rows is
+ * saved in its own transaction, fetching the products, names and images it refers to with one query each and
+ * inserting new products in JDBC batches; should the chunk fail, its rows are saved one by one instead, so that
+ * only those at fault are reported.
+ */
+@Service
+public class ProductImportServiceImpl
+  implements ProductImportService {
+  private static final int MAX_LINE_LENGTH = 1024 * 1024;
+  private static final int BYTE_ORDER_MARK = '\uFEFF';
+  private final ProductsRepository productsRepository;
+  private final ProductImagesRepository productImagesRepository;
+  private final ImagesRepository imagesRepository;
+  private final ProductsCategoriesRepository categoriesRepository;
+  private final ProductsConverterService productsConverterService;
+  private final ProductsPatchService productsPatchService;
+  private final ProductCategoryTreeResolverService categoryTreeResolverService;
+  private final ProductSearchIndexService searchIndexService;
+  private final ResponseCacheService responseCacheService;
+  private final Validator validator;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+
+  @Autowired
+  public ProductImportServiceImpl(
+    ProductsRepository productsRepository,
+    ProductImagesRepository productImagesRepository,
+    ImagesRepository imagesRepository,
+    ProductsCategoriesRepository categoriesRepository,
+    ProductsConverterService productsConverterService,
+    ProductsPatchService productsPatchService,
+    ProductCategoryTreeResolverService categoryTreeResolverService,
+    ProductSearchIndexService searchIndexService,
+    ResponseCacheService responseCacheService,
+    Validator validator,
+    ObjectMapper objectMapper,
+    PlatformTransactionManager transactionManager,
+    ApiProperties apiProperties
+  ) {
+    this.productsRepository = productsRepository;
+    this.productImagesRepository = productImagesRepository;
+    this.imagesRepository = imagesRepository;
+    this.categoriesRepository = categoriesRepository;
+    this.productsConverterService = productsConverterService;
+    this.productsPatchService = productsPatchService;
+    this.categoryTreeResolverService = categoryTreeResolverService;
+    this.searchIndexService = searchIndexService;
+    this.responseCacheService = responseCacheService;
+    this.validator = validator;
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chunkSize = apiProperties.getProductImportChunkSize();
+  }
+
+  @Override
+  public ImportProgressPojo importProducts(ExportFormat format, Reader input, Consumer<ImportProgressPojo> progressListener)
+    throws IOException {
+    BufferedReader reader = new BufferedReader(input);
+    this.skipByteOrderMark(reader);
+    ProductCategoryTree categories = categoryTreeResolverService.getTree();
+    ImportProgressPojo totals = new ImportProgressPojo();
+    List<ImportRow> chunk = new ArrayList<>();
+    try {
+      RowReader rows = (format == ExportFormat.CSV) ?
+        this.csvRowReader(reader) :
+        this.ndjsonRowReader(reader);
+      for (ImportRow row = rows.next(chunk.size() + totals.getProcessedCount()); row != null;
+           row = rows.next(chunk.size() + totals.getProcessedCount())) {
+        chunk.add(row);
+        if (chunk.size() == chunkSize) {
+          progressListener.accept(this.importChunk(chunk, categories, totals));
+          chunk.clear();
+        }
+      }
+    } catch (BadInputException ex) {
+      totals.setError(ex.getMessage());
+    }
+    if (!chunk.isEmpty()) {
+      progressListener.accept(this.importChunk(chunk, categories, totals));
+    }
+    totals.setFinished(true);
+    progressListener.accept(totals);
+    return totals;
+  }
+
+  /**
+   * Saves a chunk of rows and adds up its outcome to the totals.
+   *
+   * @return A report with the updated totals and the errors of this chunk
+   */
+  private ImportProgressPojo importChunk(List<ImportRow> chunk, ProductCategoryTree categories, ImportProgressPojo totals) {
+    ImportProgressPojo outcome;
+    try {
+      outcome = transactionTemplate.execute(status -> this.upsert(chunk, categories));
+    } catch (DataAccessException | TransactionException | PersistenceException | ValidationException ex) {
+      outcome = new ImportProgressPojo();
+      for (ImportRow row : chunk) {
+        try {
+          ImportProgressPojo rowOutcome = transactionTemplate.execute(status -> this.upsert(List.of(row), categories));
+          this.addUp(outcome, Objects.requireNonNull(rowOutcome));
+          outcome.getErrors().addAll(rowOutcome.getErrors());
+        } catch (DataAccessException | TransactionException | PersistenceException | ValidationException rowEx) {
+          outcome.addFailed(row.index, this.describeFailure(rowEx));
+        }
+      }
+    }
+    this.addUp(totals, Objects.requireNonNull(outcome));
+    outcome.getErrors().sort(Comparator.comparingInt(BatchItemResultPojo::getIndex));
+    return new ImportProgressPojo(totals.getProcessedCount(), totals.getCreatedCount(), totals.getUpdatedCount(),
+      totals.getUnchangedCount(), totals.getFailedCount(), false, null, outcome.getErrors());
+  }
+
+  /**
+   * Creates the products whose barcode is not registered yet, and updates the rest along with their category and
+   * images, as their endpoints do. The stock of existing products is only changed by rows that include it.
+   */
+  private ImportProgressPojo upsert(List<ImportRow> rows, ProductCategoryTree categories) {
+    ImportProgressPojo outcome = new ImportProgressPojo();
+    List<ImportRow> validRows = new ArrayList<>();
+    for (ImportRow row : rows) {
+      String error = (row.error != null) ? row.error : this.validate(row.product);
+      if (error != null) {
+        outcome.addFailed(row.index, error);
+      } else {
+        validRows.add(row);
+      }
+    }
+    if (validRows.isEmpty()) {
+      return outcome;
+    }
+
+    Set<String> barcodes = new HashSet<>();
+    Set<String> names = new HashSet<>();
+    Set<String> filenames = new HashSet<>();
+    for (ImportRow row : validRows) {
+      barcodes.add(row.product.getBarcode());
+      names.add(row.product.getName());
+      if (row.product.getImages() != null) {
+        for (ImagePojo image : row.product.getImages()) {
+          filenames.add(image.getFilename());
+        }
+      }
+    }
+    Map<String, Product> productsByBarcode = new HashMap<>();
+    Map<String, String> barcodesByName = new HashMap<>();
+    for (Product product : productsRepository.findAll(QProduct.product.barcode.in(barcodes))) {
+      productsByBarcode.put(product.getBarcode(), product);
+      barcodesByName.put(product.getName(), product.getBarcode());
+      names.remove(product.getName());
+    }
+    if (!names.isEmpty()) {
+      for (Product product : productsRepository.findAll(QProduct.product.name.in(names))) {
+        barcodesByName.put(product.getName(), product.getBarcode());
+      }
+    }
+    Map<String, Image> imagesByFilename = new HashMap<>();
+    if (!filenames.isEmpty()) {
+      imagesRepository.findAll(QImage.image.filename.in(filenames))
+        .forEach(image -> imagesByFilename.put(image.getFilename(), image));
+    }
+    Map<Long, Set<Long>> imageIdsByProductId = new HashMap<>();
+    List<Long> existingIds = productsByBarcode.values().stream()
+      .map(Product::getId)
+      .collect(Collectors.toList());
+    if (!existingIds.isEmpty()) {
+      for (ProductImage productImage : productImagesRepository.deepFindProductImagesByProductIds(existingIds)) {
+        imageIdsByProductId.computeIfAbsent(productImage.getProduct().getId(), id -> new HashSet<>())
+          .add(productImage.getImage().getId());
+      }
+    }
+
+    List<Product> newProducts = new ArrayList<>();
+    List<Long> changedIds = new ArrayList<>();
+    Map<Product, List<Image>> imagesToLink = new IdentityHashMap<>();
+    for (ImportRow row : validRows) {
+      ProductPojo input = row.product;
+      String barcode = input.getBarcode();
+      String nameOwner = barcodesByName.get(input.getName());
+      if (nameOwner != null && !nameOwner.equals(barcode)) {
+        outcome.addFailed(row.index, "Product name is already used by the product with barcode " + nameOwner);
+        continue;
+      }
+      ProductCategory category = null;
+      if (input.getCategory() != null) {
+        Long categoryId = categories.findId(input.getCategory().getCode());
+        if (categoryId == null) {
+          outcome.addFailed(row.index, "Product category does not exist");
+          continue;
+        }
+        category = categoriesRepository.getById(categoryId);
+      }
+      List<Image> images = new ArrayList<>();
+      String missingImage = null;
+      for (ImagePojo image : (input.getImages() == null ? List.<ImagePojo>of() : input.getImages())) {
+        Image match = imagesByFilename.get(image.getFilename());
+        if (match == null) {
+          missingImage = image.getFilename();
+          break;
+        }
+        images.add(match);
+      }
+      if (missingImage != null) {
+        outcome.addFailed(row.index, "Image does not exist: " + missingImage);
+        continue;
+      }
+
+      Product product = productsByBarcode.get(barcode);
+      if (product != null) {
+        barcodesByName.remove(product.getName(), barcode);
+      }
+      try {
+        product = (product == null) ?
+          this.create(input, category, images, newProducts, imagesToLink, outcome) :
+          this.update(input, product, category, images, imageIdsByProductId, imagesToLink, changedIds, outcome);
+      } catch (BadInputException ex) {
+        outcome.addFailed(row.index, ex.getMessage());
+        continue;
+      }
+      productsByBarcode.put(barcode, product);
+      barcodesByName.put(product.getName(), barcode);
+    }
+
+    productsRepository.saveAll(newProducts);
+    List<Long> relinkedIds = imagesToLink.keySet().stream()
+      .map(Product::getId)
+      .filter(imageIdsByProductId::containsKey)
+      .collect(Collectors.toList());
+    if (!relinkedIds.isEmpty()) {
+      productImagesRepository.deleteWhere(QProductImage.productImage.product.id.in(relinkedIds));
+    }
+    List<ProductImage> productImages = new ArrayList<>();
+    imagesToLink.forEach((product, images) -> images.forEach(image -> productImages.add(ProductImage.builder()
+      .product(product)
+      .image(image)
+      .build())));
+    productImagesRepository.saveAll(productImages);
+
+    newProducts.forEach(product -> changedIds.add(product.getId()));
+    if (!changedIds.isEmpty()) {
+      searchIndexService.index(productsRepository.findAll(ProductsProjection.LIST_VIEW, QProduct.product.id.in(changedIds)));
+      responseCacheService.invalidate(ResponseCacheSource.PRODUCTS);
+    }
+    return outcome;
+  }
+
+  private Product create(ProductPojo input, @Nullable ProductCategory category, List<Image> images,
+                         List<Product> newProducts, Map<Product, List<Image>> imagesToLink, ImportProgressPojo outcome)
+    throws BadInputException {
+    Product product = productsConverterService.convertToNewEntity(input);
+    product.setProductCategory(category);
+    newProducts.add(product);
+    imagesToLink.put(product, images);
+    outcome.addCreated();
+    return product;
+  }
+
+  /**
+   * Also updates products created earlier in the same chunk, whose barcode was repeated.
+   */
+  private Product update(ProductPojo input, Product product, @Nullable ProductCategory category, List<Image> images,
+                         Map<Long, Set<Long>> imageIdsByProductId, Map<Product, List<Image>> imagesToLink,
+                         List<Long> changedIds, ImportProgressPojo outcome)
+    throws BadInputException {
+    ChangeSet changeSet = productsPatchService.patchExistingEntity(input, product);
+    changeSet.setReference("productCategory", category, product::getProductCategory, ProductCategory::getId,
+      product::setProductCategory);
+    Set<Long> imageIds = images.stream()
+      .map(Image::getId)
+      .collect(Collectors.toSet());
+    boolean imagesChanged = (product.getId() == null) ||
+      !imageIds.equals(imageIdsByProductId.getOrDefault(product.getId(), Set.of()));
+    if (imagesChanged) {
+      imagesToLink.put(product, images);
+    }
+    if (changeSet.isEmpty() && !imagesChanged) {
+      outcome.addUnchanged();
+    } else {
+      if (product.getId() != null) {
+        changedIds.add(product.getId());
+      }
+      outcome.addUpdated();
+    }
+    return product;
+  }
+
+  @Nullable
+  private String validate(ProductPojo input) {
+    Set<ConstraintViolation<ProductPojo>> violations = validator.validate(input);
+    return (violations.isEmpty()) ? null : CrudGenericService.describeViolations("product", violations);
+  }
+
+  /**
+   * Describes why a product could not be saved, in the same terms as its validation when the entity was invalid.
+   */
+  private String describeFailure(RuntimeException ex) {
+    Throwable cause = ExceptionUtils.getRootCause(ex);
+    if (cause instanceof ConstraintViolationException) {
+      Set<ConstraintViolation<?>> violations = ((ConstraintViolationException) cause).getConstraintViolations();
+      return CrudGenericService.describeViolations("product", violations);
+    }
+    return "Could not save the product: " + ExceptionUtils.getRootCauseMessage(ex);
+  }
+
+  /**
+   * Adds up the amounts of an outcome, but not its errors, which are only reported once.
+   */
+  private void addUp(ImportProgressPojo totals, ImportProgressPojo outcome) {
+    totals.setProcessedCount(totals.getProcessedCount() + outcome.getProcessedCount());
+    totals.setCreatedCount(totals.getCreatedCount() + outcome.getCreatedCount());
+    totals.setUpdatedCount(totals.getUpdatedCount() + outcome.getUpdatedCount());
+    totals.setUnchangedCount(totals.getUnchangedCount() + outcome.getUnchangedCount());
+    totals.setFailedCount(totals.getFailedCount() + outcome.getFailedCount());
+  }
+
+  private RowReader ndjsonRowReader(BufferedReader reader) {
+    return index -> {
+      String line;
+      do {
+        line = this.readLine(reader);
+        if (line == null) {
+          return null;
+        }
+      } while (line.isBlank());
+      try {
+        return new ImportRow(index, objectMapper.readValue(line, ProductPojo.class), null);
+      } catch (JsonProcessingException ex) {
+        return new ImportRow(index, null, "Invalid product: " + ex.getOriginalMessage());
+      }
+    };
+  }
+
+  /**
+   * Reads the header first, to know the properties that each column is for.
+   */
+  private RowReader csvRowReader(BufferedReader reader)
+    throws IOException, BadInputException {
+    List<String> header = this.readCsvRecord(reader);
+    List<String> columns = (header == null) ?
+      List.of() :
+      header.stream().map(String::trim).collect(Collectors.toList());
+    Set<String> structuredColumns = this.findStructuredProperties(ProductPojo.class);
+    return index -> {
+      List<String> values;
+      do {
+        values = this.readCsvRecord(reader);
+        if (values == null) {
+          return null;
+        }
+      } while (values.stream().allMatch(String::isEmpty));
+      ObjectNode tree = objectMapper.createObjectNode();
+      try {
+        for (int i = 0; i < Math.min(columns.size(), values.size()); i++) {
+          String column = columns.get(i);
+          String value = values.get(i);
+          if (!value.isEmpty()) {
+            tree.set(column, structuredColumns.contains(column) ? objectMapper.readTree(value) : TextNode.valueOf(value));
+          }
+        }
+        return new ImportRow(index, objectMapper.treeToValue(tree, ProductPojo.class), null);
+      } catch (JsonProcessingException ex) {
+        return new ImportRow(index, null, "Invalid product: " + ex.getOriginalMessage());
+      }
+    };
+  }
+
+  /**
+   * Lists the names of the properties whose values are objects or arrays, and thus written as JSON text in CSV.
+   */
+  private Set<String> findStructuredProperties(Class<?> itemClass) {
+    JavaType type = objectMapper.constructType(itemClass);
+    Set<String> properties = new HashSet<>();
+    for (BeanPropertyDefinition property : objectMapper.getDeserializationConfig().introspect(type).findProperties()) {
+      Class<?> propertyClass = property.getRawPrimaryType();
+      if (!ClassUtils.isPrimitiveOrWrapper(propertyClass) && !CharSequence.class.isAssignableFrom(propertyClass)) {
+        properties.add(property.getName());
+      }
+    }
+    return properties;
+  }
+
+  /**
+   * Reads a line of up to {@link #MAX_LINE_LENGTH} characters.
+   *
+   * @return The line without its ending, or null at the end of the input
+   */
+  @Nullable
+  private String readLine(BufferedReader reader)
+    throws IOException, BadInputException {
+    StringBuilder line = new StringBuilder();
+    int c = reader.read();
+    if (c == -1) {
+      return null;
+    }
+    while (c != -1 && c != '\n') {
+      if (c != '\r') {
+        this.append(line, c);
+      }
+      c = reader.read();
+    }
+    return line.toString();
+  }
+
+  /**
+   * Reads a CSV record of up to {@link #MAX_LINE_LENGTH} characters. Quoted values may contain separators,
+   * line breaks and doubled quotes.
+   *
+   * @return The values of the record, or null at the end of the input
+   */
+  @Nullable
+  private List<String> readCsvRecord(BufferedReader reader)
+    throws IOException, BadInputException {
+    int c = reader.read();
+    if (c == -1) {
+      return null;
+    }
+    List<String> values = new ArrayList<>();
+    StringBuilder value = new StringBuilder();
+    int length = 0;
+    boolean quoted = false;
+    while (c != -1 && (quoted || c != '\n')) {
+      if (++length > MAX_LINE_LENGTH) {
+        throw new BadInputException("Rows cannot be longer than " + MAX_LINE_LENGTH + " characters");
+      }
+      if (quoted && c == '"') {
+        c = reader.read();
+        if (c != '"') {
+          quoted = false;
+          continue;
+        }
+        value.append('"');
+      } else if (quoted) {
+        value.append((char) c);
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        values.add(value.toString());
+        value.setLength(0);
+      } else if (c != '\r') {
+        value.append((char) c);
+      }
+      c = reader.read();
+    }
+    values.add(value.toString());
+    return values;
+  }
+
+  private void append(StringBuilder line, int c)
+    throws BadInputException {
+    if (line.length() == MAX_LINE_LENGTH) {
+      throw new BadInputException("Rows cannot be longer than " + MAX_LINE_LENGTH + " characters");
+    }
+    line.append((char) c);
+  }
+
+  private void skipByteOrderMark(BufferedReader reader)
+    throws IOException {
+    reader.mark(1);
+    if (reader.read() != BYTE_ORDER_MARK) {
+      reader.reset();
+    }
+  }
+
+  @FunctionalInterface
+  private interface RowReader {
+    /**
+     * @param index The index that the next row will have
+     * @return The next row, or null at the end of the input
+     */
+    @Nullable
+    ImportRow next(int index) throws IOException, BadInputException;
+  }
+
+  private static final class ImportRow {
+    private final int index;
+    @Nullable private final ProductPojo product;
+    @Nullable private final String error;
+
+    private ImportRow(int index, @Nullable ProductPojo product, @Nullable String error) {
+      this.index = index;
+      this.product = product;
+      this.error = error;
+    }
+  }
+}
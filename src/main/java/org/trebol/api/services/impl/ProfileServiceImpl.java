@@ -32,6 +32,7 @@ import org.trebol.jpa.exceptions.PersonNotFoundException;
 import org.trebol.jpa.exceptions.UserNotFoundException;
 import org.trebol.jpa.repositories.PeopleRepository;
 import org.trebol.jpa.repositories.UsersRepository;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.conversion.PeopleConverterService;
 import org.trebol.jpa.services.crud.PeopleCrudService;
 import org.trebol.jpa.services.patch.PeoplePatchService;
@@ -62,6 +63,7 @@ public class ProfileServiceImpl
     this.peopleRepository = peopleRepository;
   }
 
+  @Transactional(readOnly = true)
   @Override
   public PersonPojo getProfileFromUserName(String userName)
     throws UserNotFoundException, PersonNotFoundException {
@@ -101,8 +103,10 @@ public class ProfileServiceImpl
         usersRepository.saveAndFlush(targetUser);
       }
     } else {
-      target = peoplePatchService.patchExistingEntity(profile, target);
-      peopleRepository.saveAndFlush(target);
+      ChangeSet changeSet = peoplePatchService.patchExistingEntity(profile, target);
+      if (!changeSet.isEmpty()) {
+        peopleRepository.saveAndFlush(target);
+      }
     }
   }
 
@@ -26,6 +26,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.trebol.api.models.PersonPojo;
 import org.trebol.api.models.RegistrationPojo;
 import org.trebol.api.services.RegistrationService;
@@ -68,6 +69,11 @@ public class RegistrationServiceImpl
     this.peopleConverterService = peopleConverterService;
   }
 
+  /**
+   * Saves the person, their user account and their customer profile in one transaction, so that the person stays
+   * managed while the others are saved, and so that none of them is kept if any of them cannot be saved.
+   */
+  @Transactional
   @Override
   public void register(RegistrationPojo registration)
     throws BadInputException, EntityExistsException {
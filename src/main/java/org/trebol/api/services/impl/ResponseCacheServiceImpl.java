@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api.services.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.trebol.api.services.CachedResponse;
+import org.trebol.api.services.ResponseCacheService;
+import org.trebol.api.services.ResponseCacheSource;
+import org.trebol.config.ApiProperties;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps responses in memory, in least-recently-used order, up to a configured amount of bytes.
+ * A single response may take up to an eighth of that amount, so that one of them cannot displace all the others.<br/>
+ * Each kind of data remembers the version of the cache when it last changed; responses that started being built
+ * before that are not stored, as they may hold the data as it was before the change.
+ * Responses also expire after a configured time, for changes to other data that they include (e.g. images).<br/>
+ * Invalidation is coarse on purpose: most cached responses are filtered, sorted and paged lists, which a change to any
+ * single item may enter, leave or reorder, so tracking the identifiers each response holds would not be enough to
+ * tell which ones are affected. Writes to the catalog are rare compared to anonymous reads of it.
+ */
+@Service
+public class ResponseCacheServiceImpl
+  implements ResponseCacheService {
+  private static final long ENTRY_OVERHEAD_BYTES = 128;
+  private final long maxBytes;
+  private final long timeToLiveNanos;
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private final Map<ResponseCacheSource, Long> invalidationVersions = new EnumMap<>(ResponseCacheSource.class);
+  private final AtomicLong currentVersion = new AtomicLong();
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private long sizeInBytes = 0;
+
+  @Autowired
+  public ResponseCacheServiceImpl(
+    ApiProperties apiProperties
+  ) {
+    this.maxBytes = apiProperties.getResponseCacheMaxBytes();
+    this.timeToLiveNanos = TimeUnit.SECONDS.toNanos(apiProperties.getResponseCacheTimeToLiveSeconds());
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return (maxBytes > 0);
+  }
+
+  @Override
+  public long getCurrentVersion() {
+    return currentVersion.get();
+  }
+
+  @Override
+  public Optional<CachedResponse> get(String key) {
+    CachedResponse response = null;
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry != null) {
+        if (System.nanoTime() - entry.storedAt < timeToLiveNanos) {
+          response = entry.response;
+        } else {
+          this.remove(key);
+        }
+      }
+    }
+    (response == null ? missCount : hitCount).incrementAndGet();
+    return Optional.ofNullable(response);
+  }
+
+  @Override
+  public synchronized void put(String key, Set<ResponseCacheSource> sources, CachedResponse response, long version) {
+    long size = ENTRY_OVERHEAD_BYTES + key.length() * 2L + response.getSize();
+    if (size > maxBytes / 8) {
+      return;
+    }
+    for (ResponseCacheSource source : sources) {
+      if (invalidationVersions.getOrDefault(source, 0L) > version) {
+        return;
+      }
+    }
+    this.remove(key);
+    entries.put(key, new Entry(response, sources, size, System.nanoTime()));
+    sizeInBytes += size;
+    Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+    while (sizeInBytes > maxBytes && leastRecentlyUsed.hasNext()) {
+      sizeInBytes -= leastRecentlyUsed.next().size;
+      leastRecentlyUsed.remove();
+    }
+  }
+
+  @Override
+  public void invalidate(ResponseCacheSource source) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          invalidateNow(source);
+        }
+      });
+    } else {
+      this.invalidateNow(source);
+    }
+  }
+
+  @Override
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  @Override
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  @Override
+  public double getHitRatio() {
+    long hits = hitCount.get();
+    long total = hits + missCount.get();
+    return (total == 0 ? 0.0 : (double) hits / total);
+  }
+
+  @Override
+  public synchronized long getSizeInBytes() {
+    return sizeInBytes;
+  }
+
+  private synchronized void invalidateNow(ResponseCacheSource source) {
+    invalidationVersions.put(source, currentVersion.incrementAndGet());
+    Iterator<Entry> iterator = entries.values().iterator();
+    while (iterator.hasNext()) {
+      Entry entry = iterator.next();
+      if (entry.sources.contains(source)) {
+        sizeInBytes -= entry.size;
+        iterator.remove();
+      }
+    }
+  }
+
+  private void remove(String key) {
+    Entry removed = entries.remove(key);
+    if (removed != null) {
+      sizeInBytes -= removed.size;
+    }
+  }
+
+  private static class Entry {
+    private final CachedResponse response;
+    private final Set<ResponseCacheSource> sources;
+    private final long size;
+    private final long storedAt;
+
+    private Entry(CachedResponse response, Set<ResponseCacheSource> sources, long size, long storedAt) {
+      this.response = response;
+      this.sources = sources;
+      this.size = size;
+      this.storedAt = storedAt;
+    }
+  }
+}
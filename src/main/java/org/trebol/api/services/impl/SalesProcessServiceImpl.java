@@ -17,9 +17,9 @@
  * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
  * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
  */
-
 package org.trebol.api.services.impl;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.trebol.api.models.ProductPojo;
@@ -27,20 +27,22 @@ import org.trebol.api.models.SellDetailPojo;
 import org.trebol.api.models.SellPojo;
 import org.trebol.api.services.SalesProcessService;
 import org.trebol.common.exceptions.BadInputException;
+import org.trebol.jpa.entities.Product;
 import org.trebol.jpa.entities.Sell;
 import org.trebol.jpa.entities.SellDetail;
 import org.trebol.jpa.entities.SellStatus;
 import org.trebol.jpa.repositories.SalesRepository;
-import org.trebol.jpa.repositories.SellDetailsRepository;
-import org.trebol.jpa.repositories.SellStatusesRepository;
+import org.trebol.jpa.services.SellStatusesRegistryService;
+import org.trebol.jpa.services.StockReservationService;
 import org.trebol.jpa.services.conversion.ProductsConverterService;
 import org.trebol.jpa.services.conversion.SalesConverterService;
-import org.trebol.jpa.services.crud.SalesCrudService;
 
 import javax.persistence.EntityNotFoundException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 import static org.trebol.config.Constants.*;
 
@@ -49,241 +51,155 @@ import static org.trebol.config.Constants.*;
 public class SalesProcessServiceImpl
   implements SalesProcessService {
   private static final String THE_TRANSACTION_IS_NOT_IN_A_VALID_STATE_FOR_THIS_OPERATION = "The transaction is not in a valid state for this api";
-  private static final String NO_STATUS_MATCHES_THE = "No status matches the";
-  private static final String NAME_IS_THE_DATABASE_EMPTY_OR_CORRUPT = "name - Is the database empty or corrupt?";
-  private final SalesCrudService crudService;
+  /**
+   * Status codes that a sell may move into, keyed by the code of the status it currently has.
+   */
+  private static final Map<Integer, Set<Integer>> ALLOWED_TRANSITIONS = Map.of(
+    SELL_STATUS_PENDING_CODE, Set.of(SELL_STATUS_PAYMENT_STARTED_CODE),
+    SELL_STATUS_PAYMENT_STARTED_CODE, Set.of(SELL_STATUS_PAYMENT_CANCELLED_CODE, SELL_STATUS_PAYMENT_FAILED_CODE, SELL_STATUS_PAID_UNCONFIRMED_CODE),
+    SELL_STATUS_PAID_UNCONFIRMED_CODE, Set.of(SELL_STATUS_PAID_CONFIRMED_CODE, SELL_STATUS_REJECTED_CODE),
+    SELL_STATUS_PAID_CONFIRMED_CODE, Set.of(SELL_STATUS_COMPLETED_CODE)
+  );
+  /**
+   * Status codes that a sell cannot be completed from, so that the stock reserved for it is released when moving into them.
+   */
+  private static final Set<Integer> RELEASING_CODES = Set.of(
+    SELL_STATUS_PAYMENT_CANCELLED_CODE,
+    SELL_STATUS_PAYMENT_FAILED_CODE,
+    SELL_STATUS_REJECTED_CODE
+  );
   private final SalesRepository salesRepository;
-  private final SellDetailsRepository sellDetailsRepository;
-  private final SellStatusesRepository sellStatusesRepository;
+  private final SellStatusesRegistryService statusesRegistryService;
   private final SalesConverterService converterService;
   private final ProductsConverterService productConverterService;
+  private final StockReservationService stockReservationService;
 
+  @Autowired
   public SalesProcessServiceImpl(
-    SalesCrudService crudService,
     SalesRepository salesRepository,
-    SellDetailsRepository sellDetailsRepository,
-    SellStatusesRepository sellStatusesRepository,
+    SellStatusesRegistryService statusesRegistryService,
     SalesConverterService converterService,
-    ProductsConverterService productConverterService
+    ProductsConverterService productConverterService,
+    StockReservationService stockReservationService
   ) {
-    this.crudService = crudService;
     this.salesRepository = salesRepository;
-    this.sellDetailsRepository = sellDetailsRepository;
-    this.sellStatusesRepository = sellStatusesRepository;
+    this.statusesRegistryService = statusesRegistryService;
     this.converterService = converterService;
     this.productConverterService = productConverterService;
+    this.stockReservationService = stockReservationService;
   }
 
-  // TODO figure out how to shorten below methods
-  // TODO to compare statuses use numbers, not strings
   @Override
   public SellPojo markAsStarted(SellPojo sell) throws BadInputException, EntityNotFoundException {
-    Sell existingSell = this.fetchExistingOrThrowException(sell);
-
-    if (!existingSell.getStatus().getName().equals(SELL_STATUS_PENDING)) {
-      throw new BadInputException(THE_TRANSACTION_IS_NOT_IN_A_VALID_STATE_FOR_THIS_OPERATION);
-    }
-
-    Optional<SellStatus> startedStatus = sellStatusesRepository.findByName(SELL_STATUS_PAYMENT_STARTED);
-    if (startedStatus.isEmpty()) {
-      throw new IllegalStateException(NO_STATUS_MATCHES_THE + " '" + SELL_STATUS_PAYMENT_STARTED + "' " + NAME_IS_THE_DATABASE_EMPTY_OR_CORRUPT);
-    }
-    salesRepository.setStatus(existingSell.getId(), startedStatus.get());
-    salesRepository.setTransactionToken(existingSell.getId(), sell.getToken());
-
-    SellPojo target = this.convertOrThrowException(existingSell);
-    target.setStatus(SELL_STATUS_PAYMENT_STARTED);
+    SellPojo target = this.transition(sell, SELL_STATUS_PAYMENT_STARTED_CODE, false);
+    salesRepository.setTransactionToken(target.getBuyOrder(), sell.getToken());
+    target.setToken(sell.getToken());
     return target;
   }
 
   @Override
   public SellPojo markAsAborted(SellPojo sell) throws BadInputException, EntityNotFoundException {
-    Sell existingSell = this.fetchExistingOrThrowException(sell);
-
-    if (!existingSell.getStatus().getName().equals(SELL_STATUS_PAYMENT_STARTED)) {
-      throw new BadInputException(THE_TRANSACTION_IS_NOT_IN_A_VALID_STATE_FOR_THIS_OPERATION);
-    }
-
-    Optional<SellStatus> abortedStatus = sellStatusesRepository.findByName(SELL_STATUS_PAYMENT_CANCELLED);
-    if (abortedStatus.isEmpty()) {
-      throw new IllegalStateException(NO_STATUS_MATCHES_THE + " '" + SELL_STATUS_PAYMENT_CANCELLED + "' " + NAME_IS_THE_DATABASE_EMPTY_OR_CORRUPT);
-    }
-    salesRepository.setStatus(existingSell.getId(), abortedStatus.get());
-
-    SellPojo target = this.convertOrThrowException(existingSell);
-    target.setStatus(SELL_STATUS_PAYMENT_CANCELLED);
-    return target;
+    return this.transition(sell, SELL_STATUS_PAYMENT_CANCELLED_CODE, false);
   }
 
   @Override
   public SellPojo markAsFailed(SellPojo sell) throws BadInputException, EntityNotFoundException {
-    Sell existingSell = this.fetchExistingOrThrowException(sell);
-
-    if (!existingSell.getStatus().getName().equals(SELL_STATUS_PAYMENT_STARTED)) {
-      throw new BadInputException(THE_TRANSACTION_IS_NOT_IN_A_VALID_STATE_FOR_THIS_OPERATION);
-    }
-
-    Optional<SellStatus> failedStatus = sellStatusesRepository.findByName(SELL_STATUS_PAYMENT_FAILED);
-    if (failedStatus.isEmpty()) {
-      throw new IllegalStateException(NO_STATUS_MATCHES_THE + " '" + SELL_STATUS_PAYMENT_FAILED + "' " + NAME_IS_THE_DATABASE_EMPTY_OR_CORRUPT);
-    }
-    salesRepository.setStatus(existingSell.getId(), failedStatus.get());
-
-    SellPojo target = this.convertOrThrowException(existingSell);
-    target.setStatus(SELL_STATUS_PAYMENT_FAILED);
-    return target;
+    return this.transition(sell, SELL_STATUS_PAYMENT_FAILED_CODE, false);
   }
 
   @Override
   public SellPojo markAsPaid(SellPojo sell) throws BadInputException, EntityNotFoundException {
-    Sell existingSell = this.fetchExistingOrThrowException(sell);
-
-    if (!existingSell.getStatus().getName().equals(SELL_STATUS_PAYMENT_STARTED)) {
-      throw new BadInputException(THE_TRANSACTION_IS_NOT_IN_A_VALID_STATE_FOR_THIS_OPERATION);
-    }
-
-    Optional<SellStatus> paidStatus = sellStatusesRepository.findByName(SELL_STATUS_PAID_UNCONFIRMED);
-    if (paidStatus.isEmpty()) {
-      throw new IllegalStateException(NO_STATUS_MATCHES_THE + " '" + SELL_STATUS_PAID_UNCONFIRMED + "' " + NAME_IS_THE_DATABASE_EMPTY_OR_CORRUPT);
-    }
-    salesRepository.setStatus(existingSell.getId(), paidStatus.get());
-
-    SellPojo target = this.convertOrThrowException(existingSell);
-
-    List<SellDetailPojo> pojoDetails = new ArrayList<>();
-    for (SellDetail detail : sellDetailsRepository.findBySellId(existingSell.getId())) {
-      ProductPojo productPojo = productConverterService.convertToPojo(detail.getProduct());
-      SellDetailPojo sellDetailPojo = SellDetailPojo.builder()
-        .id(detail.getId())
-        .units(detail.getUnits())
-        .unitValue(detail.getUnitValue())
-        .product(productPojo)
-        .build();
-      pojoDetails.add(sellDetailPojo);
-    }
-    target.setStatus(SELL_STATUS_PAID_UNCONFIRMED);
-    target.setDetails(pojoDetails);
-
-    return target;
+    return this.transition(sell, SELL_STATUS_PAID_UNCONFIRMED_CODE, true);
   }
 
   @Override
-  public SellPojo markAsConfirmed(SellPojo sell)
-    throws BadInputException, EntityNotFoundException {
-    Sell existingSell = this.fetchExistingOrThrowException(sell);
-
-    if (!existingSell.getStatus().getName().equals(SELL_STATUS_PAID_UNCONFIRMED)) {
-      throw new BadInputException(THE_TRANSACTION_IS_NOT_IN_A_VALID_STATE_FOR_THIS_OPERATION);
-    }
-
-    Optional<SellStatus> confirmedStatus = sellStatusesRepository.findByName(SELL_STATUS_PAID_CONFIRMED);
-    if (confirmedStatus.isEmpty()) {
-      throw new IllegalStateException(NO_STATUS_MATCHES_THE + " '" + SELL_STATUS_PAID_CONFIRMED + "' " + NAME_IS_THE_DATABASE_EMPTY_OR_CORRUPT);
-    }
-    salesRepository.setStatus(existingSell.getId(), confirmedStatus.get());
-
-    SellPojo target = this.convertOrThrowException(existingSell);
-
-    List<SellDetailPojo> pojoDetails = new ArrayList<>();
-    for (SellDetail detail : sellDetailsRepository.findBySellId(existingSell.getId())) {
-      ProductPojo productPojo = productConverterService.convertToPojo(detail.getProduct());
-      SellDetailPojo sellDetailPojo = SellDetailPojo.builder()
-        .id(detail.getId())
-        .units(detail.getUnits())
-        .unitValue(detail.getUnitValue())
-        .product(productPojo)
-        .build();
-      pojoDetails.add(sellDetailPojo);
-    }
-    target.setDetails(pojoDetails);
-    target.setStatus(SELL_STATUS_PAID_CONFIRMED);
-
+  public SellPojo markAsConfirmed(SellPojo sell) throws BadInputException, EntityNotFoundException {
+    return this.transition(sell, SELL_STATUS_PAID_CONFIRMED_CODE, true);
+  }
 
-    return target;
+  @Override
+  public SellPojo markAsRejected(SellPojo sell) throws BadInputException, EntityNotFoundException {
+    return this.transition(sell, SELL_STATUS_REJECTED_CODE, true);
   }
 
   @Override
-  public SellPojo markAsRejected(SellPojo sell)
+  public SellPojo markAsCompleted(SellPojo sell) throws BadInputException, EntityNotFoundException {
+    return this.transition(sell, SELL_STATUS_COMPLETED_CODE, true);
+  }
+
+  /**
+   * Moves a sell into the status with the given code, if its current status allows it, and releases its stock when
+   * it can no longer be completed.
+   *
+   * @param sell           The sell to update; only its buy order is used to find it
+   * @param targetCode     The code of the status to move the sell into
+   * @param includeDetails Whether the returned pojo should carry the sell details and their products
+   * @return The sell, converted before its status was changed, with its status set to the new one
+   * @throws BadInputException       When the current status of the sell does not allow moving into the target one,
+   *                                 or when it was changed by someone else meanwhile
+   * @throws EntityNotFoundException When the sell does not exist
+   */
+  private SellPojo transition(SellPojo sell, int targetCode, boolean includeDetails)
     throws BadInputException, EntityNotFoundException {
     Sell existingSell = this.fetchExistingOrThrowException(sell);
 
-    if (!existingSell.getStatus().getName().equals(SELL_STATUS_PAID_UNCONFIRMED)) {
+    SellStatus currentStatus = existingSell.getStatus();
+    int currentCode = currentStatus.getCode();
+    if (!ALLOWED_TRANSITIONS.getOrDefault(currentCode, Set.of()).contains(targetCode)) {
       throw new BadInputException(THE_TRANSACTION_IS_NOT_IN_A_VALID_STATE_FOR_THIS_OPERATION);
     }
+    SellStatus targetStatus = statusesRegistryService.getByCode(targetCode);
 
-    Optional<SellStatus> rejectedStatus = sellStatusesRepository.findByName(SELL_STATUS_REJECTED);
-    if (rejectedStatus.isEmpty()) {
-      throw new IllegalStateException(NO_STATUS_MATCHES_THE + " '" + SELL_STATUS_REJECTED + "' " + NAME_IS_THE_DATABASE_EMPTY_OR_CORRUPT);
-    }
-    salesRepository.setStatus(existingSell.getId(), rejectedStatus.get());
-
+    // the bulk update below clears the persistence context, so everything needed must be converted beforehand
     SellPojo target = this.convertOrThrowException(existingSell);
-
-    List<SellDetailPojo> pojoDetails = new ArrayList<>();
-    for (SellDetail detail : sellDetailsRepository.findBySellId(existingSell.getId())) {
-      ProductPojo productPojo = productConverterService.convertToPojo(detail.getProduct());
-      SellDetailPojo sellDetailPojo = SellDetailPojo.builder()
-        .id(detail.getId())
-        .units(detail.getUnits())
-        .unitValue(detail.getUnitValue())
-        .product(productPojo)
-        .build();
-      pojoDetails.add(sellDetailPojo);
+    if (includeDetails) {
+      target.setDetails(this.convertDetails(existingSell.getDetails()));
     }
-    target.setDetails(pojoDetails);
-    target.setStatus(SELL_STATUS_REJECTED);
-
-    return target;
-  }
-
-  @Override
-  public SellPojo markAsCompleted(SellPojo sell)
-    throws BadInputException, EntityNotFoundException {
-    Sell existingSell = this.fetchExistingOrThrowException(sell);
+    List<SellDetail> details = new ArrayList<>(existingSell.getDetails());
 
-    if (!existingSell.getStatus().getName().equals(SELL_STATUS_PAID_CONFIRMED)) {
+    if (salesRepository.setStatus(existingSell.getId(), currentStatus, targetStatus) == 0) {
       throw new BadInputException(THE_TRANSACTION_IS_NOT_IN_A_VALID_STATE_FOR_THIS_OPERATION);
     }
-
-    Optional<SellStatus> completedStatus = sellStatusesRepository.findByName(SELL_STATUS_COMPLETED);
-    if (completedStatus.isEmpty()) {
-      throw new IllegalStateException(NO_STATUS_MATCHES_THE + " '" + SELL_STATUS_COMPLETED + "' " + NAME_IS_THE_DATABASE_EMPTY_OR_CORRUPT);
-    }
-    salesRepository.setStatus(existingSell.getId(), completedStatus.get());
-
-    SellPojo target = this.convertOrThrowException(existingSell);
-
-    List<SellDetailPojo> pojoDetails = new ArrayList<>();
-    for (SellDetail detail : sellDetailsRepository.findBySellId(existingSell.getId())) {
-      ProductPojo productPojo = productConverterService.convertToPojo(detail.getProduct());
-      SellDetailPojo sellDetailPojo = SellDetailPojo.builder()
-        .id(detail.getId())
-        .units(detail.getUnits())
-        .unitValue(detail.getUnitValue())
-        .product(productPojo)
-        .build();
-      pojoDetails.add(sellDetailPojo);
+    if (RELEASING_CODES.contains(targetCode)) {
+      stockReservationService.release(details);
     }
-    target.setDetails(pojoDetails);
-    target.setStatus(SELL_STATUS_COMPLETED);
-
+    target.setStatus(targetStatus.getName());
     return target;
   }
 
-  private Sell fetchExistingOrThrowException(SellPojo sell) throws BadInputException {
-    Optional<Sell> match = crudService.getExisting(sell);
-    if (match.isEmpty()) {
-      throw new EntityNotFoundException("No transaction matches given input");
+  private Sell fetchExistingOrThrowException(SellPojo sell) {
+    if (sell.getBuyOrder() != null) {
+      return salesRepository.findByIdWithDetails(sell.getBuyOrder())
+        .orElseThrow(() -> new EntityNotFoundException("No transaction matches given input"));
     }
-    return match.get();
+    throw new EntityNotFoundException("No transaction matches given input");
   }
 
   private SellPojo convertOrThrowException(Sell existingSell) {
-    Sell freshInstance = salesRepository.getById(existingSell.getId());
-    SellPojo target = converterService.convertToPojo(freshInstance);
+    SellPojo target = converterService.convertToPojo(existingSell);
     if (target == null) {
       throw new IllegalStateException("Converter could not turn Sell into its Pojo equivalent");
     }
     return target;
   }
+
+  private List<SellDetailPojo> convertDetails(Collection<SellDetail> sourceDetails) {
+    List<SellDetail> details = new ArrayList<>(sourceDetails);
+    List<Product> products = new ArrayList<>();
+    for (SellDetail detail : details) {
+      products.add(detail.getProduct());
+    }
+    List<ProductPojo> productPojos = productConverterService.convertToPojos(products);
+    List<SellDetailPojo> pojoDetails = new ArrayList<>();
+    for (int i = 0; i < details.size(); i++) {
+      SellDetail detail = details.get(i);
+      pojoDetails.add(SellDetailPojo.builder()
+        .id(detail.getId())
+        .units(detail.getUnits())
+        .unitValue(detail.getUnitValue())
+        .product(productPojos.get(i))
+        .build());
+    }
+    return pojoDetails;
+  }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.common.integration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.trebol.config.IntegrationProperties;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of worker threads that run blocking calls to external services (such as payment gateways and
+ * mailing providers), so that request threads do not wait on them.<br/>
+ * When all workers are busy and the queue is full, new tasks are rejected right away instead of piling up.<br/>
+ * It is not exposed as an {@link java.util.concurrent.Executor} bean on purpose, so that it does not replace the
+ * application-wide task executor that Spring Boot would otherwise configure.
+ */
+@Component
+public class IntegrationExecutor
+  implements DisposableBean {
+  private final Logger logger = LoggerFactory.getLogger(IntegrationExecutor.class);
+  private final ThreadPoolTaskExecutor executor;
+  private final AtomicLong completedTaskCount = new AtomicLong();
+  private final AtomicLong rejectedTaskCount = new AtomicLong();
+  private final AtomicLong maxQueueWaitMillis = new AtomicLong();
+
+  @Autowired
+  public IntegrationExecutor(
+    IntegrationProperties properties
+  ) {
+    this.executor = new ThreadPoolTaskExecutor();
+    executor.setThreadNamePrefix("integration-");
+    executor.setCorePoolSize(properties.getCorePoolSize());
+    executor.setMaxPoolSize(Math.max(properties.getCorePoolSize(), properties.getMaxPoolSize()));
+    executor.setQueueCapacity(properties.getQueueCapacity());
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationMillis(properties.getResponseTimeoutMillis());
+    executor.initialize();
+  }
+
+  /**
+   * Schedules a blocking task to run in a worker thread.
+   * @param task The task to run
+   * @param <T> The type of the task result
+   * @return A future that completes with the result of the task, or with the exception it threw. If the task
+   * could not be queued, the future is completed with a {@link TaskRejectedException}.
+   */
+  public <T> CompletableFuture<T> supply(Callable<T> task) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    long enqueuedAt = System.nanoTime();
+    try {
+      executor.execute(() -> {
+        this.recordQueueWait(enqueuedAt);
+        try {
+          future.complete(task.call());
+        } catch (Exception ex) {
+          future.completeExceptionally(ex);
+        } finally {
+          completedTaskCount.incrementAndGet();
+        }
+      });
+    } catch (TaskRejectedException ex) {
+      long rejected = rejectedTaskCount.incrementAndGet();
+      logger.warn("Integration task rejected; {} active workers, {} queued tasks, {} rejected so far",
+        this.getActiveCount(), this.getQueueSize(), rejected);
+      future.completeExceptionally(ex);
+    }
+    return future;
+  }
+
+  public int getActiveCount() {
+    return executor.getActiveCount();
+  }
+
+  public int getPoolSize() {
+    return executor.getPoolSize();
+  }
+
+  public int getQueueSize() {
+    return executor.getThreadPoolExecutor().getQueue().size();
+  }
+
+  public long getCompletedTaskCount() {
+    return completedTaskCount.get();
+  }
+
+  public long getRejectedTaskCount() {
+    return rejectedTaskCount.get();
+  }
+
+  public long getMaxQueueWaitMillis() {
+    return maxQueueWaitMillis.get();
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+
+  private void recordQueueWait(long enqueuedAt) {
+    long waitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - enqueuedAt);
+    maxQueueWaitMillis.accumulateAndGet(waitMillis, Math::max);
+    logger.debug("Integration task started after waiting {}ms; {} active workers, {} queued tasks",
+      waitMillis, this.getActiveCount(), this.getQueueSize());
+  }
+}
@@ -26,6 +26,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
 @Data
 @Component
@@ -39,4 +40,19 @@ public class ApiProperties {
   @Positive
   private int maxCategoryFetchingRecursionDepth;
   private boolean ableToEditSalesAfterBeingProcessed;
+  private String productSearchIndexPath;
+  @Positive
+  private int productSearchMaxResults;
+  @Positive
+  private int productFacetsPriceStep;
+  @Positive
+  private int productFacetsMaxPriceRanges;
+  @PositiveOrZero
+  private long responseCacheMaxBytes;
+  @Positive
+  private int responseCacheTimeToLiveSeconds;
+  @Positive
+  private int stockReservationTimeToLiveMinutes;
+  @Positive
+  private int productImportChunkSize;
 }
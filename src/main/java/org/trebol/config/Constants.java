@@ -37,6 +37,14 @@ public final class Constants {
   public static final String SELL_STATUS_PAID_CONFIRMED = "Paid, Confirmed";
   public static final String SELL_STATUS_REJECTED = "Rejected";
   public static final String SELL_STATUS_COMPLETED = "Delivery Complete";
+  public static final int SELL_STATUS_PENDING_CODE = 1;
+  public static final int SELL_STATUS_PAYMENT_STARTED_CODE = 2;
+  public static final int SELL_STATUS_PAYMENT_CANCELLED_CODE = -1;
+  public static final int SELL_STATUS_PAYMENT_FAILED_CODE = -2;
+  public static final int SELL_STATUS_PAID_UNCONFIRMED_CODE = 3;
+  public static final int SELL_STATUS_PAID_CONFIRMED_CODE = 4;
+  public static final int SELL_STATUS_REJECTED_CODE = -3;
+  public static final int SELL_STATUS_COMPLETED_CODE = 6;
   public static final String BILLING_TYPE_INDIVIDUAL = "Bill";
   public static final String BILLING_TYPE_ENTERPRISE = "Enterprise Invoice";
   public static final String WEBPAY_SUCCESS_TOKEN_HEADER_NAME = "token_ws";
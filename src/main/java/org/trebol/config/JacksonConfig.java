@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.config;
+
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.AnnotationIntrospectorPair;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.trebol.api.models.DataPagePojo;
+
+@Configuration
+public class JacksonConfig {
+  /**
+   * Id of the property filter assigned to every Pojo of the API; it serializes all properties unless a response
+   * provides a different filter under this same id, as {@link org.trebol.api.SparseFieldsControllerAdvice} does.
+   */
+  public static final String SPARSE_FIELDS_FILTER = "sparseFields";
+
+  @Bean
+  public Jackson2ObjectMapperBuilderCustomizer sparseFieldsCustomizer() {
+    return builder -> builder
+      .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()))
+      .postConfigurer(mapper -> mapper.setAnnotationIntrospector(AnnotationIntrospectorPair.pair(
+        mapper.getSerializationConfig().getAnnotationIntrospector(),
+        new PojoFilterIntrospector())));
+  }
+
+  private static class PojoFilterIntrospector
+    extends NopAnnotationIntrospector {
+    private static final long serialVersionUID = 1L;
+    private static final String POJOS_PACKAGE = DataPagePojo.class.getPackageName();
+
+    @Override
+    public Object findFilterId(Annotated a) {
+      if (a instanceof AnnotatedClass && POJOS_PACKAGE.equals(a.getRawType().getPackageName())) {
+        return SPARSE_FIELDS_FILTER;
+      }
+      return null;
+    }
+  }
+}
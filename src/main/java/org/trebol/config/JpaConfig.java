@@ -20,12 +20,52 @@
 
 package org.trebol.config;
 
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.StandardBasicTypes;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.trebol.jpa.RepositoryImpl;
+import org.trebol.jpa.TableVersionsInterceptor;
+import org.trebol.jpa.services.impl.LookupCacheServiceImpl;
+
+import javax.sql.DataSource;
 
 @Configuration
 @EntityScan(basePackages = {"org.trebol.jpa.entities"})
-@EnableJpaRepositories(basePackages = {"org.trebol.jpa.repositories"})
+@EnableJpaRepositories(
+  basePackages = {"org.trebol.jpa.repositories"},
+  repositoryBaseClass = RepositoryImpl.class)
 public class JpaConfig {
+
+  /**
+   * Registers SQL functions that are used by custom repository methods, but are not part of JPQL.
+   */
+  @Bean
+  public HibernatePropertiesCustomizer sqlFunctionsCustomizer() {
+    MetadataBuilderContributor sqlFunctions = metadataBuilder -> metadataBuilder.applySqlFunction(
+      RepositoryImpl.COUNT_OVER_FUNCTION,
+      new SQLFunctionTemplate(StandardBasicTypes.LONG, "count(*) over ()"));
+    return properties -> properties.put("hibernate.metadata_builder_contributor", sqlFunctions);
+  }
+
+  /**
+   * Lets the per-request lookup cache know whenever data is about to be updated or deleted, and keeps track of which
+   * tables are written to by each transaction. Hibernate accepts a single statement inspector, so both are chained.
+   */
+  @Bean
+  public HibernatePropertiesCustomizer statementInspectorCustomizer(DataSource dataSource) {
+    StatementInspector lookupCacheInspector = new LookupCacheServiceImpl.InvalidatingStatementInspector();
+    TableVersionsInterceptor tableVersionsInterceptor = new TableVersionsInterceptor(dataSource);
+    return properties -> {
+      properties.put(
+        "hibernate.session_factory.statement_inspector",
+        (StatementInspector) sql -> tableVersionsInterceptor.inspect(lookupCacheInspector.inspect(sql)));
+      properties.put("hibernate.session_factory.interceptor", tableVersionsInterceptor);
+    };
+  }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+import org.trebol.jpa.ReadReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource with a {@link ReadReplicaRoutingDataSource} whenever at least one read
+ * replica is configured. The primary database keeps being configured through the <code>spring.datasource.*</code>
+ * properties, while replicas share its driver and, unless overriden, its credentials.<br/>
+ * Every pool, be it that of the primary or that of a replica, is given the <code>spring.datasource.hikari.*</code>
+ * settings, as the auto-configured pool would be.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "trebol.datasource.read-replicas", name = "urls")
+public class ReadReplicasConfig {
+  private static final String HIKARI_PROPERTIES_PREFIX = "spring.datasource.hikari";
+  private final DataSourceProperties primaryProperties;
+  private final ReadReplicasProperties replicasProperties;
+  private final Binder binder;
+
+  @Autowired
+  public ReadReplicasConfig(
+    DataSourceProperties primaryProperties,
+    ReadReplicasProperties replicasProperties,
+    Environment environment
+  ) {
+    this.primaryProperties = primaryProperties;
+    this.replicasProperties = replicasProperties;
+    this.binder = Binder.get(environment);
+  }
+
+  @Bean
+  public DataSource dataSource() {
+    DataSource primary = primaryProperties.initializeDataSourceBuilder().build();
+    if (primary instanceof HikariDataSource) {
+      if (StringUtils.hasText(primaryProperties.getName())) {
+        ((HikariDataSource) primary).setPoolName(primaryProperties.getName());
+      }
+      binder.bind(HIKARI_PROPERTIES_PREFIX, Bindable.ofInstance((HikariDataSource) primary));
+    }
+    String username = (replicasProperties.getUsername() != null) ?
+      replicasProperties.getUsername() :
+      primaryProperties.determineUsername();
+    String password = (replicasProperties.getPassword() != null) ?
+      replicasProperties.getPassword() :
+      primaryProperties.determinePassword();
+    List<DataSource> replicas = new ArrayList<>();
+    List<String> urls = replicasProperties.getUrls();
+    for (int i = 0; i < urls.size(); i++) {
+      DataSource replica = DataSourceBuilder.create(primaryProperties.getClassLoader())
+        .type(primaryProperties.getType())
+        .driverClassName(primaryProperties.determineDriverClassName())
+        .url(urls.get(i))
+        .username(username)
+        .password(password)
+        .build();
+      if (replica instanceof HikariDataSource) {
+        this.configureReplicaPool((HikariDataSource) replica, urls.get(i), username, password, i);
+      }
+      replicas.add(replica);
+    }
+    ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(primary, replicas);
+    routingDataSource.afterPropertiesSet();
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+
+  /**
+   * The connection settings of the replica are applied again after the shared pool settings, in case these
+   * include any of them. Named pools get the index of the replica appended to their name, so that it stays unique.
+   */
+  private void configureReplicaPool(HikariDataSource pool, String url, String username, String password, int index) {
+    binder.bind(HIKARI_PROPERTIES_PREFIX, Bindable.ofInstance(pool));
+    pool.setJdbcUrl(url);
+    pool.setUsername(username);
+    pool.setPassword(password);
+    if (pool.getPoolName() != null) {
+      pool.setPoolName(pool.getPoolName() + "-replica-" + index);
+    }
+  }
+
+  /**
+   * By default, Hibernate sessions hold onto their JDBC connection until they are closed, which may outlive
+   * several transactions (e.g. when a session is kept open for a whole web request). Releasing it after each
+   * transaction lets every transaction be routed on its own.
+   */
+  @Bean
+  public HibernatePropertiesCustomizer connectionReleaseCustomizer() {
+    return properties -> properties.put(
+      "hibernate.connection.handling_mode",
+      "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+  }
+}
@@ -36,6 +36,8 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
+import org.trebol.api.ResponseCacheFilter;
+import org.trebol.api.services.ResponseCacheService;
 import org.trebol.config.exceptions.CorsMappingParseException;
 import org.trebol.jpa.services.crud.CustomersCrudService;
 import org.trebol.security.JwtGuestAuthenticationFilter;
@@ -56,6 +58,7 @@ public class SecurityConfig
   private final CorsProperties corsProperties;
   private final AuthorizationHeaderParserService<Claims> jwtClaimsParserService;
   private final CustomersCrudService customersService;
+  private final ResponseCacheService responseCacheService;
 
   @Autowired
   public SecurityConfig(
@@ -64,7 +67,8 @@ public class SecurityConfig
     SecurityProperties securityProperties,
     AuthorizationHeaderParserService<Claims> jwtClaimsParserService,
     CorsProperties corsProperties,
-    CustomersCrudService customersService
+    CustomersCrudService customersService,
+    ResponseCacheService responseCacheService
   ) {
     this.userDetailsService = userDetailsService;
     this.secretKey = secretKey;
@@ -72,6 +76,7 @@ public class SecurityConfig
     this.jwtClaimsParserService = jwtClaimsParserService;
     this.corsProperties = corsProperties;
     this.customersService = customersService;
+    this.responseCacheService = responseCacheService;
   }
 
   @Override
@@ -89,7 +94,10 @@ public class SecurityConfig
         JwtLoginAuthenticationFilter.class)
       .addFilterAfter(
         new JwtTokenVerifierFilter(jwtClaimsParserService),
-        JwtGuestAuthenticationFilter.class);
+        JwtGuestAuthenticationFilter.class)
+      .addFilterAfter(
+        new ResponseCacheFilter(responseCacheService),
+        JwtTokenVerifierFilter.class);
   }
 
   @Override
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.jpa.JPQLQuery;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes how to select data straight into some class other than an entity, such as a list-view Pojo,
+ * so that reading it does not require to load managed entities.<br/>
+ * It consists of the selection itself (usually built with {@link com.querydsl.core.types.Projections})
+ * and the associations it may be left-joined with, so that missing optional associations do not leave items out.
+ * Only the associations that the selection actually refers to are joined.
+ *
+ * @param <T> The class of the selected items
+ */
+public final class ListProjection<T> {
+  private static final String ID_PROPERTY = "id";
+  private final Expression<T> selection;
+  @Nullable
+  private final Class<? extends T> beanType;
+  private final Map<String, Expression<?>> bindings;
+  private final List<LeftJoin<?>> leftJoins;
+
+  private ListProjection(
+    Expression<T> selection,
+    @Nullable Class<? extends T> beanType,
+    Map<String, Expression<?>> bindings,
+    List<LeftJoin<?>> leftJoins
+  ) {
+    this.selection = selection;
+    this.beanType = beanType;
+    this.bindings = bindings;
+    this.leftJoins = leftJoins;
+  }
+
+  /**
+   * @param selection The expression to select
+   * @param <T>       The class of the selected items
+   * @return A projection without joins
+   */
+  public static <T> ListProjection<T> of(Expression<T> selection) {
+    return new ListProjection<>(selection, null, Map.of(), List.of());
+  }
+
+  /**
+   * @param type     The class of the selected items
+   * @param bindings The properties to populate, as in {@link Projections#bean(Class, Expression[])}.
+   *                 Each one must be either a path or an alias.
+   * @param <T>      The class of the selected items
+   * @return A projection without joins, whose properties can be picked by {@link #withOnlyFields(Collection)}
+   */
+  public static <T> ListProjection<T> bean(Class<T> type, Expression<?>... bindings) {
+    Map<String, Expression<?>> namedBindings = new LinkedHashMap<>();
+    for (Expression<?> binding : bindings) {
+      namedBindings.put(nameOf(binding), binding);
+    }
+    return new ListProjection<>(Projections.bean(type, bindings), type, namedBindings, List.of());
+  }
+
+  /**
+   * @param association The path to an association of the queried entity
+   * @param alias       The alias that the selection uses to refer to the association
+   * @param <A>         The class of the associated entity
+   * @return A copy of this projection that may also left-join the given association
+   */
+  public <A> ListProjection<T> leftJoin(EntityPath<A> association, Path<A> alias) {
+    List<LeftJoin<?>> joins = new ArrayList<>(leftJoins);
+    joins.add(new LeftJoin<>(association, alias));
+    return new ListProjection<>(selection, beanType, bindings, List.copyOf(joins));
+  }
+
+  /**
+   * @param otherSelection A different expression to select, based on the same aliases
+   * @param <R>            The class of the newly selected items
+   * @return A projection with the same joins as this one
+   */
+  public <R> ListProjection<R> withSelection(Expression<R> otherSelection) {
+    return new ListProjection<>(otherSelection, null, Map.of(), leftJoins);
+  }
+
+  /**
+   * Narrows down a bean projection to some of its properties. The id is always kept, as it is needed
+   * to complete and page through the selected items. Unknown property names are ignored.
+   *
+   * @param fields The names of the properties to select
+   * @return A projection of the same class with fewer properties, or this same projection if it is not a bean one
+   */
+  @SuppressWarnings("unchecked")
+  public ListProjection<T> withOnlyFields(Collection<String> fields) {
+    if (beanType == null) {
+      return this;
+    }
+    Map<String, Expression<?>> pickedBindings = new LinkedHashMap<>();
+    bindings.forEach((name, binding) -> {
+      if (ID_PROPERTY.equals(name) || fields.contains(name)) {
+        pickedBindings.put(name, binding);
+      }
+    });
+    Expression<T> pickedSelection = (Expression<T>) Projections.bean(beanType, pickedBindings.values().toArray(new Expression<?>[0]));
+    return new ListProjection<>(pickedSelection, beanType, pickedBindings, leftJoins);
+  }
+
+  public Expression<T> getSelection() {
+    return selection;
+  }
+
+  /**
+   * Adds the joins that the selection needs to a query, including those of the associations that they depend on.
+   */
+  void applyJoins(JPQLQuery<?> query) {
+    Set<Path<?>> referencedRoots = new HashSet<>();
+    collectRoots(selection, referencedRoots);
+    List<LeftJoin<?>> neededJoins = new ArrayList<>();
+    for (int i = leftJoins.size() - 1; i >= 0; i--) {
+      LeftJoin<?> join = leftJoins.get(i);
+      if (referencedRoots.contains(join.alias)) {
+        neededJoins.add(0, join);
+        referencedRoots.add(join.association.getRoot());
+      }
+    }
+    for (LeftJoin<?> join : neededJoins) {
+      join.applyTo(query);
+    }
+  }
+
+  private static String nameOf(Expression<?> binding) {
+    if (binding instanceof Path) {
+      return ((Path<?>) binding).getMetadata().getName();
+    }
+    if (binding instanceof Operation && ((Operation<?>) binding).getOperator() == Ops.ALIAS) {
+      Expression<?> alias = ((Operation<?>) binding).getArg(1);
+      if (alias instanceof Path) {
+        return ((Path<?>) alias).getMetadata().getName();
+      }
+    }
+    throw new IllegalArgumentException("Bean bindings must be paths or aliases, got " + binding);
+  }
+
+  private static void collectRoots(Expression<?> expression, Set<Path<?>> roots) {
+    if (expression instanceof Path) {
+      roots.add(((Path<?>) expression).getRoot());
+    } else if (expression instanceof Operation) {
+      for (Expression<?> arg : ((Operation<?>) expression).getArgs()) {
+        collectRoots(arg, roots);
+      }
+    } else if (expression instanceof FactoryExpression) {
+      for (Expression<?> arg : ((FactoryExpression<?>) expression).getArgs()) {
+        collectRoots(arg, roots);
+      }
+    } else if (expression instanceof TemplateExpression) {
+      for (Object arg : ((TemplateExpression<?>) expression).getArgs()) {
+        if (arg instanceof Expression) {
+          collectRoots((Expression<?>) arg, roots);
+        }
+      }
+    }
+  }
+
+  private static final class LeftJoin<A> {
+    private final EntityPath<A> association;
+    private final Path<A> alias;
+
+    private LeftJoin(EntityPath<A> association, Path<A> alias) {
+      this.association = association;
+      this.alias = alias;
+    }
+
+    private void applyTo(JPQLQuery<?> query) {
+      query.leftJoin(association, alias);
+    }
+  }
+}
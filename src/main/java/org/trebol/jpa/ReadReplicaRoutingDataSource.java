@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource that sends connections requested from within read-only transactions to read replicas, taking turns
+ * between them, and everything else to the primary database.<br/>
+ * As a guard against replication lag, once a read-write transaction takes a connection while serving a web request,
+ * all remaining connections for that same request are taken from the primary, so that it can read its own writes.<br/>
+ * The lookup happens when a connection is actually requested, so this DataSource must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} for transaction managers that fetch
+ * connections before the transaction is flagged as read-only.
+ */
+public class ReadReplicaRoutingDataSource
+  extends AbstractRoutingDataSource {
+  public static final String PRIMARY_KEY = "primary";
+  public static final String REPLICA_KEY_PREFIX = "replica-";
+  private static final String PRIMARY_PINNED_ATTRIBUTE = ReadReplicaRoutingDataSource.class.getName() + ".PRIMARY_PINNED";
+  private final int replicaCount;
+  private final AtomicInteger nextReplicaIndex = new AtomicInteger();
+
+  public ReadReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+    Map<Object, Object> targetDataSources = new HashMap<>();
+    targetDataSources.put(PRIMARY_KEY, primary);
+    for (int i = 0; i < replicas.size(); i++) {
+      targetDataSources.put(REPLICA_KEY_PREFIX + i, replicas.get(i));
+    }
+    this.setTargetDataSources(targetDataSources);
+    this.setDefaultTargetDataSource(primary);
+    this.replicaCount = replicas.size();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      if (TransactionSynchronizationManager.isActualTransactionActive()) {
+        pinCurrentRequestToPrimary();
+      }
+      return PRIMARY_KEY;
+    } else if (replicaCount == 0 || isCurrentRequestPinnedToPrimary()) {
+      return PRIMARY_KEY;
+    }
+    int replicaIndex = Math.floorMod(nextReplicaIndex.getAndIncrement(), replicaCount);
+    return REPLICA_KEY_PREFIX + replicaIndex;
+  }
+
+  /**
+   * Sends all remaining connections for the current web request, if there is one, to the primary database; for
+   * requests whose results must not lag behind, even though they only read.
+   */
+  public static void pinCurrentRequestToPrimary() {
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    if (requestAttributes != null) {
+      requestAttributes.setAttribute(PRIMARY_PINNED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+    }
+  }
+
+  public static boolean isCurrentRequestPinnedToPrimary() {
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    return (requestAttributes != null &&
+      requestAttributes.getAttribute(PRIMARY_PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null);
+  }
+}
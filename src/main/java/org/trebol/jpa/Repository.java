@@ -20,14 +20,191 @@
 
 package org.trebol.jpa;
 
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.lang.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
- * Interface for JPA repositories with QueryDSL support
+ * Interface for JPA repositories with QueryDSL support.<br/>
+ * Its custom methods are implemented by {@link org.trebol.jpa.RepositoryImpl}
  *
  * @param <E> The entity class
  */
 public interface Repository<E>
   extends JpaRepository<E, Long>, QuerydslPredicateExecutor<E> {
+
+  /**
+   * Queries a slice of entities, without counting how many of them match the filters in total.
+   *
+   * @param filters  Filtering conditions
+   * @param pageable Offset, size and sorting order of the slice
+   * @return The requested slice of entities, and whether there are more of them after it
+   */
+  Slice<E> findSlice(@Nullable Predicate filters, Pageable pageable);
+
+  /**
+   * Queries a page of entities, along with the total amount of them that match the filters.<br/>
+   * Unlike {@link #findAll(Predicate, Pageable)}, it tries to compute both in a single query.
+   *
+   * @param filters  Filtering conditions
+   * @param pageable Offset, size and sorting order of the page
+   * @return The requested page of entities
+   */
+  Page<E> findPage(@Nullable Predicate filters, Pageable pageable);
+
+  /**
+   * Same as {@link #findSlice(Predicate, Pageable)}, but selects items as described by a projection instead of entities.
+   *
+   * @param projection What to select, and which associations to join
+   * @param filters    Filtering conditions
+   * @param pageable   Offset, size and sorting order of the slice
+   * @param <T>        The class of the selected items
+   * @return The requested slice of items, and whether there are more of them after it
+   */
+  <T> Slice<T> findSlice(ListProjection<T> projection, @Nullable Predicate filters, Pageable pageable);
+
+  /**
+   * Same as {@link #findPage(Predicate, Pageable)}, but selects items as described by a projection instead of entities.
+   *
+   * @param projection What to select, and which associations to join
+   * @param filters    Filtering conditions
+   * @param pageable   Offset, size and sorting order of the page
+   * @param <T>        The class of the selected items
+   * @return The requested page of items
+   */
+  <T> Page<T> findPage(ListProjection<T> projection, @Nullable Predicate filters, Pageable pageable);
+
+  /**
+   * Selects all items that match the filters as described by a projection, without paging nor sorting them.
+   *
+   * @param projection What to select, and which associations to join
+   * @param filters    Filtering conditions
+   * @param <T>        The class of the selected items
+   * @return The selected items
+   */
+  <T> List<T> findAll(ListProjection<T> projection, @Nullable Predicate filters);
+
+  /**
+   * Reads all entities that match the filters through a forward-only cursor, handing them in consecutive chunks
+   * so that they never need to be held in memory all at once.<br/>
+   * The persistence context is cleared after each chunk is handled, so entities should not be used afterwards.
+   *
+   * @param filters     Filtering conditions
+   * @param sort        Sorting order of the entities
+   * @param chunkSize   Amount of entities to fetch per round trip to the database, and to hand in each chunk
+   * @param chunkAction What to do with each chunk of entities
+   */
+  void scrollAll(@Nullable Predicate filters, Sort sort, int chunkSize, Consumer<List<E>> chunkAction);
+
+  /**
+   * Same as {@link #scrollAll(Predicate, Sort, int, Consumer)}, but selects items as described by a projection instead of entities.
+   *
+   * @param projection  What to select, and which associations to join
+   * @param filters     Filtering conditions
+   * @param sort        Sorting order of the items
+   * @param chunkSize   Amount of items to fetch per round trip to the database, and to hand in each chunk
+   * @param chunkAction What to do with each chunk of items
+   * @param <T>         The class of the selected items
+   */
+  <T> void scrollAll(ListProjection<T> projection, @Nullable Predicate filters, Sort sort, int chunkSize, Consumer<List<T>> chunkAction);
+
+  /**
+   * Synchronizes all pending changes with the database, then detaches all managed entities from the persistence context.
+   * Meant for operations that save many entities in chunks, so that memory usage does not grow along with them.
+   */
+  void flushAndClear();
+
+  /**
+   * Selects the identifiers of the first entities that match the filters, sorted by identifier.
+   *
+   * @param filters Filtering conditions
+   * @param limit   Maximum amount of identifiers to select
+   * @return The selected identifiers
+   */
+  List<Long> findIds(@Nullable Predicate filters, int limit);
+
+  /**
+   * Same as {@link #findIds(Predicate, int)}, but only selects identifiers greater than the given one,
+   * so that all matching entities can be walked through in consecutive chunks, even while they are being modified.
+   *
+   * @param filters Filtering conditions
+   * @param afterId The last identifier of the previous chunk, if any
+   * @param limit   Maximum amount of identifiers to select
+   * @return The selected identifiers
+   */
+  List<Long> findIds(@Nullable Predicate filters, @Nullable Long afterId, int limit);
+
+  /**
+   * Deletes all entities that match the filters with a single statement, without loading them first.<br/>
+   * Cascading rules of the entity are not applied, so dependent rows must be deleted beforehand.
+   *
+   * @param filters Filtering conditions; they should not need to join other entities
+   * @return The amount of deleted rows
+   */
+  long deleteWhere(Predicate filters);
+
+  /**
+   * Same as {@link #deleteWhere(Predicate)}, for entities with the given identifiers.
+   *
+   * @param ids The identifiers of the entities to delete
+   * @return The amount of deleted rows
+   */
+  long deleteByIds(Collection<Long> ids);
+
+  /**
+   * Sets the same values to all entities with the given identifiers with a single statement, without loading them first.
+   *
+   * @param ids    The identifiers of the entities to update
+   * @param values The new value of each property, keyed by its path
+   * @return The amount of updated rows
+   */
+  long updateByIds(Collection<Long> ids, Map<Path<?>, Object> values);
+
+  /**
+   * @return Whether the entity has a version property, which is increased every time that one of them is updated
+   */
+  boolean isVersioned();
+
+  /**
+   * Reads how many times the table of these entities, and those of some related entities, have been written to,
+   * with a single lookup by primary key; so it can be used to tell whether any of them have changed, without reading
+   * them.
+   *
+   * @param relatedTypes Other entity classes whose changes should also change the tag
+   * @return An opaque tag, or empty if any of the tables is not tracked in {@code table_versions}
+   */
+  Optional<String> findVersionTag(Class<?>... relatedTypes);
+
+  /**
+   * Counts the entities that match the filters for each distinct combination of values of some expressions,
+   * with a single grouped query.
+   *
+   * @param filters Filtering conditions
+   * @param groups  Expressions to group the entities by
+   * @return One row per combination, holding the value of each expression in the same order, followed by the count
+   */
+  List<Tuple> countGroups(@Nullable Predicate filters, Expression<?>... groups);
+
+  /**
+   * Computes some aggregate expressions over the entities that match the filters, with a single query.
+   *
+   * @param filters    Filtering conditions
+   * @param aggregates Aggregate expressions, such as minimums or maximums
+   * @return A single row, holding the value of each expression in the same order; these are null when no entity matches
+   */
+  Tuple aggregate(@Nullable Predicate filters, Expression<?>... aggregates);
 }
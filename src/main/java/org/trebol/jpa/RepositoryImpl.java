@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.NumberTemplate;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.core.types.dsl.Wildcard;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.AbstractJPAQuery;
+import com.querydsl.jpa.impl.JPADeleteClause;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MariaDB102Dialect;
+import org.hibernate.dialect.MySQL8Dialect;
+import org.hibernate.dialect.PostgreSQL82Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.querydsl.SimpleEntityPathResolver;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.lang.Nullable;
+import org.trebol.jpa.entities.TableVersion;
+
+import javax.persistence.EntityManager;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Base class for all JPA repositories of the application.<br/>
+ * Provides the implementation of the custom query methods declared in {@link org.trebol.jpa.Repository}.
+ *
+ * @param <E> The entity class
+ */
+public class RepositoryImpl<E>
+  extends SimpleJpaRepository<E, Long> {
+  /**
+   * Name of the custom SQL function that renders {@code COUNT(*) OVER ()}, registered in {@link org.trebol.config.JpaConfig}
+   */
+  public static final String COUNT_OVER_FUNCTION = "count_over";
+  private static final NumberTemplate<Long> COUNT_OVER = Expressions.numberTemplate(Long.class, COUNT_OVER_FUNCTION + "()");
+  private static final String ID_PROPERTY = "id";
+  private final EntityManager entityManager;
+  private final EntityPath<E> path;
+  private final NumberPath<Long> idPath;
+  @Nullable
+  private final NumberPath<Long> versionPath;
+  private final Querydsl querydsl;
+  private final boolean windowedCountSupported;
+
+  public RepositoryImpl(
+    JpaEntityInformation<E, ?> entityInformation,
+    EntityManager entityManager
+  ) {
+    super(entityInformation, entityManager);
+    this.entityManager = entityManager;
+    this.path = SimpleEntityPathResolver.INSTANCE.createPath(entityInformation.getJavaType());
+    PathBuilder<E> pathBuilder = new PathBuilder<>(path.getType(), path.getMetadata());
+    this.idPath = pathBuilder.getNumber(ID_PROPERTY, Long.class);
+    String versionProperty = findVersionProperty(entityManager.getMetamodel().entity(entityInformation.getJavaType()));
+    this.versionPath = (versionProperty == null ? null : pathBuilder.getNumber(versionProperty, Long.class));
+    this.querydsl = new Querydsl(entityManager, pathBuilder);
+    this.windowedCountSupported = isWindowedCountSupported(entityManager);
+  }
+
+  public Page<E> findPage(@Nullable Predicate filters, Pageable pageable) {
+    return this.findPage(ListProjection.of(path), filters, pageable);
+  }
+
+  public Slice<E> findSlice(@Nullable Predicate filters, Pageable pageable) {
+    return this.findSlice(ListProjection.of(path), filters, pageable);
+  }
+
+  /**
+   * Fetches a page of items along with the total amount of them that match the filters.<br/>
+   * Where the database supports window functions, both are retrieved in a single query using {@code COUNT(*) OVER ()};
+   * otherwise, or when the page is past the last item, a separate count query is issued if needed.
+   */
+  public <T> Page<T> findPage(ListProjection<T> projection, @Nullable Predicate filters, Pageable pageable) {
+    Expression<T> selection = projection.getSelection();
+    if (windowedCountSupported) {
+      JPQLQuery<Tuple> query = this.createQuery(projection, filters).select(selection, COUNT_OVER);
+      List<Tuple> rows = querydsl.applyPagination(pageable, query).fetch();
+      if (!rows.isEmpty()) {
+        List<T> content = rows.stream()
+          .map(row -> row.get(selection))
+          .collect(Collectors.toList());
+        Long totalCount = rows.get(0).get(COUNT_OVER);
+        return new PageImpl<>(content, pageable, (totalCount == null ? content.size() : totalCount));
+      }
+    }
+    JPQLQuery<T> query = this.createQuery(projection, filters).select(selection);
+    List<T> content = querydsl.applyPagination(pageable, query).fetch();
+    return PageableExecutionUtils.getPage(content, pageable, () -> this.count(filters));
+  }
+
+  /**
+   * Fetches one more item than the requested page size to tell whether there is a next slice,
+   * instead of running a count query like {@link #findAll(Pageable)} does.
+   */
+  public <T> Slice<T> findSlice(ListProjection<T> projection, @Nullable Predicate filters, Pageable pageable) {
+    JPQLQuery<T> query = this.createQuery(projection, filters).select(projection.getSelection());
+    querydsl.applySorting(pageable.getSort(), query);
+    query.offset(pageable.getOffset());
+    query.limit(pageable.getPageSize() + 1L);
+    List<T> content = query.fetch();
+    boolean hasNext = (content.size() > pageable.getPageSize());
+    if (hasNext) {
+      content = new ArrayList<>(content.subList(0, pageable.getPageSize()));
+    }
+    return new SliceImpl<>(content, pageable, hasNext);
+  }
+
+  public <T> List<T> findAll(ListProjection<T> projection, @Nullable Predicate filters) {
+    return this.createQuery(projection, filters).select(projection.getSelection()).fetch();
+  }
+
+  public void scrollAll(@Nullable Predicate filters, Sort sort, int chunkSize, Consumer<List<E>> chunkAction) {
+    this.scrollAll(ListProjection.of(path), filters, sort, chunkSize, chunkAction);
+  }
+
+  /**
+   * Iterates over the {@link org.hibernate.ScrollableResults} of a read-only, forward-only query, which fetches
+   * {@code chunkSize} rows per round trip. The persistence context is cleared after each chunk has been handled,
+   * so that neither the rows nor the entities loaded while handling them pile up in memory.
+   */
+  public <T> void scrollAll(ListProjection<T> projection, @Nullable Predicate filters, Sort sort, int chunkSize, Consumer<List<T>> chunkAction) {
+    AbstractJPAQuery<T, ?> query = (AbstractJPAQuery<T, ?>) this.createQuery(projection, filters).select(projection.getSelection());
+    querydsl.applySorting(sort, query);
+    query.setHint(QueryHints.FETCH_SIZE, chunkSize);
+    query.setHint(QueryHints.READ_ONLY, true);
+    List<T> chunk = new ArrayList<>(chunkSize);
+    try (CloseableIterator<T> rows = query.iterate()) {
+      while (rows.hasNext()) {
+        chunk.add(rows.next());
+        if (chunk.size() == chunkSize) {
+          chunkAction.accept(chunk);
+          entityManager.clear();
+          chunk = new ArrayList<>(chunkSize);
+        }
+      }
+    }
+    if (!chunk.isEmpty()) {
+      chunkAction.accept(chunk);
+      entityManager.clear();
+    }
+  }
+
+  public void flushAndClear() {
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  public List<Long> findIds(@Nullable Predicate filters, int limit) {
+    return this.findIds(filters, null, limit);
+  }
+
+  public List<Long> findIds(@Nullable Predicate filters, @Nullable Long afterId, int limit) {
+    JPQLQuery<Long> query = querydsl.createQuery(path).select(idPath);
+    if (filters != null) {
+      query.where(filters);
+    }
+    if (afterId != null) {
+      query.where(idPath.gt(afterId));
+    }
+    return query.orderBy(idPath.asc()).limit(limit).fetch();
+  }
+
+  public long deleteWhere(Predicate filters) {
+    return new JPADeleteClause(entityManager, path).where(filters).execute();
+  }
+
+  public long deleteByIds(Collection<Long> ids) {
+    return (ids.isEmpty() ? 0 : this.deleteWhere(idPath.in(ids)));
+  }
+
+  @SuppressWarnings("unchecked")
+  public long updateByIds(Collection<Long> ids, Map<Path<?>, Object> values) {
+    if (ids.isEmpty() || values.isEmpty()) {
+      return 0;
+    }
+    JPAUpdateClause clause = new JPAUpdateClause(entityManager, path).where(idPath.in(ids));
+    values.forEach((property, value) -> clause.set((Path<Object>) property, value));
+    if (versionPath != null) {
+      clause.set(versionPath, versionPath.add(1L));
+    }
+    return clause.execute();
+  }
+
+  public boolean isVersioned() {
+    return (versionPath != null);
+  }
+
+  /**
+   * Looks up the rows of all tables in {@code table_versions} at once, which are kept up to date by
+   * {@link TableVersionsInterceptor}, and joins their counts in the same order.
+   */
+  public Optional<String> findVersionTag(Class<?>... relatedTypes) {
+    List<String> tableNames = new ArrayList<>();
+    tableNames.add(this.getTableName(path.getType()));
+    for (Class<?> relatedType : relatedTypes) {
+      tableNames.add(this.getTableName(relatedType));
+    }
+    Map<String, Long> versions = entityManager
+      .createQuery("SELECT v FROM TableVersion v WHERE v.tableName IN :tableNames", TableVersion.class)
+      .setParameter("tableNames", tableNames)
+      .getResultList().stream()
+      .collect(Collectors.toMap(TableVersion::getTableName, TableVersion::getVersion));
+    if (!versions.keySet().containsAll(tableNames)) {
+      return Optional.empty();
+    }
+    return Optional.of(tableNames.stream()
+      .map(tableName -> Long.toHexString(versions.get(tableName)))
+      .collect(Collectors.joining("-")));
+  }
+
+  public List<Tuple> countGroups(@Nullable Predicate filters, Expression<?>... groups) {
+    JPQLQuery<?> query = querydsl.createQuery(path);
+    if (filters != null) {
+      query.where(filters);
+    }
+    Expression<?>[] columns = Arrays.copyOf(groups, groups.length + 1);
+    columns[groups.length] = Wildcard.count;
+    return query.select(columns)
+      .groupBy(groups)
+      .fetch();
+  }
+
+  public Tuple aggregate(@Nullable Predicate filters, Expression<?>... aggregates) {
+    JPQLQuery<?> query = querydsl.createQuery(path);
+    if (filters != null) {
+      query.where(filters);
+    }
+    return query.select(aggregates)
+      .fetchOne();
+  }
+
+  private long count(@Nullable Predicate filters) {
+    JPQLQuery<?> query = querydsl.createQuery(path);
+    if (filters != null) {
+      query.where(filters);
+    }
+    Long count = query.select(Wildcard.count).fetchOne();
+    return (count == null ? 0 : count);
+  }
+
+  private JPQLQuery<?> createQuery(ListProjection<?> projection, @Nullable Predicate filters) {
+    JPQLQuery<?> query = querydsl.createQuery(path);
+    projection.applyJoins(query);
+    if (filters != null) {
+      query.where(filters);
+    }
+    return query;
+  }
+
+  private String getTableName(Class<?> entityType) {
+    SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+    return ((AbstractEntityPersister) sessionFactory.getMetamodel().entityPersister(entityType)).getTableName();
+  }
+
+  @Nullable
+  private static String findVersionProperty(EntityType<?> entityType) {
+    if (!entityType.hasVersionAttribute()) {
+      return null;
+    }
+    return entityType.getSingularAttributes().stream()
+      .filter(SingularAttribute::isVersion)
+      .map(Attribute::getName)
+      .findFirst()
+      .orElse(null);
+  }
+
+  private static boolean isWindowedCountSupported(EntityManager entityManager) {
+    SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+    if (sessionFactory.getSqlFunctionRegistry().findSQLFunction(COUNT_OVER_FUNCTION) == null) {
+      return false;
+    }
+    Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+    return (dialect instanceof H2Dialect
+      || dialect instanceof MariaDB102Dialect
+      || dialect instanceof MySQL8Dialect
+      || dialect instanceof PostgreSQL82Dialect);
+  }
+}
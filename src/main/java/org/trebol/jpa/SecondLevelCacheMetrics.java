@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Tells how effective the Hibernate second-level cache is, overall and for each cached entity.<br/>
+ * Counts are only collected while {@code hibernate.generate_statistics} is enabled; otherwise they stay at zero.
+ */
+@Component
+public class SecondLevelCacheMetrics {
+  private final Statistics statistics;
+
+  @Autowired
+  public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+    this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  /**
+   * @return How many times entities were found in the cache
+   */
+  public long getHitCount() {
+    return statistics.getSecondLevelCacheHitCount();
+  }
+
+  /**
+   * @return How many times entities were looked up in the cache, but had to be read from the database
+   */
+  public long getMissCount() {
+    return statistics.getSecondLevelCacheMissCount();
+  }
+
+  /**
+   * @return How many times entities were put in the cache
+   */
+  public long getPutCount() {
+    return statistics.getSecondLevelCachePutCount();
+  }
+
+  /**
+   * @return How many times the results of cacheable queries were found in the cache
+   */
+  public long getQueryHitCount() {
+    return statistics.getQueryCacheHitCount();
+  }
+
+  /**
+   * @return How many times cacheable queries had to be executed against the database
+   */
+  public long getQueryMissCount() {
+    return statistics.getQueryCacheMissCount();
+  }
+
+  /**
+   * @param entityClass A cached entity class
+   * @return How many times entities of the given class were found in the cache
+   */
+  public long getHitCount(Class<?> entityClass) {
+    return this.getRegionStatistics(entityClass).getHitCount();
+  }
+
+  /**
+   * @param entityClass A cached entity class
+   * @return How many times entities of the given class had to be read from the database
+   */
+  public long getMissCount(Class<?> entityClass) {
+    return this.getRegionStatistics(entityClass).getMissCount();
+  }
+
+  private CacheRegionStatistics getRegionStatistics(Class<?> entityClass) {
+    String regionName = statistics.getEntityStatistics(entityClass.getName()).getCacheRegionName();
+    if (regionName == null) {
+      throw new IllegalArgumentException(entityClass.getName() + " is not cached");
+    }
+    return statistics.getDomainDataRegionStatistics(regionName);
+  }
+}
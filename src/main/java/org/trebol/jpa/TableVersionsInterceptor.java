@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.HibernateException;
+import org.hibernate.Transaction;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import javax.transaction.Synchronization;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Remembers which tables are written to by each transaction, be it by Hibernate itself or by a bulk operation, and
+ * right before it commits, increases their rows in {@code table_versions} using the same connection. Should that fail,
+ * the transaction is rolled back, so that data never changes without its tables changing their version.<br/>
+ * Updates that only change the current stock of products are not counted, because stock is not part of any
+ * representation, while checkouts would otherwise make every catalog tag change.
+ */
+public class TableVersionsInterceptor
+  extends EmptyInterceptor
+  implements StatementInspector {
+  private static final long serialVersionUID = 1L;
+  private static final Pattern WRITE_STATEMENT = Pattern.compile(
+    "^\\s*(?:insert\\s+into|update|delete\\s+from|merge\\s+into)\\s+[`\"]?(\\w+)[`\"]?(?:\\s+set\\s+(.*?)(?:\\s+where\\s.*)?$)?",
+    Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+  private static final Set<String> UNTRACKED_COLUMNS = Set.of("product_stock_current");
+  private static final String UPDATE_SQL = "UPDATE table_versions SET table_version = table_version + 1 WHERE table_name IN (%s)";
+  private final transient ThreadLocal<Deque<Set<String>>> transactions = ThreadLocal.withInitial(ArrayDeque::new);
+  private final transient DataSource dataSource;
+
+  /**
+   * @param dataSource The data source whose connections are bound to transactions by the transaction manager
+   */
+  public TableVersionsInterceptor(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public String inspect(String sql) {
+    Set<String> writtenTables = transactions.get().peek();
+    if (writtenTables != null) {
+      Matcher matcher = WRITE_STATEMENT.matcher(sql);
+      if (matcher.lookingAt() && !isUntracked(matcher.group(2))) {
+        writtenTables.add(matcher.group(1).toLowerCase(Locale.ROOT));
+      }
+    }
+    return sql;
+  }
+
+  /**
+   * Transactions of the same thread are strictly nested, so a new one shadows the outer one until it completes.<br/>
+   * Versions are increased by a synchronization of the transaction rather than by this interceptor, because Hibernate
+   * only logs exceptions thrown by interceptors before completion, while those thrown by synchronizations roll back.
+   */
+  @Override
+  public void afterTransactionBegin(Transaction tx) {
+    Set<String> writtenTables = new LinkedHashSet<>();
+    transactions.get().push(writtenTables);
+    tx.registerSynchronization(new Synchronization() {
+      @Override
+      public void beforeCompletion() {
+        increaseVersions(writtenTables);
+      }
+
+      @Override
+      public void afterCompletion(int status) {
+      }
+    });
+  }
+
+  /**
+   * @throws HibernateException If the versions could not be increased
+   */
+  private void increaseVersions(Set<String> writtenTables) throws HibernateException {
+    if (writtenTables.isEmpty()) {
+      return;
+    }
+    ConnectionHolder connectionHolder = (ConnectionHolder) TransactionSynchronizationManager.getResource(dataSource);
+    if (connectionHolder == null) {
+      throw new HibernateException("Could not increase the versions of tables " + writtenTables +
+        ": no connection is bound to the transaction");
+    }
+    String placeholders = String.join(", ", Collections.nCopies(writtenTables.size(), "?"));
+    try (PreparedStatement statement = connectionHolder.getConnection().prepareStatement(String.format(UPDATE_SQL, placeholders))) {
+      int index = 1;
+      for (String tableName : writtenTables) {
+        statement.setString(index++, tableName);
+      }
+      statement.executeUpdate();
+    } catch (SQLException e) {
+      throw new HibernateException("Could not increase the versions of tables " + writtenTables, e);
+    }
+  }
+
+  @Override
+  public void afterTransactionCompletion(Transaction tx) {
+    transactions.get().poll();
+  }
+
+  private static boolean isUntracked(String assignments) {
+    if (assignments == null) {
+      return false;
+    }
+    Set<String> columns = Arrays.stream(assignments.split(","))
+      .map(assignment -> assignment.split("=", 2)[0].trim().toLowerCase(Locale.ROOT))
+      .collect(Collectors.toSet());
+    return UNTRACKED_COLUMNS.containsAll(columns);
+  }
+}
@@ -21,12 +21,14 @@
 package org.trebol.jpa.entities;
 
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 
 @Entity
+@DynamicUpdate
 @Table(name = "billing_companies")
 @Builder
 @NoArgsConstructor
@@ -21,11 +21,13 @@
 package org.trebol.jpa.entities;
 
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import java.io.Serializable;
 
 @Entity
+@DynamicUpdate
 @Table(name = "customers")
 @Builder
 @NoArgsConstructor
@@ -38,7 +40,8 @@ public class Customer
   implements Serializable {
   private static final long serialVersionUID = 4L;
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq")
+  @SequenceGenerator(name = "customers_seq", sequenceName = "customers_seq", allocationSize = 50)
   @Column(name = "customer_id", nullable = false)
   private Long id;
   @JoinColumn(name = "person_id", referencedColumnName = "person_id")
@@ -21,12 +21,14 @@
 package org.trebol.jpa.entities;
 
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 
 @Entity
+@DynamicUpdate
 @Table(name = "images")
 @Builder
 @NoArgsConstructor
@@ -52,11 +54,15 @@ public class Image
   @Size(min = 1, max = 500)
   @Column(name = "image_url", nullable = false, unique = true)
   private String url;
+  @Version
+  @Column(name = "image_version", nullable = false)
+  private long version;
 
   public Image(Image source) {
     this.id = source.id;
     this.code = source.code;
     this.filename = source.filename;
     this.url = source.url;
+    this.version = source.version;
   }
 }
@@ -21,12 +21,16 @@
 package org.trebol.jpa.entities;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(
   name = "app_params",
   uniqueConstraints = {
@@ -56,4 +60,7 @@ public class Param
   @Size(min = 1, max = 500)
   @Column(name = "param_value", nullable = false)
   private String value;
+  @Version
+  @Column(name = "param_version", nullable = false)
+  private long version;
 }
@@ -21,12 +21,14 @@
 package org.trebol.jpa.entities;
 
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 
 @Entity
+@DynamicUpdate
 @Table(
   name = "people",
   indexes = {
@@ -47,7 +49,8 @@ public class Person
   private static final long serialVersionUID = 9L;
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "people_seq")
+  @SequenceGenerator(name = "people_seq", sequenceName = "people_seq", allocationSize = 50)
   @Column(name = "person_id", nullable = false)
   private Long id;
   @Size(min = 1, max = 200)
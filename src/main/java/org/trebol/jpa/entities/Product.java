@@ -21,12 +21,17 @@
 package org.trebol.jpa.entities;
 
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 
 @Entity
+@DynamicUpdate
+@NamedEntityGraph(
+  name = Product.LIST_GRAPH,
+  attributeNodes = @NamedAttributeNode("productCategory"))
 @Table(
   name = "products",
   indexes = {
@@ -42,9 +47,14 @@ import java.io.Serializable;
 public class Product
   implements Serializable {
   private static final long serialVersionUID = 10L;
+  /**
+   * Fetch plan of products as shown in lists: along with their category
+   */
+  public static final String LIST_GRAPH = "Product.list";
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+  @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
   @Column(name = "product_id", nullable = false)
   private Long id;
   @Size(max = 200)
@@ -62,6 +72,9 @@ public class Product
   private int stockCurrent;
   @Column(name = "product_stock_critical", nullable = false)
   private int stockCritical;
+  @Version
+  @Column(name = "product_version", nullable = false)
+  private long version;
   @JoinColumn(name = "product_category_id", referencedColumnName = "product_category_id")
   @ManyToOne(fetch = FetchType.LAZY)
   private ProductCategory productCategory;
@@ -74,6 +87,7 @@ public class Product
     this.price = source.price;
     this.stockCurrent = source.stockCurrent;
     this.stockCritical = source.stockCritical;
+    this.version = source.version;
     if (source.productCategory != null) {
       this.productCategory = source.productCategory;
     }
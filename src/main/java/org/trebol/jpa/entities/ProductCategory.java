@@ -21,16 +21,22 @@
 package org.trebol.jpa.entities;
 
 import lombok.*;
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 
 @Entity
+@DynamicUpdate
 @Table(
   name = "product_categories",
   uniqueConstraints = {
     @UniqueConstraint(columnNames = {"parent_product_category_id", "product_category_name"})
+  },
+  indexes = {
+    @Index(columnList = "product_category_path")
   })
 @Builder
 @NoArgsConstructor
@@ -41,6 +47,7 @@ import java.io.Serializable;
 public class ProductCategory
   implements Serializable {
   private static final long serialVersionUID = 11L;
+  public static final String PATH_SEPARATOR = "/";
 
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -52,19 +59,54 @@ public class ProductCategory
   @Size(min = 1, max = 100)
   @Column(name = "product_category_name", nullable = false)
   private String name;
+  @Version
+  @Column(name = "product_category_version", nullable = false)
+  private long version;
   @JoinColumn(name = "parent_product_category_id", referencedColumnName = "product_category_id")
   @ManyToOne(fetch = FetchType.LAZY)
   private ProductCategory parent;
+  /**
+   * Materialized path of the ancestors of this category, as their ids from the topmost one down to its parent;
+   * i.e. "/1/5/" for a category whose parent is 5 and grandparent is 1, and "/" for a category without parent.
+   */
+  @Size(max = 500)
+  @Column(name = "product_category_path", nullable = false, length = 500)
+  @Builder.Default
+  private String path = PATH_SEPARATOR;
 
   public ProductCategory(ProductCategory source) {
     this.id = source.id;
     this.code = source.code;
     this.name = source.name;
+    this.version = source.version;
+    this.path = source.path;
     if (source.parent != null) {
       this.parent = new ProductCategory(source.parent);
     }
   }
 
+  /**
+   * @return The prefix shared by the paths of all descendants of this category
+   */
+  public String getDescendantsPath() {
+    return path + id + PATH_SEPARATOR;
+  }
+
+  /**
+   * @return How many levels deep this category is; categories without parent are 1 level deep
+   */
+  public int getDepth() {
+    return depthOf(path);
+  }
+
+  /**
+   * @param path The materialized path of a category
+   * @return How many levels deep the category with such a path is
+   */
+  public static int depthOf(String path) {
+    return StringUtils.countMatches(path, PATH_SEPARATOR);
+  }
+
   @Override
   public String toString() {
     return "ProductCategory(" +
@@ -39,7 +39,8 @@ public class ProductImage
   private static final long serialVersionUID = 12L;
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_images_seq")
+  @SequenceGenerator(name = "product_images_seq", sequenceName = "product_images_seq", allocationSize = 50)
   @Column(name = "product_image_id", nullable = false)
   private Long id;
   @JoinColumn(name = "image_id", referencedColumnName = "image_id", updatable = false)
@@ -21,6 +21,7 @@
 package org.trebol.jpa.entities;
 
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import javax.validation.constraints.Size;
@@ -29,6 +30,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@DynamicUpdate
 @Table(name = "product_lists",
   uniqueConstraints = {
     @UniqueConstraint(columnNames = {"product_list_name"}),
@@ -57,6 +59,9 @@ public class ProductList
   private String code;
   @Column(name = "product_list_disabled", nullable = false)
   private boolean disabled;
+  @Version
+  @Column(name = "product_list_version", nullable = false)
+  private long version;
   @OneToMany(mappedBy = "list")
   private List<ProductListItem> items;
 
@@ -65,6 +70,7 @@ public class ProductList
     this.name = source.name;
     this.code = source.code;
     this.disabled = source.disabled;
+    this.version = source.version;
     this.items = new ArrayList<>(source.items);
   }
 }
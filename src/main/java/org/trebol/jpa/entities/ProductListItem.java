@@ -26,6 +26,10 @@ import javax.persistence.*;
 import java.io.Serializable;
 
 @Entity
+@NamedEntityGraph(
+  name = ProductListItem.CONTENTS_GRAPH,
+  attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product"),
+  subgraphs = @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("productCategory")))
 @Table(name = "product_list_items")
 @Builder
 @NoArgsConstructor
@@ -37,6 +41,10 @@ import java.io.Serializable;
 public class ProductListItem
   implements Serializable {
   private static final long serialVersionUID = 17L;
+  /**
+   * Fetch plan of the contents of a product list: each product along with its category
+   */
+  public static final String CONTENTS_GRAPH = "ProductListItem.contents";
 
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,11 +21,13 @@
 package org.trebol.jpa.entities;
 
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import java.io.Serializable;
 
 @Entity
+@DynamicUpdate
 @Table(name = "salespeople")
 @Builder
 @NoArgsConstructor
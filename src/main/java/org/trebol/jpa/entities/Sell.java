@@ -22,6 +22,7 @@ package org.trebol.jpa.entities;
 
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import javax.validation.constraints.Size;
@@ -34,6 +35,51 @@ import java.util.stream.Collectors;
 import static org.trebol.config.Constants.BILLING_TYPE_ENTERPRISE;
 
 @Entity
+@DynamicUpdate
+@NamedEntityGraph(
+  name = Sell.LIST_GRAPH,
+  attributeNodes = {
+    @NamedAttributeNode(value = "customer", subgraph = "customer"),
+    @NamedAttributeNode("paymentType"),
+    @NamedAttributeNode("status"),
+    @NamedAttributeNode("billingType"),
+    @NamedAttributeNode("billingCompany"),
+    @NamedAttributeNode("billingAddress"),
+    @NamedAttributeNode("shipper"),
+    @NamedAttributeNode("shippingAddress"),
+    @NamedAttributeNode(value = "salesperson", subgraph = "salesperson"),
+  },
+  subgraphs = {
+    @NamedSubgraph(name = "customer", attributeNodes = @NamedAttributeNode("person")),
+    @NamedSubgraph(name = "salesperson", attributeNodes = @NamedAttributeNode("person")),
+  })
+@NamedEntityGraph(
+  name = Sell.DETAIL_GRAPH,
+  attributeNodes = {
+    @NamedAttributeNode(value = "customer", subgraph = "customer"),
+    @NamedAttributeNode("paymentType"),
+    @NamedAttributeNode("status"),
+    @NamedAttributeNode("billingType"),
+    @NamedAttributeNode("billingCompany"),
+    @NamedAttributeNode("billingAddress"),
+    @NamedAttributeNode("shipper"),
+    @NamedAttributeNode("shippingAddress"),
+    @NamedAttributeNode(value = "salesperson", subgraph = "salesperson"),
+    @NamedAttributeNode(value = "details", subgraph = "details"),
+  },
+  subgraphs = {
+    @NamedSubgraph(name = "customer", attributeNodes = @NamedAttributeNode("person")),
+    @NamedSubgraph(name = "salesperson", attributeNodes = @NamedAttributeNode("person")),
+    @NamedSubgraph(name = "details", attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product")),
+    @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("productCategory")),
+  })
+@NamedEntityGraph(
+  name = Sell.RECEIPT_GRAPH,
+  attributeNodes = {
+    @NamedAttributeNode("status"),
+    @NamedAttributeNode(value = "details", subgraph = "details"),
+  },
+  subgraphs = @NamedSubgraph(name = "details", attributeNodes = @NamedAttributeNode("product")))
 @Table(
   name = "sales",
   indexes = {
@@ -50,6 +96,18 @@ import static org.trebol.config.Constants.BILLING_TYPE_ENTERPRISE;
 public class Sell
   implements Serializable {
   private static final long serialVersionUID = 14L;
+  /**
+   * Fetch plan of sales as shown in lists: every single-valued association, but not their details
+   */
+  public static final String LIST_GRAPH = "Sell.list";
+  /**
+   * Fetch plan of a single sale: the same as in lists, plus its details and their products
+   */
+  public static final String DETAIL_GRAPH = "Sell.detail";
+  /**
+   * Fetch plan of the receipt of a sale: its status, its details and their products
+   */
+  public static final String RECEIPT_GRAPH = "Sell.receipt";
 
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.projections;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import com.querydsl.core.types.Visitor;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A bean projection of a left-joined association, which results in null instead of an empty bean
+ * when the association is missing.
+ *
+ * @param <T> The bean class
+ */
+final class NullableBean<T>
+  extends FactoryExpressionBase<T> {
+  private static final long serialVersionUID = 1L;
+  private final QBean<T> bean;
+  private final List<Expression<?>> args;
+
+  /**
+   * @param type     The bean class
+   * @param presence An expression that is null only when the association is missing, typically its id
+   * @param bindings The bean properties, as in {@link Projections#bean(Class, Expression[])}
+   */
+  NullableBean(Class<T> type, Expression<?> presence, Expression<?>... bindings) {
+    super(type);
+    this.bean = Projections.bean(type, bindings);
+    List<Expression<?>> allArgs = new ArrayList<>();
+    allArgs.add(presence);
+    allArgs.addAll(bean.getArgs());
+    this.args = List.copyOf(allArgs);
+  }
+
+  @Override
+  public List<Expression<?>> getArgs() {
+    return args;
+  }
+
+  @Nullable
+  @Override
+  public T newInstance(Object... values) {
+    if (values[0] == null) {
+      return null;
+    }
+    return bean.newInstance(Arrays.copyOfRange(values, 1, values.length));
+  }
+
+  @Nullable
+  @Override
+  public <R, C> R accept(Visitor<R, C> v, @Nullable C context) {
+    return v.visit(this, context);
+  }
+}
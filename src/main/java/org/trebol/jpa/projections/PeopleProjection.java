@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.projections;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Projections;
+import lombok.NoArgsConstructor;
+import org.trebol.api.models.PersonPojo;
+import org.trebol.jpa.entities.QPerson;
+
+import static lombok.AccessLevel.PRIVATE;
+
+@NoArgsConstructor(access = PRIVATE)
+public class PeopleProjection {
+
+  /**
+   * @param person A (joined) person path
+   * @return The selection of a person, as {@link org.trebol.jpa.services.conversion.PeopleConverterService} would convert it
+   */
+  public static Expression<PersonPojo> of(QPerson person) {
+    return Projections.bean(PersonPojo.class,
+      person.id,
+      person.idNumber,
+      person.firstName,
+      person.lastName,
+      person.email,
+      person.phone1,
+      person.phone2);
+  }
+
+  /**
+   * @param person A left-joined person path
+   * @return Same as {@link #of(QPerson)}, but results in null when the person is missing
+   */
+  static Expression<PersonPojo> ofNullable(QPerson person) {
+    return new NullableBean<>(PersonPojo.class, person.id,
+      person.id,
+      person.idNumber,
+      person.firstName,
+      person.lastName,
+      person.email,
+      person.phone1,
+      person.phone2);
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.projections;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.NumberPath;
+import lombok.NoArgsConstructor;
+import org.trebol.api.models.ImagePojo;
+import org.trebol.api.models.ProductCategoryPojo;
+import org.trebol.api.models.ProductPojo;
+import org.trebol.jpa.ListProjection;
+import org.trebol.jpa.entities.QProduct;
+import org.trebol.jpa.entities.QProductCategory;
+import org.trebol.jpa.entities.QProductImage;
+
+import static com.querydsl.core.types.ExpressionUtils.as;
+import static lombok.AccessLevel.PRIVATE;
+
+@NoArgsConstructor(access = PRIVATE)
+public class ProductsProjection {
+  private static final QProduct BASE_PATH = QProduct.product;
+  private static final QProductCategory CATEGORY = new QProductCategory("category");
+  private static final QProductImage PRODUCT_IMAGE = QProductImage.productImage;
+  public static final ListProjection<ProductPojo> LIST_VIEW = ListProjection.bean(ProductPojo.class,
+      BASE_PATH.id,
+      BASE_PATH.name,
+      BASE_PATH.barcode,
+      BASE_PATH.description,
+      BASE_PATH.price,
+      BASE_PATH.stockCurrent.as("currentStock"),
+      BASE_PATH.stockCritical.as("criticalStock"),
+      as(new NullableBean<>(ProductCategoryPojo.class, CATEGORY.id,
+        CATEGORY.id,
+        CATEGORY.code,
+        CATEGORY.name), "category"))
+    .leftJoin(BASE_PATH.productCategory, CATEGORY);
+  public static final NumberPath<Long> IMAGE_PRODUCT_ID = PRODUCT_IMAGE.product.id;
+  public static final Expression<ImagePojo> IMAGE = Projections.bean(ImagePojo.class,
+    PRODUCT_IMAGE.image.id,
+    PRODUCT_IMAGE.image.code,
+    PRODUCT_IMAGE.image.filename,
+    PRODUCT_IMAGE.image.url);
+  /**
+   * To be queried on product images; selects {@link #IMAGE_PRODUCT_ID} and {@link #IMAGE}
+   */
+  public static final ListProjection<Tuple> IMAGES_VIEW = ListProjection.of(
+    Projections.tuple(IMAGE_PRODUCT_ID, IMAGE));
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.projections;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.Expressions;
+import lombok.NoArgsConstructor;
+import org.trebol.api.models.AddressPojo;
+import org.trebol.api.models.BillingCompanyPojo;
+import org.trebol.api.models.CustomerPojo;
+import org.trebol.api.models.SalespersonPojo;
+import org.trebol.api.models.SellPojo;
+import org.trebol.api.models.ShipperPojo;
+import org.trebol.jpa.ListProjection;
+import org.trebol.jpa.entities.*;
+
+import static com.querydsl.core.types.ExpressionUtils.as;
+import static lombok.AccessLevel.PRIVATE;
+import static org.trebol.config.Constants.BILLING_TYPE_ENTERPRISE;
+
+@NoArgsConstructor(access = PRIVATE)
+public class SalesProjection {
+  private static final QSell BASE_PATH = QSell.sell;
+  private static final QCustomer CUSTOMER = new QCustomer("customer");
+  private static final QPerson CUSTOMER_PERSON = new QPerson("customerPerson");
+  private static final QSellStatus STATUS = new QSellStatus("sellStatus");
+  private static final QPaymentType PAYMENT_TYPE = new QPaymentType("paymentType");
+  private static final QBillingType BILLING_TYPE = new QBillingType("billingType");
+  private static final QBillingCompany BILLING_COMPANY = new QBillingCompany("billingCompany");
+  private static final QAddress BILLING_ADDRESS = new QAddress("billingAddress");
+  private static final QAddress SHIPPING_ADDRESS = new QAddress("shippingAddress");
+  private static final QShipper SHIPPER = new QShipper("shipper");
+  private static final QSalesperson SALESPERSON = new QSalesperson("salesperson");
+  private static final QPerson SALESPERSON_PERSON = new QPerson("salespersonPerson");
+  public static final ListProjection<SellPojo> LIST_VIEW = ListProjection.bean(SellPojo.class,
+      BASE_PATH.id.as("buyOrder"),
+      BASE_PATH.transactionToken.as("token"),
+      BASE_PATH.date,
+      BASE_PATH.netValue,
+      BASE_PATH.taxesValue.as("taxValue"),
+      BASE_PATH.transportValue,
+      BASE_PATH.totalValue,
+      BASE_PATH.totalItems,
+      STATUS.name.as("status"),
+      BILLING_TYPE.name.as("billingType"),
+      PAYMENT_TYPE.name.as("paymentType"),
+      as(new NullableBean<>(CustomerPojo.class, CUSTOMER.id,
+        CUSTOMER.id,
+        as(PeopleProjection.of(CUSTOMER_PERSON), "person")), "customer"),
+      as(new NullableBean<>(SalespersonPojo.class, SALESPERSON.id,
+        SALESPERSON.id,
+        as(PeopleProjection.of(SALESPERSON_PERSON), "person")), "salesperson"),
+      as(new NullableBean<>(ShipperPojo.class, SHIPPER.id,
+        SHIPPER.id,
+        SHIPPER.name), "shipper"),
+      as(new NullableBean<>(BillingCompanyPojo.class, enterpriseBillingCompanyId(),
+        BILLING_COMPANY.idNumber,
+        BILLING_COMPANY.name), "billingCompany"),
+      as(address(BILLING_ADDRESS), "billingAddress"),
+      as(address(SHIPPING_ADDRESS), "shippingAddress"))
+    .leftJoin(BASE_PATH.customer, CUSTOMER)
+    .leftJoin(CUSTOMER.person, CUSTOMER_PERSON)
+    .leftJoin(BASE_PATH.status, STATUS)
+    .leftJoin(BASE_PATH.paymentType, PAYMENT_TYPE)
+    .leftJoin(BASE_PATH.billingType, BILLING_TYPE)
+    .leftJoin(BASE_PATH.billingCompany, BILLING_COMPANY)
+    .leftJoin(BASE_PATH.billingAddress, BILLING_ADDRESS)
+    .leftJoin(BASE_PATH.shippingAddress, SHIPPING_ADDRESS)
+    .leftJoin(BASE_PATH.shipper, SHIPPER)
+    .leftJoin(BASE_PATH.salesperson, SALESPERSON)
+    .leftJoin(SALESPERSON.person, SALESPERSON_PERSON);
+
+  /**
+   * Billing companies are only included in sales billed to an enterprise, like the converter does
+   */
+  private static Expression<Long> enterpriseBillingCompanyId() {
+    return new CaseBuilder()
+      .when(BILLING_TYPE.name.eq(BILLING_TYPE_ENTERPRISE)).then(BILLING_COMPANY.id)
+      .otherwise(Expressions.nullExpression(Long.class));
+  }
+
+  private static Expression<AddressPojo> address(QAddress address) {
+    return new NullableBean<>(AddressPojo.class, address.id,
+      address.firstLine,
+      address.secondLine,
+      address.municipality,
+      address.city,
+      address.postalCode,
+      address.notes);
+  }
+}
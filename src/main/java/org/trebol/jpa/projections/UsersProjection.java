@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.projections;
+
+import lombok.NoArgsConstructor;
+import org.trebol.api.models.UserPojo;
+import org.trebol.jpa.ListProjection;
+import org.trebol.jpa.entities.QPerson;
+import org.trebol.jpa.entities.QUser;
+import org.trebol.jpa.entities.QUserRole;
+
+import static com.querydsl.core.types.ExpressionUtils.as;
+import static lombok.AccessLevel.PRIVATE;
+
+@NoArgsConstructor(access = PRIVATE)
+public class UsersProjection {
+  private static final QUser BASE_PATH = QUser.user;
+  private static final QUserRole ROLE = new QUserRole("role");
+  private static final QPerson PERSON = new QPerson("person");
+  public static final ListProjection<UserPojo> LIST_VIEW = ListProjection.bean(UserPojo.class,
+      BASE_PATH.id,
+      BASE_PATH.name,
+      ROLE.name.as("role"),
+      as(PeopleProjection.ofNullable(PERSON), "person"))
+    .leftJoin(BASE_PATH.userRole, ROLE)
+    .leftJoin(BASE_PATH.person, PERSON);
+}
@@ -20,14 +20,19 @@
 
 package org.trebol.jpa.repositories;
 
+import org.springframework.data.jpa.repository.QueryHints;
 import org.trebol.jpa.Repository;
 import org.trebol.jpa.entities.BillingType;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @org.springframework.stereotype.Repository
 public interface BillingTypesRepository
   extends Repository<BillingType> {
 
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
   Optional<BillingType> findByName(String name);
 }
@@ -25,6 +25,8 @@ import org.springframework.data.repository.query.Param;
 import org.trebol.jpa.Repository;
 import org.trebol.jpa.entities.Customer;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @org.springframework.stereotype.Repository
@@ -33,4 +35,7 @@ public interface CustomersRepository
 
   @Query(value = "SELECT c FROM Customer c JOIN FETCH c.person p WHERE p.idNumber = :idNumber")
   Optional<Customer> findByPersonIdNumber(@Param("idNumber") String idNumber);
+
+  @Query(value = "SELECT c.person.id FROM Customer c WHERE c.id IN :ids")
+  List<Long> findPersonIdsByIds(@Param("ids") Collection<Long> ids);
 }
@@ -21,13 +21,19 @@
 package org.trebol.jpa.repositories;
 
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.trebol.jpa.Repository;
 
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @org.springframework.stereotype.Repository
 public interface ParamsRepository
   extends Repository<org.trebol.jpa.entities.Param> {
 
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
   @Query("SELECT p FROM Param p WHERE p.category = :category")
   Iterable<org.trebol.jpa.entities.Param> findParamsByCategory(
     @Param("category") String category);
@@ -20,14 +20,19 @@
 
 package org.trebol.jpa.repositories;
 
+import org.springframework.data.jpa.repository.QueryHints;
 import org.trebol.jpa.Repository;
 import org.trebol.jpa.entities.PaymentType;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @org.springframework.stereotype.Repository
 public interface PaymentTypesRepository
   extends Repository<PaymentType> {
 
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
   Optional<PaymentType> findByName(String name);
 }
@@ -26,6 +26,7 @@ import org.springframework.data.repository.query.Param;
 import org.trebol.jpa.Repository;
 import org.trebol.jpa.entities.ProductImage;
 
+import java.util.Collection;
 import java.util.List;
 
 @org.springframework.stereotype.Repository
@@ -37,6 +38,9 @@ public interface ProductImagesRepository
   @Query("SELECT pi FROM ProductImage pi JOIN FETCH pi.image WHERE pi.product.id = :id")
   List<ProductImage> deepFindProductImagesByProductId(@Param("id") long id);
 
+  @Query("SELECT pi FROM ProductImage pi JOIN FETCH pi.image WHERE pi.product.id IN :ids")
+  List<ProductImage> deepFindProductImagesByProductIds(@Param("ids") Collection<Long> ids);
+
   @Modifying
   @Query("DELETE FROM ProductImage pi WHERE pi.product.id = :id")
   int deleteByProductId(@Param("id") long id);
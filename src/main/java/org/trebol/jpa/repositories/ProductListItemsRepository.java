@@ -20,6 +20,10 @@
 
 package org.trebol.jpa.repositories;
 
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -31,6 +35,10 @@ import org.trebol.jpa.entities.ProductListItem;
 public interface ProductListItemsRepository
   extends Repository<ProductListItem> {
 
+  @Override
+  @EntityGraph(ProductListItem.CONTENTS_GRAPH)
+  Page<ProductListItem> findAll(Predicate predicate, Pageable pageable);
+
   @Modifying
   @Transactional
   @Query("DELETE FROM ProductListItem pi WHERE pi.list.id = :id")
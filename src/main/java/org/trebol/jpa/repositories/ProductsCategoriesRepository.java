@@ -20,6 +20,7 @@
 
 package org.trebol.jpa.repositories;
 
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.trebol.jpa.Repository;
@@ -36,8 +37,26 @@ public interface ProductsCategoriesRepository
 
   List<ProductCategory> findByName(String code);
 
-  List<ProductCategory> findByParent(ProductCategory parent);
-
-  @Query("SELECT r.id FROM ProductCategory r WHERE r.parent.id = :parentId")
-  List<Long> findIdsByParentId(@Param("parentId") Long parentId);
+  List<ProductCategory> findByPathStartingWith(String pathPrefix);
+
+  /**
+   * Tells whether any category lacks a path, either because it is not a valid one (such as an empty path, which a
+   * column added to an existing table may be filled with) or because it is that of a category without parent,
+   * the default one, while the category does have a parent.
+   */
+  @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM ProductCategory c "
+    + "WHERE c.path IS NULL OR c.path NOT LIKE '/%' OR (c.parent IS NOT NULL AND c.path = '/')")
+  boolean existsWithMissingPath();
+
+  @Query("SELECT c.path FROM ProductCategory c WHERE c.path LIKE CONCAT(:pathPrefix, '%')")
+  List<String> findPathsByPathStartingWith(@Param("pathPrefix") String pathPrefix);
+
+  /**
+   * Moves all categories whose path starts with a given prefix, by replacing that prefix with another one.
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE ProductCategory c "
+    + "SET c.path = CONCAT(:newPrefix, SUBSTRING(c.path, LENGTH(:oldPrefix) + 1)) "
+    + "WHERE c.path LIKE CONCAT(:oldPrefix, '%')")
+  int replacePathPrefix(@Param("oldPrefix") String oldPrefix, @Param("newPrefix") String newPrefix);
 }
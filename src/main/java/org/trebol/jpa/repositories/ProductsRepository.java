@@ -23,6 +23,7 @@ package org.trebol.jpa.repositories;
 import com.querydsl.core.types.Predicate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -38,11 +39,13 @@ import java.util.Optional;
 public interface ProductsRepository
   extends Repository<Product> {
 
-  @Query(value = "SELECT p FROM Product p JOIN FETCH p.productCategory", countQuery = "SELECT p FROM Product p")
+  @EntityGraph(Product.LIST_GRAPH)
+  @Query(value = "SELECT p FROM Product p", countQuery = "SELECT COUNT(p) FROM Product p")
   Page<Product> deepReadAll(Pageable pageable);
 
-  @Query(value = "SELECT p FROM Product p JOIN FETCH p.productCategory", countQuery = "SELECT p FROM Product p")
-  Page<Product> deepReadAll(Predicate filters, Pageable pageable);
+  @Override
+  @EntityGraph(Product.LIST_GRAPH)
+  Page<Product> findAll(Predicate filters, Pageable pageable);
 
   Optional<Product> findByBarcode(String barcode);
 
@@ -55,4 +58,17 @@ public interface ProductsRepository
   @Transactional
   @Query("UPDATE Product p SET p.productCategory = null WHERE p.productCategory IN (:categories)")
   void orphanizeByCategories(@Param("categories") Collection<ProductCategory> categories);
+
+  /**
+   * Takes units out of the stock of a product, only if it has at least that many.
+   *
+   * @return 1 if the stock was taken, or 0 if there was not enough of it
+   */
+  @Modifying
+  @Query("UPDATE Product p SET p.stockCurrent = p.stockCurrent - :units WHERE p.id = :id AND p.stockCurrent >= :units")
+  int takeStock(@Param("id") Long productId, @Param("units") int units);
+
+  @Modifying
+  @Query("UPDATE Product p SET p.stockCurrent = p.stockCurrent + :units WHERE p.id = :id")
+  int returnStock(@Param("id") Long productId, @Param("units") int units);
 }
@@ -20,6 +20,8 @@
 
 package org.trebol.jpa.repositories;
 
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -27,24 +29,42 @@ import org.trebol.jpa.Repository;
 import org.trebol.jpa.entities.Sell;
 import org.trebol.jpa.entities.SellStatus;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @org.springframework.stereotype.Repository
 public interface SalesRepository
   extends Repository<Sell> {
 
+  @EntityGraph(Sell.RECEIPT_GRAPH)
   Optional<Sell> findByTransactionToken(String token);
 
+  @Override
+  @EntityGraph(Sell.DETAIL_GRAPH)
+  Optional<Sell> findOne(Predicate predicate);
+
+  @EntityGraph(Sell.DETAIL_GRAPH)
   @Query(value = "SELECT s FROM Sell s "
-    + "JOIN FETCH s.details "
     + "WHERE s.id = :id")
   Optional<Sell> findByIdWithDetails(@Param("id") Long id);
 
+  @EntityGraph(Sell.LIST_GRAPH)
+  @Query(value = "SELECT s FROM Sell s "
+    + "WHERE s.id IN :ids")
+  List<Sell> deepFindAllByIds(@Param("ids") Collection<Long> ids);
+
+  /**
+   * Changes the status of a sell, only if it still has the expected one; this way, concurrent transitions
+   * out of the same status cannot both succeed.
+   *
+   * @return 1 if the status was changed, or 0 if the sell no longer had the expected status
+   */
   @Modifying(clearAutomatically = true)
   @Query("UPDATE Sell s "
     + "SET s.status = :status "
-    + "WHERE s.id = :id")
-  int setStatus(@Param("id") Long id, @Param("status") SellStatus status);
+    + "WHERE s.id = :id AND s.status = :currentStatus")
+  int setStatus(@Param("id") Long id, @Param("currentStatus") SellStatus currentStatus, @Param("status") SellStatus status);
 
   @Modifying
   @Query("UPDATE Sell s "
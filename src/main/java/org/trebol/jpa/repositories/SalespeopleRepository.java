@@ -25,6 +25,8 @@ import org.springframework.data.repository.query.Param;
 import org.trebol.jpa.Repository;
 import org.trebol.jpa.entities.Salesperson;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @org.springframework.stereotype.Repository
@@ -33,4 +35,7 @@ public interface SalespeopleRepository
 
   @Query(value = "SELECT s FROM Salesperson s JOIN FETCH s.person p WHERE p.idNumber = :idNumber")
   Optional<Salesperson> findByPersonIdNumber(@Param("idNumber") String idNumber);
+
+  @Query(value = "SELECT s.person.id FROM Salesperson s WHERE s.id IN :ids")
+  List<Long> findPersonIdsByIds(@Param("ids") Collection<Long> ids);
 }
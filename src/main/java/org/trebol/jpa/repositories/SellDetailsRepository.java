@@ -25,6 +25,7 @@ import org.springframework.data.repository.query.Param;
 import org.trebol.jpa.Repository;
 import org.trebol.jpa.entities.SellDetail;
 
+import java.util.Collection;
 import java.util.List;
 
 @org.springframework.stereotype.Repository
@@ -33,4 +34,9 @@ public interface SellDetailsRepository
 
   @Query(value = "SELECT d FROM SellDetail d WHERE d.sell.id = :sellId")
   List<SellDetail> findBySellId(@Param("sellId") Long sellId);
+
+  @Query(value = "SELECT d FROM SellDetail d JOIN FETCH d.product " +
+    "WHERE d.sell.id IN :sellIds AND d.sell.status.code IN :statusCodes")
+  List<SellDetail> findBySellIdsAndStatusCodes(@Param("sellIds") Collection<Long> sellIds,
+                                               @Param("statusCodes") Collection<Integer> statusCodes);
 }
@@ -20,14 +20,19 @@
 
 package org.trebol.jpa.repositories;
 
+import org.springframework.data.jpa.repository.QueryHints;
 import org.trebol.jpa.Repository;
 import org.trebol.jpa.entities.SellStatus;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @org.springframework.stereotype.Repository
 public interface SellStatusesRepository
   extends Repository<SellStatus> {
 
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
   Optional<SellStatus> findByName(String name);
 }
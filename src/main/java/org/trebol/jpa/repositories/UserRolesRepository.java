@@ -21,15 +21,20 @@
 package org.trebol.jpa.repositories;
 
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.trebol.jpa.Repository;
 import org.trebol.jpa.entities.UserRole;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @org.springframework.stereotype.Repository
 public interface UserRolesRepository
   extends Repository<UserRole> {
 
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
   @Query
   Optional<UserRole> findByName(String name);
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Records which properties of an entity were actually changed while patching it.<br/>
+ * Values are only written to the entity when they differ from the current ones, so that
+ * Hibernate's dirty checking issues no statement at all for untouched entities, and only
+ * the changed columns otherwise.
+ */
+public class ChangeSet {
+  private final Set<String> changedProperties = new LinkedHashSet<>();
+
+  /**
+   * Sets a new value on a property, only if it differs from the current one.
+   *
+   * @param property The name of the property, used to record the change
+   * @param newValue The new value
+   * @param getter   Reads the current value of the property
+   * @param setter   Writes the new value of the property
+   * @return Whether the property was changed
+   */
+  public <T> boolean set(String property, T newValue, Supplier<T> getter, Consumer<T> setter) {
+    if (Objects.equals(getter.get(), newValue)) {
+      return false;
+    }
+    setter.accept(newValue);
+    changedProperties.add(property);
+    return true;
+  }
+
+  /**
+   * Sets a new entity on an association, only if it is not the same entity as the current one.<br/>
+   * Entities are compared by their identifiers, so that a lazy association that is being kept as is
+   * does not need to be initialized to compare it. Unsaved entities are always considered different.
+   *
+   * @param property The name of the association, used to record the change
+   * @param newValue The new associated entity
+   * @param getter   Reads the currently associated entity
+   * @param idGetter Reads the identifier of an entity
+   * @param setter   Writes the new associated entity
+   * @return Whether the association was changed
+   */
+  public <T> boolean setReference(String property, T newValue, Supplier<T> getter, Function<T, Long> idGetter,
+                                  Consumer<T> setter) {
+    T current = getter.get();
+    if (current == newValue) {
+      return false;
+    }
+    if (current != null && newValue != null) {
+      Long currentId = idGetter.apply(current);
+      if (currentId != null && currentId.equals(idGetter.apply(newValue))) {
+        return false;
+      }
+    }
+    setter.accept(newValue);
+    changedProperties.add(property);
+    return true;
+  }
+
+  /**
+   * Records the changes made to an associated entity, prefixing their names with that of the association.
+   *
+   * @param property The name of the association
+   * @param nested   The changes made to the associated entity
+   */
+  public void addAll(String property, ChangeSet nested) {
+    for (String nestedProperty : nested.changedProperties) {
+      changedProperties.add(property + "." + nestedProperty);
+    }
+  }
+
+  public boolean isEmpty() {
+    return changedProperties.isEmpty();
+  }
+
+  /**
+   * @return The names of the changed properties, in the order they were changed
+   */
+  public Set<String> getChangedProperties() {
+    return Collections.unmodifiableSet(changedProperties);
+  }
+}
@@ -22,6 +22,9 @@ package org.trebol.jpa.services;
 
 import org.trebol.common.exceptions.BadInputException;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Type-safe interface for converting Entities to Pojos and viceversa
  *
@@ -61,4 +64,20 @@ public interface ConverterService<P, E> {
    * @return The resulting Pojo, or null if the @Entity isn't persistent
    */
   P convertToPojo(E source);
+
+  /**
+   * Converts a list of existing @Entities to their complete Pojo equivalents, preserving their order.
+   * By default, this converts each @Entity one-by-one; implementations whose relationships are
+   * expensive to fetch should override it to load the data of all entities in as few queries as possible.
+   *
+   * @param sources The source @Entities.
+   * @return A list of the resulting Pojos, in the same order as the sources
+   */
+  default List<P> convertToPojos(List<E> sources) {
+    List<P> targets = new ArrayList<>();
+    for (E source : sources) {
+      targets.add(this.convertToPojo(source));
+    }
+    return targets;
+  }
 }
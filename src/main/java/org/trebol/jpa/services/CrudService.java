@@ -23,12 +23,16 @@ package org.trebol.jpa.services;
 import com.querydsl.core.types.Predicate;
 import org.springframework.data.domain.Sort;
 import org.springframework.lang.Nullable;
+import org.trebol.api.models.BatchResultPojo;
 import org.trebol.api.models.DataPagePojo;
 import org.trebol.common.exceptions.BadInputException;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 
 /**
@@ -49,6 +53,16 @@ public interface CrudService<M, E> {
    */
   M create(M input) throws BadInputException, EntityExistsException;
 
+  /**
+   * Saves several registries into the persistence context at once.<br/>
+   * Inputs that are invalid or insufficient, or that are duplicates of existing registries, are left out and reported
+   * without preventing the rest from being saved.
+   *
+   * @param inputs The models to be added to the persistence context.
+   * @return A report of whether each input was saved or not, and why.
+   */
+  BatchResultPojo createAll(List<M> inputs);
+
   /**
    * Queries a paged collection of registries in the form of a {@link org.trebol.api.models.DataPagePojo}.
    *
@@ -56,9 +70,40 @@ public interface CrudService<M, E> {
    * @param pageIndex Page index (0-based).
    * @param order     Sorting order specification
    * @param filters   Filtering conditions
+   * @param countMode How the total amount of items should be computed
+   * @param fields    Names of the properties that items need to include, or null to include all of them.
+   *                  Implementations may leave the rest out of the items, and avoid fetching them at all.
    * @return The requested page of items along some metadata
    */
-  DataPagePojo<M> readMany(int pageIndex, int pageSize, @Nullable Sort order, @Nullable Predicate filters);
+  DataPagePojo<M> readMany(int pageIndex, int pageSize, @Nullable Sort order, @Nullable Predicate filters, CountMode countMode, @Nullable Set<String> fields);
+
+  /**
+   * Queries a collection of registries using keyset pagination, in the form of a {@link org.trebol.api.models.DataPagePojo}.<br/>
+   * Instead of skipping a number of registries, each page begins right after the last registry of the previous one,
+   * as pointed by the cursor returned along with it.
+   *
+   * @param afterCursor The <b>nextCursor</b> of the previous page, or null (or blank) to fetch the first page.
+   * @param pageSize    Number of items per page.
+   * @param order       Sorting order specification. Only its first property is honored.
+   * @param filters     Filtering conditions
+   * @param countMode   How the total amount of items should be computed
+   * @param fields      Names of the properties that items need to include, or null to include all of them.
+   * @return The requested page of items along some metadata, including the cursor to the next page, if there is one
+   * @throws BadInputException When the cursor is malformed, or does not match the requested sorting order.
+   */
+  DataPagePojo<M> readMany(@Nullable String afterCursor, int pageSize, @Nullable Sort order, @Nullable Predicate filters, CountMode countMode, @Nullable Set<String> fields)
+    throws BadInputException;
+
+  /**
+   * Reads every registry that matches the filtering conditions, one after another, without ever holding all of
+   * them in memory at once. Meant for exporting data in bulk rather than for browsing it.
+   *
+   * @param order   Sorting order specification, or null to sort registries by their id
+   * @param filters Filtering conditions
+   * @param fields  Names of the properties that items need to include, or null to include all of them.
+   * @param action  What to do with each item
+   */
+  void readAll(@Nullable Sort order, @Nullable Predicate filters, @Nullable Set<String> fields, Consumer<M> action);
 
   // TODO why throw an exception when no match is made? That is not an application error - consider using Optional<M> as return type and ditch the throws clause.
   /**
@@ -72,6 +117,15 @@ public interface CrudService<M, E> {
    */
   M readOne(Predicate filters) throws EntityNotFoundException;
 
+  /**
+   * Summarizes the state of all items of this type, without reading them.<br/>
+   * The result changes whenever any of them is created, updated or deleted; so it may be used as a validator
+   * for conditional requests, whatever filters those apply.
+   *
+   * @return An opaque tag, or nothing if changes to items of this type cannot be tracked.
+   */
+  Optional<String> readVersionTag();
+
   // TODO why does only this method return an entity type? Perhaps it can be refactored away.
   /**
    * Attempts to match the given model class instance to an existing entity, by querying the
@@ -121,6 +175,18 @@ public interface CrudService<M, E> {
    */
   M update(M input, Predicate filters) throws EntityNotFoundException, BadInputException;
 
+  /**
+   * Applies the same changes to all items matching given filtering conditions at once, without loading them.<br/>
+   * Only the properties that can be shared by many items are taken into account; each type of item defines which.
+   *
+   * @param input   A model with the changes to apply; properties left as null are not changed
+   * @param filters The QueryDSL filtering conditions
+   * @return The amount of updated items
+   * @throws EntityNotFoundException When no item matches given filters.
+   * @throws BadInputException       When the input has no changes that can be applied to many items at once.
+   */
+  long updateAll(M input, Predicate filters) throws EntityNotFoundException, BadInputException;
+
   // TODO why throw an exception? It is not an application error to not delete any registry. Consider changing the return type to aptly inform the caller about the result.
   /**
    * Deletes all items matching given filtering conditions wrapped in a
@@ -129,7 +195,8 @@ public interface CrudService<M, E> {
    * to create this Predicate in the first place.
    *
    * @param filters Filtering conditions
+   * @return The amount of deleted items
    * @throws EntityNotFoundException When no item matches given filters.
    */
-  void delete(Predicate filters) throws EntityNotFoundException;
+  long delete(Predicate filters) throws EntityNotFoundException;
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Remembers entities fetched by their unique keys, as well as their conversions to pojos, for the rest of the
+ * web request that fetched them. Outside of web requests, nothing is remembered.<br/>
+ * Everything is forgotten as soon as any data is updated or deleted during the request.
+ */
+public interface LookupCacheService {
+
+  /**
+   * Fetches an entity by one of its unique keys, unless it was already found during the current request.
+   * Lookups that find nothing are not remembered.
+   *
+   * @param entityType The class of the entity
+   * @param keyName    The name of the unique key
+   * @param key        The value of the unique key
+   * @param finder     Fetches the entity when it is not remembered yet
+   * @return The matching entity, if any
+   */
+  <E> Optional<E> lookup(Class<E> entityType, String keyName, Object key, Supplier<Optional<E>> finder);
+
+  /**
+   * Converts an entity into a pojo, unless the same entity was already converted during the current request.
+   * As the same pojo instance may be returned to several callers, it must not be modified.
+   *
+   * @param entityType The class of the entity
+   * @param id         The id of the entity; entities without one are always converted
+   * @param pojoType   The class of the pojo
+   * @param converter  Converts the entity when it has not been converted yet
+   * @return The converted pojo
+   */
+  <P> P convert(Class<?> entityType, @Nullable Long id, Class<P> pojoType, Supplier<P> converter);
+
+  /**
+   * @return How many lookups and conversions have been served from memory, since the application started
+   */
+  long getHitCount();
+
+  /**
+   * @return How many lookups and conversions could not be served from memory, since the application started
+   */
+  long getMissCount();
+}
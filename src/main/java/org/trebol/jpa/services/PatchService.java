@@ -32,14 +32,14 @@ import org.trebol.common.exceptions.BadInputException;
 public interface PatchService<P, E> {
 
   /**
-   * Creates a clone Entity, then updates it with new data from a Pojo,
-   * setting differences in properties one-by-one, and returns it.
-   * It does not include relationships to other entities.
+   * Updates an existing Entity in place with new data from a Pojo, setting differences in properties one-by-one.
+   * Properties whose values are not actually changing are left untouched, and related entities are compared
+   * by their identifiers, so that associations that are not being changed do not have to be initialized.
    *
    * @param changes The Pojo containing data updates.
-   * @param target The target entity.
-   * @return An updated instance of the @Entity, prepared to be saved to the database.
+   * @param target The target entity. Usually a managed one, whose changes will be flushed by the persistence context.
+   * @return The properties that were actually changed. Empty if there were no changes at all.
    * @throws BadInputException If the object with changes has invalid values
    */
-  E patchExistingEntity(P changes, E target) throws BadInputException;
+  ChangeSet patchExistingEntity(P changes, E target) throws BadInputException;
 }
@@ -21,8 +21,12 @@
 package org.trebol.jpa.services;
 
 import com.querydsl.core.types.Predicate;
+import org.apache.commons.lang3.math.NumberUtils;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * An interface for parsing Predicates for use in JPA queries
@@ -36,4 +40,31 @@ public interface PredicateService {
    * @return A Predicate with filtering conditions as parsed from the input map
    */
   Predicate parseMap(Map<String, String> queryParamsMap);
+
+  /**
+   * Splits the value of a list-valued param, such as <b>codes=a,b,c</b>.
+   *
+   * @param value The value of the param, with its elements separated by commas
+   * @return Its distinct, non-blank elements, in the same order
+   */
+  static List<String> splitValues(String value) {
+    return Arrays.stream(value.split(","))
+      .map(String::trim)
+      .filter(element -> !element.isEmpty())
+      .distinct()
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * Splits the value of a list of identifiers, such as <b>ids=1,2,3</b>, ignoring the elements that are not numbers.
+   *
+   * @param value The value of the param, with its elements separated by commas
+   * @return Its distinct identifiers, in the same order
+   */
+  static List<Long> splitIds(String value) {
+    return splitValues(value).stream()
+      .filter(NumberUtils::isDigits)
+      .map(Long::valueOf)
+      .collect(Collectors.toList());
+  }
 }
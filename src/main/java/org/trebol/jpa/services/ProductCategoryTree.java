@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services;
+
+import org.springframework.lang.Nullable;
+import org.trebol.api.models.ProductCategoryPojo;
+import org.trebol.jpa.entities.ProductCategory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the whole hierarchy of product categories.<br/>
+ * Categories are laid out in depth-first order, so that the descendants of any of them are the ones that follow it,
+ * up to the end of its subtree; their ids are thus read as a slice of a single array, without querying the database.
+ * Categories whose path leads to a parent that does not exist are left out.
+ */
+public final class ProductCategoryTree {
+  private static final long[] NO_IDS = new long[0];
+  private static final Comparator<ProductCategory> SIBLINGS_ORDER = Comparator
+    .comparing(ProductCategory::getName)
+    .thenComparing(ProductCategory::getId);
+  private final long version;
+  private final String versionTag;
+  private final long[] ids;
+  private final String[] codes;
+  private final String[] names;
+  private final int[] parentIndexes;
+  private final int[] subtreeEnds;
+  private final Map<Long, Integer> indexesById;
+  private final Map<String, Integer> indexesByCode;
+  private final int size;
+
+  /**
+   * @param version    The version of the snapshot, which should increase every time it is rebuilt
+   * @param categories All existing categories
+   */
+  public ProductCategoryTree(long version, Collection<ProductCategory> categories) {
+    this.version = version;
+    int capacity = categories.size();
+    long maxId = 0;
+    long versionSum = 0;
+    Map<Long, List<ProductCategory>> childrenByParentId = new HashMap<>();
+    for (ProductCategory category : categories) {
+      maxId = Math.max(maxId, category.getId());
+      versionSum += category.getVersion();
+      childrenByParentId.computeIfAbsent(parentIdOf(category.getPath()), k -> new ArrayList<>()).add(category);
+    }
+    childrenByParentId.values().forEach(siblings -> siblings.sort(SIBLINGS_ORDER));
+    this.versionTag = Long.toHexString(capacity) + "-" + Long.toHexString(maxId) + "-" + Long.toHexString(versionSum);
+    this.ids = new long[capacity];
+    this.codes = new String[capacity];
+    this.names = new String[capacity];
+    this.parentIndexes = new int[capacity];
+    this.subtreeEnds = new int[capacity];
+    this.indexesById = new HashMap<>(capacity * 2);
+    this.indexesByCode = new HashMap<>(capacity * 2);
+    int end = 0;
+    for (ProductCategory root : childrenByParentId.getOrDefault(null, List.of())) {
+      end = this.visit(root, -1, end, childrenByParentId);
+    }
+    this.size = end;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * @return A tag that changes whenever any category is created, updated or deleted, in the same format as the
+   * version tags of paged lists of categories
+   */
+  public String getVersionTag() {
+    return versionTag;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param id The id of a category
+   * @return The ids of all the descendants of the category, or none if it does not exist
+   */
+  public long[] getDescendantIds(long id) {
+    Integer index = indexesById.get(id);
+    return (index == null) ? NO_IDS : Arrays.copyOfRange(ids, index + 1, subtreeEnds[index]);
+  }
+
+  /**
+   * @param code The code of a category
+   * @return The ids of all the descendants of the category, or none if it does not exist
+   */
+  public long[] getDescendantIds(String code) {
+    Integer index = indexesByCode.get(code);
+    return (index == null) ? NO_IDS : Arrays.copyOfRange(ids, index + 1, subtreeEnds[index]);
+  }
+
+  /**
+   * @param code The code of a category
+   * @return The id of the category, or null if it does not exist
+   */
+  @Nullable
+  public Long findId(String code) {
+    Integer index = indexesByCode.get(code);
+    return (index == null) ? null : ids[index];
+  }
+
+  /**
+   * @param code The code of a category
+   * @return The id of the category followed by the ids of all of its descendants, or none if it does not exist
+   */
+  public long[] getSubtreeIds(String code) {
+    Integer index = indexesByCode.get(code);
+    return (index == null) ? NO_IDS : Arrays.copyOfRange(ids, index, subtreeEnds[index]);
+  }
+
+  /**
+   * Adds up amounts counted for individual categories, so that each category accounts for its whole subtree.
+   * Children always follow their parent, so a single backwards pass adds every subtree up before its root.
+   *
+   * @param amountsById Amounts counted for individual categories, by their id
+   * @return The sum for each category whose subtree has any amount, by its code, in depth-first order
+   */
+  public Map<String, Long> sumSubtrees(Map<Long, Long> amountsById) {
+    long[] sums = new long[size];
+    amountsById.forEach((id, amount) -> {
+      Integer index = indexesById.get(id);
+      if (index != null) {
+        sums[index] += amount;
+      }
+    });
+    for (int i = size - 1; i >= 0; i--) {
+      if (parentIndexes[i] >= 0) {
+        sums[parentIndexes[i]] += sums[i];
+      }
+    }
+    Map<String, Long> sumsByCode = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      if (sums[i] != 0) {
+        sumsByCode.put(codes[i], sums[i]);
+      }
+    }
+    return sumsByCode;
+  }
+
+  /**
+   * Builds new models every time it is called, so that callers are free to modify them.
+   *
+   * @return The categories without parent, each of them with its children nested in it, ordered by name
+   */
+  public List<ProductCategoryPojo> toPojos() {
+    List<ProductCategoryPojo> roots = new ArrayList<>();
+    ProductCategoryPojo[] pojos = new ProductCategoryPojo[size];
+    for (int i = 0; i < size; i++) {
+      pojos[i] = ProductCategoryPojo.builder()
+        .id(ids[i])
+        .code(codes[i])
+        .name(names[i])
+        .build();
+      int parentIndex = parentIndexes[i];
+      if (parentIndex < 0) {
+        roots.add(pojos[i]);
+      } else {
+        ProductCategoryPojo parent = pojos[parentIndex];
+        if (parent.getChildren() == null) {
+          parent.setChildren(new ArrayList<>());
+        }
+        parent.getChildren().add(pojos[i]);
+      }
+    }
+    return roots;
+  }
+
+  /**
+   * @return The index that follows the subtree of the category
+   */
+  private int visit(ProductCategory category, int parentIndex, int index,
+                    Map<Long, List<ProductCategory>> childrenByParentId) {
+    ids[index] = category.getId();
+    codes[index] = category.getCode();
+    names[index] = category.getName();
+    parentIndexes[index] = parentIndex;
+    indexesById.put(category.getId(), index);
+    indexesByCode.put(category.getCode(), index);
+    int end = index + 1;
+    for (ProductCategory child : childrenByParentId.getOrDefault(category.getId(), List.of())) {
+      end = this.visit(child, index, end, childrenByParentId);
+    }
+    subtreeEnds[index] = end;
+    return end;
+  }
+
+  /**
+   * @return The id of the last ancestor in the path, or null when it is that of a category without parent
+   */
+  private static Long parentIdOf(String path) {
+    int end = path.length() - ProductCategory.PATH_SEPARATOR.length();
+    if (end <= 0) {
+      return null;
+    }
+    int start = path.lastIndexOf(ProductCategory.PATH_SEPARATOR, end - 1) + ProductCategory.PATH_SEPARATOR.length();
+    return Long.valueOf(path.substring(start, end));
+  }
+}
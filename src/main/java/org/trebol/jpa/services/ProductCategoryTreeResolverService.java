@@ -26,7 +26,7 @@ import java.util.List;
 
 public interface ProductCategoryTreeResolverService {
   /**
-   * Recursively fetches all categories descendants of a given "root" category.
+   * Fetches all categories descendants of a given "root" category.
    *
    * @param rootBranch A category that other categories may be related to.
    * @return A list with all categories that are descendant of the provided one
@@ -34,7 +34,7 @@ public interface ProductCategoryTreeResolverService {
   List<ProductCategory> getBranchesFromRoot(ProductCategory rootBranch);
 
   /**
-   * Recursively fetches the Ids of all categories descendants of a given "root" category.
+   * Reads the Ids of all categories descendants of a given "root" category from the current snapshot of the tree.
    *
    * @param rootId The Id of a category that other categories may be related to
    * @return A list with the Ids of all categories that are descendant of the provided one
@@ -42,10 +42,23 @@ public interface ProductCategoryTreeResolverService {
   List<Long> getBranchIdsFromRootId(Long rootId);
 
   /**
-   * Recursively fetches the Ids of all categories descendants of a given "root" category.
+   * Reads the Ids of all categories descendants of a given "root" category from the current snapshot of the tree.
    *
    * @param rootCode The code of a category that other categories may be related to
    * @return A list with the Ids of all categories that are descendant of the provided one
    */
   List<Long> getBranchIdsFromRootCode(String rootCode);
+
+  /**
+   * Provides the current snapshot of the whole tree of categories, building it first if it is outdated.
+   *
+   * @return An immutable snapshot of the tree, that is never modified after being returned
+   */
+  ProductCategoryTree getTree();
+
+  /**
+   * Marks the current snapshot of the tree as outdated, once the ongoing transaction (if any) commits,
+   * so that the next read builds a new one.
+   */
+  void refreshTree();
 }
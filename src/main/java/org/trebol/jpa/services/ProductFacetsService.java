@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services;
+
+import com.querydsl.core.types.Predicate;
+import org.springframework.lang.Nullable;
+import org.trebol.api.models.ProductFacetsPojo;
+import org.trebol.common.exceptions.BadInputException;
+
+/**
+ * Breaks down the amount of products that match some filters, so that it can be shown next to the matching products.
+ */
+public interface ProductFacetsService {
+  /**
+   * Counts the products that match the filters by category (including their descendants), price range and stock,
+   * with a single grouped query.
+   *
+   * @param filters   Filtering conditions, as parsed from the same parameters used to read the products
+   * @param priceStep The width of each price range
+   * @return The amounts of matching products
+   * @throws BadInputException When the price step is not positive, or so small that the prices of the matching
+   *                           products would be split into more ranges than allowed
+   */
+  ProductFacetsPojo readFacets(@Nullable Predicate filters, int priceStep)
+    throws BadInputException;
+}
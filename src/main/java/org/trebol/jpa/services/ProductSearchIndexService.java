@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services;
+
+import org.trebol.api.models.ProductPojo;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Full-text index of the product catalog, kept alongside the database so that searches by text do not need to scan
+ * the products table.
+ */
+public interface ProductSearchIndexService {
+  /**
+   * Finds the products whose name, description or barcode best match some text, as typed by a user.
+   *
+   * @param text The text to search for
+   * @return The ids of the matching products, from the most to the least relevant, up to a configured maximum
+   */
+  List<Long> search(String text);
+
+  /**
+   * Adds products to the index, or replaces them if they were already in it.<br/>
+   * Within a transaction, the index only changes after it commits.
+   *
+   * @param products The products to index. Their id, name, barcode, description and category code are used.
+   */
+  void index(Collection<ProductPojo> products);
+
+  /**
+   * Removes products from the index.<br/>
+   * Within a transaction, the index only changes after it commits.
+   *
+   * @param productIds The ids of the products to remove
+   */
+  void remove(Collection<Long> productIds);
+
+  /**
+   * Discards the whole index and fills it again with all products in the database.
+   */
+  void rebuild();
+}
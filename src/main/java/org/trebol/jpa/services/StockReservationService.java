@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services;
+
+import org.trebol.common.exceptions.BadInputException;
+import org.trebol.jpa.entities.SellDetail;
+
+import java.util.Collection;
+
+/**
+ * Keeps the stock of products in line with the sales that are waiting for payment, so that they cannot be oversold.<br/>
+ * Units are taken out of the stock as soon as a sell is created, and put back when its payment is aborted, fails,
+ * is rejected, or is not completed in time.
+ */
+public interface StockReservationService {
+  /**
+   * Takes the units of every detail out of the stock of its product, all or nothing.
+   *
+   * @param details The details of a sell that is being created
+   * @throws BadInputException When a product does not have enough units in stock; no stock is taken then
+   */
+  void reserve(Collection<SellDetail> details)
+    throws BadInputException;
+
+  /**
+   * Puts the units of every detail back into the stock of its product.
+   *
+   * @param details The details of a sell whose reservation is no longer needed
+   */
+  void release(Collection<SellDetail> details);
+
+  /**
+   * Aborts the sales whose payment was not completed within the configured time, releasing their stock.
+   *
+   * @return The amount of aborted sales
+   */
+  int releaseExpired();
+}
@@ -20,25 +20,37 @@
 
 package org.trebol.jpa.services.conversion.impl;
 
-import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.trebol.api.models.ImagePojo;
 import org.trebol.jpa.entities.Image;
+import org.trebol.jpa.services.LookupCacheService;
 import org.trebol.jpa.services.conversion.ImagesConverterService;
 
 @Service
-@NoArgsConstructor
 public class ImagesConverterServiceImpl
   implements ImagesConverterService {
+  private final LookupCacheService lookupCacheService;
 
+  @Autowired
+  public ImagesConverterServiceImpl(
+    LookupCacheService lookupCacheService
+  ) {
+    this.lookupCacheService = lookupCacheService;
+  }
+
+  /**
+   * Images shared by several products are only converted once per request
+   */
   @Override
   public ImagePojo convertToPojo(Image source) {
-    return ImagePojo.builder()
-      .id(source.getId())
-      .code(source.getCode())
-      .filename(source.getFilename())
-      .url(source.getUrl())
-      .build();
+    return lookupCacheService.convert(Image.class, source.getId(), ImagePojo.class,
+      () -> ImagePojo.builder()
+        .id(source.getId())
+        .code(source.getCode())
+        .filename(source.getFilename())
+        .url(source.getUrl())
+        .build());
   }
 
   @Override
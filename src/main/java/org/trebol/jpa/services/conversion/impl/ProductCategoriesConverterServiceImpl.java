@@ -20,24 +20,36 @@
 
 package org.trebol.jpa.services.conversion.impl;
 
-import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.trebol.api.models.ProductCategoryPojo;
 import org.trebol.jpa.entities.ProductCategory;
+import org.trebol.jpa.services.LookupCacheService;
 import org.trebol.jpa.services.conversion.ProductCategoriesConverterService;
 
 @Service
-@NoArgsConstructor
 public class ProductCategoriesConverterServiceImpl
   implements ProductCategoriesConverterService {
+  private final LookupCacheService lookupCacheService;
 
+  @Autowired
+  public ProductCategoriesConverterServiceImpl(
+    LookupCacheService lookupCacheService
+  ) {
+    this.lookupCacheService = lookupCacheService;
+  }
+
+  /**
+   * The same category is converted once per request, however many times it is requested (e.g. once per product)
+   */
   @Override
   public ProductCategoryPojo convertToPojo(ProductCategory source) {
-    return ProductCategoryPojo.builder()
-      .id(source.getId())
-      .code(source.getCode())
-      .name(source.getName())
-      .build();
+    return lookupCacheService.convert(ProductCategory.class, source.getId(), ProductCategoryPojo.class,
+      () -> ProductCategoryPojo.builder()
+        .id(source.getId())
+        .code(source.getCode())
+        .name(source.getName())
+        .build());
   }
 
   @Override
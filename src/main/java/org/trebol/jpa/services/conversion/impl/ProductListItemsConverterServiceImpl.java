@@ -24,10 +24,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.trebol.api.models.ProductPojo;
+import org.trebol.jpa.entities.Product;
 import org.trebol.jpa.entities.ProductListItem;
 import org.trebol.jpa.services.conversion.ProductListItemsConverterService;
 import org.trebol.jpa.services.conversion.ProductsConverterService;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Transactional
 @Service
 public class ProductListItemsConverterServiceImpl
@@ -46,6 +50,14 @@ public class ProductListItemsConverterServiceImpl
     return productsConverterService.convertToPojo(source.getProduct());
   }
 
+  @Override
+  public List<ProductPojo> convertToPojos(List<ProductListItem> sources) {
+    List<Product> products = sources.stream()
+      .map(ProductListItem::getProduct)
+      .collect(Collectors.toList());
+    return productsConverterService.convertToPojos(products);
+  }
+
   @Override
   public ProductListItem convertToNewEntity(ProductPojo source) {
     throw new UnsupportedOperationException("Not implemented");
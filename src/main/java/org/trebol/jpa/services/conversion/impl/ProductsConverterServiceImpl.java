@@ -34,8 +34,14 @@ import org.trebol.jpa.services.conversion.ImagesConverterService;
 import org.trebol.jpa.services.conversion.ProductCategoriesConverterService;
 import org.trebol.jpa.services.conversion.ProductsConverterService;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Transactional
 @Service
@@ -59,6 +65,34 @@ public class ProductsConverterServiceImpl
   // TODO this method can be expensive, optimize it to fetch required data only according to context
   @Override
   public ProductPojo convertToPojo(Product source) {
+    List<ProductImage> productImages = productImagesRepository.deepFindProductImagesByProductId(source.getId());
+    return this.convertToPojo(source, productImages);
+  }
+
+  /**
+   * Fetches the images of all products in a single query, instead of one query per product.
+   */
+  @Override
+  public List<ProductPojo> convertToPojos(List<Product> sources) {
+    if (sources.isEmpty()) {
+      return new ArrayList<>();
+    }
+    Set<Long> ids = sources.stream()
+      .map(Product::getId)
+      .collect(Collectors.toSet());
+    Map<Long, List<ProductImage>> imagesByProductId = new HashMap<>();
+    for (ProductImage pi : productImagesRepository.deepFindProductImagesByProductIds(ids)) {
+      imagesByProductId.computeIfAbsent(pi.getProduct().getId(), id -> new ArrayList<>()).add(pi);
+    }
+    List<ProductPojo> targets = new ArrayList<>();
+    for (Product source : sources) {
+      List<ProductImage> productImages = imagesByProductId.getOrDefault(source.getId(), Collections.emptyList());
+      targets.add(this.convertToPojo(source, productImages));
+    }
+    return targets;
+  }
+
+  private ProductPojo convertToPojo(Product source, List<ProductImage> productImages) {
     ProductPojo target = ProductPojo.builder()
       .id(source.getId())
       .name(source.getName())
@@ -69,7 +103,7 @@ public class ProductsConverterServiceImpl
       .criticalStock(source.getStockCritical())
       .build();
     Set<ImagePojo> images = new HashSet<>();
-    for (ProductImage pi : productImagesRepository.deepFindProductImagesByProductId(source.getId())) {
+    for (ProductImage pi : productImages) {
       ImagePojo targetImage = imagesConverterService.convertToPojo(pi.getImage());
       if (targetImage != null) {
         images.add(targetImage);
@@ -92,7 +126,7 @@ public class ProductsConverterServiceImpl
       .barcode(source.getBarcode())
       .price(source.getPrice())
       .description(source.getDescription())
-      .stockCurrent(source.getCurrentStock())
+      .stockCurrent(source.getCurrentStock() == null ? 0 : source.getCurrentStock())
       .stockCritical(source.getCriticalStock())
       .build();
   }
@@ -26,8 +26,13 @@ import org.springframework.transaction.annotation.Transactional;
 import org.trebol.api.models.*;
 import org.trebol.jpa.entities.BillingCompany;
 import org.trebol.jpa.entities.Sell;
+import org.trebol.jpa.repositories.SalesRepository;
 import org.trebol.jpa.services.conversion.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static org.trebol.config.Constants.BILLING_TYPE_ENTERPRISE;
 
 @Transactional
@@ -39,6 +44,7 @@ public class SalesConverterServiceImpl
   private final SalespeopleConverterService salespeopleConverterService;
   private final AddressesConverterService addressesConverterService;
   private final ShippersConverterService shippersConverterService;
+  private final SalesRepository salesRepository;
 
   @Autowired
   public SalesConverterServiceImpl(
@@ -46,13 +52,15 @@ public class SalesConverterServiceImpl
     CustomersConverterService customersConverterService,
     SalespeopleConverterService salespeopleConverterService,
     AddressesConverterService addressesConverterService,
-    ShippersConverterService shippersConverterService
+    ShippersConverterService shippersConverterService,
+    SalesRepository salesRepository
   ) {
     this.billingCompaniesConverterService = billingCompaniesConverterService;
     this.customersConverterService = customersConverterService;
     this.salespeopleConverterService = salespeopleConverterService;
     this.addressesConverterService = addressesConverterService;
     this.shippersConverterService = shippersConverterService;
+    this.salesRepository = salesRepository;
   }
 
   // TODO this method can be really expensive, please optimize it when the REST API specification includes PATCH and PUT methods
@@ -104,6 +112,26 @@ public class SalesConverterServiceImpl
     return target;
   }
 
+  /**
+   * Initializes the relationships of all sales with a single fetch-join query before converting them,
+   * so that each of them does not trigger its own set of lazy loads.
+   */
+  @Override
+  public List<SellPojo> convertToPojos(List<Sell> sources) {
+    if (sources.isEmpty()) {
+      return new ArrayList<>();
+    }
+    List<Long> ids = sources.stream()
+      .map(Sell::getId)
+      .collect(Collectors.toList());
+    salesRepository.deepFindAllByIds(ids);
+    List<SellPojo> targets = new ArrayList<>();
+    for (Sell source : sources) {
+      targets.add(this.convertToPojo(source));
+    }
+    return targets;
+  }
+
   @Override
   public Sell convertToNewEntity(SellPojo source) {
     Sell target = new Sell();
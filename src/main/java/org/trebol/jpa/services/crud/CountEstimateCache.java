@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services.crud;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Predicate;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived, bounded cache of item counts, keyed by the filtering conditions they were computed with.<br/>
+ * Conditions are normalized before being used as keys, so that the same set of conjunctions
+ * yields the same key regardless of the order in which they were combined.
+ */
+final class CountEstimateCache {
+  private static final String NO_FILTERS_KEY = "";
+  private final Duration timeToLive;
+  private final int maxEntries;
+  private final Map<String, Estimate> estimates = new ConcurrentHashMap<>();
+
+  CountEstimateCache(Duration timeToLive, int maxEntries) {
+    this.timeToLive = timeToLive;
+    this.maxEntries = maxEntries;
+  }
+
+  Optional<Long> get(@Nullable Predicate filters) {
+    Estimate estimate = estimates.get(normalize(filters));
+    if (estimate == null || estimate.isExpired()) {
+      return Optional.empty();
+    }
+    return Optional.of(estimate.count);
+  }
+
+  void put(@Nullable Predicate filters, long count) {
+    if (estimates.size() >= maxEntries) {
+      estimates.values().removeIf(Estimate::isExpired);
+      if (estimates.size() >= maxEntries) {
+        estimates.clear();
+      }
+    }
+    estimates.put(normalize(filters), new Estimate(count, System.nanoTime() + timeToLive.toNanos()));
+  }
+
+  static String normalize(@Nullable Predicate filters) {
+    if (filters == null) {
+      return NO_FILTERS_KEY;
+    }
+    List<String> conjunctions = new ArrayList<>();
+    collectConjunctions(filters, conjunctions);
+    Collections.sort(conjunctions);
+    return String.join(" && ", conjunctions);
+  }
+
+  private static void collectConjunctions(@Nullable Expression<?> expression, List<String> target) {
+    if (expression instanceof BooleanBuilder) {
+      collectConjunctions(((BooleanBuilder) expression).getValue(), target);
+    } else if (expression instanceof Operation && ((Operation<?>) expression).getOperator() == Ops.AND) {
+      for (Expression<?> operand : ((Operation<?>) expression).getArgs()) {
+        collectConjunctions(operand, target);
+      }
+    } else if (expression != null) {
+      target.add(expression.toString());
+    }
+  }
+
+  private static final class Estimate {
+    private final long count;
+    private final long expiresAtNanos;
+
+    private Estimate(long count, long expiresAtNanos) {
+      this.count = count;
+      this.expiresAtNanos = expiresAtNanos;
+    }
+
+    private boolean isExpired() {
+      return System.nanoTime() - expiresAtNanos > 0;
+    }
+  }
+}
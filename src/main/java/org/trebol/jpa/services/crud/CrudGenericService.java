@@ -20,25 +20,47 @@
 
 package org.trebol.jpa.services.crud;
 
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Path;
 import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.NumberPath;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.GenericTypeResolver;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.annotation.Transactional;
+import org.trebol.api.models.BatchResultPojo;
 import org.trebol.api.models.DataPagePojo;
 import org.trebol.common.exceptions.BadInputException;
+import org.trebol.jpa.ListProjection;
 import org.trebol.jpa.Repository;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.ConverterService;
+import org.trebol.jpa.services.CountMode;
 import org.trebol.jpa.services.CrudService;
 import org.trebol.jpa.services.PatchService;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Abstraction that supports all four CRUD operations.<br/>
@@ -54,9 +76,16 @@ public abstract class CrudGenericService<M, E>
   implements CrudService<M, E> {
   protected static final String ITEM_NOT_FOUND = "Requested item(s) not found";
   protected static final String ITEM_ALREADY_EXISTS = "The item already exists";
+  private static final Duration COUNT_ESTIMATES_TIME_TO_LIVE = Duration.ofSeconds(30);
+  private static final int COUNT_ESTIMATES_MAX_ENTRIES = 1000;
+  private static final int SCROLL_CHUNK_SIZE = 500;
+  private static final int BATCH_CHUNK_SIZE = 50;
+  private static final int BULK_CHUNK_SIZE = 500;
+  private static final String ID_PROPERTY = "id";
   private final Repository<E> repository;
   private final ConverterService<M, E> converter;
   private final PatchService<M, E> patchService;
+  private final CountEstimateCache countEstimates = new CountEstimateCache(COUNT_ESTIMATES_TIME_TO_LIVE, COUNT_ESTIMATES_MAX_ENTRIES);
 
   protected CrudGenericService(
     Repository<E> repository,
@@ -83,33 +112,126 @@ public abstract class CrudGenericService<M, E>
     return this.persist(preparedEntity);
   }
 
+  /**
+   * Validates and prepares inputs in chunks, inserting each chunk at once so that they can be sent in JDBC batches.
+   * The persistence context is cleared after each chunk, so that memory usage does not grow along with the inputs.<br/>
+   * Note that if the database rejects any of the valid inputs (i.e. because two of them are duplicates of one another)
+   * the whole operation fails, and no input is saved at all.
+   */
+  @Override
+  public BatchResultPojo createAll(List<M> inputs) {
+    BatchResultPojo result = new BatchResultPojo();
+    for (int chunkStart = 0; chunkStart < inputs.size(); chunkStart += BATCH_CHUNK_SIZE) {
+      int chunkEnd = Math.min(chunkStart + BATCH_CHUNK_SIZE, inputs.size());
+      List<M> validInputs = new ArrayList<>();
+      List<E> preparedEntities = new ArrayList<>();
+      for (int i = chunkStart; i < chunkEnd; i++) {
+        M input = inputs.get(i);
+        try {
+          this.validateBatchInputPojo(input);
+          this.validateInputPojoBeforeCreation(input);
+          preparedEntities.add(this.prepareNewEntityFromInputPojo(input));
+          validInputs.add(input);
+          result.addCreated(i);
+        } catch (BadInputException | EntityExistsException ex) {
+          result.addFailed(i, ex.getMessage());
+        }
+      }
+      if (!preparedEntities.isEmpty()) {
+        this.persistAll(validInputs, preparedEntities);
+        repository.flushAndClear();
+      }
+    }
+    return result;
+  }
+
   /**
    * Read data from repository, convert each entity to its equivalent model class and
-   * return the collected data in a {@link org.trebol.api.models.DataPagePojo}.
+   * return the collected data in a {@link org.trebol.api.models.DataPagePojo}.<br/>
+   * When the total amount of items is not counted exactly, whether there is a next page is told by fetching one
+   * more item than requested.<br/>
+   * Requested fields are only honored by services that provide a list projection; others always include all of them.
    */
   @Override
-  public DataPagePojo<M> readMany(int pageIndex, int pageSize, @Nullable Sort order, @Nullable Predicate filters) {
+  @Transactional(readOnly = true)
+  public DataPagePojo<M> readMany(int pageIndex, int pageSize, @Nullable Sort order, @Nullable Predicate filters, CountMode countMode, @Nullable Set<String> fields) {
     Pageable pagination = ((order == null) ?
       PageRequest.of(pageIndex, pageSize) :
       PageRequest.of(pageIndex, pageSize, order));
-    long totalCount = ((filters == null) ?
-      repository.count() :
-      repository.count(filters));
-    Page<E> iterable = ((filters == null) ?
-      repository.findAll(pagination) :
-      repository.findAll(filters, pagination));
-    List<M> pojoList = new ArrayList<>();
-    for (E item : iterable) {
-      M outputItem = converter.convertToPojo(item);
-      pojoList.add(outputItem);
+    Optional<Long> estimatedCount = ((countMode == CountMode.ESTIMATE) ?
+      countEstimates.get(filters) :
+      Optional.empty());
+    if (countMode == CountMode.NONE || estimatedCount.isPresent()) {
+      Slice<M> slice = this.readSlice(filters, pagination, fields);
+      DataPagePojo<M> page = new DataPagePojo<>(slice.getContent(), pageIndex, estimatedCount.orElse(0L), pageSize);
+      page.setHasNext(slice.hasNext());
+      return page;
+    }
+    Page<M> iterable = this.readPage(filters, pagination, fields);
+    DataPagePojo<M> page = new DataPagePojo<>(iterable.getContent(), pageIndex, iterable.getTotalElements(), pageSize);
+    if (countMode == CountMode.ESTIMATE) {
+      countEstimates.put(filters, iterable.getTotalElements());
+      page.setHasNext(iterable.hasNext());
+    }
+    return page;
+  }
+
+  /**
+   * Read data from repository using keyset pagination, convert each entity to its equivalent model class and
+   * return the collected data in a {@link org.trebol.api.models.DataPagePojo}, along with the cursor to the next page.
+   *
+   * @throws BadInputException When the cursor is malformed, or does not match the requested sorting order.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public DataPagePojo<M> readMany(@Nullable String afterCursor, int pageSize, @Nullable Sort order, @Nullable Predicate filters, CountMode countMode, @Nullable Set<String> fields)
+    throws BadInputException {
+    KeysetPagination<E> keyset = new KeysetPagination<>(this.getEntityClass(), order);
+    Predicate seekFilters = (StringUtils.isBlank(afterCursor) ?
+      filters :
+      ExpressionUtils.allOf(filters, keyset.seekAfter(afterCursor)));
+    long totalCount = this.count(filters, countMode);
+    Pageable pagination = PageRequest.of(0, pageSize, keyset.getSort());
+    Optional<ListProjection<M>> listProjection = this.getListProjection(fields);
+    if (listProjection.isPresent()) {
+      return this.readKeysetPage(listProjection.get(), keyset, seekFilters, pagination, totalCount, fields);
+    }
+    Slice<E> slice = repository.findSlice(seekFilters, pagination);
+    DataPagePojo<M> page = new DataPagePojo<>(converter.convertToPojos(slice.getContent()), 0, totalCount, pageSize);
+    page.setHasNext(slice.hasNext());
+    if (slice.hasNext()) {
+      List<E> content = slice.getContent();
+      page.setNextCursor(keyset.encodeCursor(content.get(content.size() - 1)));
+    }
+    return page;
+  }
+
+  /**
+   * Scrolls through the repository in chunks, converting (or completing) each chunk of items at once, so
+   * that exports of any size run in constant memory and without issuing queries per item.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public void readAll(@Nullable Sort order, @Nullable Predicate filters, @Nullable Set<String> fields, Consumer<M> action) {
+    Sort sort = ((order == null || order.isUnsorted()) ?
+      Sort.by(ID_PROPERTY) :
+      order);
+    Optional<ListProjection<M>> listProjection = this.getListProjection(fields);
+    if (listProjection.isPresent()) {
+      repository.scrollAll(listProjection.get(), filters, sort, SCROLL_CHUNK_SIZE, items -> {
+        this.completeListItems(items, fields);
+        items.forEach(action);
+      });
+    } else {
+      repository.scrollAll(filters, sort, SCROLL_CHUNK_SIZE, entities -> converter.convertToPojos(entities).forEach(action));
     }
-    return new DataPagePojo<>(pojoList, pageIndex, totalCount, pageSize);
   }
 
   /**
    * @throws EntityNotFoundException When no entity matches the given example.
    * @throws BadInputException       When the data in the input object is not valid.
    */
+  @Transactional(rollbackFor = BadInputException.class)
   @Override
   public M update(M input)
     throws EntityNotFoundException, BadInputException {
@@ -124,6 +246,7 @@ public abstract class CrudGenericService<M, E>
    * @throws EntityNotFoundException When no entity matches the given filtering conditions.
    * @throws BadInputException       When the data in the input object is not valid.
    */
+  @Transactional(rollbackFor = BadInputException.class)
   @Override
   public M update(M input, Predicate filters)
     throws EntityNotFoundException, BadInputException {
@@ -135,22 +258,62 @@ public abstract class CrudGenericService<M, E>
   }
 
   /**
+   * Walks through the identifiers of matching entities in chunks, and updates each chunk with a set-based statement.
+   *
    * @throws EntityNotFoundException When no entity matches the given filtering conditions.
+   * @throws BadInputException       When the input has no changes that can be applied to many entities at once.
    */
   @Override
-  public void delete(Predicate filters)
+  public long updateAll(M input, Predicate filters)
+    throws EntityNotFoundException, BadInputException {
+    Map<Path<?>, Object> values = this.getBulkUpdateValues(input);
+    if (values.isEmpty()) {
+      throw new BadInputException("There are no changes that can be applied to many items at once");
+    }
+    long updatedCount = 0;
+    Long lastId = null;
+    List<Long> ids;
+    do {
+      ids = repository.findIds(filters, lastId, BULK_CHUNK_SIZE);
+      if (!ids.isEmpty()) {
+        updatedCount += this.updateByIds(ids, values);
+        lastId = ids.get(ids.size() - 1);
+      }
+    } while (ids.size() == BULK_CHUNK_SIZE);
+    if (updatedCount == 0) {
+      throw new EntityNotFoundException(ITEM_NOT_FOUND);
+    }
+    return updatedCount;
+  }
+
+  /**
+   * Selects the identifiers of matching entities in chunks, and deletes each chunk with set-based statements,
+   * so that no entity needs to be loaded in the persistence context.
+   *
+   * @throws EntityNotFoundException When no entity matches the given filtering conditions.
+   */
+  @Override
+  public long delete(Predicate filters)
     throws EntityNotFoundException {
-    long count = repository.count(filters);
-    if (count == 0) {
+    long deletedCount = 0;
+    List<Long> ids;
+    do {
+      ids = repository.findIds(filters, BULK_CHUNK_SIZE);
+      if (!ids.isEmpty()) {
+        deletedCount += this.deleteByIds(ids);
+      }
+    } while (ids.size() == BULK_CHUNK_SIZE);
+    if (deletedCount == 0) {
       throw new EntityNotFoundException(ITEM_NOT_FOUND);
     }
-    repository.deleteAll(repository.findAll(filters));
+    return deletedCount;
   }
 
   /**
    * @throws EntityNotFoundException When no entity matches the given filtering conditions.
    */
   @Override
+  @Transactional(readOnly = true)
   public M readOne(Predicate filters)
     throws EntityNotFoundException {
     Optional<E> entity = repository.findOne(filters);
@@ -161,13 +324,183 @@ public abstract class CrudGenericService<M, E>
     return converter.convertToPojo(found);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<String> readVersionTag() {
+    if (!repository.isVersioned()) {
+      return Optional.empty();
+    }
+    return repository.findVersionTag();
+  }
+
+  /**
+   * Describes which properties {@code updateAll} should set, and to what values, given the requested changes.
+   * By default, none of them can be updated in bulk.
+   *
+   * @param changes The model with the requested changes
+   * @return The new value of each property, keyed by its path
+   * @throws BadInputException When the requested changes are not valid
+   */
+  protected Map<Path<?>, Object> getBulkUpdateValues(M changes)
+    throws BadInputException {
+    return Map.of();
+  }
+
+  /**
+   * Updates a chunk of entities by their identifiers, with a single set-based statement.
+   *
+   * @param ids    The identifiers of the entities to update
+   * @param values The new value of each property, as described by {@code getBulkUpdateValues}
+   * @return The amount of updated entities
+   */
+  protected long updateByIds(List<Long> ids, Map<Path<?>, Object> values) {
+    return repository.updateByIds(ids, values);
+  }
+
+  /**
+   * Deletes a chunk of entities by their identifiers. By default, only the entities themselves are deleted.<br/>
+   * As this bypasses the cascading rules of the entities, implementations must delete dependent rows explicitly
+   * before calling this method, and any rows that should be removed along with the entities after it.
+   *
+   * @param ids The identifiers of the entities to delete
+   * @return The amount of deleted entities
+   */
+  protected long deleteByIds(List<Long> ids) {
+    return repository.deleteByIds(ids);
+  }
+
+  /**
+   * Saves a chunk of newly prepared entities, without flushing them. By default, only the entities themselves are saved.
+   *
+   * @param inputs           The models that the entities were prepared from
+   * @param preparedEntities The entities to save, in the same order as their models
+   */
+  protected void persistAll(List<M> inputs, List<E> preparedEntities) {
+    repository.saveAll(preparedEntities);
+  }
+
+  /**
+   * Describes how to select the list-view models that {@code readMany} returns straight from the database,
+   * without loading nor converting managed entities. By default, entities are read and converted instead.
+   *
+   * @return The projection of the model class, if there is any
+   */
+  protected Optional<ListProjection<M>> getListProjection() {
+    return Optional.empty();
+  }
+
+  /**
+   * Completes the models selected with the list projection, with data that cannot be selected along with them,
+   * such as collections. Does nothing by default.
+   *
+   * @param items  The models selected in a page
+   * @param fields Names of the properties that were requested, or null if all of them were
+   */
+  protected void completeListItems(List<M> items, @Nullable Set<String> fields) {
+  }
+
+  private Optional<ListProjection<M>> getListProjection(@Nullable Set<String> fields) {
+    Optional<ListProjection<M>> listProjection = this.getListProjection();
+    if (fields == null) {
+      return listProjection;
+    }
+    return listProjection.map(projection -> projection.withOnlyFields(fields));
+  }
+
+  private Slice<M> readSlice(@Nullable Predicate filters, Pageable pagination, @Nullable Set<String> fields) {
+    Optional<ListProjection<M>> listProjection = this.getListProjection(fields);
+    if (listProjection.isPresent()) {
+      Slice<M> slice = repository.findSlice(listProjection.get(), filters, pagination);
+      this.completeListItems(slice.getContent(), fields);
+      return slice;
+    }
+    Slice<E> slice = repository.findSlice(filters, pagination);
+    return new SliceImpl<>(converter.convertToPojos(slice.getContent()), pagination, slice.hasNext());
+  }
+
+  private Page<M> readPage(@Nullable Predicate filters, Pageable pagination, @Nullable Set<String> fields) {
+    Optional<ListProjection<M>> listProjection = this.getListProjection(fields);
+    if (listProjection.isPresent()) {
+      Page<M> page = repository.findPage(listProjection.get(), filters, pagination);
+      this.completeListItems(page.getContent(), fields);
+      return page;
+    }
+    Page<E> page = repository.findPage(filters, pagination);
+    return new PageImpl<>(converter.convertToPojos(page.getContent()), pagination, page.getTotalElements());
+  }
+
+  /**
+   * Selects the id of each item along with it, to encode the cursor of the next page.
+   * Unless items are sorted by id, the sort key of the last item is then queried on its own, as joining
+   * its path here would leave out the items that lack the association that it belongs to.
+   */
+  private DataPagePojo<M> readKeysetPage(
+    ListProjection<M> listProjection,
+    KeysetPagination<E> keyset,
+    @Nullable Predicate seekFilters,
+    Pageable pagination,
+    long totalCount,
+    @Nullable Set<String> fields
+  ) {
+    Expression<M> selection = listProjection.getSelection();
+    NumberPath<Long> idPath = keyset.getIdPath();
+    ListProjection<Tuple> rowsProjection = listProjection.withSelection(Projections.tuple(selection, idPath));
+    Slice<Tuple> rows = repository.findSlice(rowsProjection, seekFilters, pagination);
+    List<M> items = rows.stream()
+      .map(row -> row.get(selection))
+      .collect(Collectors.toList());
+    this.completeListItems(items, fields);
+    DataPagePojo<M> page = new DataPagePojo<>(items, 0, totalCount, pagination.getPageSize());
+    page.setHasNext(rows.hasNext());
+    if (rows.hasNext()) {
+      List<Tuple> content = rows.getContent();
+      Long lastId = content.get(content.size() - 1).get(idPath);
+      Object lastKey = lastId;
+      if (!keyset.isKeyedById()) {
+        List<?> keys = repository.findAll(ListProjection.of(keyset.getKeyPath()), idPath.eq(lastId));
+        lastKey = (keys.isEmpty() ? null : keys.get(0));
+      }
+      page.setNextCursor(keyset.encodeCursor(lastKey, lastId));
+    }
+    return page;
+  }
+
+  private long count(@Nullable Predicate filters, CountMode countMode) {
+    if (countMode == CountMode.NONE) {
+      return 0;
+    }
+    if (countMode == CountMode.ESTIMATE) {
+      Optional<Long> estimatedCount = countEstimates.get(filters);
+      if (estimatedCount.isPresent()) {
+        return estimatedCount.get();
+      }
+    }
+    long count = ((filters == null) ?
+      repository.count() :
+      repository.count(filters));
+    if (countMode == CountMode.ESTIMATE) {
+      countEstimates.put(filters, count);
+    }
+    return count;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Class<E> getEntityClass() {
+    Class<?>[] typeArguments = GenericTypeResolver.resolveTypeArguments(this.getClass(), CrudGenericService.class);
+    if (typeArguments == null) {
+      throw new IllegalStateException("Could not resolve the entity class of " + this.getClass().getName());
+    }
+    return (Class<E>) typeArguments[1];
+  }
+
   protected final M persist(E preparedEntity) {
     E result = repository.saveAndFlush(preparedEntity);
     return converter.convertToPojo(result);
   }
 
   /**
-   * Copies changes from a models to an entity.
+   * Applies changes from a models onto an existing entity, in place.
+   * When nothing actually changed, no statement is issued at all.
    * Executes right before updating (persisting) data.
    * Ideal overridable method to include cascading entity relationships.
    *
@@ -178,11 +511,11 @@ public abstract class CrudGenericService<M, E>
    */
   protected M persistEntityWithUpdatesFromPojo(M changes, E existingEntity)
     throws BadInputException {
-    E updatedEntity = patchService.patchExistingEntity(changes, existingEntity);
-    if (existingEntity.equals(updatedEntity)) {
+    ChangeSet changeSet = patchService.patchExistingEntity(changes, existingEntity);
+    if (changeSet.isEmpty()) {
       return changes;
     }
-    return this.persist(updatedEntity);
+    return this.persist(existingEntity);
   }
 
   /**
@@ -198,6 +531,45 @@ public abstract class CrudGenericService<M, E>
     }
   }
 
+  /**
+   * Validation routine for inputs submitted in batches, which unlike single inputs have not been validated by the
+   * controller. Called by createAll() right before validateInputPojoBeforeCreation(). Does nothing by default.
+   *
+   * @param inputPojo A model to validate
+   * @throws BadInputException If the model is not valid
+   */
+  protected void validateBatchInputPojo(M inputPojo) throws BadInputException {
+  }
+
+  /**
+   * Checks all the constraints declared on a model.
+   *
+   * @param validator The validator to check the constraints with
+   * @param inputPojo A model to validate
+   * @param itemLabel What the model is called in the error message, i.e. "product"
+   * @throws BadInputException If any constraint is violated, describing all of them
+   */
+  protected void validateConstraints(Validator validator, M inputPojo, String itemLabel) throws BadInputException {
+    Set<ConstraintViolation<M>> violations = validator.validate(inputPojo);
+    if (!violations.isEmpty()) {
+      throw new BadInputException(describeViolations(itemLabel, violations));
+    }
+  }
+
+  /**
+   * Describes constraint violations in a single message, always in the same order.
+   *
+   * @param itemLabel  What the validated object is called in the message, i.e. "product"
+   * @param violations The constraints violated by the object
+   * @return A message such as "Invalid product: barcode must not be blank, name must not be blank"
+   */
+  public static String describeViolations(String itemLabel, Set<? extends ConstraintViolation<?>> violations) {
+    return "Invalid " + itemLabel + ": " + violations.stream()
+      .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+      .sorted()
+      .collect(Collectors.joining(", "));
+  }
+
   /**
    * Creates a new entity from a model classs.
    * Executes right before persisting data.
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services.crud;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.ComparablePath;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.core.types.dsl.PathBuilderFactory;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.NullValueInNestedPathException;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.lang.Nullable;
+import org.trebol.common.exceptions.BadInputException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Builds the queries and cursors needed to read data using keyset (or 'seek') pagination.<br/>
+ * Items are always ordered by a single sort key, followed by their id to break ties. Each page is fetched
+ * by querying the items that come strictly after the last item of the previous one, i.e. {@code (key, id) > (?, ?)},
+ * so the cost of reading a page does not depend on how deep it is.<br/>
+ * Null sort keys always come first, in both directions. A sort key that belongs to an associated entity
+ * (e.g. {@code productCategory.name}) is considered null when that association is missing.
+ *
+ * @param <E> The entity class
+ */
+final class KeysetPagination<E> {
+  private static final String ID_PROPERTY = "id";
+  private static final String CURSOR_KEY_FIELD = "k";
+  private static final String CURSOR_VALUE_FIELD = "v";
+  private static final String CURSOR_ID_FIELD = "id";
+  private static final String INVALID_CURSOR = "The provided cursor is invalid or does not match the requested sort order";
+  private static final ObjectMapper CURSOR_MAPPER = new ObjectMapper().findAndRegisterModules();
+  private final Class<E> entityClass;
+  private final PathBuilder<E> basePath;
+  private final Sort.Order keyOrder;
+
+  /**
+   * @param entityClass The entity class
+   * @param order       Sorting order specification. Only its first property is used as sort key;
+   *                    when empty, items are sorted by their id.
+   */
+  KeysetPagination(Class<E> entityClass, @Nullable Sort order) {
+    this.entityClass = entityClass;
+    this.basePath = new PathBuilderFactory().create(entityClass);
+    Sort.Order firstOrder = (order == null ? null : order.stream().findFirst().orElse(null));
+    this.keyOrder = (firstOrder == null ?
+      Sort.Order.asc(ID_PROPERTY) :
+      firstOrder);
+  }
+
+  /**
+   * @return The sorting order that pages must be fetched with
+   */
+  Sort getSort() {
+    Sort.Order key = keyOrder.nullsFirst();
+    if (this.isKeyedById()) {
+      return Sort.by(key);
+    }
+    return Sort.by(key, new Sort.Order(keyOrder.getDirection(), ID_PROPERTY));
+  }
+
+  /**
+   * Decodes a cursor and turns it into the filtering conditions to fetch the items that come after it.
+   *
+   * @param cursor A cursor, as encoded by {@link #encodeCursor(Object)}
+   * @return The filtering conditions
+   * @throws BadInputException If the cursor is malformed, or was encoded for a different sort key
+   */
+  Predicate seekAfter(String cursor) throws BadInputException {
+    JsonNode decoded;
+    try {
+      byte[] json = Base64.getUrlDecoder().decode(cursor);
+      decoded = CURSOR_MAPPER.readTree(json);
+    } catch (IllegalArgumentException | IOException ex) {
+      throw new BadInputException(INVALID_CURSOR, ex);
+    }
+    if (decoded == null
+      || !decoded.path(CURSOR_ID_FIELD).canConvertToLong()
+      || !keyOrder.getProperty().equals(decoded.path(CURSOR_KEY_FIELD).asText())) {
+      throw new BadInputException(INVALID_CURSOR);
+    }
+
+    long lastId = decoded.get(CURSOR_ID_FIELD).asLong();
+    NumberPath<Long> idPath = this.getIdPath();
+    BooleanExpression idComesAfter = (keyOrder.isAscending() ?
+      idPath.gt(lastId) :
+      idPath.lt(lastId));
+    if (this.isKeyedById()) {
+      return idComesAfter;
+    }
+
+    Comparable<?> lastKey = this.decodeKey(decoded.path(CURSOR_VALUE_FIELD));
+    return this.keyComesAfter(lastKey, idComesAfter);
+  }
+
+  /**
+   * @param lastItem The last item of a page
+   * @return An opaque cursor that points to the position right after the given item
+   */
+  String encodeCursor(E lastItem) {
+    BeanWrapper item = PropertyAccessorFactory.forBeanPropertyAccess(lastItem);
+    Object lastKey;
+    try {
+      lastKey = item.getPropertyValue(keyOrder.getProperty());
+    } catch (NullValueInNestedPathException ex) {
+      lastKey = null;
+    }
+    return this.encodeCursor(lastKey, item.getPropertyValue(ID_PROPERTY));
+  }
+
+  /**
+   * @param lastKey The value of the sort key of the last item of a page
+   * @param lastId  The id of that same item
+   * @return An opaque cursor that points to the position right after such item
+   */
+  String encodeCursor(@Nullable Object lastKey, Object lastId) {
+    ObjectNode cursor = CURSOR_MAPPER.createObjectNode();
+    cursor.put(CURSOR_KEY_FIELD, keyOrder.getProperty());
+    cursor.set(CURSOR_VALUE_FIELD, CURSOR_MAPPER.valueToTree(lastKey));
+    cursor.set(CURSOR_ID_FIELD, CURSOR_MAPPER.valueToTree(lastId));
+    byte[] json = cursor.toString().getBytes(StandardCharsets.UTF_8);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+  }
+
+  /**
+   * @return The path to the id of the items
+   */
+  NumberPath<Long> getIdPath() {
+    return basePath.getNumber(ID_PROPERTY, Long.class);
+  }
+
+  /**
+   * @return The path to the sort key of the items
+   */
+  Expression<?> getKeyPath() {
+    PathBuilder<?> keyPath = basePath;
+    for (String segment : keyOrder.getProperty().split("\\.")) {
+      keyPath = keyPath.get(segment);
+    }
+    return keyPath;
+  }
+
+  boolean isKeyedById() {
+    return ID_PROPERTY.equals(keyOrder.getProperty());
+  }
+
+  private Comparable<?> decodeKey(JsonNode value) throws BadInputException {
+    if (value.isMissingNode() || value.isNull()) {
+      return null;
+    }
+    try {
+      Class<?> keyType = PropertyPath.from(keyOrder.getProperty(), entityClass).getLeafType();
+      return (Comparable<?>) CURSOR_MAPPER.treeToValue(value, keyType);
+    } catch (JsonProcessingException | ClassCastException ex) {
+      throw new BadInputException(INVALID_CURSOR, ex);
+    }
+  }
+
+  /**
+   * Nulls are checked against the first segment of the key path, because comparing the value of an associated
+   * entity implies an inner join with it, which would leave out the items that lack such association.
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private Predicate keyComesAfter(@Nullable Comparable lastKey, BooleanExpression idComesAfter) {
+    String[] segments = keyOrder.getProperty().split("\\.");
+    if (lastKey == null) {
+      PathBuilder<Object> nullablePath = basePath.get(segments[0]);
+      return nullablePath.isNull().and(idComesAfter)
+        .or(nullablePath.isNotNull());
+    }
+    PathBuilder<?> parentPath = basePath;
+    for (int i = 0; i < segments.length - 1; i++) {
+      parentPath = parentPath.get(segments[i]);
+    }
+    ComparablePath<Comparable> keyPath = parentPath.getComparable(segments[segments.length - 1], Comparable.class);
+    BooleanExpression sameKey = keyPath.eq(lastKey).and(idComesAfter);
+    return (keyOrder.isAscending() ?
+      keyPath.gt(lastKey).or(sameKey) :
+      keyPath.lt(lastKey).or(sameKey));
+  }
+}
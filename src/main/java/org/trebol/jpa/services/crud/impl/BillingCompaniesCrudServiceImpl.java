@@ -28,6 +28,7 @@ import org.trebol.api.models.BillingCompanyPojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.BillingCompany;
 import org.trebol.jpa.repositories.BillingCompaniesRepository;
+import org.trebol.jpa.services.LookupCacheService;
 import org.trebol.jpa.services.conversion.BillingCompaniesConverterService;
 import org.trebol.jpa.services.crud.BillingCompaniesCrudService;
 import org.trebol.jpa.services.crud.CrudGenericService;
@@ -41,15 +42,18 @@ public class BillingCompaniesCrudServiceImpl
   extends CrudGenericService<BillingCompanyPojo, BillingCompany>
   implements BillingCompaniesCrudService {
   private final BillingCompaniesRepository companiesRepository;
+  private final LookupCacheService lookupCacheService;
 
   @Autowired
   public BillingCompaniesCrudServiceImpl(
     BillingCompaniesRepository companiesRepository,
     BillingCompaniesConverterService companiesConverterService,
-    BillingCompaniesPatchService companiesPatchService
+    BillingCompaniesPatchService companiesPatchService,
+    LookupCacheService lookupCacheService
   ) {
     super(companiesRepository, companiesConverterService, companiesPatchService);
     this.companiesRepository = companiesRepository;
+    this.lookupCacheService = lookupCacheService;
   }
 
   @Override
@@ -58,7 +62,7 @@ public class BillingCompaniesCrudServiceImpl
     if (StringUtils.isBlank(idNumber)) {
       throw new BadInputException("Billing company has no id number");
     } else {
-      return companiesRepository.findByIdNumber(idNumber);
+      return lookupCacheService.lookup(BillingCompany.class, "idNumber", idNumber, () -> companiesRepository.findByIdNumber(idNumber));
     }
   }
 }
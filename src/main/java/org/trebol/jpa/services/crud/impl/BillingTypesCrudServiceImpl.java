@@ -28,6 +28,7 @@ import org.trebol.api.models.BillingTypePojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.BillingType;
 import org.trebol.jpa.repositories.BillingTypesRepository;
+import org.trebol.jpa.services.LookupCacheService;
 import org.trebol.jpa.services.conversion.BillingTypesConverterService;
 import org.trebol.jpa.services.crud.BillingTypesCrudService;
 import org.trebol.jpa.services.crud.CrudGenericService;
@@ -41,15 +42,18 @@ public class BillingTypesCrudServiceImpl
   extends CrudGenericService<BillingTypePojo, BillingType>
   implements BillingTypesCrudService {
   private final BillingTypesRepository typesRepository;
+  private final LookupCacheService lookupCacheService;
 
   @Autowired
   public BillingTypesCrudServiceImpl(
     BillingTypesRepository typesRepository,
     BillingTypesConverterService typesConverterService,
-    BillingTypesPatchService typesPatchService
+    BillingTypesPatchService typesPatchService,
+    LookupCacheService lookupCacheService
   ) {
     super(typesRepository, typesConverterService, typesPatchService);
     this.typesRepository = typesRepository;
+    this.lookupCacheService = lookupCacheService;
   }
 
   @Override
@@ -58,7 +62,7 @@ public class BillingTypesCrudServiceImpl
     if (StringUtils.isBlank(name)) {
       throw new BadInputException("Billing type has no name");
     } else {
-      return typesRepository.findByName(name);
+      return lookupCacheService.lookup(BillingType.class, "name", name, () -> typesRepository.findByName(name));
     }
   }
 }
@@ -26,13 +26,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.trebol.api.models.CustomerPojo;
 import org.trebol.common.exceptions.BadInputException;
+import org.trebol.jpa.ListProjection;
 import org.trebol.jpa.entities.Customer;
+import org.trebol.jpa.projections.CustomersProjection;
 import org.trebol.jpa.repositories.CustomersRepository;
+import org.trebol.jpa.repositories.PeopleRepository;
 import org.trebol.jpa.services.conversion.CustomersConverterService;
 import org.trebol.jpa.services.crud.CrudGenericService;
 import org.trebol.jpa.services.crud.CustomersCrudService;
 import org.trebol.jpa.services.patch.CustomersPatchService;
 
+import javax.validation.Validator;
+import java.util.List;
 import java.util.Optional;
 
 @Transactional
@@ -41,15 +46,21 @@ public class CustomersCrudServiceImpl
   extends CrudGenericService<CustomerPojo, Customer>
   implements CustomersCrudService {
   private final CustomersRepository customersRepository;
+  private final PeopleRepository peopleRepository;
+  private final Validator validator;
 
   @Autowired
   public CustomersCrudServiceImpl(
     CustomersRepository customersRepository,
+    PeopleRepository peopleRepository,
     CustomersConverterService customersConverterService,
-    CustomersPatchService customersPatchService
+    CustomersPatchService customersPatchService,
+    Validator validator
   ) {
     super(customersRepository, customersConverterService, customersPatchService);
     this.customersRepository = customersRepository;
+    this.peopleRepository = peopleRepository;
+    this.validator = validator;
   }
 
   @Override
@@ -61,4 +72,26 @@ public class CustomersCrudServiceImpl
       return customersRepository.findByPersonIdNumber(idNumber);
     }
   }
+
+  /**
+   * Deletes the people behind the customers as well, just like persisting them creates those people too.
+   */
+  @Override
+  protected long deleteByIds(List<Long> ids) {
+    List<Long> personIds = customersRepository.findPersonIdsByIds(ids);
+    long deletedCount = super.deleteByIds(ids);
+    peopleRepository.deleteByIds(personIds);
+    return deletedCount;
+  }
+
+  @Override
+  protected void validateBatchInputPojo(CustomerPojo inputPojo)
+    throws BadInputException {
+    this.validateConstraints(validator, inputPojo, "customer");
+  }
+
+  @Override
+  protected Optional<ListProjection<CustomerPojo>> getListProjection() {
+    return Optional.of(CustomersProjection.LIST_VIEW);
+  }
 }
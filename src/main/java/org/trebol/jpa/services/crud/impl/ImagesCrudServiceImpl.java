@@ -28,6 +28,7 @@ import org.trebol.api.models.ImagePojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Image;
 import org.trebol.jpa.repositories.ImagesRepository;
+import org.trebol.jpa.services.LookupCacheService;
 import org.trebol.jpa.services.conversion.ImagesConverterService;
 import org.trebol.jpa.services.crud.CrudGenericService;
 import org.trebol.jpa.services.crud.ImagesCrudService;
@@ -41,15 +42,18 @@ public class ImagesCrudServiceImpl
   extends CrudGenericService<ImagePojo, Image>
   implements ImagesCrudService {
   private final ImagesRepository imagesRepository;
+  private final LookupCacheService lookupCacheService;
 
   @Autowired
   public ImagesCrudServiceImpl(
     ImagesRepository imagesRepository,
     ImagesConverterService imagesConverterService,
-    ImagesPatchService imagesPatchService
+    ImagesPatchService imagesPatchService,
+    LookupCacheService lookupCacheService
   ) {
     super(imagesRepository, imagesConverterService, imagesPatchService);
     this.imagesRepository = imagesRepository;
+    this.lookupCacheService = lookupCacheService;
   }
 
   @Override
@@ -58,7 +62,7 @@ public class ImagesCrudServiceImpl
     if (StringUtils.isBlank(name)) {
       throw new BadInputException("Invalid filename");
     } else {
-      return imagesRepository.findByFilename(name);
+      return lookupCacheService.lookup(Image.class, "filename", name, () -> imagesRepository.findByFilename(name));
     }
   }
 }
@@ -25,14 +25,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.trebol.api.models.ProductCategoryPojo;
+import org.trebol.api.services.ResponseCacheService;
+import org.trebol.api.services.ResponseCacheSource;
 import org.trebol.common.exceptions.BadInputException;
+import org.trebol.config.ApiProperties;
 import org.trebol.jpa.entities.ProductCategory;
 import org.trebol.jpa.repositories.ProductsCategoriesRepository;
+import org.trebol.jpa.services.ChangeSet;
+import org.trebol.jpa.services.LookupCacheService;
+import org.trebol.jpa.services.ProductCategoryTreeResolverService;
 import org.trebol.jpa.services.conversion.ProductCategoriesConverterService;
 import org.trebol.jpa.services.crud.CrudGenericService;
 import org.trebol.jpa.services.crud.ProductCategoriesCrudService;
 import org.trebol.jpa.services.patch.ProductCategoriesPatchService;
 
+import javax.persistence.EntityExistsException;
+import java.util.List;
 import java.util.Optional;
 
 @Transactional
@@ -42,16 +50,49 @@ public class ProductCategoriesCrudServiceImpl
   implements ProductCategoriesCrudService {
   private final ProductsCategoriesRepository categoriesRepository;
   private final ProductCategoriesPatchService categoriesPatchService;
+  private final LookupCacheService lookupCacheService;
+  private final ApiProperties apiProperties;
+  private final ProductCategoryTreeResolverService treeResolverService;
+  private final ResponseCacheService responseCacheService;
 
   @Autowired
   public ProductCategoriesCrudServiceImpl(
     ProductsCategoriesRepository categoriesRepository,
     ProductCategoriesConverterService categoriesConverterService,
-    ProductCategoriesPatchService categoriesPatchService
+    ProductCategoriesPatchService categoriesPatchService,
+    LookupCacheService lookupCacheService,
+    ApiProperties apiProperties,
+    ProductCategoryTreeResolverService treeResolverService,
+    ResponseCacheService responseCacheService
   ) {
     super(categoriesRepository, categoriesConverterService, categoriesPatchService);
     this.categoriesRepository = categoriesRepository;
     this.categoriesPatchService = categoriesPatchService;
+    this.lookupCacheService = lookupCacheService;
+    this.apiProperties = apiProperties;
+    this.treeResolverService = treeResolverService;
+    this.responseCacheService = responseCacheService;
+  }
+
+  @Override
+  public ProductCategoryPojo create(ProductCategoryPojo input)
+    throws BadInputException, EntityExistsException {
+    ProductCategoryPojo result = super.create(input);
+    this.afterCategoriesChanged();
+    return result;
+  }
+
+  @Override
+  protected void persistAll(List<ProductCategoryPojo> inputs, List<ProductCategory> preparedEntities) {
+    super.persistAll(inputs, preparedEntities);
+    this.afterCategoriesChanged();
+  }
+
+  @Override
+  protected long deleteByIds(List<Long> ids) {
+    long deletedCount = super.deleteByIds(ids);
+    this.afterCategoriesChanged();
+    return deletedCount;
   }
 
   @Override
@@ -60,27 +101,88 @@ public class ProductCategoriesCrudServiceImpl
     if (StringUtils.isBlank(code)) {
       throw new BadInputException("Invalid category code");
     } else {
-      return this.categoriesRepository.findByCode(code);
+      return lookupCacheService.lookup(ProductCategory.class, "code", code, () -> this.categoriesRepository.findByCode(code));
     }
   }
 
+  /**
+   * Places the new category under its parent, if it has any, and sets its path accordingly.
+   */
   @Override
   protected final ProductCategory prepareNewEntityFromInputPojo(ProductCategoryPojo inputPojo) throws BadInputException {
     ProductCategory target = super.prepareNewEntityFromInputPojo(inputPojo);
     if (inputPojo.getParent() != null) {
       this.passParentIfMatchingEntityExists(target, inputPojo.getParent());
     }
+    ProductCategory parent = target.getParent();
+    if (parent != null) {
+      this.validateDepth(parent.getDepth() + 1);
+      target.setPath(parent.getDescendantsPath());
+    }
     return target;
   }
 
+  /**
+   * When the category is moved to another parent, the paths of all of its descendants are updated at once.
+   */
   @Override
   protected final ProductCategoryPojo persistEntityWithUpdatesFromPojo(ProductCategoryPojo changes, ProductCategory existingEntity) throws BadInputException {
-    ProductCategory preparedEntity = categoriesPatchService.patchExistingEntity(changes, existingEntity);
-    this.passParentIfMatchingEntityExists(preparedEntity, changes.getParent());
-    if (!existingEntity.equals(preparedEntity)) {
+    ChangeSet changeSet = categoriesPatchService.patchExistingEntity(changes, existingEntity);
+    String previousDescendantsPath = existingEntity.getDescendantsPath();
+    boolean moved = false;
+    ProductCategoryPojo sourceParent = changes.getParent();
+    if (sourceParent != null && sourceParent.getCode() != null) {
+      Optional<ProductCategory> parentMatch = categoriesRepository.findByCode(sourceParent.getCode());
+      if (parentMatch.isPresent()) {
+        ProductCategory parent = parentMatch.get();
+        ProductCategory currentParent = existingEntity.getParent();
+        if (currentParent == null || !currentParent.getId().equals(parent.getId())) {
+          this.validateMove(existingEntity, parent);
+        }
+        moved = changeSet.setReference("parent", parent, existingEntity::getParent, ProductCategory::getId,
+          existingEntity::setParent);
+        if (moved) {
+          existingEntity.setPath(parent.getDescendantsPath());
+        }
+      }
+    }
+    if (changeSet.isEmpty()) {
       return changes;
     }
-    return this.persist(preparedEntity);
+    ProductCategoryPojo result = this.persist(existingEntity);
+    if (moved) {
+      categoriesRepository.replacePathPrefix(previousDescendantsPath, existingEntity.getDescendantsPath());
+    }
+    this.afterCategoriesChanged();
+    return result;
+  }
+
+  /**
+   * Checks that a category is not moved under itself or any of its descendants, and that none of its descendants
+   * would end up nested deeper than allowed.
+   */
+  private void validateMove(ProductCategory category, ProductCategory newParent) throws BadInputException {
+    String descendantsPath = category.getDescendantsPath();
+    if (newParent.getId().equals(category.getId()) || newParent.getDescendantsPath().startsWith(descendantsPath)) {
+      throw new BadInputException("A category cannot be moved under itself nor any of its descendants");
+    }
+    int levelsBelow = 0;
+    for (String path : categoriesRepository.findPathsByPathStartingWith(descendantsPath)) {
+      levelsBelow = Math.max(levelsBelow, ProductCategory.depthOf(path) - category.getDepth());
+    }
+    this.validateDepth(newParent.getDepth() + 1 + levelsBelow);
+  }
+
+  private void validateDepth(int depth) throws BadInputException {
+    int maxDepth = apiProperties.getMaxCategoryFetchingRecursionDepth();
+    if (depth > maxDepth) {
+      throw new BadInputException("Categories cannot be nested more than " + maxDepth + " levels deep");
+    }
+  }
+
+  private void afterCategoriesChanged() {
+    treeResolverService.refreshTree();
+    responseCacheService.invalidate(ResponseCacheSource.PRODUCT_CATEGORIES);
   }
 
   private void passParentIfMatchingEntityExists(ProductCategory target, ProductCategoryPojo sourceParent) {
@@ -20,12 +20,16 @@
 
 package org.trebol.jpa.services.crud.impl;
 
-import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Path;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.trebol.api.models.ProductListPojo;
+import org.trebol.api.services.ResponseCacheService;
+import org.trebol.api.services.ResponseCacheSource;
+import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.ProductList;
+import org.trebol.jpa.entities.QProductListItem;
 import org.trebol.jpa.repositories.ProductListItemsRepository;
 import org.trebol.jpa.repositories.ProductListsRepository;
 import org.trebol.jpa.services.conversion.ProductListsConverterService;
@@ -33,7 +37,8 @@ import org.trebol.jpa.services.crud.CrudGenericService;
 import org.trebol.jpa.services.crud.ProductListCrudService;
 import org.trebol.jpa.services.patch.ProductListsPatchService;
 
-import javax.persistence.EntityNotFoundException;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Transactional
@@ -43,32 +48,45 @@ public class ProductListsCrudServiceImpl
   implements ProductListCrudService {
   private final ProductListsRepository listsRepository;
   private final ProductListItemsRepository listItemsRepository;
+  private final ResponseCacheService responseCacheService;
 
   @Autowired
   public ProductListsCrudServiceImpl(
     ProductListsRepository listsRepository,
     ProductListItemsRepository listItemsRepository,
     ProductListsConverterService listsConverterService,
-    ProductListsPatchService listsPatchService
+    ProductListsPatchService listsPatchService,
+    ResponseCacheService responseCacheService
   ) {
     super(listsRepository, listsConverterService, listsPatchService);
     this.listsRepository = listsRepository;
     this.listItemsRepository = listItemsRepository;
+    this.responseCacheService = responseCacheService;
   }
 
   @Override
-  public void delete(Predicate filters)
-    throws EntityNotFoundException {
-    long count = listsRepository.count(filters);
-    if (count == 0) {
-      throw new EntityNotFoundException(ITEM_NOT_FOUND);
-    } else {
-      for (ProductList list : listsRepository.findAll(filters)) {
-        listItemsRepository.deleteByListId(list.getId());
-      }
+  protected long updateByIds(List<Long> ids, Map<Path<?>, Object> values) {
+    long updatedCount = super.updateByIds(ids, values);
+    responseCacheService.invalidate(ResponseCacheSource.PRODUCT_LISTS);
+    return updatedCount;
+  }
 
-      listsRepository.deleteAll(listsRepository.findAll(filters));
-    }
+  /**
+   * Deletes the items of the lists first.
+   */
+  @Override
+  protected long deleteByIds(List<Long> ids) {
+    listItemsRepository.deleteWhere(QProductListItem.productListItem.list.id.in(ids));
+    responseCacheService.invalidate(ResponseCacheSource.PRODUCT_LISTS);
+    return super.deleteByIds(ids);
+  }
+
+  @Override
+  protected ProductListPojo persistEntityWithUpdatesFromPojo(ProductListPojo changes, ProductList existingEntity)
+    throws BadInputException {
+    ProductListPojo result = super.persistEntityWithUpdatesFromPojo(changes, existingEntity);
+    responseCacheService.invalidate(ResponseCacheSource.PRODUCT_LISTS);
+    return result;
   }
 
   @Override
@@ -20,22 +20,36 @@
 
 package org.trebol.jpa.services.crud.impl;
 
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Path;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.trebol.api.models.ImagePojo;
 import org.trebol.api.models.ProductCategoryPojo;
 import org.trebol.api.models.ProductPojo;
+import org.trebol.api.services.ResponseCacheService;
+import org.trebol.api.services.ResponseCacheSource;
 import org.trebol.common.exceptions.BadInputException;
+import org.trebol.jpa.ListProjection;
 import org.trebol.jpa.entities.Image;
 import org.trebol.jpa.entities.Product;
 import org.trebol.jpa.entities.ProductCategory;
 import org.trebol.jpa.entities.ProductImage;
+import org.trebol.jpa.entities.QProduct;
+import org.trebol.jpa.entities.QProductImage;
+import org.trebol.jpa.entities.QProductListItem;
+import org.trebol.jpa.projections.ProductsProjection;
 import org.trebol.jpa.repositories.ProductImagesRepository;
+import org.trebol.jpa.repositories.ProductListItemsRepository;
 import org.trebol.jpa.repositories.ProductsRepository;
+import org.trebol.jpa.services.ChangeSet;
+import org.trebol.jpa.services.LookupCacheService;
+import org.trebol.jpa.services.ProductSearchIndexService;
 import org.trebol.jpa.services.conversion.ImagesConverterService;
 import org.trebol.jpa.services.conversion.ProductCategoriesConverterService;
 import org.trebol.jpa.services.conversion.ProductsConverterService;
@@ -46,24 +60,36 @@ import org.trebol.jpa.services.crud.ProductsCrudService;
 import org.trebol.jpa.services.patch.ProductsPatchService;
 
 import javax.persistence.EntityExistsException;
+import javax.validation.Validator;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Transactional
 @Service
 public class ProductsCrudServiceImpl
   extends CrudGenericService<ProductPojo, Product>
   implements ProductsCrudService {
+  private static final String IMAGES_FIELD = "images";
   private final ProductsRepository productsRepository;
   private final ProductsConverterService productsConverterService;
   private final ProductsPatchService productsPatchService;
   private final ProductImagesRepository productImagesRepository;
+  private final ProductListItemsRepository listItemsRepository;
   private final ImagesCrudService imagesCrudService;
   private final ProductCategoriesCrudService categoriesCrudService;
   private final ProductCategoriesConverterService categoriesConverterService;
   private final ImagesConverterService imageConverterService;
+  private final Validator validator;
+  private final LookupCacheService lookupCacheService;
+  private final ProductSearchIndexService searchIndexService;
+  private final ResponseCacheService responseCacheService;
   private final Logger logger = LoggerFactory.getLogger(ProductsCrudServiceImpl.class);
 
   @Autowired
@@ -72,10 +98,15 @@ public class ProductsCrudServiceImpl
     ProductsConverterService productsConverterService,
     ProductsPatchService productsPatchService,
     ProductImagesRepository productImagesRepository,
+    ProductListItemsRepository listItemsRepository,
     ImagesCrudService imagesCrudService,
     ProductCategoriesCrudService categoriesCrudService,
     ProductCategoriesConverterService categoriesConverterService,
-    ImagesConverterService imageConverterService
+    ImagesConverterService imageConverterService,
+    Validator validator,
+    LookupCacheService lookupCacheService,
+    ProductSearchIndexService searchIndexService,
+    ResponseCacheService responseCacheService
   ) {
     super(productsRepository, productsConverterService, productsPatchService);
     this.productsRepository = productsRepository;
@@ -84,8 +115,13 @@ public class ProductsCrudServiceImpl
     this.imagesCrudService = imagesCrudService;
     this.categoriesConverterService = categoriesConverterService;
     this.productImagesRepository = productImagesRepository;
+    this.listItemsRepository = listItemsRepository;
     this.categoriesCrudService = categoriesCrudService;
     this.imageConverterService = imageConverterService;
+    this.validator = validator;
+    this.lookupCacheService = lookupCacheService;
+    this.searchIndexService = searchIndexService;
+    this.responseCacheService = responseCacheService;
   }
 
   @Transactional
@@ -117,10 +153,95 @@ public class ProductsCrudServiceImpl
       }
     }
     productsRepository.save(persistent);
+    searchIndexService.index(List.of(outputPojo));
+    responseCacheService.invalidate(ResponseCacheSource.PRODUCTS);
 
     return outputPojo;
   }
 
+  /**
+   * Links products to their categories before saving them all, and then saves the links to their images all at once.
+   */
+  @Override
+  protected void persistAll(List<ProductPojo> inputs, List<Product> preparedEntities) {
+    Map<ProductCategoryPojo, Optional<ProductCategory>> categoriesCache = new HashMap<>();
+    for (int i = 0; i < inputs.size(); i++) {
+      ProductCategoryPojo inputCategory = inputs.get(i).getCategory();
+      if (inputCategory != null) {
+        Product product = preparedEntities.get(i);
+        this.findCategory(inputCategory, categoriesCache).ifPresent(product::setProductCategory);
+      }
+    }
+    productsRepository.saveAll(preparedEntities);
+    List<ProductImage> productImages = new ArrayList<>();
+    for (int i = 0; i < inputs.size(); i++) {
+      Collection<ImagePojo> inputImages = inputs.get(i).getImages();
+      if (inputImages != null && !inputImages.isEmpty()) {
+        productImages.addAll(this.makeTransientProductImages(preparedEntities.get(i), inputImages));
+      }
+    }
+    productImagesRepository.saveAll(productImages);
+    this.reindex(preparedEntities.stream()
+      .map(Product::getId)
+      .collect(Collectors.toList()));
+  }
+
+  /**
+   * Reindexes the updated products, as their description or category may have changed.
+   */
+  @Override
+  protected long updateByIds(List<Long> ids, Map<Path<?>, Object> values) {
+    long updatedCount = super.updateByIds(ids, values);
+    this.reindex(ids);
+    return updatedCount;
+  }
+
+  /**
+   * Products can change their description, price and category in bulk.
+   * Their names and barcodes are unique, so those cannot be changed like this.
+   */
+  @Override
+  protected Map<Path<?>, Object> getBulkUpdateValues(ProductPojo changes)
+    throws BadInputException {
+    if (changes.getName() != null || changes.getBarcode() != null) {
+      throw new BadInputException("Product names and barcodes are unique, they cannot be updated in bulk");
+    }
+    Map<Path<?>, Object> values = new HashMap<>();
+    if (changes.getDescription() != null) {
+      values.put(QProduct.product.description, changes.getDescription());
+    }
+    if (changes.getPrice() != null) {
+      values.put(QProduct.product.price, changes.getPrice());
+    }
+    if (changes.getCategory() != null) {
+      Optional<ProductCategory> category = categoriesCrudService.getExisting(changes.getCategory());
+      if (category.isEmpty()) {
+        throw new BadInputException("Product category does not exist");
+      }
+      values.put(QProduct.product.productCategory, category.get());
+    }
+    return values;
+  }
+
+  /**
+   * Unlinks the products from their images, removes them from any product lists and from the search index
+   * before deleting them, and discards any cached responses.
+   */
+  @Override
+  protected long deleteByIds(List<Long> ids) {
+    productImagesRepository.deleteWhere(QProductImage.productImage.product.id.in(ids));
+    listItemsRepository.deleteWhere(QProductListItem.productListItem.product.id.in(ids));
+    searchIndexService.remove(ids);
+    responseCacheService.invalidate(ResponseCacheSource.PRODUCTS);
+    return super.deleteByIds(ids);
+  }
+
+  @Override
+  protected void validateBatchInputPojo(ProductPojo inputPojo)
+    throws BadInputException {
+    this.validateConstraints(validator, inputPojo, "product");
+  }
+
   @Override
   public Optional<Product> getExisting(ProductPojo input)
     throws BadInputException {
@@ -128,45 +249,97 @@ public class ProductsCrudServiceImpl
     if (StringUtils.isBlank(barcode)) {
       throw new BadInputException("Invalid product barcode");
     } else {
-      return productsRepository.findByBarcode(barcode);
+      return lookupCacheService.lookup(Product.class, "barcode", barcode, () -> productsRepository.findByBarcode(barcode));
+    }
+  }
+
+  /**
+   * Products include their category and images, so changes to any of these are also covered
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<String> readVersionTag() {
+    return productsRepository.findVersionTag(ProductCategory.class, Image.class, ProductImage.class);
+  }
+
+  @Override
+  protected Optional<ListProjection<ProductPojo>> getListProjection() {
+    return Optional.of(ProductsProjection.LIST_VIEW);
+  }
+
+  /**
+   * Selects the images of all products at once, unless they were not requested
+   */
+  @Override
+  protected void completeListItems(List<ProductPojo> items, @Nullable Set<String> fields) {
+    if (items.isEmpty() || (fields != null && !fields.contains(IMAGES_FIELD))) {
+      return;
+    }
+    List<Long> ids = items.stream()
+      .map(ProductPojo::getId)
+      .collect(Collectors.toList());
+    Map<Long, Set<ImagePojo>> imagesByProductId = new HashMap<>();
+    for (Tuple row : productImagesRepository.findAll(ProductsProjection.IMAGES_VIEW, ProductsProjection.IMAGE_PRODUCT_ID.in(ids))) {
+      imagesByProductId.computeIfAbsent(row.get(ProductsProjection.IMAGE_PRODUCT_ID), id -> new HashSet<>())
+        .add(row.get(ProductsProjection.IMAGE));
+    }
+    for (ProductPojo item : items) {
+      item.setImages(imagesByProductId.getOrDefault(item.getId(), new HashSet<>()));
     }
   }
 
   @Override
   protected ProductPojo persistEntityWithUpdatesFromPojo(ProductPojo changes, Product existingEntity)
     throws BadInputException {
-    Product localChanges = productsPatchService.patchExistingEntity(changes, existingEntity);
-    Product persistent = productsRepository.saveAndFlush(localChanges);
-    ProductPojo outputPojo = productsConverterService.convertToPojo(persistent);
-    if (outputPojo == null) {
-      throw new IllegalStateException("Conversion service returned null when requested to convert one " +
-        "persisted Product to a ProductPojo");
+    ChangeSet changeSet = productsPatchService.patchExistingEntity(changes, existingEntity);
+
+    // one-Product-to-one-ProductCategory
+    ProductCategory category = null;
+    ProductCategoryPojo inputCategory = changes.getCategory();
+    if (inputCategory != null) {
+      category = categoriesCrudService.getExisting(inputCategory).orElse(null);
+    }
+    changeSet.setReference("productCategory", category, existingEntity::getProductCategory, ProductCategory::getId,
+      existingEntity::setProductCategory);
+    if (!changeSet.isEmpty()) {
+      productsRepository.saveAndFlush(existingEntity);
     }
 
-    // one-Product-to-many-Images
-    productImagesRepository.deleteByProductId(persistent.getId());
+    // one-Product-to-many-Images; only replaced when they are not the same ones
     Collection<ImagePojo> inputPojoImages = changes.getImages();
-    if (inputPojoImages != null) {
-      List<ProductImage> resultImages = this.makeTransientProductImages(persistent, inputPojoImages);
+    List<ProductImage> resultImages = (inputPojoImages == null) ?
+      List.of() :
+      this.makeTransientProductImages(existingEntity, inputPojoImages);
+    List<ProductImage> currentImages = productImagesRepository.findByProductId(existingEntity.getId());
+    if (!this.getImageIds(currentImages).equals(this.getImageIds(resultImages))) {
+      productImagesRepository.deleteByProductId(existingEntity.getId());
       productImagesRepository.saveAll(resultImages);
-      this.addImagesToPojo(resultImages, outputPojo);
     }
 
-    // one-Product-to-one-ProductCategory
-    persistent.setProductCategory(null);
-    ProductCategoryPojo inputCategory = changes.getCategory();
-    if (inputCategory != null) {
-      Optional<ProductCategory> match = categoriesCrudService.getExisting(inputCategory);
-      if (match.isPresent()) {
-        ProductCategory existingCategory = match.get();
-        persistent.setProductCategory(existingCategory);
-        ProductCategoryPojo outputCategory = categoriesConverterService.convertToPojo(existingCategory);
-        outputPojo.setCategory(outputCategory);
-      }
+    ProductPojo outputPojo = productsConverterService.convertToPojo(existingEntity);
+    if (outputPojo == null) {
+      throw new IllegalStateException("Conversion service returned null when requested to convert one " +
+        "persisted Product to a ProductPojo");
     }
+    searchIndexService.index(List.of(outputPojo));
+    responseCacheService.invalidate(ResponseCacheSource.PRODUCTS);
     return outputPojo;
   }
 
+  /**
+   * Also discards any cached responses, as all callers have just changed these products.
+   */
+  private void reindex(List<Long> ids) {
+    searchIndexService.index(productsRepository.findAll(ProductsProjection.LIST_VIEW, QProduct.product.id.in(ids)));
+    responseCacheService.invalidate(ResponseCacheSource.PRODUCTS);
+  }
+
+  private Set<Long> getImageIds(List<ProductImage> productImages) {
+    return productImages.stream()
+      .map(productImage -> productImage.getImage().getId())
+      .collect(Collectors.toSet());
+  }
+
   private void addImagesToPojo(List<ProductImage> resultImages, ProductPojo outputPojo) {
     Collection<ImagePojo> outputImages = new ArrayList<>();
     for (ProductImage productImage : resultImages) {
@@ -176,6 +349,21 @@ public class ProductsCrudServiceImpl
     outputPojo.setImages(outputImages);
   }
 
+  private Optional<ProductCategory> findCategory(
+    ProductCategoryPojo inputCategory,
+    Map<ProductCategoryPojo, Optional<ProductCategory>> categoriesCache
+  ) {
+    if (!categoriesCache.containsKey(inputCategory)) {
+      try {
+        categoriesCache.put(inputCategory, categoriesCrudService.getExisting(inputCategory));
+      } catch (BadInputException ex) {
+        logger.debug("A product was not linked to category with code '{}'", inputCategory.getCode());
+        categoriesCache.put(inputCategory, Optional.empty());
+      }
+    }
+    return categoriesCache.get(inputCategory);
+  }
+
   /**
    * Creates transient instances of the ProductImages entity (for the one-to-many relationship).
    * It does NOT persist these instances.
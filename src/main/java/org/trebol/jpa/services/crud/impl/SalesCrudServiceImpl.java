@@ -20,6 +20,7 @@
 
 package org.trebol.jpa.services.crud.impl;
 
+import com.querydsl.core.types.Path;
 import com.querydsl.core.types.Predicate;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,11 +29,16 @@ import org.springframework.transaction.annotation.Transactional;
 import org.trebol.api.models.*;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.config.ApiProperties;
+import org.trebol.jpa.ListProjection;
 import org.trebol.jpa.entities.*;
+import org.trebol.jpa.projections.SalesProjection;
 import org.trebol.jpa.repositories.AddressesRepository;
 import org.trebol.jpa.repositories.BillingTypesRepository;
 import org.trebol.jpa.repositories.ProductsRepository;
 import org.trebol.jpa.repositories.SalesRepository;
+import org.trebol.jpa.repositories.SellDetailsRepository;
+import org.trebol.jpa.services.ChangeSet;
+import org.trebol.jpa.services.StockReservationService;
 import org.trebol.jpa.services.conversion.*;
 import org.trebol.jpa.services.crud.*;
 import org.trebol.jpa.services.patch.SalesPatchService;
@@ -40,10 +46,14 @@ import org.trebol.jpa.services.patch.SalesPatchService;
 import javax.persistence.EntityNotFoundException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.trebol.config.Constants.BILLING_TYPE_ENTERPRISE;
+import static org.trebol.config.Constants.SELL_STATUS_PAYMENT_STARTED_CODE;
+import static org.trebol.config.Constants.SELL_STATUS_PENDING_CODE;
 
 @Transactional
 @Service
@@ -51,6 +61,7 @@ public class SalesCrudServiceImpl
   extends CrudGenericService<SellPojo, Sell>
   implements SalesCrudService {
   private final SalesRepository salesRepository;
+  private final SellDetailsRepository sellDetailsRepository;
   private final SalesConverterService salesConverterService;
   private final SalesPatchService salesPatchService;
   private final ProductsRepository productsRepository;
@@ -63,13 +74,16 @@ public class SalesCrudServiceImpl
   // private final PaymentTypesJpaRepository paymentTypesRepository;
   private final AddressesRepository addressesRepository;
   private final ShippersCrudService shippersCrudService;
+  private final SalespeopleCrudService salespeopleCrudService;
   private final AddressesConverterService addressesConverterService;
   private final ApiProperties apiProperties;
+  private final StockReservationService stockReservationService;
   private static final double TAX_PERCENT = 0.19; // TODO refactor into a "tax service" of sorts
 
   @Autowired
   public SalesCrudServiceImpl(
     SalesRepository salesRepository,
+    SellDetailsRepository sellDetailsRepository,
     ProductsRepository productsRepository,
     SalesConverterService salesConverterService,
     SalesPatchService salesPatchService,
@@ -82,11 +96,14 @@ public class SalesCrudServiceImpl
     // PaymentTypesJpaRepository paymentTypesRepository,
     AddressesRepository addressesRepository,
     ShippersCrudService shippersCrudService,
+    SalespeopleCrudService salespeopleCrudService,
     AddressesConverterService addressesConverterService,
-    ApiProperties apiProperties
+    ApiProperties apiProperties,
+    StockReservationService stockReservationService
   ) {
     super(salesRepository, salesConverterService, salesPatchService);
     this.salesRepository = salesRepository;
+    this.sellDetailsRepository = sellDetailsRepository;
     this.productsRepository = productsRepository;
     this.salesConverterService = salesConverterService;
     this.salesPatchService = salesPatchService;
@@ -99,8 +116,10 @@ public class SalesCrudServiceImpl
     // this.paymentTypesRepository = paymentTypesRepository;
     this.addressesRepository = addressesRepository;
     this.shippersCrudService = shippersCrudService;
+    this.salespeopleCrudService = salespeopleCrudService;
     this.addressesConverterService = addressesConverterService;
     this.apiProperties = apiProperties;
+    this.stockReservationService = stockReservationService;
   }
 
   @Override
@@ -128,6 +147,53 @@ public class SalesCrudServiceImpl
     }
   }
 
+  @Override
+  protected Optional<ListProjection<SellPojo>> getListProjection() {
+    return Optional.of(SalesProjection.LIST_VIEW);
+  }
+
+  /**
+   * Sales can be reassigned to another salesperson or shipper in bulk.
+   */
+  @Override
+  protected Map<Path<?>, Object> getBulkUpdateValues(SellPojo changes)
+    throws BadInputException {
+    Map<Path<?>, Object> values = new HashMap<>();
+    SalespersonPojo salesperson = changes.getSalesperson();
+    if (salesperson != null) {
+      if (salesperson.getPerson() == null) {
+        throw new BadInputException("Salesperson must possess valid personal information");
+      }
+      Optional<Salesperson> existingSalesperson = salespeopleCrudService.getExisting(salesperson);
+      if (existingSalesperson.isEmpty()) {
+        throw new BadInputException("Salesperson does not exist");
+      }
+      values.put(QSell.sell.salesperson, existingSalesperson.get());
+    }
+    ShipperPojo shipper = changes.getShipper();
+    if (shipper != null) {
+      Optional<Shipper> existingShipper = shippersCrudService.getExisting(shipper);
+      if (existingShipper.isEmpty()) {
+        throw new BadInputException("Shipper does not exist");
+      }
+      values.put(QSell.sell.shipper, existingShipper.get());
+    }
+    return values;
+  }
+
+  /**
+   * Deletes the details of the sales first, putting back the stock reserved by those that were still waiting for
+   * payment.
+   */
+  @Override
+  protected long deleteByIds(List<Long> ids) {
+    List<SellDetail> reservedDetails = sellDetailsRepository.findBySellIdsAndStatusCodes(ids,
+      List.of(SELL_STATUS_PENDING_CODE, SELL_STATUS_PAYMENT_STARTED_CODE));
+    stockReservationService.release(reservedDetails);
+    sellDetailsRepository.deleteWhere(QSellDetail.sellDetail.sell.id.in(ids));
+    return super.deleteByIds(ids);
+  }
+
   @Override
   protected SellPojo persistEntityWithUpdatesFromPojo(SellPojo changes, Sell existingEntity)
     throws BadInputException {
@@ -135,13 +201,17 @@ public class SalesCrudServiceImpl
     if ((statusCode >= 3 || statusCode < 0) && !apiProperties.isAbleToEditSalesAfterBeingProcessed()) {
       throw new BadInputException("The requested transaction cannot be modified");
     }
-    Sell updatedEntity = salesPatchService.patchExistingEntity(changes, existingEntity);
-    if (updatedEntity.equals(existingEntity)) {
+    ChangeSet changeSet = salesPatchService.patchExistingEntity(changes, existingEntity);
+    if (changeSet.isEmpty()) {
       return changes;
     }
-    return this.persist(updatedEntity);
+    return this.persist(existingEntity);
   }
 
+  /**
+   * Also reserves the stock of the products in the sell, as the last step, so that the rows of those products stay
+   * locked for as short as possible.
+   */
   @Override
   protected Sell prepareNewEntityFromInputPojo(SellPojo inputPojo) throws BadInputException {
     Sell target = salesConverterService.convertToNewEntity(inputPojo);
@@ -202,6 +272,7 @@ public class SalesCrudServiceImpl
     List<SellDetail> detailEntities = this.convertDetailsToEntities(inputPojo.getDetails());
     target.setDetails(detailEntities);
     this.updateTotals(target);
+    stockReservationService.reserve(detailEntities);
     return target;
   }
 
@@ -27,12 +27,14 @@ import org.springframework.transaction.annotation.Transactional;
 import org.trebol.api.models.SalespersonPojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Salesperson;
+import org.trebol.jpa.repositories.PeopleRepository;
 import org.trebol.jpa.repositories.SalespeopleRepository;
 import org.trebol.jpa.services.conversion.SalespeopleConverterService;
 import org.trebol.jpa.services.crud.CrudGenericService;
 import org.trebol.jpa.services.crud.SalespeopleCrudService;
 import org.trebol.jpa.services.patch.SalespeoplePatchService;
 
+import java.util.List;
 import java.util.Optional;
 
 @Transactional
@@ -41,15 +43,18 @@ public class SalespeopleCrudServiceImpl
   extends CrudGenericService<SalespersonPojo, Salesperson>
   implements SalespeopleCrudService {
   private final SalespeopleRepository salespeopleRepository;
+  private final PeopleRepository peopleRepository;
 
   @Autowired
   public SalespeopleCrudServiceImpl(
     SalespeopleRepository salespeopleRepository,
+    PeopleRepository peopleRepository,
     SalespeopleConverterService salespeopleConverterService,
     SalespeoplePatchService salespeoplePatchService
   ) {
     super(salespeopleRepository, salespeopleConverterService, salespeoplePatchService);
     this.salespeopleRepository = salespeopleRepository;
+    this.peopleRepository = peopleRepository;
   }
 
   @Override
@@ -61,4 +66,15 @@ public class SalespeopleCrudServiceImpl
       return salespeopleRepository.findByPersonIdNumber(idNumber);
     }
   }
+
+  /**
+   * Deletes the people behind the salespeople as well, just like persisting them creates those people too.
+   */
+  @Override
+  protected long deleteByIds(List<Long> ids) {
+    List<Long> personIds = salespeopleRepository.findPersonIdsByIds(ids);
+    long deletedCount = super.deleteByIds(ids);
+    peopleRepository.deleteByIds(personIds);
+    return deletedCount;
+  }
 }
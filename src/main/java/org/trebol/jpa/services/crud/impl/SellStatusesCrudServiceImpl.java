@@ -28,6 +28,7 @@ import org.trebol.api.models.SellStatusPojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.SellStatus;
 import org.trebol.jpa.repositories.SellStatusesRepository;
+import org.trebol.jpa.services.LookupCacheService;
 import org.trebol.jpa.services.conversion.SellStatusesConverterService;
 import org.trebol.jpa.services.crud.CrudGenericService;
 import org.trebol.jpa.services.crud.SellStatusesCrudService;
@@ -41,15 +42,18 @@ public class SellStatusesCrudServiceImpl
   extends CrudGenericService<SellStatusPojo, SellStatus>
   implements SellStatusesCrudService {
   private final SellStatusesRepository statusesRepository;
+  private final LookupCacheService lookupCacheService;
 
   @Autowired
   public SellStatusesCrudServiceImpl(
     SellStatusesRepository statusesRepository,
     SellStatusesConverterService statusesConverterService,
-    SellStatusesPatchService statusesPatchService
+    SellStatusesPatchService statusesPatchService,
+    LookupCacheService lookupCacheService
   ) {
     super(statusesRepository, statusesConverterService, statusesPatchService);
     this.statusesRepository = statusesRepository;
+    this.lookupCacheService = lookupCacheService;
   }
 
   @Override
@@ -58,7 +62,7 @@ public class SellStatusesCrudServiceImpl
     if (StringUtils.isBlank(name)) {
       throw new BadInputException("Invalid status name");
     } else {
-      return statusesRepository.findByName(name);
+      return lookupCacheService.lookup(SellStatus.class, "name", name, () -> statusesRepository.findByName(name));
     }
   }
 }
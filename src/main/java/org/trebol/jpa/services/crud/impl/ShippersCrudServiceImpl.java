@@ -28,6 +28,7 @@ import org.trebol.api.models.ShipperPojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Shipper;
 import org.trebol.jpa.repositories.ShippersRepository;
+import org.trebol.jpa.services.LookupCacheService;
 import org.trebol.jpa.services.conversion.ShippersConverterService;
 import org.trebol.jpa.services.crud.CrudGenericService;
 import org.trebol.jpa.services.crud.ShippersCrudService;
@@ -41,15 +42,18 @@ public class ShippersCrudServiceImpl
   extends CrudGenericService<ShipperPojo, Shipper>
   implements ShippersCrudService {
   private final ShippersRepository shippersRepository;
+  private final LookupCacheService lookupCacheService;
 
   @Autowired
   public ShippersCrudServiceImpl(
     ShippersRepository shippersRepository,
     ShippersConverterService shippersConverterService,
-    ShippersPatchService shippersPatchService
+    ShippersPatchService shippersPatchService,
+    LookupCacheService lookupCacheService
   ) {
     super(shippersRepository, shippersConverterService, shippersPatchService);
     this.shippersRepository = shippersRepository;
+    this.lookupCacheService = lookupCacheService;
   }
 
   @Override
@@ -58,7 +62,7 @@ public class ShippersCrudServiceImpl
     if (StringUtils.isBlank(name)) {
       throw new BadInputException("Billing type has no name");
     } else {
-      return shippersRepository.findByName(name);
+      return lookupCacheService.lookup(Shipper.class, "name", name, () -> shippersRepository.findByName(name));
     }
   }
 }
@@ -28,6 +28,7 @@ import org.trebol.api.models.UserRolePojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.UserRole;
 import org.trebol.jpa.repositories.UserRolesRepository;
+import org.trebol.jpa.services.LookupCacheService;
 import org.trebol.jpa.services.conversion.UserRolesConverterService;
 import org.trebol.jpa.services.crud.CrudGenericService;
 import org.trebol.jpa.services.crud.UserRolesCrudService;
@@ -41,15 +42,18 @@ public class UserRolesCrudServiceImpl
   extends CrudGenericService<UserRolePojo, UserRole>
   implements UserRolesCrudService {
   private final UserRolesRepository rolesRepository;
+  private final LookupCacheService lookupCacheService;
 
   @Autowired
   public UserRolesCrudServiceImpl(
     UserRolesRepository rolesRepository,
     UserRolesConverterService rolesConverterService,
-    UserRolesPatchService rolesPatchService
+    UserRolesPatchService rolesPatchService,
+    LookupCacheService lookupCacheService
   ) {
     super(rolesRepository, rolesConverterService, rolesPatchService);
     this.rolesRepository = rolesRepository;
+    this.lookupCacheService = lookupCacheService;
   }
 
   @Override
@@ -58,7 +62,7 @@ public class UserRolesCrudServiceImpl
     if (StringUtils.isBlank(name)) {
       throw new BadInputException("Invalid user role name");
     } else {
-      return rolesRepository.findByName(name);
+      return lookupCacheService.lookup(UserRole.class, "name", name, () -> rolesRepository.findByName(name));
     }
   }
 }
@@ -28,7 +28,9 @@ import org.springframework.transaction.annotation.Transactional;
 import org.trebol.api.models.UserPojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.config.SecurityProperties;
+import org.trebol.jpa.ListProjection;
 import org.trebol.jpa.entities.User;
+import org.trebol.jpa.projections.UsersProjection;
 import org.trebol.jpa.repositories.UsersRepository;
 import org.trebol.jpa.services.conversion.UsersConverterService;
 import org.trebol.jpa.services.crud.CrudGenericService;
@@ -69,7 +71,12 @@ public class UsersCrudServiceImpl
   }
 
   @Override
-  public void delete(Predicate filters) throws EntityNotFoundException {
+  protected Optional<ListProjection<UserPojo>> getListProjection() {
+    return Optional.of(UsersProjection.LIST_VIEW);
+  }
+
+  @Override
+  public long delete(Predicate filters) throws EntityNotFoundException {
     if (securityProperties.isAccountProtectionEnabled()) {
       Optional<User> optionalUser = usersRepository.findOne(filters);
       if (optionalUser.isPresent()) {
@@ -79,6 +86,6 @@ public class UsersCrudServiceImpl
         }
       }
     }
-    super.delete(filters);
+    return super.delete(filters);
   }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.trebol.jpa.services.IdentifierSequencesService;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * Products, product images, customers and people used to be given their identifiers by auto-increment columns.
+ * Their sequences start at 1 wherever they are created over existing rows, so they are moved past those rows on
+ * startup, before any new identifier is taken from them.<br/>
+ * Sequences are read with {@code NEXT VALUE FOR} and moved with {@code ALTER SEQUENCE ... RESTART WITH}, which both
+ * MariaDB and H2 support; the value taken to read them is simply skipped.
+ */
+@Service
+public class IdentifierSequencesServiceImpl
+  implements IdentifierSequencesService {
+  /**
+   * Must match the allocation size of the sequence generators of those entities
+   */
+  private static final int ALLOCATION_SIZE = 50;
+  private static final List<IdentifierSequence> SEQUENCES = List.of(
+    new IdentifierSequence("products_seq", "products", "product_id"),
+    new IdentifierSequence("product_images_seq", "product_images", "product_image_id"),
+    new IdentifierSequence("customers_seq", "customers", "customer_id"),
+    new IdentifierSequence("people_seq", "people", "person_id"));
+  private final Logger logger = LoggerFactory.getLogger(IdentifierSequencesServiceImpl.class);
+  private final EntityManager entityManager;
+
+  @Autowired
+  public IdentifierSequencesServiceImpl(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  /**
+   * Hibernate hands out the identifiers between each value it takes from a sequence and the value before it, so the
+   * identifiers that follow the value read here begin right after it. When that value is below the largest identifier
+   * in the table, the sequence is restarted so that its next block begins right after that identifier instead.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional
+  @Override
+  public int advancePastExistingIdentifiers() {
+    int restartedCount = 0;
+    for (IdentifierSequence sequence : SEQUENCES) {
+      long maxId = ((Number) entityManager
+        .createNativeQuery("SELECT COALESCE(MAX(" + sequence.idColumn + "), 0) FROM " + sequence.table)
+        .getSingleResult()).longValue();
+      long nextValue = ((Number) entityManager
+        .createNativeQuery("SELECT NEXT VALUE FOR " + sequence.name)
+        .getSingleResult()).longValue();
+      if (nextValue < maxId) {
+        long restartValue = maxId + ALLOCATION_SIZE;
+        entityManager.createNativeQuery("ALTER SEQUENCE " + sequence.name + " RESTART WITH " + restartValue)
+          .executeUpdate();
+        logger.info("Restarted sequence {} with {}, past the identifiers already in table {}",
+          sequence.name, restartValue, sequence.table);
+        restartedCount++;
+      }
+    }
+    return restartedCount;
+  }
+
+  private static class IdentifierSequence {
+    private final String name;
+    private final String table;
+    private final String idColumn;
+
+    private IdentifierSequence(String name, String table, String idColumn) {
+      this.name = name;
+      this.table = table;
+      this.idColumn = idColumn;
+    }
+  }
+}
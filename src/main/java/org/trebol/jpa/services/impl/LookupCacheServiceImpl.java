@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services.impl;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.trebol.jpa.services.LookupCacheService;
+
+import javax.persistence.EntityManager;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps its entries as an attribute of the current web request, so they are discarded along with it.<br/>
+ * Remembered entities may have been fetched by an earlier transaction of the same request; when they are requested
+ * again from within another transaction, a reference to them is handed out instead, so that they can still be
+ * associated to other entities being persisted.
+ */
+@Service
+public class LookupCacheServiceImpl
+  implements LookupCacheService {
+  private static final String ENTRIES_ATTRIBUTE = LookupCacheServiceImpl.class.getName() + ".ENTRIES";
+  private final Logger logger = LoggerFactory.getLogger(LookupCacheServiceImpl.class);
+  private final EntityManager entityManager;
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  @Autowired
+  public LookupCacheServiceImpl(
+    EntityManager entityManager
+  ) {
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public <E> Optional<E> lookup(Class<E> entityType, String keyName, Object key, Supplier<Optional<E>> finder) {
+    Entries entries = this.getCurrentRequestEntries();
+    if (entries == null) {
+      return finder.get();
+    }
+    List<Object> cacheKey = List.of(entityType, keyName, key);
+    Object remembered = entries.values.get(cacheKey);
+    if (remembered != null) {
+      this.countHit(entries);
+      return Optional.of(this.reattach(entityType, entityType.cast(remembered)));
+    }
+    this.countMiss(entries);
+    Optional<E> found = finder.get();
+    found.ifPresent(entity -> entries.values.put(cacheKey, entity));
+    return found;
+  }
+
+  @Override
+  public <P> P convert(Class<?> entityType, @Nullable Long id, Class<P> pojoType, Supplier<P> converter) {
+    Entries entries = this.getCurrentRequestEntries();
+    if (entries == null || id == null) {
+      return converter.get();
+    }
+    List<Object> cacheKey = List.of(entityType, pojoType, id);
+    Object remembered = entries.values.get(cacheKey);
+    if (remembered != null) {
+      this.countHit(entries);
+      return pojoType.cast(remembered);
+    }
+    this.countMiss(entries);
+    P converted = converter.get();
+    if (converted != null) {
+      entries.values.put(cacheKey, converted);
+    }
+    return converted;
+  }
+
+  @Override
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  @Override
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  @Nullable
+  private Entries getCurrentRequestEntries() {
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    if (requestAttributes == null) {
+      return null;
+    }
+    Entries entries = (Entries) requestAttributes.getAttribute(ENTRIES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (entries == null) {
+      entries = new Entries();
+      requestAttributes.setAttribute(ENTRIES_ATTRIBUTE, entries, RequestAttributes.SCOPE_REQUEST);
+      Entries requestEntries = entries;
+      requestAttributes.registerDestructionCallback(ENTRIES_ATTRIBUTE, () -> logger.debug(
+        "Lookup cache served {} out of {} lookups and conversions from memory",
+        requestEntries.hits, (requestEntries.hits + requestEntries.misses)), RequestAttributes.SCOPE_REQUEST);
+    }
+    return entries;
+  }
+
+  private <E> E reattach(Class<E> entityType, E entity) {
+    if (TransactionSynchronizationManager.isActualTransactionActive() && !entityManager.contains(entity)) {
+      Object id = entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+      return entityManager.getReference(entityType, id);
+    }
+    return entity;
+  }
+
+  private void countHit(Entries entries) {
+    entries.hits++;
+    hitCount.incrementAndGet();
+  }
+
+  private void countMiss(Entries entries) {
+    entries.misses++;
+    missCount.incrementAndGet();
+  }
+
+  /**
+   * Forgets everything remembered during the current request, whenever a statement that updates or deletes data
+   * is about to be executed, be it by Hibernate itself or by a bulk operation.
+   */
+  public static class InvalidatingStatementInspector
+    implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+      String statement = sql.stripLeading();
+      if (startsWith(statement, "update") || startsWith(statement, "delete") || startsWith(statement, "merge")) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+          Entries entries = (Entries) requestAttributes.getAttribute(ENTRIES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+          if (entries != null) {
+            entries.values.clear();
+          }
+        }
+      }
+      return sql;
+    }
+
+    private static boolean startsWith(String statement, String keyword) {
+      return statement.regionMatches(true, 0, keyword, 0, keyword.length());
+    }
+  }
+
+  private static class Entries {
+    private final Map<List<Object>, Object> values = new HashMap<>();
+    private long hits;
+    private long misses;
+  }
+}
@@ -20,81 +20,147 @@
 
 package org.trebol.jpa.services.impl;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.trebol.config.ApiProperties;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.trebol.jpa.entities.ProductCategory;
 import org.trebol.jpa.repositories.ProductsCategoriesRepository;
+import org.trebol.jpa.services.ProductCategoryTree;
 import org.trebol.jpa.services.ProductCategoryTreeResolverService;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
+/**
+ * Resolves subtrees from an in-memory snapshot of the whole tree, which is replaced at once by a new one as soon as
+ * any change to the categories is committed; readers never see a partially built tree.<br/>
+ * Snapshots are always read in a read-write transaction of their own, so that they come from the primary database;
+ * a lagging read replica could otherwise yield an outdated tree stamped with the current version.
+ * Entities are still fetched through the materialized paths of the categories, with a single query.
+ */
 @Service
 public class ProductCategoryTreeResolverServiceImpl
   implements ProductCategoryTreeResolverService {
+  private final Logger logger = LoggerFactory.getLogger(ProductCategoryTreeResolverServiceImpl.class);
   private final ProductsCategoriesRepository repository;
-  private final ApiProperties apiProperties;
+  private final TransactionTemplate primaryTransactionTemplate;
+  private final AtomicLong currentVersion = new AtomicLong();
+  private volatile ProductCategoryTree tree;
 
   @Autowired
   public ProductCategoryTreeResolverServiceImpl(
     ProductsCategoriesRepository repository,
-    ApiProperties apiProperties
+    PlatformTransactionManager transactionManager
   ) {
     this.repository = repository;
-    this.apiProperties = apiProperties;
+    this.primaryTransactionTemplate = new TransactionTemplate(transactionManager);
+    this.primaryTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.primaryTransactionTemplate.setReadOnly(false);
+  }
+
+  /**
+   * Sets the paths of categories that are missing them, such as those created before paths existed, whose column
+   * may have been filled with the default path or with empty ones. All paths are computed again when any is missing.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional
+  public void fillMissingPaths() {
+    if (!repository.existsWithMissingPath()) {
+      return;
+    }
+    Map<Long, String> pathsById = new HashMap<>();
+    List<ProductCategory> categories = repository.findAll();
+    for (ProductCategory category : categories) {
+      category.setPath(this.makePath(category, pathsById));
+    }
+    logger.info("Filled the paths of {} product categories", categories.size());
+    this.refreshTree();
   }
 
   @Override
   public List<ProductCategory> getBranchesFromRoot(ProductCategory rootBranch) {
-    int maxAllowedDepth = apiProperties.getMaxCategoryFetchingRecursionDepth();
-    List<ProductCategory> immediateDescendants = repository.findByParent(rootBranch);
-    List<ProductCategory> allBranches = new ArrayList<>(immediateDescendants);
-    for (ProductCategory branch : immediateDescendants) {
-      this.recursivelyAddBranches(allBranches, branch, maxAllowedDepth);
-    }
-    return allBranches;
+    return repository.findByPathStartingWith(rootBranch.getDescendantsPath());
   }
 
   @Override
   public List<Long> getBranchIdsFromRootId(Long rootId) {
-    int depth = apiProperties.getMaxCategoryFetchingRecursionDepth();
-    List<Long> immediateDescendantIds = repository.findIdsByParentId(rootId);
-    List<Long> allBranchIds = new ArrayList<>(immediateDescendantIds);
-    for (Long bId : immediateDescendantIds) {
-      this.recursivelyAddBranchIds(allBranchIds, bId, depth);
-    }
-    return allBranchIds;
+    return toList(this.getTree().getDescendantIds(rootId));
   }
 
   @Override
   public List<Long> getBranchIdsFromRootCode(String rootCode) {
-    Optional<ProductCategory> byCode = repository.findByCode(rootCode);
-    if (byCode.isEmpty()) {
-      return List.of();
+    return toList(this.getTree().getDescendantIds(rootCode));
+  }
+
+  @Override
+  public ProductCategoryTree getTree() {
+    ProductCategoryTree snapshot = tree;
+    if (snapshot == null || snapshot.getVersion() != currentVersion.get()) {
+      snapshot = this.rebuildTree();
+    }
+    return snapshot;
+  }
+
+  /**
+   * The new snapshot is built by the writing thread right after its transaction commits, rather than by the next reader.
+   */
+  @Override
+  public void refreshTree() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          currentVersion.incrementAndGet();
+          rebuildTree();
+        }
+      });
+    } else {
+      currentVersion.incrementAndGet();
+      this.rebuildTree();
     }
-    return this.getBranchIdsFromRootId(byCode.get().getId());
   }
 
-  private void recursivelyAddBranches(Collection<ProductCategory> allBranches, ProductCategory branch, int deepnessLeft) {
-    if (deepnessLeft > 0) {
-      List<ProductCategory> subBranchIds = repository.findByParent(branch);
-      for (ProductCategory bId2 : subBranchIds) {
-        allBranches.add(bId2);
-        this.recursivelyAddBranches(allBranches, bId2, deepnessLeft - 1);
-      }
+  /**
+   * Only one snapshot is built at a time; concurrent readers of an outdated one wait for it instead of building
+   * their own. If the categories change while it is being built, it is built again right after.
+   */
+  private synchronized ProductCategoryTree rebuildTree() {
+    long version = currentVersion.get();
+    ProductCategoryTree snapshot = tree;
+    if (snapshot == null || snapshot.getVersion() != version) {
+      snapshot = primaryTransactionTemplate.execute(status -> new ProductCategoryTree(version, repository.findAll()));
+      tree = snapshot;
+      logger.debug("Built version {} of the product category tree, with {} categories", version, snapshot.size());
     }
+    return snapshot;
+  }
+
+  private static List<Long> toList(long[] ids) {
+    return Arrays.stream(ids).boxed().collect(Collectors.toList());
   }
 
-  private void recursivelyAddBranchIds(Collection<Long> branchIds, Long bId, int deepnessLeft) {
-    if (deepnessLeft > 0) {
-      List<Long> subBranchIds = repository.findIdsByParentId(bId);
-      for (Long bId2 : subBranchIds) {
-        branchIds.add(bId2);
-        this.recursivelyAddBranchIds(branchIds, bId2, deepnessLeft - 1);
-      }
+  private String makePath(ProductCategory category, Map<Long, String> pathsById) {
+    String path = pathsById.get(category.getId());
+    if (path == null) {
+      ProductCategory parent = category.getParent();
+      path = (parent == null) ?
+        ProductCategory.PATH_SEPARATOR :
+        this.makePath(parent, pathsById) + parent.getId() + ProductCategory.PATH_SEPARATOR;
+      pathsById.put(category.getId(), path);
     }
+    return path;
   }
 }
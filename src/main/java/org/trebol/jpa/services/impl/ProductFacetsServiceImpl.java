@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services.impl;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.trebol.api.models.ProductFacetsPojo;
+import org.trebol.api.models.ProductPriceRangePojo;
+import org.trebol.common.exceptions.BadInputException;
+import org.trebol.config.ApiProperties;
+import org.trebol.jpa.entities.QProduct;
+import org.trebol.jpa.repositories.ProductsRepository;
+import org.trebol.jpa.services.ProductCategoryTreeResolverService;
+import org.trebol.jpa.services.ProductFacetsService;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Groups the matching products by their own category, price range and whether they are in stock, all at once;
+ * the groups are few enough to be added up in memory, and the amounts of each category are then added up along
+ * the snapshot of the category tree, so that the database does not need to resolve any subtree.<br/>
+ * The lowest and highest matching prices are read beforehand, so that price steps too small for them to be split into
+ * a limited amount of ranges are rejected before grouping anything.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProductFacetsServiceImpl
+  implements ProductFacetsService {
+  private static final QProduct basePath = QProduct.product;
+  private static final NumberExpression<Integer> IN_STOCK = Expressions.numberTemplate(Integer.class,
+    "case when {0} > 0 then 1 else 0 end", basePath.stockCurrent);
+  private final ProductsRepository productsRepository;
+  private final ProductCategoryTreeResolverService categoryTreeResolver;
+  private final ApiProperties apiProperties;
+
+  @Autowired
+  public ProductFacetsServiceImpl(
+    ProductsRepository productsRepository,
+    ProductCategoryTreeResolverService categoryTreeResolver,
+    ApiProperties apiProperties
+  ) {
+    this.productsRepository = productsRepository;
+    this.categoryTreeResolver = categoryTreeResolver;
+    this.apiProperties = apiProperties;
+  }
+
+  @Override
+  public ProductFacetsPojo readFacets(@Nullable Predicate filters, int priceStep)
+    throws BadInputException {
+    if (priceStep <= 0) {
+      throw new BadInputException("The price step must be a positive number");
+    }
+    Tuple prices = productsRepository.aggregate(filters, basePath.price.min(), basePath.price.max());
+    Integer lowestPrice = prices.get(0, Integer.class);
+    Integer highestPrice = prices.get(1, Integer.class);
+    if (lowestPrice != null && highestPrice != null) {
+      long priceRangesCount = Math.floorDiv(highestPrice, priceStep) - Math.floorDiv(lowestPrice, priceStep) + 1L;
+      int maxPriceRanges = apiProperties.getProductFacetsMaxPriceRanges();
+      if (priceRangesCount > maxPriceRanges) {
+        throw new BadInputException("The price step is too small; matching products can be counted by " +
+          maxPriceRanges + " price ranges at most");
+      }
+    }
+    // the step is written as a literal, since some databases do not match grouped expressions with parameters in them
+    NumberExpression<Integer> priceRange = Expressions.numberTemplate(Integer.class,
+      "floor({0} / " + priceStep + ")", basePath.price);
+    List<Tuple> groups = productsRepository.countGroups(filters,
+      basePath.productCategory.id, priceRange, IN_STOCK);
+
+    long total = 0;
+    long uncategorized = 0;
+    long inStock = 0;
+    Map<Long, Long> amountsByCategoryId = new HashMap<>();
+    Map<Integer, Long> amountsByPriceRange = new TreeMap<>();
+    for (Tuple group : groups) {
+      Long categoryId = group.get(0, Long.class);
+      int range = group.get(1, Number.class).intValue();
+      boolean available = (group.get(2, Number.class).intValue() == 1);
+      long amount = group.get(3, Number.class).longValue();
+      total += amount;
+      if (categoryId == null) {
+        uncategorized += amount;
+      } else {
+        amountsByCategoryId.merge(categoryId, amount, Long::sum);
+      }
+      amountsByPriceRange.merge(range, amount, Long::sum);
+      if (available) {
+        inStock += amount;
+      }
+    }
+
+    return ProductFacetsPojo.builder()
+      .total(total)
+      .categories(categoryTreeResolver.getTree().sumSubtrees(amountsByCategoryId))
+      .uncategorized(uncategorized)
+      .prices(amountsByPriceRange.entrySet().stream()
+        .map(range -> ProductPriceRangePojo.builder()
+          .from(range.getKey() * priceStep)
+          .to((range.getKey() + 1) * priceStep)
+          .count(range.getValue())
+          .build())
+        .collect(Collectors.toList()))
+      .inStock(inStock)
+      .outOfStock(total - inStock)
+      .build();
+  }
+}
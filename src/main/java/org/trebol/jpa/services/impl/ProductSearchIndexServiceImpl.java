@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services.impl;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.KeywordTokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.trebol.api.models.ProductCategoryPojo;
+import org.trebol.api.models.ProductPojo;
+import org.trebol.config.ApiProperties;
+import org.trebol.jpa.projections.ProductsProjection;
+import org.trebol.jpa.repositories.ProductsRepository;
+import org.trebol.jpa.services.ProductSearchIndexService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the index in a Lucene directory, either in memory or on disk.<br/>
+ * Names and descriptions are tokenized, lowercased and stripped of accents; barcodes are indexed as their prefixes,
+ * so that they can be matched while they are still being typed. The code of the category of each product is indexed
+ * as a keyword, with doc values so that it can be filtered and faceted on.<br/>
+ * Changes become searchable right away by reopening readers from the writer, but they are only made durable
+ * every few seconds and when the application shuts down. The commit made on shutdown is marked as clean, and that
+ * mark is removed as soon as the application starts again, so that an index left behind by a crash is rebuilt.
+ */
+@Service
+public class ProductSearchIndexServiceImpl
+  implements ProductSearchIndexService, DisposableBean {
+  static final String ID_FIELD = "id";
+  static final String NAME_FIELD = "name";
+  static final String DESCRIPTION_FIELD = "description";
+  static final String BARCODE_FIELD = "barcode";
+  static final String CATEGORY_FIELD = "category";
+  private static final Set<String> ID_FIELD_ONLY = Set.of(ID_FIELD);
+  private static final int MAX_BARCODE_PREFIX_LENGTH = 32;
+  private static final int MIN_PREFIX_LENGTH = 2;
+  private static final float NAME_BOOST = 2.0f;
+  private static final float BARCODE_BOOST = 4.0f;
+  private static final int REBUILD_CHUNK_SIZE = 1000;
+  private static final long COMMIT_INTERVAL_MILLIS = 10_000L;
+  private static final String CLEAN_SHUTDOWN_KEY = "cleanShutdown";
+  private final Logger logger = LoggerFactory.getLogger(ProductSearchIndexServiceImpl.class);
+  private final ProductsRepository productsRepository;
+  private final int maxResults;
+  private final Analyzer textAnalyzer;
+  private final Analyzer analyzer;
+  private final IndexWriter writer;
+  private final SearcherManager searcherManager;
+
+  @Autowired
+  public ProductSearchIndexServiceImpl(
+    ProductsRepository productsRepository,
+    ApiProperties apiProperties
+  ) throws IOException {
+    this.productsRepository = productsRepository;
+    this.maxResults = apiProperties.getProductSearchMaxResults();
+    this.textAnalyzer = new TextAnalyzer();
+    String indexPath = apiProperties.getProductSearchIndexPath();
+    Directory directory = (StringUtils.isBlank(indexPath) ?
+      new ByteBuffersDirectory() :
+      FSDirectory.open(Path.of(indexPath)));
+    this.analyzer = new PerFieldAnalyzerWrapper(textAnalyzer, Map.of(BARCODE_FIELD, new BarcodePrefixesAnalyzer()));
+    this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+    this.searcherManager = new SearcherManager(writer, null);
+  }
+
+  /**
+   * Fills the index unless it was kept on disk and closed cleanly the last time; an index kept in memory always starts
+   * empty. Either way the clean shutdown mark is committed away first, so that it only survives another shutdown.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public synchronized void initialize() {
+    boolean closedCleanly = this.wasClosedCleanly();
+    writer.setLiveCommitData(Map.<String, String>of().entrySet());
+    if (closedCleanly) {
+      try {
+        writer.commit();
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    } else {
+      this.rebuild();
+    }
+  }
+
+  @Override
+  public List<Long> search(String text) {
+    Query query = this.makeQuery(text);
+    try {
+      IndexSearcher searcher = searcherManager.acquire();
+      try {
+        List<Long> ids = new ArrayList<>();
+        for (ScoreDoc hit : searcher.search(query, maxResults).scoreDocs) {
+          ids.add(Long.valueOf(searcher.doc(hit.doc, ID_FIELD_ONLY).get(ID_FIELD)));
+        }
+        return ids;
+      } finally {
+        searcherManager.release(searcher);
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  @Override
+  public void index(Collection<ProductPojo> products) {
+    List<Document> documents = new ArrayList<>();
+    for (ProductPojo product : products) {
+      documents.add(this.makeDocument(product));
+    }
+    this.applyAfterCommit(() -> {
+      for (Document document : documents) {
+        writer.updateDocument(new Term(ID_FIELD, document.get(ID_FIELD)), document);
+      }
+    });
+  }
+
+  @Override
+  public void remove(Collection<Long> productIds) {
+    List<Term> terms = new ArrayList<>();
+    for (Long id : productIds) {
+      terms.add(new Term(ID_FIELD, String.valueOf(id)));
+    }
+    this.applyAfterCommit(() -> writer.deleteDocuments(terms.toArray(Term[]::new)));
+  }
+
+  /**
+   * Walks through all products in chunks, indexing them into a separate directory that only replaces the contents of
+   * the index once all of them were read; searches keep being served from the previous contents until then, and
+   * changes to the index wait for it to finish. If reading fails, the index is left as it was.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public synchronized void rebuild() {
+    try (Directory rebuiltDirectory = new ByteBuffersDirectory()) {
+      try (IndexWriter rebuiltWriter = new IndexWriter(rebuiltDirectory, new IndexWriterConfig(analyzer))) {
+        productsRepository.scrollAll(ProductsProjection.LIST_VIEW, null, Sort.by(ID_FIELD), REBUILD_CHUNK_SIZE, chunk -> {
+          try {
+            for (ProductPojo product : chunk) {
+              rebuiltWriter.addDocument(this.makeDocument(product));
+            }
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+      }
+      writer.deleteAll();
+      writer.addIndexes(rebuiltDirectory);
+      writer.commit();
+      searcherManager.maybeRefresh();
+      logger.info("Product search index rebuilt with {} products", writer.getDocStats().numDocs);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Makes changes applied since the last commit durable, which takes an fsync when the index is on disk.
+   */
+  @Scheduled(fixedDelay = COMMIT_INTERVAL_MILLIS, initialDelay = COMMIT_INTERVAL_MILLIS)
+  public synchronized void commitPendingChanges() {
+    if (writer.hasUncommittedChanges()) {
+      try {
+        writer.commit();
+      } catch (IOException ex) {
+        logger.error("Could not commit changes to the product search index", ex);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void destroy() throws IOException {
+    searcherManager.close();
+    writer.setLiveCommitData(Map.of(CLEAN_SHUTDOWN_KEY, Boolean.TRUE.toString()).entrySet());
+    writer.commit();
+    writer.close();
+  }
+
+  private boolean wasClosedCleanly() {
+    Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+    if (commitData != null) {
+      for (Map.Entry<String, String> entry : commitData) {
+        if (CLEAN_SHUTDOWN_KEY.equals(entry.getKey())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Every word must match the name or the description, and the last one may be incomplete; alternatively,
+   * the whole text may be the beginning of a barcode.
+   */
+  private Query makeQuery(String text) {
+    List<String> words = this.analyze(text);
+    BooleanQuery.Builder wordsQuery = new BooleanQuery.Builder();
+    for (int i = 0; i < words.size(); i++) {
+      String word = words.get(i);
+      BooleanQuery.Builder wordQuery = new BooleanQuery.Builder()
+        .add(new BoostQuery(new TermQuery(new Term(NAME_FIELD, word)), NAME_BOOST), BooleanClause.Occur.SHOULD)
+        .add(new TermQuery(new Term(DESCRIPTION_FIELD, word)), BooleanClause.Occur.SHOULD);
+      if (i == words.size() - 1 && word.length() >= MIN_PREFIX_LENGTH) {
+        wordQuery.add(new PrefixQuery(new Term(NAME_FIELD, word)), BooleanClause.Occur.SHOULD);
+      }
+      wordsQuery.add(wordQuery.build(), BooleanClause.Occur.MUST);
+    }
+    BooleanQuery.Builder query = new BooleanQuery.Builder();
+    if (!words.isEmpty()) {
+      query.add(wordsQuery.build(), BooleanClause.Occur.SHOULD);
+    }
+    String barcode = StringUtils.left(text.trim().toLowerCase(Locale.ROOT), MAX_BARCODE_PREFIX_LENGTH);
+    if (!barcode.isEmpty()) {
+      Query barcodeQuery = new TermQuery(new Term(BARCODE_FIELD, barcode));
+      query.add(new BoostQuery(barcodeQuery, BARCODE_BOOST), BooleanClause.Occur.SHOULD);
+    }
+    return query.build();
+  }
+
+  private List<String> analyze(String text) {
+    List<String> words = new ArrayList<>();
+    try (TokenStream stream = textAnalyzer.tokenStream(NAME_FIELD, text)) {
+      CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+      stream.reset();
+      while (stream.incrementToken()) {
+        words.add(term.toString());
+      }
+      stream.end();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return words;
+  }
+
+  private Document makeDocument(ProductPojo product) {
+    Document document = new Document();
+    document.add(new StringField(ID_FIELD, String.valueOf(product.getId()), Field.Store.YES));
+    document.add(new TextField(NAME_FIELD, product.getName(), Field.Store.NO));
+    document.add(new TextField(BARCODE_FIELD, product.getBarcode(), Field.Store.NO));
+    if (product.getDescription() != null) {
+      document.add(new TextField(DESCRIPTION_FIELD, product.getDescription(), Field.Store.NO));
+    }
+    ProductCategoryPojo category = product.getCategory();
+    if (category != null && category.getCode() != null) {
+      document.add(new StringField(CATEGORY_FIELD, category.getCode(), Field.Store.NO));
+      document.add(new SortedSetDocValuesField(CATEGORY_FIELD, new BytesRef(category.getCode())));
+    }
+    return document;
+  }
+
+  private void applyAfterCommit(IndexChange change) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          applyNow(change);
+        }
+      });
+    } else {
+      this.applyNow(change);
+    }
+  }
+
+  /**
+   * The database remains the source of truth, so a failure to update the index is logged instead of propagated.
+   */
+  private synchronized void applyNow(IndexChange change) {
+    try {
+      change.apply();
+      searcherManager.maybeRefresh();
+    } catch (IOException ex) {
+      logger.error("Could not update the product search index", ex);
+    }
+  }
+
+  @FunctionalInterface
+  private interface IndexChange {
+    void apply() throws IOException;
+  }
+
+  private static class TextAnalyzer
+    extends Analyzer {
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+      Tokenizer tokenizer = new StandardTokenizer();
+      TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+      return new TokenStreamComponents(tokenizer, stream);
+    }
+  }
+
+  private static class BarcodePrefixesAnalyzer
+    extends Analyzer {
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+      Tokenizer tokenizer = new KeywordTokenizer();
+      TokenStream stream = new EdgeNGramTokenFilter(new LowerCaseFilter(tokenizer), 1, MAX_BARCODE_PREFIX_LENGTH, true);
+      return new TokenStreamComponents(tokenizer, stream);
+    }
+  }
+}
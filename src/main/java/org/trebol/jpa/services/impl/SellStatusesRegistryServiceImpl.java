@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.trebol.jpa.entities.SellStatus;
+import org.trebol.jpa.repositories.SellStatusesRepository;
+import org.trebol.jpa.services.SellStatusesRegistryService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sell statuses are seed data whose codes and names are relied upon by the sales process and mailing templates,
+ * so they are fetched once and kept in an immutable map; a miss triggers a single reload before failing.
+ */
+@Service
+public class SellStatusesRegistryServiceImpl
+  implements SellStatusesRegistryService {
+  private final SellStatusesRepository statusesRepository;
+  private volatile Map<Integer, SellStatus> statusesByCode = Map.of();
+
+  @Autowired
+  public SellStatusesRegistryServiceImpl(SellStatusesRepository statusesRepository) {
+    this.statusesRepository = statusesRepository;
+  }
+
+  @Override
+  public SellStatus getByCode(int code) throws IllegalStateException {
+    SellStatus status = statusesByCode.get(code);
+    if (status == null) {
+      this.reload();
+      status = statusesByCode.get(code);
+      if (status == null) {
+        throw new IllegalStateException("No status matches the code '" + code + "' - Is the database empty or corrupt?");
+      }
+    }
+    return status;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Override
+  public void reload() {
+    Map<Integer, SellStatus> statuses = new HashMap<>();
+    for (SellStatus status : statusesRepository.findAll()) {
+      statuses.put(status.getCode(), status);
+    }
+    this.statusesByCode = Map.copyOf(statuses);
+  }
+}
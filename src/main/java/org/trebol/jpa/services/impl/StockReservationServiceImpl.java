@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services.impl;
+
+import com.querydsl.core.types.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.trebol.common.exceptions.BadInputException;
+import org.trebol.config.ApiProperties;
+import org.trebol.jpa.entities.QSell;
+import org.trebol.jpa.entities.Sell;
+import org.trebol.jpa.entities.SellDetail;
+import org.trebol.jpa.entities.SellStatus;
+import org.trebol.jpa.repositories.ProductsRepository;
+import org.trebol.jpa.repositories.SalesRepository;
+import org.trebol.jpa.services.SellStatusesRegistryService;
+import org.trebol.jpa.services.StockReservationService;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.trebol.config.Constants.SELL_STATUS_PAYMENT_CANCELLED_CODE;
+import static org.trebol.config.Constants.SELL_STATUS_PAYMENT_STARTED_CODE;
+import static org.trebol.config.Constants.SELL_STATUS_PENDING_CODE;
+
+/**
+ * Reserves stock with a conditional update per product, so that checkouts of the same product only wait on each other
+ * for as long as that row is locked by their transaction, and never read the stock first.
+ * Products are always updated in the order of their identifiers, so that checkouts of several products cannot
+ * deadlock each other.<br/>
+ * Expired sales are aborted each in its own transaction, only if they still have the status they were found with.
+ */
+@Transactional
+@Service
+public class StockReservationServiceImpl
+  implements StockReservationService {
+  private static final long EXPIRY_CHECK_INTERVAL_MILLIS = 60_000L;
+  private static final int EXPIRED_SALES_CHUNK_SIZE = 100;
+  private final Logger logger = LoggerFactory.getLogger(StockReservationServiceImpl.class);
+  private final ProductsRepository productsRepository;
+  private final SalesRepository salesRepository;
+  private final SellStatusesRegistryService statusesRegistryService;
+  private final ApiProperties apiProperties;
+  private final TransactionTemplate transactionTemplate;
+
+  @Autowired
+  public StockReservationServiceImpl(
+    ProductsRepository productsRepository,
+    SalesRepository salesRepository,
+    SellStatusesRegistryService statusesRegistryService,
+    ApiProperties apiProperties,
+    PlatformTransactionManager transactionManager
+  ) {
+    this.productsRepository = productsRepository;
+    this.salesRepository = salesRepository;
+    this.statusesRegistryService = statusesRegistryService;
+    this.apiProperties = apiProperties;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @Override
+  public void reserve(Collection<SellDetail> details)
+    throws BadInputException {
+    SortedMap<Long, Integer> unitsByProductId = this.sumUnitsByProductId(details);
+    List<Map.Entry<Long, Integer>> taken = new ArrayList<>();
+    for (Map.Entry<Long, Integer> units : unitsByProductId.entrySet()) {
+      if (units.getValue() <= 0) {
+        this.returnAll(taken);
+        throw new BadInputException("Units of each product must be a positive number");
+      }
+      if (productsRepository.takeStock(units.getKey(), units.getValue()) == 0) {
+        this.returnAll(taken);
+        throw new BadInputException("Not enough stock of product " + this.findBarcode(details, units.getKey()));
+      }
+      taken.add(units);
+    }
+  }
+
+  @Override
+  public void release(Collection<SellDetail> details) {
+    this.returnAll(this.sumUnitsByProductId(details).entrySet());
+  }
+
+  @Override
+  @Scheduled(fixedDelay = EXPIRY_CHECK_INTERVAL_MILLIS, initialDelay = EXPIRY_CHECK_INTERVAL_MILLIS)
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public int releaseExpired() {
+    Instant deadline = Instant.now().minus(apiProperties.getStockReservationTimeToLiveMinutes(), ChronoUnit.MINUTES);
+    QSell sell = QSell.sell;
+    Predicate expired = sell.status.code.in(SELL_STATUS_PENDING_CODE, SELL_STATUS_PAYMENT_STARTED_CODE)
+      .and(sell.date.before(deadline));
+    int abortedCount = 0;
+    Long lastId = null;
+    List<Long> ids;
+    do {
+      ids = salesRepository.findIds(expired, lastId, EXPIRED_SALES_CHUNK_SIZE);
+      for (Long id : ids) {
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> this.abortIfStillWaiting(id)))) {
+          abortedCount++;
+        }
+        lastId = id;
+      }
+    } while (ids.size() == EXPIRED_SALES_CHUNK_SIZE);
+    if (abortedCount > 0) {
+      logger.info("Aborted {} sales whose payment was not completed in time", abortedCount);
+    }
+    return abortedCount;
+  }
+
+  private boolean abortIfStillWaiting(Long sellId) {
+    Optional<Sell> match = salesRepository.findByIdWithDetails(sellId);
+    if (match.isEmpty()) {
+      return false;
+    }
+    SellStatus currentStatus = match.get().getStatus();
+    int currentCode = currentStatus.getCode();
+    if (currentCode != SELL_STATUS_PENDING_CODE && currentCode != SELL_STATUS_PAYMENT_STARTED_CODE) {
+      return false;
+    }
+    // the status update clears the persistence context, so the details must be read beforehand
+    List<SellDetail> details = new ArrayList<>(match.get().getDetails());
+    SellStatus abortedStatus = statusesRegistryService.getByCode(SELL_STATUS_PAYMENT_CANCELLED_CODE);
+    if (salesRepository.setStatus(sellId, currentStatus, abortedStatus) == 0) {
+      return false;
+    }
+    this.release(details);
+    return true;
+  }
+
+  private SortedMap<Long, Integer> sumUnitsByProductId(Collection<SellDetail> details) {
+    SortedMap<Long, Integer> unitsByProductId = new TreeMap<>();
+    for (SellDetail detail : details) {
+      unitsByProductId.merge(detail.getProduct().getId(), detail.getUnits(), Integer::sum);
+    }
+    return unitsByProductId;
+  }
+
+  private void returnAll(Collection<Map.Entry<Long, Integer>> unitsByProductId) {
+    for (Map.Entry<Long, Integer> units : unitsByProductId) {
+      productsRepository.returnStock(units.getKey(), units.getValue());
+    }
+  }
+
+  private String findBarcode(Collection<SellDetail> details, Long productId) {
+    for (SellDetail detail : details) {
+      if (productId.equals(detail.getProduct().getId())) {
+        return detail.getProduct().getBarcode();
+      }
+    }
+    return String.valueOf(productId);
+  }
+}
@@ -24,6 +24,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.trebol.api.models.BillingCompanyPojo;
 import org.trebol.jpa.entities.BillingCompany;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.patch.BillingCompaniesPatchService;
 
 @Service
@@ -32,14 +33,14 @@ public class BillingCompaniesPatchServiceImpl
   implements BillingCompaniesPatchService {
 
   @Override
-  public BillingCompany patchExistingEntity(BillingCompanyPojo changes, BillingCompany existing) {
-    BillingCompany target = new BillingCompany(existing);
+  public ChangeSet patchExistingEntity(BillingCompanyPojo changes, BillingCompany target) {
+    ChangeSet changeSet = new ChangeSet();
 
     String name = changes.getName();
-    if (name != null && !name.isBlank() && !target.getName().equals(name)) {
-      target.setName(name);
+    if (name != null && !name.isBlank()) {
+      changeSet.set("name", name, target::getName, target::setName);
     }
 
-    return target;
+    return changeSet;
   }
 }
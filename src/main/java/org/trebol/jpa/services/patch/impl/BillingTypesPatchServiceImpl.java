@@ -24,6 +24,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.trebol.api.models.BillingTypePojo;
 import org.trebol.jpa.entities.BillingType;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.patch.BillingTypesPatchService;
 
 @Service
@@ -32,17 +33,14 @@ public class BillingTypesPatchServiceImpl
   implements BillingTypesPatchService {
 
   @Override
-  public BillingType patchExistingEntity(BillingTypePojo changes, BillingType existing) {
-    BillingType target = BillingType.builder()
-      .id(existing.getId())
-      .name(existing.getName())
-      .build();
+  public ChangeSet patchExistingEntity(BillingTypePojo changes, BillingType target) {
+    ChangeSet changeSet = new ChangeSet();
 
     String name = changes.getName();
-    if (!name.isBlank() && !target.getName().equals(name)) {
-      target.setName(name);
+    if (name != null && !name.isBlank()) {
+      changeSet.set("name", name, target::getName, target::setName);
     }
 
-    return target;
+    return changeSet;
   }
 }
@@ -26,7 +26,7 @@ import org.trebol.api.models.CustomerPojo;
 import org.trebol.api.models.PersonPojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Customer;
-import org.trebol.jpa.entities.Person;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.patch.CustomersPatchService;
 import org.trebol.jpa.services.patch.PeoplePatchService;
 
@@ -43,14 +43,15 @@ public class CustomersPatchServiceImpl
   }
 
   @Override
-  public Customer patchExistingEntity(CustomerPojo changes, Customer existing) throws BadInputException {
-    Customer target = new Customer(existing);
-    Person existingPerson = existing.getPerson();
+  public ChangeSet patchExistingEntity(CustomerPojo changes, Customer target) throws BadInputException {
+    ChangeSet changeSet = new ChangeSet();
 
     PersonPojo sourcePerson = changes.getPerson();
-    Person person = peoplePatchService.patchExistingEntity(sourcePerson, existingPerson);
-    target.setPerson(person);
+    if (sourcePerson != null) {
+      ChangeSet personChanges = peoplePatchService.patchExistingEntity(sourcePerson, target.getPerson());
+      changeSet.addAll("person", personChanges);
+    }
 
-    return target;
+    return changeSet;
   }
 }
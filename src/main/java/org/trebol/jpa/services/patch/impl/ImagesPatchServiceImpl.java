@@ -24,6 +24,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.trebol.api.models.ImagePojo;
 import org.trebol.jpa.entities.Image;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.patch.ImagesPatchService;
 
 @Service
@@ -32,24 +33,24 @@ public class ImagesPatchServiceImpl
   implements ImagesPatchService {
 
   @Override
-  public Image patchExistingEntity(ImagePojo changes, Image existing) {
-    Image target = new Image(existing);
+  public ChangeSet patchExistingEntity(ImagePojo changes, Image target) {
+    ChangeSet changeSet = new ChangeSet();
 
     String code = changes.getCode();
-    if (code != null && !code.isBlank() && !target.getCode().equals(code)) {
-      target.setCode(code);
+    if (code != null && !code.isBlank()) {
+      changeSet.set("code", code, target::getCode, target::setCode);
     }
 
     String filename = changes.getFilename();
-    if (filename != null && !filename.isBlank() && !target.getFilename().equals(filename)) {
-      target.setFilename(filename);
+    if (filename != null && !filename.isBlank()) {
+      changeSet.set("filename", filename, target::getFilename, target::setFilename);
     }
 
     String url = changes.getUrl();
-    if (url != null && !url.isBlank() && !target.getUrl().equals(url)) {
-      target.setUrl(url);
+    if (url != null && !url.isBlank()) {
+      changeSet.set("url", url, target::getUrl, target::setUrl);
     }
 
-    return target;
+    return changeSet;
   }
 }
@@ -21,10 +21,10 @@
 package org.trebol.jpa.services.patch.impl;
 
 import lombok.NoArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 import org.trebol.api.models.PersonPojo;
 import org.trebol.jpa.entities.Person;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.patch.PeoplePatchService;
 
 @Service
@@ -33,37 +33,33 @@ public class PeoplePatchServiceImpl
   implements PeoplePatchService {
 
   @Override
-  public Person patchExistingEntity(PersonPojo changes, Person existing) {
-    Person target = new Person(existing);
+  public ChangeSet patchExistingEntity(PersonPojo changes, Person target) {
+    ChangeSet changeSet = new ChangeSet();
 
     String firstName = changes.getFirstName();
-    if (firstName != null && !firstName.isBlank() && !target.getFirstName().equals(firstName)) {
-      target.setFirstName(firstName);
+    if (firstName != null && !firstName.isBlank()) {
+      changeSet.set("firstName", firstName, target::getFirstName, target::setFirstName);
     }
 
     String lastName = changes.getLastName();
-    if (lastName != null && !lastName.isBlank() && !target.getLastName().equals(lastName)) {
-      target.setLastName(lastName);
+    if (lastName != null && !lastName.isBlank()) {
+      changeSet.set("lastName", lastName, target::getLastName, target::setLastName);
     }
 
     String email = changes.getEmail();
-    if (email != null && !email.isBlank() && !target.getEmail().equals(email)) {
-      target.setEmail(email);
+    if (email != null && !email.isBlank()) {
+      changeSet.set("email", email, target::getEmail, target::setEmail);
     }
 
     // phones may be empty, but not null
     String phone1 = changes.getPhone1();
-    if (!StringUtils.equals(target.getPhone1(), phone1)) {
-      target.setPhone1(phone1);
-    }
+    changeSet.set("phone1", phone1, target::getPhone1, target::setPhone1);
 
     String phone2 = changes.getPhone2();
     if (phone2 != null) {
-      if (!target.getPhone2().equals(phone2)) {
-        target.setPhone2(phone2);
-      }
+      changeSet.set("phone2", phone2, target::getPhone2, target::setPhone2);
     }
 
-    return target;
+    return changeSet;
   }
 }
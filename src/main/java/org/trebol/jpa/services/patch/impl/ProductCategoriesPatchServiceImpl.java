@@ -24,6 +24,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.trebol.api.models.ProductCategoryPojo;
 import org.trebol.jpa.entities.ProductCategory;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.patch.ProductCategoriesPatchService;
 
 @Service
@@ -32,14 +33,14 @@ public class ProductCategoriesPatchServiceImpl
   implements ProductCategoriesPatchService {
 
   @Override
-  public ProductCategory patchExistingEntity(ProductCategoryPojo changes, ProductCategory existing) {
-    ProductCategory target = new ProductCategory(existing);
+  public ChangeSet patchExistingEntity(ProductCategoryPojo changes, ProductCategory target) {
+    ChangeSet changeSet = new ChangeSet();
 
     String name = changes.getName();
-    if (name != null && !name.isBlank() && !target.getName().equals(name)) {
-      target.setName(name);
+    if (name != null && !name.isBlank()) {
+      changeSet.set("name", name, target::getName, target::setName);
     }
 
-    return target;
+    return changeSet;
   }
 }
@@ -24,6 +24,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.trebol.api.models.ProductListPojo;
 import org.trebol.jpa.entities.ProductList;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.patch.ProductListsPatchService;
 
 @Service
@@ -32,17 +33,19 @@ public class ProductListPatchServiceImpl
   implements ProductListsPatchService {
 
   @Override
-  public ProductList patchExistingEntity(ProductListPojo changes, ProductList existing) {
-    ProductList target = new ProductList(existing);
+  public ChangeSet patchExistingEntity(ProductListPojo changes, ProductList target) {
+    ChangeSet changeSet = new ChangeSet();
 
-    if (changes.getName() != null && !changes.getName().isEmpty() && !changes.getName().equals(target.getName())) {
-      target.setName(changes.getName());
+    String name = changes.getName();
+    if (name != null && !name.isEmpty()) {
+      changeSet.set("name", name, target::getName, target::setName);
     }
 
-    if (changes.getCode() != null && !changes.getCode().isEmpty() && !changes.getCode().equals(target.getCode())) {
-      target.setCode(changes.getCode());
+    String code = changes.getCode();
+    if (code != null && !code.isEmpty()) {
+      changeSet.set("code", code, target::getCode, target::setCode);
     }
 
-    return target;
+    return changeSet;
   }
 }
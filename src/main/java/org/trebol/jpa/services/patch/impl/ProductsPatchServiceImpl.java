@@ -24,6 +24,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.trebol.api.models.ProductPojo;
 import org.trebol.jpa.entities.Product;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.patch.ProductsPatchService;
 
 @Service
@@ -32,32 +33,34 @@ public class ProductsPatchServiceImpl
   implements ProductsPatchService {
 
   @Override
-  public Product patchExistingEntity(ProductPojo changes, Product existing) {
-    Product target = new Product(existing);
+  public ChangeSet patchExistingEntity(ProductPojo changes, Product target) {
+    ChangeSet changeSet = new ChangeSet();
 
     String barcode = changes.getBarcode();
-    if (barcode != null && !barcode.isBlank() && !target.getBarcode().equals(barcode)) {
-      target.setBarcode(barcode);
+    if (barcode != null && !barcode.isBlank()) {
+      changeSet.set("barcode", barcode, target::getBarcode, target::setBarcode);
     }
 
     String name = changes.getName();
-    if (name != null && !name.isBlank() && !target.getName().equals(name)) {
-      target.setName(name);
+    if (name != null && !name.isBlank()) {
+      changeSet.set("name", name, target::getName, target::setName);
     }
 
     Integer price = changes.getPrice();
-    target.setPrice(price);
+    if (price != null) {
+      changeSet.set("price", price, target::getPrice, target::setPrice);
+    }
 
     String description = changes.getDescription();
     if (description != null) {
-      target.setDescription(description);
+      changeSet.set("description", description, target::getDescription, target::setDescription);
     }
 
     Integer currentStock = changes.getCurrentStock();
     if (currentStock != null) {
-      target.setStockCurrent(currentStock);
+      changeSet.set("stockCurrent", currentStock, target::getStockCurrent, target::setStockCurrent);
     }
 
-    return target;
+    return changeSet;
   }
 }
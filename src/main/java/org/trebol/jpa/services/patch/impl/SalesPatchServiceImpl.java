@@ -28,6 +28,7 @@ import org.trebol.api.models.*;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.*;
 import org.trebol.jpa.repositories.*;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.RegexMatcherAdapterService;
 import org.trebol.jpa.services.conversion.AddressesConverterService;
 import org.trebol.jpa.services.conversion.BillingCompaniesConverterService;
@@ -95,39 +96,39 @@ public class SalesPatchServiceImpl
 
   @Transactional
   @Override
-  public Sell patchExistingEntity(SellPojo changes, Sell existing) throws BadInputException {
-    Sell target = new Sell(existing);
+  public ChangeSet patchExistingEntity(SellPojo changes, Sell target) throws BadInputException {
+    ChangeSet changeSet = new ChangeSet();
 
     if (changes.getDate() != null) {
-      target.setDate(changes.getDate());
+      changeSet.set("date", changes.getDate(), target::getDate, target::setDate);
     }
     if (changes.getStatus() != null) {
-      this.applyStatus(changes, target);
+      this.applyStatus(changes, target, changeSet);
     }
     if (changes.getPaymentType() != null) {
-      this.applyPaymentType(changes, target);
+      this.applyPaymentType(changes, target, changeSet);
     }
     if (changes.getBillingType() != null) {
-      this.applyBillingTypeAndCompany(changes, target);
+      this.applyBillingTypeAndCompany(changes, target, changeSet);
     }
     if (changes.getCustomer() != null && changes.getCustomer().getPerson() != null) {
-      this.applyCustomer(changes, target);
+      this.applyCustomer(changes, target, changeSet);
     }
     if (changes.getBillingAddress() != null) {
-      this.applyBillingAddress(changes, target);
+      this.applyBillingAddress(changes, target, changeSet);
     }
     if (changes.getShippingAddress() != null) {
-      this.applyShippingAddress(changes, target);
+      this.applyShippingAddress(changes, target, changeSet);
     }
 
     if (changes.getShipper() != null) {
-      this.applyShipper(changes, target);
+      this.applyShipper(changes, target, changeSet);
     }
 
-    return target;
+    return changeSet;
   }
 
-  private void applyStatus(SellPojo source, Sell target) throws BadInputException {
+  private void applyStatus(SellPojo source, Sell target, ChangeSet changeSet) throws BadInputException {
     String statusName = source.getStatus();
     if (StringUtils.isBlank(statusName)) {
       statusName = "Pending";
@@ -137,11 +138,11 @@ public class SalesPatchServiceImpl
     if (existingStatus.isEmpty()) {
       throw new BadInputException("Status '" + statusName + "' " + IS_NOT_VALID);
     } else {
-      target.setStatus(existingStatus.get());
+      changeSet.setReference("status", existingStatus.get(), target::getStatus, SellStatus::getId, target::setStatus);
     }
   }
 
-  private void applyPaymentType(SellPojo source, Sell target) throws BadInputException {
+  private void applyPaymentType(SellPojo source, Sell target, ChangeSet changeSet) throws BadInputException {
     String paymentType = source.getPaymentType();
     if (StringUtils.isBlank(paymentType)) {
       throw new BadInputException("An accepted payment type is required");
@@ -150,12 +151,13 @@ public class SalesPatchServiceImpl
       if (existingPaymentType.isEmpty()) {
         throw new BadInputException("Payment type '" + paymentType + "' " + IS_NOT_VALID);
       } else {
-        target.setPaymentType(existingPaymentType.get());
+        changeSet.setReference("paymentType", existingPaymentType.get(), target::getPaymentType, PaymentType::getId,
+          target::setPaymentType);
       }
     }
   }
 
-  private void applyBillingTypeAndCompany(SellPojo source, Sell target) throws BadInputException {
+  private void applyBillingTypeAndCompany(SellPojo source, Sell target, ChangeSet changeSet) throws BadInputException {
     String billingType = source.getBillingType();
     if (StringUtils.isBlank(billingType)) {
       billingType = BILLING_TYPE_INDIVIDUAL;
@@ -163,7 +165,8 @@ public class SalesPatchServiceImpl
 
     Optional<BillingType> existingBillingType = billingTypesRepository.findByName(billingType);
     if (existingBillingType.isPresent()) {
-      target.setBillingType(existingBillingType.get());
+      changeSet.setReference("billingType", existingBillingType.get(), target::getBillingType, BillingType::getId,
+        target::setBillingType);
     } else {
       throw new BadInputException("Billing type '" + billingType + "' " + IS_NOT_VALID);
     }
@@ -174,52 +177,55 @@ public class SalesPatchServiceImpl
         throw new BadInputException("Billing company details are required to generate enterprise invoices");
       } else {
         BillingCompany billingCompany = this.fetchOrConvertBillingCompany(sourceBillingCompany);
-        target.setBillingCompany(billingCompany);
+        changeSet.setReference("billingCompany", billingCompany, target::getBillingCompany, BillingCompany::getId,
+          target::setBillingCompany);
       }
     }
   }
 
-  private void applyCustomer(SellPojo source, Sell target) throws BadInputException {
+  private void applyCustomer(SellPojo source, Sell target, ChangeSet changeSet) throws BadInputException {
     CustomerPojo sourceCustomer = source.getCustomer();
     if (StringUtils.isBlank(sourceCustomer.getPerson().getIdNumber())) {
       throw new BadInputException("Customer must possess valid personal information");
     } else {
       Optional<Customer> existing = customersService.getExisting(sourceCustomer);
       if (existing.isPresent()) {
-        target.setCustomer(existing.get());
+        changeSet.setReference("customer", existing.get(), target::getCustomer, Customer::getId, target::setCustomer);
       } else {
         Customer targetCustomer = customersConverter.convertToNewEntity(sourceCustomer);
         targetCustomer = customersRepository.saveAndFlush(targetCustomer);
-        target.setCustomer(targetCustomer);
+        changeSet.setReference("customer", targetCustomer, target::getCustomer, Customer::getId, target::setCustomer);
       }
     }
   }
 
-  private void applyBillingAddress(SellPojo source, Sell target) throws BadInputException {
+  private void applyBillingAddress(SellPojo source, Sell target, ChangeSet changeSet) throws BadInputException {
     AddressPojo billingAddress = source.getBillingAddress();
     if (billingAddress != null) {
       try {
         Address targetAddress = this.fetchOrConvertAddress(billingAddress);
-        target.setBillingAddress(targetAddress);
+        changeSet.setReference("billingAddress", targetAddress, target::getBillingAddress, Address::getId,
+          target::setBillingAddress);
       } catch (BadInputException ex) {
         throw new BadInputException("The provided billing address " + IS_NOT_VALID);
       }
     }
   }
 
-  private void applyShippingAddress(SellPojo source, Sell target) throws BadInputException {
+  private void applyShippingAddress(SellPojo source, Sell target, ChangeSet changeSet) throws BadInputException {
     AddressPojo shippingAddress = source.getShippingAddress();
     if (shippingAddress != null) {
       try {
         Address targetAddress = this.fetchOrConvertAddress(shippingAddress);
-        target.setShippingAddress(targetAddress);
+        changeSet.setReference("shippingAddress", targetAddress, target::getShippingAddress, Address::getId,
+          target::setShippingAddress);
       } catch (BadInputException ex) {
         throw new BadInputException("The provided shipping address " + IS_NOT_VALID);
       }
     }
   }
 
-  private void applyShipper(SellPojo source, Sell target) throws BadInputException {
+  private void applyShipper(SellPojo source, Sell target, ChangeSet changeSet) throws BadInputException {
     ShipperPojo sourceShipper = source.getShipper();
     if (sourceShipper != null) {
       Set<ConstraintViolation<ShipperPojo>> validations = validator.validate(sourceShipper);
@@ -230,7 +236,7 @@ public class SalesPatchServiceImpl
         if (byName.isEmpty()) {
           throw new BadInputException("The specified shipper does not exist");
         } else {
-          target.setShipper(byName.get());
+          changeSet.setReference("shipper", byName.get(), target::getShipper, Shipper::getId, target::setShipper);
         }
       }
     }
@@ -24,8 +24,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.trebol.api.models.SalespersonPojo;
 import org.trebol.common.exceptions.BadInputException;
-import org.trebol.jpa.entities.Person;
 import org.trebol.jpa.entities.Salesperson;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.patch.PeoplePatchService;
 import org.trebol.jpa.services.patch.SalespeoplePatchService;
 
@@ -42,12 +42,14 @@ public class SalespeoplePatchServiceImpl
   }
 
   @Override
-  public Salesperson patchExistingEntity(SalespersonPojo changes, Salesperson existing) throws BadInputException {
-    Salesperson target = new Salesperson(existing);
+  public ChangeSet patchExistingEntity(SalespersonPojo changes, Salesperson target) throws BadInputException {
+    ChangeSet changeSet = new ChangeSet();
 
-    Person person = peoplePatchService.patchExistingEntity(changes.getPerson(), existing.getPerson());
-    target.setPerson(person);
+    if (changes.getPerson() != null) {
+      ChangeSet personChanges = peoplePatchService.patchExistingEntity(changes.getPerson(), target.getPerson());
+      changeSet.addAll("person", personChanges);
+    }
 
-    return target;
+    return changeSet;
   }
 }
@@ -24,6 +24,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.trebol.api.models.SellStatusPojo;
 import org.trebol.jpa.entities.SellStatus;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.patch.SellStatusesPatchService;
 
 @Service
@@ -32,23 +33,19 @@ public class SellStatusesPatchServiceImpl
   implements SellStatusesPatchService {
 
   @Override
-  public SellStatus patchExistingEntity(SellStatusPojo changes, SellStatus existing) {
-    SellStatus target = SellStatus.builder()
-      .id(existing.getId())
-      .code(existing.getCode())
-      .name(existing.getName())
-      .build();
+  public ChangeSet patchExistingEntity(SellStatusPojo changes, SellStatus target) {
+    ChangeSet changeSet = new ChangeSet();
 
     Integer code = changes.getCode();
-    if (code != null && !target.getCode().equals(code)) {
-      target.setCode(code);
+    if (code != null) {
+      changeSet.set("code", code, target::getCode, target::setCode);
     }
 
     String name = changes.getName();
-    if (name != null && !name.isBlank() && !target.getName().equals(name)) {
-      target.setName(name);
+    if (name != null && !name.isBlank()) {
+      changeSet.set("name", name, target::getName, target::setName);
     }
 
-    return target;
+    return changeSet;
   }
 }
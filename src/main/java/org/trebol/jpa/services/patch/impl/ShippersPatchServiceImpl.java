@@ -24,6 +24,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.trebol.api.models.ShipperPojo;
 import org.trebol.jpa.entities.Shipper;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.patch.ShippersPatchService;
 
 @Service
@@ -32,14 +33,14 @@ public class ShippersPatchServiceImpl
   implements ShippersPatchService {
 
   @Override
-  public Shipper patchExistingEntity(ShipperPojo changes, Shipper existing) {
-    Shipper target = new Shipper(existing);
+  public ChangeSet patchExistingEntity(ShipperPojo changes, Shipper target) {
+    ChangeSet changeSet = new ChangeSet();
 
     String name = changes.getName();
-    if (name != null && !name.isBlank() && !target.getName().equals(name)) {
-      target.setName(name);
+    if (name != null && !name.isBlank()) {
+      changeSet.set("name", name, target::getName, target::setName);
     }
 
-    return target;
+    return changeSet;
   }
 }
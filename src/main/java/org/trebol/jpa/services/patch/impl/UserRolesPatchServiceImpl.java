@@ -24,6 +24,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.trebol.api.models.UserRolePojo;
 import org.trebol.jpa.entities.UserRole;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.patch.UserRolesPatchService;
 
 @Service
@@ -32,14 +33,14 @@ public class UserRolesPatchServiceImpl
   implements UserRolesPatchService {
 
   @Override
-  public UserRole patchExistingEntity(UserRolePojo changes, UserRole existing) {
-    UserRole target = new UserRole(existing);
+  public ChangeSet patchExistingEntity(UserRolePojo changes, UserRole target) {
+    ChangeSet changeSet = new ChangeSet();
 
     String name = changes.getName();
-    if (name != null && !name.isBlank() && target.getName().equals(name)) {
-      target.setName(name);
+    if (name != null && !name.isBlank()) {
+      changeSet.set("name", name, target::getName, target::setName);
     }
 
-    return target;
+    return changeSet;
   }
 }
@@ -30,6 +30,7 @@ import org.trebol.jpa.entities.User;
 import org.trebol.jpa.entities.UserRole;
 import org.trebol.jpa.repositories.PeopleRepository;
 import org.trebol.jpa.repositories.UserRolesRepository;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.patch.UsersPatchService;
 
 import java.util.Optional;
@@ -53,35 +54,37 @@ public class UsersPatchServiceImpl
   }
 
   @Override
-  public User patchExistingEntity(UserPojo changes, User existing) {
-    User target = new User(existing);
+  public ChangeSet patchExistingEntity(UserPojo changes, User target) {
+    ChangeSet changeSet = new ChangeSet();
 
     String name = changes.getName();
-    if (name != null && !name.isBlank() && !target.getName().equals(name)) {
-      target.setName(name);
+    if (name != null && !name.isBlank()) {
+      changeSet.set("name", name, target::getName, target::setName);
     }
 
     String roleName = changes.getRole();
-    if (roleName != null && !roleName.isBlank() && !target.getUserRole().getName().equals(roleName)) {
+    if (roleName != null && !roleName.isBlank()) {
       Optional<UserRole> roleNameMatch = rolesRepository.findByName(roleName);
-      roleNameMatch.ifPresent(target::setUserRole);
+      roleNameMatch.ifPresent(role -> changeSet.setReference("userRole", role, target::getUserRole, UserRole::getId,
+        target::setUserRole));
     }
 
     String password = changes.getPassword();
     if (password != null && !password.isBlank() && !passwordEncoder.matches(password, target.getPassword())) {
       String encodedPassword = passwordEncoder.encode(password);
-      target.setPassword(encodedPassword);
+      changeSet.set("password", encodedPassword, target::getPassword, target::setPassword);
     }
 
     PersonPojo person = changes.getPerson();
     if (person != null) {
       String idNumber = person.getIdNumber();
-      if (idNumber != null && !idNumber.isBlank() && !target.getPerson().getIdNumber().equals(idNumber)) {
+      if (idNumber != null && !idNumber.isBlank()) {
         Optional<Person> idNumberMatch = peopleRepository.findByIdNumber(idNumber);
-        idNumberMatch.ifPresent(target::setPerson);
+        idNumberMatch.ifPresent(match -> changeSet.setReference("person", match, target::getPerson, Person::getId,
+          target::setPerson));
       }
     }
 
-    return target;
+    return changeSet;
   }
 }
@@ -25,6 +25,7 @@ import com.querydsl.core.types.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.trebol.jpa.services.PredicateService;
 import org.trebol.jpa.services.predicates.ImagesPredicateService;
 
 import java.util.Map;
@@ -48,6 +49,12 @@ public class ImagesPredicateServiceImpl
             return basePath.code.eq(stringValue);
           case "filename":
             return basePath.filename.eq(stringValue);
+          case "ids":
+            predicate.and(basePath.id.in(PredicateService.splitIds(stringValue)));
+            break;
+          case "codes":
+            predicate.and(basePath.code.in(PredicateService.splitValues(stringValue)));
+            break;
           case "codeLike":
             predicate.and(basePath.code.likeIgnoreCase("%" + stringValue + "%"));
             break;
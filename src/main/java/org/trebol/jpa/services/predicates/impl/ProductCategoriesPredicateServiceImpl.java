@@ -29,6 +29,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import org.trebol.jpa.entities.QProductCategory;
+import org.trebol.jpa.services.PredicateService;
 import org.trebol.jpa.services.ProductCategoryTreeResolverService;
 import org.trebol.jpa.services.predicates.ProductCategoriesPredicateService;
 
@@ -61,6 +62,12 @@ public class ProductCategoriesPredicateServiceImpl
             return basePath.id.eq(Long.valueOf(stringValue));
           case "code":
             return basePath.code.eq(stringValue);
+          case "ids":
+            predicate.and(basePath.id.in(PredicateService.splitIds(stringValue)));
+            break;
+          case "codes":
+            predicate.and(basePath.code.in(PredicateService.splitValues(stringValue)));
+            break;
           case "name":
             predicate.and(basePath.name.eq(stringValue));
             break;
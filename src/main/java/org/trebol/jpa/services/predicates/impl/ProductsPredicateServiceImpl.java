@@ -27,22 +27,28 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.trebol.jpa.services.ProductCategoryTreeResolverService;
+import org.trebol.jpa.services.PredicateService;
+import org.trebol.jpa.services.ProductSearchIndexService;
 import org.trebol.jpa.services.predicates.ProductsPredicateService;
 
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductsPredicateServiceImpl
   implements ProductsPredicateService {
   private final Logger logger = LoggerFactory.getLogger(ProductsPredicateServiceImpl.class);
   private final ProductCategoryTreeResolverService categoryTreeResolver;
+  private final ProductSearchIndexService searchIndexService;
 
   @Autowired
   public ProductsPredicateServiceImpl(
-    ProductCategoryTreeResolverService categoryTreeResolver
+    ProductCategoryTreeResolverService categoryTreeResolver,
+    ProductSearchIndexService searchIndexService
   ) {
     this.categoryTreeResolver = categoryTreeResolver;
+    this.searchIndexService = searchIndexService;
   }
 
   @Override
@@ -59,6 +65,12 @@ public class ProductsPredicateServiceImpl
             return basePath.barcode.eq(stringValue);
           case "name":
             return basePath.name.eq(stringValue);
+          case "ids":
+            predicate.and(basePath.id.in(PredicateService.splitIds(stringValue)));
+            break;
+          case "barcodes":
+            predicate.and(basePath.barcode.in(PredicateService.splitValues(stringValue)));
+            break;
           case "barcodeLike":
             predicate.and(basePath.barcode.likeIgnoreCase("%" + stringValue + "%"));
             break;
@@ -66,9 +78,13 @@ public class ProductsPredicateServiceImpl
             predicate.and(basePath.name.likeIgnoreCase("%" + stringValue + "%"));
             break;
           case "categoryCode":
-            List<Long> branchIds = categoryTreeResolver.getBranchIdsFromRootCode(stringValue);
-            predicate.and(basePath.productCategory.code.eq(stringValue)
-              .or(basePath.productCategory.id.in(branchIds)));
+            long[] categoryIds = categoryTreeResolver.getTree().getSubtreeIds(stringValue);
+            predicate.and(categoryIds.length == 0 ?
+              basePath.productCategory.code.eq(stringValue) :
+              basePath.productCategory.id.in(Arrays.stream(categoryIds).boxed().collect(Collectors.toList())));
+            break;
+          case "q":
+            predicate.and(basePath.id.in(searchIndexService.search(stringValue)));
             break;
           case "categoryCodeLike":
             predicate.and(basePath.productCategory.code.likeIgnoreCase("%" + stringValue + "%"));
@@ -1,10 +1,10 @@
 INSERT INTO `app_params`
-(`param_id`, `param_category`, `param_name`, `param_value`)
+(`param_id`, `param_category`, `param_name`, `param_value`, `param_version`)
 VALUES
-(01, 'company', 'name', 'Trébol Demo'),
-(02, 'company', 'description', 'This is a demostration of integrated eCommerce system Trébol'),
-(03, 'company', 'bannerImageURL', 'https://fakeimg.pl/400x150'),
-(04, 'company', 'logoImageURL', 'https://fakeimg.pl/250');
+(01, 'company', 'name', 'Trébol Demo', 0),
+(02, 'company', 'description', 'This is a demostration of integrated eCommerce system Trébol', 0),
+(03, 'company', 'bannerImageURL', 'https://fakeimg.pl/400x150', 0),
+(04, 'company', 'logoImageURL', 'https://fakeimg.pl/250', 0);
 
 INSERT INTO `sell_statuses`
 (`sell_status_id`, `sell_status_code`, `sell_status_name`)
@@ -223,3 +223,14 @@ VALUES
 (03, 'salesperson', '$2a$10$j3fyIRTlgzANU8b2uDAsL.k2djo9Ywj3IJHeKse7TyeMT1dfcs8q2', 03),
 (04, 'customer',  '$2a$10$jQDzZpBh8JE0Yi4tOrx2XuJP3vPgepZFNH0UNlrIQJJFtrzd/XO8q', 04);
 -- passwords equal usernames, bcrypt logarithm cost factor of 10
+
+INSERT INTO `table_versions`
+(`table_name`, `table_version`)
+VALUES
+('app_params', 0),
+('images', 0),
+('product_categories', 0),
+('product_images', 0),
+('product_list_items', 0),
+('product_lists', 0),
+('products', 0);
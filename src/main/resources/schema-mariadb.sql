@@ -30,6 +30,7 @@ CREATE TABLE `app_params` (
   `param_category` varchar(25) COLLATE utf8mb4_unicode_ci NOT NULL,
   `param_name` varchar(50) COLLATE utf8mb4_unicode_ci NOT NULL,
   `param_value` varchar(500) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `param_version` bigint(20) NOT NULL DEFAULT 0,
   PRIMARY KEY (`param_id`),
   UNIQUE KEY `UK_PARAM` (`param_category`,`param_name`)
 ) ENGINE=InnoDB AUTO_INCREMENT=5 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -81,6 +82,7 @@ CREATE TABLE `images` (
   `image_code` varchar(50) COLLATE utf8mb4_unicode_ci NOT NULL,
   `image_filename` varchar(100) COLLATE utf8mb4_unicode_ci NOT NULL,
   `image_url` varchar(500) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `image_version` bigint(20) NOT NULL DEFAULT 0,
   PRIMARY KEY (`image_id`),
   UNIQUE KEY `UK_IMG_CODE` (`image_code`),
   UNIQUE KEY `UK_IMG_FILENAME` (`image_filename`),
@@ -114,6 +116,9 @@ CREATE TABLE `people` (
   KEY `IDX_PERSON_EMAIL` (`person_email`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+DROP SEQUENCE IF EXISTS `people_seq`;
+CREATE SEQUENCE `people_seq` START WITH 1 INCREMENT BY 50;
+
 
 DROP TABLE IF EXISTS `product_lists`;
 CREATE TABLE `product_lists` (
@@ -121,6 +126,7 @@ CREATE TABLE `product_lists` (
   `product_list_code` varchar(25) COLLATE utf8mb4_unicode_ci NOT NULL,
   `product_list_disabled` bit(1) NOT NULL,
   `product_list_name` varchar(50) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `product_list_version` bigint(20) NOT NULL DEFAULT 0,
   PRIMARY KEY (`product_list_id`),
   UNIQUE KEY `UK_PLIST_NAME` (`product_list_name`),
   UNIQUE KEY `UK_PLIST_CODE` (`product_list_code`)
@@ -133,9 +139,12 @@ CREATE TABLE `product_categories` (
   `product_category_code` varchar(50) COLLATE utf8mb4_unicode_ci NOT NULL,
   `product_category_name` varchar(100) COLLATE utf8mb4_unicode_ci NOT NULL,
   `parent_product_category_id` bigint(20) DEFAULT NULL,
+  `product_category_version` bigint(20) NOT NULL DEFAULT 0,
+  `product_category_path` varchar(500) COLLATE utf8mb4_unicode_ci NOT NULL DEFAULT '/',
   PRIMARY KEY (`product_category_id`),
   UNIQUE KEY `UK_PROD_CAT_CODE` (`product_category_code`),
   UNIQUE KEY `UK_PROD_CAT_IF_CHILD` (`parent_product_category_id`,`product_category_name`),
+  KEY `IDX_PROD_CAT_PATH` (`product_category_path`),
   CONSTRAINT `FK_PROD_CAT_PARENT` FOREIGN KEY (`parent_product_category_id`) REFERENCES `product_categories` (`product_category_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
@@ -199,6 +208,9 @@ CREATE TABLE `customers` (
   CONSTRAINT `FK_CUSTOM_PERSON_ID` FOREIGN KEY (`person_id`) REFERENCES `people` (`person_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+DROP SEQUENCE IF EXISTS `customers_seq`;
+CREATE SEQUENCE `customers_seq` START WITH 1 INCREMENT BY 50;
+
 
 DROP TABLE IF EXISTS `products`;
 CREATE TABLE `products` (
@@ -209,6 +221,7 @@ CREATE TABLE `products` (
   `product_price` int(11) NOT NULL,
   `product_stock_critical` int(11) NOT NULL,
   `product_stock_current` int(11) NOT NULL,
+  `product_version` bigint(20) NOT NULL DEFAULT 0,
   `product_category_id` bigint(20) DEFAULT NULL,
   PRIMARY KEY (`product_id`),
   UNIQUE KEY `UK_PRODUCT_CODE` (`product_code`),
@@ -217,6 +230,9 @@ CREATE TABLE `products` (
   CONSTRAINT `FK_PRODUCT_CAT_ID` FOREIGN KEY (`product_category_id`) REFERENCES `product_categories` (`product_category_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+DROP SEQUENCE IF EXISTS `products_seq`;
+CREATE SEQUENCE `products_seq` START WITH 1 INCREMENT BY 50;
+
 
 DROP TABLE IF EXISTS `salespeople`;
 CREATE TABLE `salespeople` (
@@ -242,6 +258,9 @@ CREATE TABLE `product_images` (
   CONSTRAINT `FK_PIMGS_PROD_ID` FOREIGN KEY (`product_id`) REFERENCES `products` (`product_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+DROP SEQUENCE IF EXISTS `product_images_seq`;
+CREATE SEQUENCE `product_images_seq` START WITH 1 INCREMENT BY 50;
+
 
 DROP TABLE IF EXISTS `product_list_items`;
 CREATE TABLE `product_list_items` (
@@ -302,4 +321,21 @@ CREATE TABLE `sell_details` (
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 
+DROP TABLE IF EXISTS `table_versions`;
+CREATE TABLE `table_versions` (
+  `table_name` varchar(64) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `table_version` bigint(20) NOT NULL DEFAULT 0,
+  PRIMARY KEY (`table_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT INTO `table_versions` (`table_name`, `table_version`) VALUES
+('app_params', 0),
+('images', 0),
+('product_categories', 0),
+('product_images', 0),
+('product_list_items', 0),
+('product_lists', 0),
+('products', 0);
+
+
 -- 2022-01-06 06:37:28
\ No newline at end of file
@@ -23,14 +23,24 @@ package org.trebol.api;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import org.springframework.lang.Nullable;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.trebol.api.models.BulkUpdateResultPojo;
+import org.trebol.api.models.DataPagePojo;
+import org.trebol.api.services.ExportService;
 import org.trebol.api.services.PaginationService;
 import org.trebol.common.exceptions.BadInputException;
+import org.trebol.jpa.services.CountMode;
 import org.trebol.jpa.services.CrudService;
 import org.trebol.jpa.services.PredicateService;
 import org.trebol.jpa.services.SortSpecParserService;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.*;
 import static org.trebol.testing.TestConstants.ANY;
@@ -42,10 +52,32 @@ public abstract class DataCrudGenericControllerTest<P, E>
   protected SortSpecParserService sortServiceMock;
   protected CrudService<P, E> crudServiceMock;
   protected PredicateService predicateServiceMock;
+  protected ExportService exportServiceMock;
 
   protected void beforeEach() {
     super.instance = instance;
     super.crudServiceMock = crudServiceMock;
+    super.exportServiceMock = exportServiceMock;
+  }
+
+  protected void reads_data_by_keys_in_requested_order(
+    String paramName,
+    List<String> keys,
+    List<P> itemsInStorageOrder,
+    List<P> expectedItems
+  ) throws BadInputException {
+    Map<String, String> requestParams = Map.of(paramName, String.join(",", keys));
+    Predicate predicate = new BooleanBuilder();
+    when(paginationServiceMock.determineRequestedKeys(requestParams, paramName)).thenReturn(keys);
+    when(paginationServiceMock.determineRequestedFields(requestParams)).thenReturn(null);
+    when(predicateServiceMock.parseMap(requestParams)).thenReturn(predicate);
+    when(crudServiceMock.readMany(0, keys.size(), null, predicate, CountMode.NONE, null))
+      .thenReturn(new DataPagePojo<>(itemsInStorageOrder, 0, 0, keys.size()));
+
+    DataPagePojo<P> result = instance.readMany(requestParams, new ServletWebRequest(new MockHttpServletRequest()));
+
+    assertEquals(expectedItems, new ArrayList<>(result.getItems()));
+    assertEquals(expectedItems.size(), result.getTotalCount());
   }
 
   protected void creates_data(P input) throws BadInputException {
@@ -54,6 +86,12 @@ public abstract class DataCrudGenericControllerTest<P, E>
     verify(crudServiceMock).create(input);
   }
 
+  protected void creates_data_in_batch(P input) {
+    instance.createAll(List.of(input));
+
+    verify(crudServiceMock).createAll(List.of(input));
+  }
+
   protected void updates_data_using_only_a_pojo(P input) throws BadInputException {
     instance.update(input, Map.of());
 
@@ -72,6 +110,23 @@ public abstract class DataCrudGenericControllerTest<P, E>
     verify(crudServiceMock).update(input, predicate);
   }
 
+  protected void updates_data_in_bulk_parsing_predicate_filters_from_map(P input) throws BadInputException {
+    Map<String, String> predicateFiltersMap = Map.of(ANY, ANY);
+    Predicate predicate = new BooleanBuilder();
+    when(predicateServiceMock.parseMap(anyMap())).thenReturn(predicate);
+    when(crudServiceMock.updateAll(input, predicate)).thenReturn(1L);
+
+    BulkUpdateResultPojo result = instance.updateAll(input, predicateFiltersMap);
+
+    assertEquals(1L, result.getUpdatedCount());
+    verify(predicateServiceMock).parseMap(predicateFiltersMap);
+  }
+
+  protected void does_not_update_data_in_bulk_when_predicate_filters_map_is_empty(P input) throws BadInputException {
+    assertThrows(BadInputException.class, () -> instance.updateAll(input, Map.of()));
+    verify(crudServiceMock, never()).updateAll(any(), any(Predicate.class));
+  }
+
   protected void deletes_data_parsing_predicate_filters_from_map(@Nullable Map<String, String> predicateFiltersMap) {
     if (predicateFiltersMap == null) {
       predicateFiltersMap = Map.of(ANY, ANY);
@@ -20,27 +20,78 @@
 
 package org.trebol.api;
 
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.trebol.api.models.DataPagePojo;
+import org.trebol.api.services.ExportFormat;
+import org.trebol.api.services.ExportService;
+import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.services.CrudService;
 
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public abstract class DataGenericControllerTest<P, E> {
   protected DataGenericController<P, E> instance;
   protected CrudService<P, E> crudServiceMock;
+  protected ExportService exportServiceMock;
 
-  protected void reads_data(@Nullable Map<String, String> requestParams) {
+  protected void reads_data(@Nullable Map<String, String> requestParams) throws BadInputException {
     DataPagePojo<P> pagePojo = new DataPagePojo<>();
-    when(crudServiceMock.readMany(anyInt(), anyInt(), isNull(), isNull())).thenReturn(pagePojo);
-    DataPagePojo<P> result = instance.readMany(requestParams);
+    when(crudServiceMock.readMany(anyInt(), anyInt(), isNull(), isNull(), isNull(), any())).thenReturn(pagePojo);
+    DataPagePojo<P> result = instance.readMany(requestParams, new ServletWebRequest(new MockHttpServletRequest()));
     assertNotNull(result);
     assertEquals(pagePojo, result);
   }
+
+  protected void reads_data_after_cursor(String cursor) throws BadInputException {
+    DataPagePojo<P> pagePojo = new DataPagePojo<>();
+    when(crudServiceMock.readMany(eq(cursor), anyInt(), isNull(), isNull(), isNull(), any())).thenReturn(pagePojo);
+    DataPagePojo<P> result = instance.readMany(Map.of("after", cursor), new ServletWebRequest(new MockHttpServletRequest()));
+    assertNotNull(result);
+    assertEquals(pagePojo, result);
+  }
+
+  protected void answers_not_modified_when_version_tag_matches() throws BadInputException {
+    String versionTag = "1-2-3";
+    when(crudServiceMock.readVersionTag()).thenReturn(Optional.of(versionTag));
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader("If-None-Match", "\"" + versionTag + "\"");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    DataPagePojo<P> result = instance.readMany(Map.of(), new ServletWebRequest(request, response));
+    assertNull(result);
+    assertEquals(304, response.getStatus());
+    verify(crudServiceMock, never()).readMany(anyInt(), anyInt(), any(), any(), any(), any());
+  }
+
+  @SuppressWarnings("unchecked")
+  protected void exports_data(Class<P> modelClass) throws BadInputException {
+    StreamingResponseBody body = outputStream -> { };
+    ArgumentCaptor<Consumer<Consumer<P>>> readerCaptor = ArgumentCaptor.forClass(Consumer.class);
+    when(exportServiceMock.determineRequestedFormat(Map.of())).thenReturn(ExportFormat.CSV);
+    when(exportServiceMock.export(eq(ExportFormat.CSV), eq(modelClass), any(), readerCaptor.capture())).thenReturn(body);
+    ResponseEntity<StreamingResponseBody> result = instance.export(Map.of());
+    assertEquals(ExportFormat.CSV.getMediaType(), result.getHeaders().getContentType());
+    assertEquals(body, result.getBody());
+    Consumer<P> action = item -> { };
+    readerCaptor.getValue().accept(action);
+    verify(crudServiceMock).readAll(isNull(), isNull(), any(), eq(action));
+  }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.trebol.api.models.PersonPojo;
+import org.trebol.api.models.RegistrationPojo;
+import org.trebol.api.services.RegistrationService;
+import org.trebol.jpa.entities.Customer;
+import org.trebol.jpa.entities.QCustomer;
+import org.trebol.jpa.entities.QPerson;
+import org.trebol.jpa.entities.QUser;
+import org.trebol.jpa.entities.User;
+import org.trebol.jpa.repositories.CustomersRepository;
+import org.trebol.jpa.repositories.PeopleRepository;
+import org.trebol.jpa.repositories.UsersRepository;
+import org.trebol.testing.DatabaseIntegrationTest;
+
+import javax.persistence.EntityExistsException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Registers accounts in the database, outside of any transaction, as the registration endpoint does now that the
+ * persistence context is not kept open during the whole request.
+ */
+class RegistrationTest extends DatabaseIntegrationTest {
+  static final String USERNAME = "registration-test";
+  static final String ID_NUMBER = "registration-test";
+  @Autowired RegistrationService registrationService;
+  @Autowired UsersRepository usersRepository;
+  @Autowired CustomersRepository customersRepository;
+  @Autowired PeopleRepository peopleRepository;
+
+  @Override
+  protected void deleteTestData() {
+    usersRepository.deleteWhere(QUser.user.name.eq(USERNAME));
+    customersRepository.findByPersonIdNumber(ID_NUMBER)
+      .ifPresent(customer -> customersRepository.deleteWhere(QCustomer.customer.id.eq(customer.getId())));
+    peopleRepository.deleteWhere(QPerson.person.idNumber.eq(ID_NUMBER));
+  }
+
+  @Test
+  void registers_users_along_with_their_person_and_customer_profile() throws Exception {
+    registrationService.register(this.newRegistration());
+
+    Optional<Customer> customer = customersRepository.findByPersonIdNumber(ID_NUMBER);
+    assertTrue(customer.isPresent());
+    Long personId = customer.get().getPerson().getId();
+    transaction.executeWithoutResult(status -> {
+      User user = usersRepository.findOne(QUser.user.name.eq(USERNAME)).orElseThrow();
+      assertEquals(personId, user.getPerson().getId());
+    });
+    assertEquals(1, peopleRepository.count(QPerson.person.idNumber.eq(ID_NUMBER)));
+  }
+
+  @Test
+  void does_not_register_the_same_person_twice() throws Exception {
+    registrationService.register(this.newRegistration());
+    RegistrationPojo sameProfile = this.newRegistration();
+    sameProfile.setName(USERNAME + "-2");
+
+    assertThrows(EntityExistsException.class, () -> registrationService.register(sameProfile));
+    assertFalse(usersRepository.exists(QUser.user.name.eq(USERNAME + "-2")));
+  }
+
+  private RegistrationPojo newRegistration() {
+    return RegistrationPojo.builder()
+      .name(USERNAME)
+      .password("registration-test-password")
+      .profile(PersonPojo.builder()
+        .firstName("first")
+        .lastName("last")
+        .idNumber(ID_NUMBER)
+        .email("registration@test.com")
+        .build())
+      .build();
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.trebol.api.services.impl.ResponseCacheServiceImpl;
+import org.trebol.config.ApiProperties;
+import org.trebol.jpa.ReadReplicaRoutingDataSource;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.trebol.api.services.ResponseCacheSource.PRODUCTS;
+
+class ResponseCacheFilterTest {
+  static final String BODY = "{\"items\":[]}";
+  static final String ETAG = "\"1-1-1\"";
+  ResponseCacheServiceImpl responseCacheService;
+  ResponseCacheFilter instance;
+  final AtomicInteger controllerCalls = new AtomicInteger();
+  final HttpServlet controller = new HttpServlet() {
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+      controllerCalls.incrementAndGet();
+      response.setContentType("application/json");
+      response.setHeader(HttpHeaders.ETAG, ETAG);
+      response.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+    }
+  };
+
+  @BeforeEach
+  void beforeEach() {
+    ApiProperties apiProperties = new ApiProperties();
+    apiProperties.setResponseCacheMaxBytes(1 << 20);
+    apiProperties.setResponseCacheTimeToLiveSeconds(60);
+    responseCacheService = new ResponseCacheServiceImpl(apiProperties);
+    instance = new ResponseCacheFilter(responseCacheService);
+  }
+
+  @Test
+  void answers_repeated_requests_from_cache_regardless_of_parameter_order() throws ServletException, IOException {
+    MockHttpServletRequest first = productsRequest();
+    first.addParameter("pageSize", "10");
+    first.addParameter("pageIndex", "0");
+    MockHttpServletResponse firstResponse = this.perform(first);
+    MockHttpServletRequest second = productsRequest();
+    second.addParameter("pageIndex", "0");
+    second.addParameter("pageSize", "10");
+    MockHttpServletResponse secondResponse = this.perform(second);
+
+    assertEquals(1, controllerCalls.get());
+    assertEquals(BODY, firstResponse.getContentAsString());
+    assertEquals(BODY, secondResponse.getContentAsString());
+    assertEquals("application/json", secondResponse.getContentType());
+    assertEquals(1, responseCacheService.getHitCount());
+  }
+
+  @Test
+  void writes_cached_responses_compressed_to_clients_that_accept_gzip() throws ServletException, IOException {
+    this.perform(productsRequest());
+    MockHttpServletRequest request = productsRequest();
+    request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+    MockHttpServletResponse response = this.perform(request);
+
+    assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    assertTrue(response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+    try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+      assertArrayEquals(BODY.getBytes(StandardCharsets.UTF_8), gzip.readAllBytes());
+    }
+  }
+
+  @Test
+  void answers_not_modified_when_etag_matches_cached_response() throws ServletException, IOException {
+    this.perform(productsRequest());
+    MockHttpServletRequest request = productsRequest();
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+    MockHttpServletResponse response = this.perform(request);
+
+    assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+    assertEquals(0, response.getContentLength());
+    assertEquals(1, controllerCalls.get());
+  }
+
+  @Test
+  void lets_requests_through_again_after_invalidation() throws ServletException, IOException {
+    this.perform(productsRequest());
+    responseCacheService.invalidate(PRODUCTS);
+    this.perform(productsRequest());
+    assertEquals(2, controllerCalls.get());
+  }
+
+  @Test
+  void does_not_cache_authenticated_or_unrelated_requests() throws ServletException, IOException {
+    for (int i = 0; i < 2; i++) {
+      MockHttpServletRequest authenticated = productsRequest();
+      authenticated.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+      this.perform(authenticated);
+      this.perform(new MockHttpServletRequest("GET", "/data/customers"));
+      this.perform(new MockHttpServletRequest("POST", "/data/products"));
+    }
+    assertEquals(6, controllerCalls.get());
+    assertEquals(0, responseCacheService.getSizeInBytes());
+  }
+
+  @Test
+  void reads_from_the_primary_database_when_filling_the_cache() throws ServletException, IOException {
+    MockHttpServletRequest request = productsRequest();
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    try {
+      this.perform(request);
+      assertTrue(ReadReplicaRoutingDataSource.isCurrentRequestPinnedToPrimary());
+    } finally {
+      RequestContextHolder.resetRequestAttributes();
+    }
+  }
+
+  private MockHttpServletResponse perform(MockHttpServletRequest request) throws ServletException, IOException {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    FilterChain chain = new MockFilterChain(controller);
+    instance.doFilter(request, response, chain);
+    return response;
+  }
+
+  private static MockHttpServletRequest productsRequest() {
+    return new MockHttpServletRequest("GET", "/data/products/");
+  }
+}
@@ -73,6 +73,11 @@ class DataCustomersControllerTest
     assertDoesNotThrow(() -> super.creates_data(CustomerPojo.builder().build()));
   }
 
+  @Test
+  void creates_customers_in_batch() {
+    assertDoesNotThrow(() -> super.creates_data_in_batch(CustomerPojo.builder().build()));
+  }
+
   @Test
   void updates_customers() {
     assertDoesNotThrow(() -> super.updates_data_using_only_a_pojo(CustomerPojo.builder().build()));
@@ -34,6 +34,7 @@ import org.trebol.jpa.services.SortSpecParserService;
 import org.trebol.jpa.services.crud.ImagesCrudService;
 import org.trebol.jpa.services.predicates.ImagesPredicateService;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -68,6 +69,14 @@ class DataImagesControllerTest
     });
   }
 
+  @Test
+  void reads_images_by_codes_in_requested_order() {
+    ImagePojo first = ImagePojo.builder().id(1L).code("a").build();
+    ImagePojo second = ImagePojo.builder().id(2L).code("b").build();
+    assertDoesNotThrow(() -> super.reads_data_by_keys_in_requested_order(
+      "codes", List.of("b", "a"), List.of(first, second), List.of(second, first)));
+  }
+
   @Test
   void creates_images() {
     assertDoesNotThrow(() -> {
@@ -26,17 +26,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.context.request.WebRequest;
 import org.trebol.api.DataCrudGenericControllerTest;
 import org.trebol.api.models.ProductCategoryPojo;
 import org.trebol.api.services.PaginationService;
 import org.trebol.jpa.entities.ProductCategory;
+import org.trebol.jpa.services.ProductCategoryTree;
+import org.trebol.jpa.services.ProductCategoryTreeResolverService;
 import org.trebol.jpa.services.SortSpecParserService;
 import org.trebol.jpa.services.crud.ProductCategoriesCrudService;
 import org.trebol.jpa.services.predicates.ProductCategoriesPredicateService;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
 import static org.trebol.testing.TestConstants.ANY;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +54,8 @@ class DataProductCategoriesControllerTest
   @Mock SortSpecParserService sortServiceMock;
   @Mock ProductCategoriesCrudService crudServiceMock;
   @Mock ProductCategoriesPredicateService predicateServiceMock;
+  @Mock ProductCategoryTreeResolverService treeResolverServiceMock;
+  @Mock WebRequest webRequestMock;
 
   @Override
   @BeforeEach
@@ -68,6 +77,14 @@ class DataProductCategoriesControllerTest
     });
   }
 
+  @Test
+  void reads_categories_by_codes_in_requested_order() {
+    ProductCategoryPojo first = ProductCategoryPojo.builder().id(1L).code("a").build();
+    ProductCategoryPojo second = ProductCategoryPojo.builder().id(2L).code("b").build();
+    assertDoesNotThrow(() -> super.reads_data_by_keys_in_requested_order(
+      "codes", List.of("b", "a"), List.of(first, second), List.of(second, first)));
+  }
+
   @Test
   void creates_categories() {
     assertDoesNotThrow(() -> super.creates_data(ProductCategoryPojo.builder().build()));
@@ -92,4 +109,29 @@ class DataProductCategoriesControllerTest
   void does_not_delete_categories_when_predicate_filters_map_is_empty() {
     assertDoesNotThrow(super::does_not_delete_data_when_predicate_filters_map_is_empty);
   }
+
+  @Test
+  void reads_the_whole_tree_of_categories() {
+    ProductCategory root = ProductCategory.builder().id(1L).code("root").name("Root").path("/").build();
+    ProductCategory child = ProductCategory.builder().id(2L).code("child").name("Child").path("/1/").build();
+    ProductCategoryTree tree = new ProductCategoryTree(1L, List.of(child, root));
+    when(treeResolverServiceMock.getTree()).thenReturn(tree);
+    when(webRequestMock.checkNotModified(tree.getVersionTag())).thenReturn(false);
+
+    List<ProductCategoryPojo> result = instance.readTree(webRequestMock);
+
+    assertEquals(1, result.size());
+    assertEquals("root", result.get(0).getCode());
+    assertEquals(1, result.get(0).getChildren().size());
+    assertEquals("child", result.get(0).getChildren().get(0).getCode());
+  }
+
+  @Test
+  void does_not_read_the_tree_of_categories_when_it_has_not_been_modified() {
+    ProductCategoryTree tree = new ProductCategoryTree(1L, List.of());
+    when(treeResolverServiceMock.getTree()).thenReturn(tree);
+    when(webRequestMock.checkNotModified(tree.getVersionTag())).thenReturn(true);
+
+    assertNull(instance.readTree(webRequestMock));
+  }
 }
@@ -32,9 +32,13 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.trebol.api.models.DataPagePojo;
 import org.trebol.api.models.ProductPojo;
 import org.trebol.api.services.PaginationService;
+import org.trebol.api.services.ResponseCacheService;
+import org.trebol.api.services.ResponseCacheSource;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Product;
 import org.trebol.jpa.entities.ProductList;
@@ -67,6 +71,7 @@ class DataProductListContentsControllerTest {
   @Mock ProductListItemsPredicateService listItemsPredicateServiceMock;
   @Mock ProductsCrudService productsCrudServiceMock;
   @Mock ProductListItemsConverterService listItemConverterServiceMock;
+  @Mock ResponseCacheService responseCacheServiceMock;
   ProductList listExample;
   ProductListItem listItemExample;
   Product productExample;
@@ -97,9 +102,9 @@ class DataProductListContentsControllerTest {
     when(listsRepositoryMock.findOne(nullable(Predicate.class))).thenReturn(Optional.of(listExample));
     when(listItemsRepositoryMock.findAll(nullable(Predicate.class), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(listItemExample)));
     when(listItemsRepositoryMock.count(nullable(Predicate.class))).thenReturn(1L);
-    when(listItemConverterServiceMock.convertToPojo(any(ProductListItem.class))).thenReturn(expectedProduct);
+    when(listItemConverterServiceMock.convertToPojos(List.of(listItemExample))).thenReturn(List.of(expectedProduct));
 
-    DataPagePojo<ProductPojo> result = instance.readContents(simpleQueryParamsMap);
+    DataPagePojo<ProductPojo> result = instance.readContents(simpleQueryParamsMap, new ServletWebRequest(new MockHttpServletRequest()));
 
     assertNotNull(result);
     assertEquals(1, result.getTotalCount());
@@ -121,9 +126,9 @@ class DataProductListContentsControllerTest {
     when(listItemsPredicateServiceMock.parseMap(anyMap())).thenReturn(expectedPredicate);
     when(listItemsRepositoryMock.findAll(nullable(Predicate.class), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(listItemExample)));
     when(listItemsRepositoryMock.count(nullable(Predicate.class))).thenReturn(1L);
-    when(listItemConverterServiceMock.convertToPojo(any(ProductListItem.class))).thenReturn(expectedProduct);
+    when(listItemConverterServiceMock.convertToPojos(List.of(listItemExample))).thenReturn(List.of(expectedProduct));
 
-    DataPagePojo<ProductPojo> result = instance.readContents(queryParams);
+    DataPagePojo<ProductPojo> result = instance.readContents(queryParams, new ServletWebRequest(new MockHttpServletRequest()));
 
     assertNotNull(result);
     verify(listItemsRepositoryMock).findAll(expectedPredicate, expectedPagination);
@@ -145,6 +150,7 @@ class DataProductListContentsControllerTest {
     instance.addToContents(newProduct, simpleQueryParamsMap);
 
     verify(listItemsRepositoryMock).save(newListItemEntity);
+    verify(responseCacheServiceMock).invalidate(ResponseCacheSource.PRODUCT_LISTS);
   }
 
   @Test
@@ -176,13 +182,14 @@ class DataProductListContentsControllerTest {
     instance.deleteFromContents(simpleQueryParamsMap);
 
     verify(listItemsRepositoryMock).deleteAll(contents);
+    verify(responseCacheServiceMock).invalidate(ResponseCacheSource.PRODUCT_LISTS);
   }
 
   @Test
   void fails_when_target_list_is_not_specified() {
     Map<String, String> mapWithoutATargetList = Map.of("listCode", "");
     List.of(
-      assertThrows(BadInputException.class, () -> instance.readContents(mapWithoutATargetList)),
+      assertThrows(BadInputException.class, () -> instance.readContents(mapWithoutATargetList, new ServletWebRequest(new MockHttpServletRequest()))),
       assertThrows(BadInputException.class, () -> instance.addToContents(null, mapWithoutATargetList)),
       assertThrows(BadInputException.class, () -> instance.updateContents(null, mapWithoutATargetList)),
       assertThrows(BadInputException.class, () -> instance.deleteFromContents(mapWithoutATargetList))
@@ -194,7 +201,7 @@ class DataProductListContentsControllerTest {
     when(listsRepositoryMock.findOne(any(Predicate.class))).thenReturn(Optional.empty());
 
     List.of(
-      assertThrows(EntityNotFoundException.class, () -> instance.readContents(simpleQueryParamsMap)),
+      assertThrows(EntityNotFoundException.class, () -> instance.readContents(simpleQueryParamsMap, new ServletWebRequest(new MockHttpServletRequest()))),
       assertThrows(EntityNotFoundException.class, () -> instance.addToContents(null, simpleQueryParamsMap)),
       assertThrows(EntityNotFoundException.class, () -> instance.updateContents(null, simpleQueryParamsMap)),
       assertThrows(EntityNotFoundException.class, () -> instance.deleteFromContents(simpleQueryParamsMap))
@@ -25,18 +25,45 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.trebol.api.DataCrudGenericControllerTest;
+import org.trebol.api.models.ImportProgressPojo;
+import org.trebol.api.models.ProductFacetsPojo;
 import org.trebol.api.models.ProductPojo;
+import org.trebol.api.services.ExportFormat;
+import org.trebol.api.services.ExportService;
 import org.trebol.api.services.PaginationService;
+import org.trebol.api.services.ProductImportService;
+import org.trebol.common.exceptions.BadInputException;
+import org.trebol.config.ApiProperties;
 import org.trebol.jpa.entities.Product;
+import org.trebol.jpa.services.ProductFacetsService;
 import org.trebol.jpa.services.SortSpecParserService;
 import org.trebol.jpa.services.crud.ProductsCrudService;
 import org.trebol.jpa.services.predicates.ProductsPredicateService;
 
+import java.io.Reader;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 import static org.trebol.testing.TestConstants.ANY;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +74,11 @@ class DataProductsControllerTest
   @Mock SortSpecParserService sortServiceMock;
   @Mock ProductsCrudService crudServiceMock;
   @Mock ProductsPredicateService predicateServiceMock;
+  @Mock ExportService exportServiceMock;
+  @Mock ProductFacetsService facetsServiceMock;
+  @Mock ApiProperties apiPropertiesMock;
+  @Mock ProductImportService importServiceMock;
+  @Spy ObjectMapper objectMapper = new ObjectMapper();
 
   @Override
   @BeforeEach
@@ -56,6 +88,7 @@ class DataProductsControllerTest
     super.predicateServiceMock = predicateServiceMock;
     super.sortServiceMock = sortServiceMock;
     super.paginationServiceMock = paginationServiceMock;
+    super.exportServiceMock = exportServiceMock;
     super.beforeEach();
   }
 
@@ -68,11 +101,41 @@ class DataProductsControllerTest
     });
   }
 
+  @Test
+  void reads_products_after_cursor() {
+    assertDoesNotThrow(() -> super.reads_data_after_cursor(ANY));
+  }
+
+  @Test
+  void answers_not_modified_when_products_did_not_change() {
+    assertDoesNotThrow(super::answers_not_modified_when_version_tag_matches);
+  }
+
+  @Test
+  void reads_products_by_barcodes_in_requested_order() {
+    ProductPojo first = ProductPojo.builder().id(1L).barcode("a").build();
+    ProductPojo second = ProductPojo.builder().id(2L).barcode("b").build();
+    assertDoesNotThrow(() -> {
+      super.reads_data_by_keys_in_requested_order("barcodes", List.of("b", "x", "a"), List.of(first, second), List.of(second, first));
+      super.reads_data_by_keys_in_requested_order("ids", List.of("2", "1"), List.of(first, second), List.of(second, first));
+    });
+  }
+
+  @Test
+  void exports_products() {
+    assertDoesNotThrow(() -> super.exports_data(ProductPojo.class));
+  }
+
   @Test
   void creates_products() {
     assertDoesNotThrow(() -> super.creates_data(ProductPojo.builder().build()));
   }
 
+  @Test
+  void creates_products_in_batch() {
+    assertDoesNotThrow(() -> super.creates_data_in_batch(ProductPojo.builder().build()));
+  }
+
   @Test
   void updates_products() {
     assertDoesNotThrow(() -> super.updates_data_using_only_a_pojo(ProductPojo.builder().build()));
@@ -83,6 +146,16 @@ class DataProductsControllerTest
     assertDoesNotThrow(() -> super.updates_data_parsing_predicate_filters_from_map(ProductPojo.builder().build(), null));
   }
 
+  @Test
+  void updates_products_in_bulk() {
+    assertDoesNotThrow(() -> super.updates_data_in_bulk_parsing_predicate_filters_from_map(ProductPojo.builder().build()));
+  }
+
+  @Test
+  void does_not_update_products_in_bulk_when_predicate_filters_map_is_empty() {
+    assertDoesNotThrow(() -> super.does_not_update_data_in_bulk_when_predicate_filters_map_is_empty(ProductPojo.builder().build()));
+  }
+
   @Test
   void deletes_products() {
     assertDoesNotThrow(() -> super.deletes_data_parsing_predicate_filters_from_map(Map.of(ANY, ANY)));
@@ -92,4 +165,72 @@ class DataProductsControllerTest
   void does_not_delete_products_when_predicate_filters_map_is_empty() {
     assertDoesNotThrow(super::does_not_delete_data_when_predicate_filters_map_is_empty);
   }
+
+  @Test
+  void reads_facets_with_the_default_price_step() throws BadInputException {
+    ProductFacetsPojo facets = ProductFacetsPojo.builder().total(1L).build();
+    when(apiPropertiesMock.getProductFacetsPriceStep()).thenReturn(10000);
+    when(facetsServiceMock.readFacets(isNull(), anyInt())).thenReturn(facets);
+
+    ProductFacetsPojo result = instance.readFacets(Map.of());
+
+    verify(facetsServiceMock).readFacets(null, 10000);
+    assertSame(facets, result);
+  }
+
+  @Test
+  void reads_facets_of_filtered_products_with_the_requested_price_step() throws BadInputException {
+    Map<String, String> params = Map.of("nameLike", ANY, "priceStep", "500");
+    Predicate filters = new BooleanBuilder();
+    when(predicateServiceMock.parseMap(params)).thenReturn(filters);
+
+    instance.readFacets(params);
+
+    verify(facetsServiceMock).readFacets(filters, 500);
+  }
+
+  @Test
+  void does_not_read_facets_when_the_price_step_is_not_a_number() throws BadInputException {
+    Map<String, String> params = Map.of("priceStep", ANY);
+
+    assertThrows(BadInputException.class, () -> instance.readFacets(params));
+    verifyNoInteractions(facetsServiceMock);
+  }
+
+  @Test
+  void imports_products_writing_their_progress_as_ndjson() throws Exception {
+    Map<String, String> params = Map.of("format", "csv");
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setContent("name,barcode,price".getBytes());
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    ImportProgressPojo chunkProgress = new ImportProgressPojo();
+    chunkProgress.addCreated();
+    ImportProgressPojo lastProgress = new ImportProgressPojo();
+    lastProgress.addCreated();
+    lastProgress.setFinished(true);
+    when(exportServiceMock.determineRequestedFormat(params)).thenReturn(ExportFormat.CSV);
+    when(importServiceMock.importProducts(eq(ExportFormat.CSV), any(Reader.class), any())).thenAnswer(invocation -> {
+      Consumer<ImportProgressPojo> progressListener = invocation.getArgument(2);
+      progressListener.accept(chunkProgress);
+      progressListener.accept(lastProgress);
+      return lastProgress;
+    });
+
+    instance.importAll(params, request, response);
+
+    assertEquals("application/x-ndjson;charset=UTF-8", response.getContentType());
+    String[] lines = response.getContentAsString().split("\n");
+    assertEquals(2, lines.length);
+    assertEquals(lastProgress, objectMapper.readValue(lines[1], ImportProgressPojo.class));
+  }
+
+  @Test
+  void does_not_import_products_in_unknown_formats() throws BadInputException {
+    Map<String, String> params = Map.of("format", ANY);
+    when(exportServiceMock.determineRequestedFormat(params)).thenThrow(BadInputException.class);
+
+    assertThrows(BadInputException.class,
+      () -> instance.importAll(params, new MockHttpServletRequest(), new MockHttpServletResponse()));
+    verifyNoInteractions(importServiceMock);
+  }
 }
@@ -28,6 +28,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.trebol.api.DataCrudGenericControllerTest;
 import org.trebol.api.models.SellPojo;
+import org.trebol.api.services.ExportService;
 import org.trebol.api.services.PaginationService;
 import org.trebol.api.services.SalesProcessService;
 import org.trebol.jpa.entities.Sell;
@@ -49,6 +50,7 @@ class DataSalesControllerTest
   @Mock SortSpecParserService sortServiceMock;
   @Mock SalesCrudService crudServiceMock;
   @Mock SalesPredicateService predicateServiceMock;
+  @Mock ExportService exportServiceMock;
   @Mock SalesProcessService salesProcessServiceMock;
   @Mock MailingService mailingServiceMock;
 
@@ -60,6 +62,7 @@ class DataSalesControllerTest
     super.predicateServiceMock = predicateServiceMock;
     super.sortServiceMock = sortServiceMock;
     super.paginationServiceMock = paginationServiceMock;
+    super.exportServiceMock = exportServiceMock;
     super.beforeEach();
   }
 
@@ -72,6 +75,11 @@ class DataSalesControllerTest
     });
   }
 
+  @Test
+  void exports_sales() {
+    assertDoesNotThrow(() -> super.exports_data(SellPojo.class));
+  }
+
   @Test
   void creates_sales() {
     assertDoesNotThrow(() -> super.creates_data(SellPojo.builder().build()));
@@ -87,6 +95,16 @@ class DataSalesControllerTest
     assertDoesNotThrow(() -> super.updates_data_parsing_predicate_filters_from_map(SellPojo.builder().build(), null));
   }
 
+  @Test
+  void updates_sales_in_bulk() {
+    assertDoesNotThrow(() -> super.updates_data_in_bulk_parsing_predicate_filters_from_map(SellPojo.builder().build()));
+  }
+
+  @Test
+  void does_not_update_sales_in_bulk_when_predicate_filters_map_is_empty() {
+    assertDoesNotThrow(() -> super.does_not_update_data_in_bulk_when_predicate_filters_map_is_empty(SellPojo.builder().build()));
+  }
+
   @Test
   void deletes_sales() {
     assertDoesNotThrow(() -> super.deletes_data_parsing_predicate_filters_from_map(Map.of(ANY, ANY)));
@@ -26,9 +26,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.trebol.api.models.CompanyDetailsPojo;
 import org.trebol.api.services.CompanyService;
 
+import java.util.Optional;
+
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,8 +46,21 @@ class PublicAboutControllerTest {
   @Test
   void reads_company_data() {
     when(companyServiceMock.readDetails()).thenReturn(null);
-    CompanyDetailsPojo result = instance.readCompanyDetails();
+    when(companyServiceMock.readDetailsVersionTag()).thenReturn(Optional.of("1"));
+    CompanyDetailsPojo result = instance.readCompanyDetails(new ServletWebRequest(new MockHttpServletRequest()));
     Assertions.assertNull(result);
     verify(companyServiceMock).readDetails();
   }
+
+  @Test
+  void answers_not_modified_when_company_data_did_not_change() {
+    when(companyServiceMock.readDetailsVersionTag()).thenReturn(Optional.of("1"));
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader("If-None-Match", "\"1\"");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    CompanyDetailsPojo result = instance.readCompanyDetails(new ServletWebRequest(request, response));
+    Assertions.assertNull(result);
+    Assertions.assertEquals(304, response.getStatus());
+    verify(companyServiceMock, never()).readDetails();
+  }
 }
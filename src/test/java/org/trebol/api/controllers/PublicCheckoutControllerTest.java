@@ -27,24 +27,31 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.trebol.api.models.PaymentRedirectionDetailsPojo;
 import org.trebol.api.models.SellPojo;
 import org.trebol.api.services.CheckoutService;
 import org.trebol.common.exceptions.BadInputException;
+import org.trebol.common.integration.IntegrationExecutor;
+import org.trebol.config.IntegrationProperties;
 import org.trebol.jpa.services.crud.SalesCrudService;
 import org.trebol.jpa.services.predicates.SalesPredicateService;
 import org.trebol.mailing.MailingService;
-import org.trebol.mailing.MailingServiceException;
 import org.trebol.payment.PaymentServiceException;
 import org.trebol.testing.SalesTestHelper;
 
 import java.net.URI;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpStatus.SEE_OTHER;
 import static org.trebol.config.Constants.WEBPAY_ABORTION_TOKEN_HEADER_NAME;
@@ -57,6 +64,8 @@ class PublicCheckoutControllerTest {
   @Mock CheckoutService serviceMock;
   @Mock SalesCrudService salesCrudServiceMock;
   @Mock SalesPredicateService salesPredicateServiceMock;
+  @Mock IntegrationExecutor integrationExecutorMock;
+  @Mock IntegrationProperties integrationPropertiesMock;
   @Mock MailingService mailingServiceMock;
   final SalesTestHelper salesHelper = new SalesTestHelper();
   private final static Map<String, String> HEADERS_MAP_WITH_SUCCESS_TOKEN = Map.of(WEBPAY_SUCCESS_TOKEN_HEADER_NAME, ANY);
@@ -76,14 +85,33 @@ class PublicCheckoutControllerTest {
   }
 
   @Test
-  void redirects_to_success_page() throws BadInputException, MailingServiceException, PaymentServiceException {
-    mailingServiceMock = null;
+  void redirects_to_success_page() throws Exception {
+    SellPojo confirmedSell = SellPojo.builder().build();
     URI successPageUri = URI.create(ANY);
     when(serviceMock.generateResultPageUrl(anyString())).thenReturn(successPageUri);
-    ResponseEntity<Void> response = instance.validateSuccesfulTransaction(HEADERS_MAP_WITH_SUCCESS_TOKEN);
+    when(serviceMock.confirmTransaction(ANY, false)).thenReturn(confirmedSell);
+    when(integrationExecutorMock.supply(any())).thenAnswer(invocation -> {
+      Callable<?> task = invocation.getArgument(0);
+      return CompletableFuture.completedFuture(task.call());
+    });
+    DeferredResult<ResponseEntity<Void>> result = instance.validateSuccesfulTransaction(HEADERS_MAP_WITH_SUCCESS_TOKEN);
+    assertNotNull(result);
+    assertTrue(result.hasResult());
+    ResponseEntity<?> response = (ResponseEntity<?>) result.getResult();
     assertNotNull(response);
     assertEquals(SEE_OTHER, response.getStatusCode());
     assertEquals(successPageUri, response.getHeaders().getLocation());
+    verify(mailingServiceMock).notifyOrderStatusToClient(confirmedSell);
+  }
+
+  @Test
+  void reports_errors_raised_while_confirming_successful_transactions() throws BadInputException {
+    PaymentServiceException failure = new PaymentServiceException(ANY);
+    when(serviceMock.generateResultPageUrl(anyString())).thenReturn(URI.create(ANY));
+    when(integrationExecutorMock.supply(any())).thenReturn(CompletableFuture.failedFuture(failure));
+    DeferredResult<ResponseEntity<Void>> result = instance.validateSuccesfulTransaction(HEADERS_MAP_WITH_SUCCESS_TOKEN);
+    assertTrue(result.hasResult());
+    assertEquals(failure, result.getResult());
   }
 
   @Test
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.trebol.api.models.ImagePojo;
+import org.trebol.api.models.ProductCategoryPojo;
+import org.trebol.api.models.ProductPojo;
+import org.trebol.api.services.ExportFormat;
+import org.trebol.common.exceptions.BadInputException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportServiceImplTest {
+  ExportServiceImpl instance;
+
+  @BeforeEach
+  void beforeEach() {
+    instance = new ExportServiceImpl(new ObjectMapper());
+  }
+
+  @Test
+  void determines_requested_format() throws BadInputException {
+    assertEquals(ExportFormat.NDJSON, instance.determineRequestedFormat(null));
+    assertEquals(ExportFormat.NDJSON, instance.determineRequestedFormat(Map.of()));
+    assertEquals(ExportFormat.NDJSON, instance.determineRequestedFormat(Map.of("format", "ndjson")));
+    assertEquals(ExportFormat.CSV, instance.determineRequestedFormat(Map.of("format", "csv")));
+    assertThrows(BadInputException.class, () -> instance.determineRequestedFormat(Map.of("format", "xml")));
+  }
+
+  @Test
+  void exports_items_as_ndjson() throws IOException {
+    List<ImagePojo> images = List.of(
+      ImagePojo.builder().code("a").filename("a.png").url("/a.png").build(),
+      ImagePojo.builder().code("b").filename("b.png").url("/b.png").build());
+
+    String result = this.export(ExportFormat.NDJSON, ImagePojo.class, null, images);
+
+    assertEquals("{\"code\":\"a\",\"filename\":\"a.png\",\"url\":\"/a.png\"}\n" +
+      "{\"code\":\"b\",\"filename\":\"b.png\",\"url\":\"/b.png\"}\n", result);
+  }
+
+  @Test
+  void exports_only_requested_fields_of_items_as_ndjson() throws IOException {
+    List<ImagePojo> images = List.of(ImagePojo.builder().code("a").filename("a.png").url("/a.png").build());
+
+    String result = this.export(ExportFormat.NDJSON, ImagePojo.class, Set.of("code", "url"), images);
+
+    assertEquals("{\"code\":\"a\",\"url\":\"/a.png\"}\n", result);
+  }
+
+  @Test
+  void exports_items_as_csv() throws IOException {
+    List<ProductPojo> products = List.of(
+      ProductPojo.builder()
+        .name("Tea, green")
+        .barcode("1")
+        .price(100)
+        .category(ProductCategoryPojo.builder().code("tea").name("Tea").build())
+        .build(),
+      ProductPojo.builder()
+        .name("The \"best\" coffee")
+        .barcode("2")
+        .build());
+
+    String result = this.export(ExportFormat.CSV, ProductPojo.class, Set.of("name", "barcode", "price", "category"), products);
+
+    assertEquals("name,barcode,price,category\r\n" +
+      "\"Tea, green\",1,100,\"{\"\"code\"\":\"\"tea\"\",\"\"name\"\":\"\"Tea\"\"}\"\r\n" +
+      "\"The \"\"best\"\" coffee\",2,,\r\n", result);
+  }
+
+  @Test
+  void exports_csv_header_even_without_items() throws IOException {
+    String result = this.export(ExportFormat.CSV, ImagePojo.class, null, List.of());
+
+    assertEquals("code,filename,url\r\n", result);
+  }
+
+  private <M> String export(ExportFormat format, Class<M> itemClass, Set<String> fields, List<M> items)
+    throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    instance.export(format, itemClass, fields, items::forEach).writeTo(outputStream);
+    return outputStream.toString(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api.services.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.trebol.common.exceptions.BadInputException;
+import org.trebol.config.ApiProperties;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaginationServiceImplTest {
+  @InjectMocks PaginationServiceImpl instance;
+  @Mock ApiProperties apiPropertiesMock;
+
+  @BeforeEach
+  void beforeEach() {
+    when(apiPropertiesMock.getMaxAllowedPageSize()).thenReturn(5);
+  }
+
+  @Test
+  void reads_requested_keys_in_order_without_repeating_them() throws BadInputException {
+    List<String> result = instance.determineRequestedKeys(Map.of("codes", "b, a,b,,c"), "codes");
+
+    assertEquals(List.of("b", "a", "c"), result);
+  }
+
+  @Test
+  void normalizes_requested_identifiers() throws BadInputException {
+    List<String> result = instance.determineRequestedKeys(Map.of("ids", "3,01,1,2"), "ids");
+
+    assertEquals(List.of("3", "1", "2"), result);
+  }
+
+  @Test
+  void rejects_requested_identifiers_that_are_not_numbers() {
+    List.of("1,abc", "-1", "1.5", "99999999999999999999").forEach(ids -> assertThrows(
+      BadInputException.class,
+      () -> instance.determineRequestedKeys(Map.of("ids", ids), "ids")));
+  }
+
+  @Test
+  void rejects_more_keys_than_the_maximum_page_size() {
+    assertThrows(BadInputException.class,
+      () -> instance.determineRequestedKeys(Map.of("codes", "a,b,c,d,e,f"), "codes"));
+  }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.core.types.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.trebol.api.models.BatchItemResultPojo;
+import org.trebol.api.models.ImportProgressPojo;
+import org.trebol.api.models.ProductPojo;
+import org.trebol.api.services.ExportFormat;
+import org.trebol.api.services.ResponseCacheService;
+import org.trebol.api.services.ResponseCacheSource;
+import org.trebol.config.ApiProperties;
+import org.trebol.jpa.entities.Image;
+import org.trebol.jpa.entities.Product;
+import org.trebol.jpa.entities.ProductCategory;
+import org.trebol.jpa.entities.ProductImage;
+import org.trebol.jpa.repositories.ImagesRepository;
+import org.trebol.jpa.repositories.ProductImagesRepository;
+import org.trebol.jpa.repositories.ProductsCategoriesRepository;
+import org.trebol.jpa.repositories.ProductsRepository;
+import org.trebol.jpa.services.ProductCategoryTree;
+import org.trebol.jpa.services.ProductCategoryTreeResolverService;
+import org.trebol.jpa.services.ProductSearchIndexService;
+import org.trebol.jpa.services.conversion.ProductsConverterService;
+import org.trebol.jpa.services.patch.impl.ProductsPatchServiceImpl;
+
+import javax.validation.Validation;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceImplTest {
+  ProductImportServiceImpl instance;
+  @Mock ProductsRepository productsRepositoryMock;
+  @Mock ProductImagesRepository productImagesRepositoryMock;
+  @Mock ImagesRepository imagesRepositoryMock;
+  @Mock ProductsCategoriesRepository categoriesRepositoryMock;
+  @Mock ProductsConverterService productsConverterServiceMock;
+  @Mock ProductCategoryTreeResolverService categoryTreeResolverServiceMock;
+  @Mock ProductSearchIndexService searchIndexServiceMock;
+  @Mock ResponseCacheService responseCacheServiceMock;
+  @Mock PlatformTransactionManager transactionManagerMock;
+  @Mock ApiProperties apiPropertiesMock;
+  @Captor ArgumentCaptor<List<Product>> productsCaptor;
+  @Captor ArgumentCaptor<List<ProductImage>> productImagesCaptor;
+  final ProductCategory category = ProductCategory.builder().id(7L).code("tools").name("Tools").path("/").build();
+  final AtomicLong nextId = new AtomicLong(100L);
+
+  @BeforeEach
+  void beforeEach() {
+    when(apiPropertiesMock.getProductImportChunkSize()).thenReturn(2);
+    when(categoryTreeResolverServiceMock.getTree()).thenReturn(new ProductCategoryTree(1L, List.of(category)));
+    instance = new ProductImportServiceImpl(productsRepositoryMock, productImagesRepositoryMock, imagesRepositoryMock,
+      categoriesRepositoryMock, productsConverterServiceMock, new ProductsPatchServiceImpl(),
+      categoryTreeResolverServiceMock, searchIndexServiceMock, responseCacheServiceMock,
+      Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), transactionManagerMock,
+      apiPropertiesMock);
+  }
+
+  @Test
+  void creates_products_not_registered_yet_and_updates_the_rest_without_changing_their_stock() throws Exception {
+    Product existing = Product.builder().id(1L).barcode("a").name("A").price(10).stockCurrent(5).build();
+    when(productsRepositoryMock.findAll(any(Predicate.class))).thenReturn(List.of(existing));
+    when(categoriesRepositoryMock.getById(7L)).thenReturn(category);
+    this.convertNewProducts();
+    String input = "{\"barcode\":\"a\",\"name\":\"A\",\"price\":15}\n" +
+      "{\"barcode\":\"b\",\"name\":\"B\",\"price\":20,\"category\":{\"code\":\"tools\"}}\n";
+
+    ImportProgressPojo result = instance.importProducts(ExportFormat.NDJSON, new StringReader(input), progress -> { });
+
+    assertEquals(1, result.getCreatedCount());
+    assertEquals(1, result.getUpdatedCount());
+    assertEquals(0, result.getFailedCount());
+    assertTrue(result.isFinished());
+    assertEquals(15, existing.getPrice());
+    assertEquals(5, existing.getStockCurrent());
+    verify(productsRepositoryMock).saveAll(productsCaptor.capture());
+    Product created = productsCaptor.getValue().get(0);
+    assertEquals("b", created.getBarcode());
+    assertEquals(category, created.getProductCategory());
+    verify(searchIndexServiceMock).index(anyList());
+    verify(responseCacheServiceMock).invalidate(ResponseCacheSource.PRODUCTS);
+  }
+
+  @Test
+  void reads_csv_in_the_same_representation_as_products_are_exported() throws Exception {
+    Image image = Image.builder().id(3L).code("hammer").filename("hammer.jpg").url("http://images/hammer.jpg").build();
+    when(imagesRepositoryMock.findAll(any(Predicate.class))).thenReturn(List.of(image));
+    when(categoriesRepositoryMock.getById(7L)).thenReturn(category);
+    this.convertNewProducts();
+    String input = "\uFEFFname,barcode,description,price,category,images\r\n" +
+      "Hammer,h1,\"Heavy, \"\"steel\"\"\nhammer\",1000,\"{\"\"code\"\":\"\"tools\"\"}\",\"[{\"\"filename\"\":\"\"hammer.jpg\"\"}]\"\r\n";
+
+    ImportProgressPojo result = instance.importProducts(ExportFormat.CSV, new StringReader(input), progress -> { });
+
+    assertEquals(1, result.getCreatedCount());
+    verify(productsRepositoryMock).saveAll(productsCaptor.capture());
+    Product created = productsCaptor.getValue().get(0);
+    assertEquals("Hammer", created.getName());
+    assertEquals("Heavy, \"steel\"\nhammer", created.getDescription());
+    assertEquals(1000, created.getPrice());
+    assertEquals(category, created.getProductCategory());
+    verify(productImagesRepositoryMock).saveAll(productImagesCaptor.capture());
+    assertEquals(1, productImagesCaptor.getValue().size());
+    assertSame(image, productImagesCaptor.getValue().get(0).getImage());
+    assertSame(created, productImagesCaptor.getValue().get(0).getProduct());
+  }
+
+  @Test
+  void reports_the_rows_that_cannot_be_saved_after_each_chunk() throws Exception {
+    this.convertNewProducts();
+    String input = "not json\n" +
+      "{\"barcode\":\"a\",\"name\":\"A\"}\n" +
+      "\n" +
+      "{\"barcode\":\"b\",\"name\":\"B\",\"price\":20,\"category\":{\"code\":\"unknown\"}}\n" +
+      "{\"barcode\":\"c\",\"name\":\"C\",\"price\":30}\n";
+    List<ImportProgressPojo> reports = new ArrayList<>();
+
+    ImportProgressPojo result = instance.importProducts(ExportFormat.NDJSON, new StringReader(input), reports::add);
+
+    assertEquals(3, reports.size());
+    assertEquals(List.of(0, 1), this.indexesOfErrors(reports.get(0)));
+    assertEquals(2, reports.get(0).getProcessedCount());
+    assertFalse(reports.get(0).isFinished());
+    assertEquals(List.of(2), this.indexesOfErrors(reports.get(1)));
+    assertEquals("Product category does not exist", reports.get(1).getErrors().get(0).getError());
+    assertEquals(4, reports.get(1).getProcessedCount());
+    assertSame(result, reports.get(2));
+    assertTrue(result.isFinished());
+    assertTrue(result.getErrors().isEmpty());
+    assertEquals(1, result.getCreatedCount());
+    assertEquals(3, result.getFailedCount());
+  }
+
+  @Test
+  void saves_rows_one_by_one_when_their_chunk_cannot_be_saved() throws Exception {
+    this.convertNewProducts();
+    when(productsRepositoryMock.saveAll(anyList())).thenAnswer(invocation -> {
+      List<Product> products = invocation.getArgument(0);
+      if (products.stream().anyMatch(product -> product.getBarcode().equals("taken"))) {
+        throw new DataIntegrityViolationException("duplicate key");
+      }
+      return products;
+    });
+    String input = "{\"barcode\":\"taken\",\"name\":\"A\",\"price\":10}\n" +
+      "{\"barcode\":\"b\",\"name\":\"B\",\"price\":20}\n";
+
+    ImportProgressPojo result = instance.importProducts(ExportFormat.NDJSON, new StringReader(input), progress -> { });
+
+    assertEquals(1, result.getCreatedCount());
+    assertEquals(1, result.getFailedCount());
+  }
+
+  @Test
+  void does_not_reindex_products_that_did_not_change() throws Exception {
+    Product existing = Product.builder().id(1L).barcode("a").name("A").price(10).build();
+    when(productsRepositoryMock.findAll(any(Predicate.class))).thenReturn(List.of(existing));
+    String input = "name,barcode,price,images\nA,a,10,[]\n";
+
+    ImportProgressPojo result = instance.importProducts(ExportFormat.CSV, new StringReader(input), progress -> { });
+
+    assertEquals(1, result.getUnchangedCount());
+    verify(searchIndexServiceMock, never()).index(anyList());
+    verify(responseCacheServiceMock, never()).invalidate(any());
+  }
+
+  @Test
+  void rejects_products_named_as_another_product() throws Exception {
+    Product existing = Product.builder().id(1L).barcode("a").name("A").price(10).build();
+    when(productsRepositoryMock.findAll(any(Predicate.class))).thenReturn(List.of(existing));
+    String input = "{\"barcode\":\"b\",\"name\":\"A\",\"price\":20}\n";
+
+    ImportProgressPojo result = instance.importProducts(ExportFormat.NDJSON, new StringReader(input), progress -> { });
+
+    assertEquals(1, result.getFailedCount());
+    verify(productsConverterServiceMock, never()).convertToNewEntity(any());
+  }
+
+  @Test
+  void stops_reading_at_rows_that_are_too_long() throws IOException {
+    String input = "{\"name\":\"" + "x".repeat(1024 * 1024) + "\"}\n";
+
+    ImportProgressPojo result = instance.importProducts(ExportFormat.NDJSON, new StringReader(input), progress -> { });
+
+    assertTrue(result.isFinished());
+    assertNotNull(result.getError());
+    assertEquals(0, result.getProcessedCount());
+  }
+
+  private void convertNewProducts() throws Exception {
+    when(productsConverterServiceMock.convertToNewEntity(any())).thenAnswer(invocation -> {
+      ProductPojo input = invocation.getArgument(0);
+      return Product.builder()
+        .id(nextId.getAndIncrement())
+        .barcode(input.getBarcode())
+        .name(input.getName())
+        .description(input.getDescription())
+        .price(input.getPrice())
+        .build();
+    });
+  }
+
+  private List<Integer> indexesOfErrors(ImportProgressPojo progress) {
+    return progress.getErrors().stream()
+      .map(BatchItemResultPojo::getIndex)
+      .collect(Collectors.toList());
+  }
+}
@@ -35,6 +35,7 @@ import org.trebol.jpa.exceptions.PersonNotFoundException;
 import org.trebol.jpa.exceptions.UserNotFoundException;
 import org.trebol.jpa.repositories.PeopleRepository;
 import org.trebol.jpa.repositories.UsersRepository;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.conversion.PeopleConverterService;
 import org.trebol.jpa.services.crud.PeopleCrudService;
 import org.trebol.jpa.services.patch.PeoplePatchService;
@@ -97,9 +98,11 @@ class ProfileServiceImplTest {
     String name = existingUser.getName();
     PersonPojo input = peopleTestHelper.personPojoBeforeCreation();
     when(usersRepositoryMock.findByName(anyString())).thenReturn(Optional.of(existingUser));
-    when(peoplePatchService.patchExistingEntity(any(PersonPojo.class), any(Person.class))).thenReturn(existingProfile);
+    ChangeSet changes = new ChangeSet();
+    changes.set("firstName", input.getFirstName() + " ", existingProfile::getFirstName, existingProfile::setFirstName);
+    when(peoplePatchService.patchExistingEntity(any(PersonPojo.class), any(Person.class))).thenReturn(changes);
     assertDoesNotThrow(() -> instance.updateProfileForUserWithName(name, input));
-    verify(peopleRepositoryMock, times(1)).saveAndFlush(any(Person.class));
+    verify(peopleRepositoryMock, times(1)).saveAndFlush(existingProfile);
   }
 
   @Test
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.api.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.trebol.api.services.CachedResponse;
+import org.trebol.config.ApiProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.trebol.api.services.ResponseCacheSource.PRODUCTS;
+import static org.trebol.api.services.ResponseCacheSource.PRODUCT_CATEGORIES;
+import static org.trebol.api.services.ResponseCacheSource.PRODUCT_LISTS;
+
+class ResponseCacheServiceImplTest {
+  static final String KEY_1 = "/data/products?pageIndex=0&";
+  static final String KEY_2 = "/data/products?pageIndex=1&";
+  static final String KEY_3 = "/data/product_categories?";
+  final CachedResponse response = CachedResponse.of("application/json", "\"abc\"", "[]".getBytes(StandardCharsets.UTF_8));
+
+  @Test
+  void stores_responses_and_counts_hits_and_misses() {
+    ResponseCacheServiceImpl instance = instanceOfSize(1 << 20);
+    assertTrue(instance.get(KEY_1).isEmpty());
+    instance.put(KEY_1, EnumSet.of(PRODUCTS), response, instance.getCurrentVersion());
+    Optional<CachedResponse> result = instance.get(KEY_1);
+
+    assertTrue(result.isPresent());
+    assertArrayEquals("[]".getBytes(StandardCharsets.UTF_8), result.get().getBody());
+    assertEquals(1, instance.getHitCount());
+    assertEquals(1, instance.getMissCount());
+    assertEquals(0.5, instance.getHitRatio());
+    assertTrue(instance.getSizeInBytes() > 0);
+  }
+
+  @Test
+  void evicts_least_recently_used_responses_to_stay_within_size() {
+    ResponseCacheServiceImpl instance = instanceOfSize(4096);
+    instance.put(KEY_1, EnumSet.of(PRODUCTS), response, 0L);
+    for (int i = 0; i < 50; i++) {
+      instance.put(KEY_2 + i, EnumSet.of(PRODUCTS), response, 0L);
+      assertTrue(instance.get(KEY_1).isPresent());
+    }
+    assertTrue(instance.get(KEY_2 + 0).isEmpty());
+    assertTrue(instance.get(KEY_2 + 49).isPresent());
+    assertTrue(instance.getSizeInBytes() <= 4096);
+  }
+
+  @Test
+  void skips_responses_too_large_for_their_share() {
+    ResponseCacheServiceImpl instance = instanceOfSize(1024);
+    CachedResponse large = CachedResponse.of("application/json", null, new byte[1024 * 1024]);
+    instance.put(KEY_1, EnumSet.of(PRODUCTS), large, 0L);
+    assertTrue(instance.get(KEY_1).isEmpty());
+    assertEquals(0, instance.getSizeInBytes());
+  }
+
+  @Test
+  void invalidates_only_responses_that_depend_on_changed_data() {
+    ResponseCacheServiceImpl instance = instanceOfSize(1 << 20);
+    instance.put(KEY_1, EnumSet.of(PRODUCTS, PRODUCT_CATEGORIES), response, 0L);
+    instance.put(KEY_3, EnumSet.of(PRODUCT_CATEGORIES), response, 0L);
+    instance.invalidate(PRODUCTS);
+    assertTrue(instance.get(KEY_1).isEmpty());
+    assertTrue(instance.get(KEY_3).isPresent());
+  }
+
+  @Test
+  void refuses_responses_built_before_a_change_to_their_data() {
+    ResponseCacheServiceImpl instance = instanceOfSize(1 << 20);
+    long versionBeforeChange = instance.getCurrentVersion();
+    instance.invalidate(PRODUCTS);
+    instance.put(KEY_1, EnumSet.of(PRODUCTS), response, versionBeforeChange);
+    instance.put(KEY_3, EnumSet.of(PRODUCT_CATEGORIES), response, versionBeforeChange);
+    instance.put(KEY_2, EnumSet.of(PRODUCTS), response, instance.getCurrentVersion());
+    assertTrue(instance.get(KEY_1).isEmpty());
+    assertTrue(instance.get(KEY_3).isPresent());
+    assertTrue(instance.get(KEY_2).isPresent());
+  }
+
+  @Test
+  void waits_for_transactions_to_commit_before_invalidating() {
+    ResponseCacheServiceImpl instance = instanceOfSize(1 << 20);
+    instance.put(KEY_1, EnumSet.of(PRODUCT_LISTS), response, 0L);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      instance.invalidate(PRODUCT_LISTS);
+      assertTrue(instance.get(KEY_1).isPresent());
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    assertTrue(instance.get(KEY_1).isEmpty());
+  }
+
+  private static ResponseCacheServiceImpl instanceOfSize(long maxBytes) {
+    ApiProperties apiProperties = new ApiProperties();
+    apiProperties.setResponseCacheMaxBytes(maxBytes);
+    apiProperties.setResponseCacheTimeToLiveSeconds(60);
+    return new ResponseCacheServiceImpl(apiProperties);
+  }
+}
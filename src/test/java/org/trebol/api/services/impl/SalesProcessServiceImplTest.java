@@ -31,17 +31,18 @@ import org.trebol.api.models.ProductPojo;
 import org.trebol.api.models.SellDetailPojo;
 import org.trebol.api.models.SellPojo;
 import org.trebol.common.exceptions.BadInputException;
+import org.trebol.jpa.entities.Product;
 import org.trebol.jpa.entities.Sell;
 import org.trebol.jpa.entities.SellDetail;
 import org.trebol.jpa.entities.SellStatus;
 import org.trebol.jpa.repositories.SalesRepository;
-import org.trebol.jpa.repositories.SellDetailsRepository;
-import org.trebol.jpa.repositories.SellStatusesRepository;
+import org.trebol.jpa.services.SellStatusesRegistryService;
+import org.trebol.jpa.services.StockReservationService;
 import org.trebol.jpa.services.conversion.ProductsConverterService;
 import org.trebol.jpa.services.conversion.SalesConverterService;
-import org.trebol.jpa.services.crud.SalesCrudService;
 import org.trebol.testing.ProductsTestHelper;
 
+import javax.persistence.EntityNotFoundException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -49,19 +50,22 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.trebol.config.Constants.*;
 
 @ExtendWith(MockitoExtension.class)
 class SalesProcessServiceImplTest {
   @InjectMocks SalesProcessServiceImpl instance;
-  @Mock SalesCrudService crudServiceMock;
   @Mock SalesRepository salesRepositoryMock;
-  @Mock SellStatusesRepository sellStatusesRepositoryMock;
-  @Mock SellDetailsRepository sellDetailsRepositoryMock;
+  @Mock SellStatusesRegistryService statusesRegistryServiceMock;
   @Mock SalesConverterService sellConverterServiceMock;
   @Mock ProductsConverterService productConverterServiceMock;
+  @Mock StockReservationService stockReservationServiceMock;
   final ProductsTestHelper productsHelper = new ProductsTestHelper();
 
   @BeforeEach
@@ -69,40 +73,60 @@ class SalesProcessServiceImplTest {
     productsHelper.resetProducts();
   }
 
+  @Test
+  void fetchExisting_SellNotInRepo_EntityNotFoundException() {
+    SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
+
+    when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.empty());
+
+    assertThrows(EntityNotFoundException.class, () -> instance.markAsStarted(sellPojoMock));
+  }
+
+  @Test
+  void fetchExisting_WithoutBuyOrder_EntityNotFoundException() {
+    SellPojo sellPojoMock = SellPojo.builder().build();
+
+    assertThrows(EntityNotFoundException.class, () -> instance.markAsStarted(sellPojoMock));
+    verify(salesRepositoryMock, never()).findByIdWithDetails(any());
+  }
+
   @Nested
   class MarkAsStarted {
 
     @Test
     void markAsStarted_SellStatus_IsNotPending_BadInputException() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(999);
       sellStatusMock.setName("status");
 
       Sell sellMock = new Sell();
       sellMock.setStatus(sellStatusMock);
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock));
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
 
       assertThrows(BadInputException.class, () -> instance.markAsStarted(sellPojoMock));
+      verify(salesRepositoryMock, never()).setStatus(any(), any(), any());
     }
 
     @Test
     void markAsStarted_SellStatus_IsNotInRepo_IllegalStateException() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PENDING_CODE);
       sellStatusMock.setName(SELL_STATUS_PENDING);
 
       Sell sellMock = new Sell();
       sellMock.setStatus(sellStatusMock);
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.empty());
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(anyInt())).thenThrow(IllegalStateException.class);
 
       assertThrows(IllegalStateException.class, () -> instance.markAsStarted(sellPojoMock));
     }
@@ -110,20 +134,29 @@ class SalesProcessServiceImplTest {
     @Test
     void markAsStarted_ShouldReturn_SellPojo_WithStatusStarted() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PENDING_CODE);
       sellStatusMock.setName(SELL_STATUS_PENDING);
+      SellStatus targetStatusMock = new SellStatus();
+      targetStatusMock.setCode(SELL_STATUS_PAYMENT_STARTED_CODE);
+      targetStatusMock.setName(SELL_STATUS_PAYMENT_STARTED);
 
       Sell sellMock = new Sell();
+      sellMock.setId(1L);
       sellMock.setStatus(sellStatusMock);
+      sellMock.setDetails(List.of());
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.of(sellStatusMock));
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(SELL_STATUS_PAYMENT_STARTED_CODE)).thenReturn(targetStatusMock);
+      when(salesRepositoryMock.setStatus(1L, sellStatusMock, targetStatusMock)).thenReturn(1);
       when(sellConverterServiceMock.convertToPojo(any())).thenReturn(sellPojoMock); // convertOrThrowException
 
       assertEquals(SELL_STATUS_PAYMENT_STARTED, instance.markAsStarted(sellPojoMock).getStatus());
+      verify(salesRepositoryMock).setStatus(1L, sellStatusMock, targetStatusMock);
+      verifyNoInteractions(stockReservationServiceMock);
     }
   }
 
@@ -133,34 +166,37 @@ class SalesProcessServiceImplTest {
     @Test
     void markAsAborted_SellStatus_IsNotStarted_BadInputException() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(999);
       sellStatusMock.setName("status");
 
       Sell sellMock = new Sell();
       sellMock.setStatus(sellStatusMock);
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
 
       assertThrows(BadInputException.class, () -> instance.markAsAborted(sellPojoMock));
+      verify(salesRepositoryMock, never()).setStatus(any(), any(), any());
     }
 
     @Test
     void markAsAborted_SellStatus_IsNotInRepo_IllegalStateException() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAYMENT_STARTED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAYMENT_STARTED);
 
       Sell sellMock = new Sell();
       sellMock.setStatus(sellStatusMock);
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.empty());
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(anyInt())).thenThrow(IllegalStateException.class);
 
       assertThrows(IllegalStateException.class, () -> instance.markAsAborted(sellPojoMock));
     }
@@ -168,20 +204,56 @@ class SalesProcessServiceImplTest {
     @Test
     void markAsAborted_ShouldReturn_SellPojo_WithStatusCancelled() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAYMENT_STARTED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAYMENT_STARTED);
+      SellStatus targetStatusMock = new SellStatus();
+      targetStatusMock.setCode(SELL_STATUS_PAYMENT_CANCELLED_CODE);
+      targetStatusMock.setName(SELL_STATUS_PAYMENT_CANCELLED);
 
       Sell sellMock = new Sell();
+      sellMock.setId(1L);
       sellMock.setStatus(sellStatusMock);
+      sellMock.setDetails(List.of());
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.of(sellStatusMock));
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(SELL_STATUS_PAYMENT_CANCELLED_CODE)).thenReturn(targetStatusMock);
+      when(salesRepositoryMock.setStatus(1L, sellStatusMock, targetStatusMock)).thenReturn(1);
       when(sellConverterServiceMock.convertToPojo(any())).thenReturn(sellPojoMock); // convertOrThrowException
 
       assertEquals(SELL_STATUS_PAYMENT_CANCELLED, instance.markAsAborted(sellPojoMock).getStatus());
+      verify(salesRepositoryMock).setStatus(1L, sellStatusMock, targetStatusMock);
+      verify(stockReservationServiceMock).release(List.of());
+    }
+
+    @Test
+    void markAsAborted_SellStatus_ChangedMeanwhile_BadInputException() {
+      // Setup mock objects
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
+
+      SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAYMENT_STARTED_CODE);
+      sellStatusMock.setName(SELL_STATUS_PAYMENT_STARTED);
+      SellStatus targetStatusMock = new SellStatus();
+      targetStatusMock.setCode(SELL_STATUS_PAYMENT_CANCELLED_CODE);
+      targetStatusMock.setName(SELL_STATUS_PAYMENT_CANCELLED);
+
+      Sell sellMock = new Sell();
+      sellMock.setId(1L);
+      sellMock.setStatus(sellStatusMock);
+      sellMock.setDetails(List.of());
+
+      // Stubbing
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(SELL_STATUS_PAYMENT_CANCELLED_CODE)).thenReturn(targetStatusMock);
+      when(salesRepositoryMock.setStatus(1L, sellStatusMock, targetStatusMock)).thenReturn(0);
+      when(sellConverterServiceMock.convertToPojo(any())).thenReturn(sellPojoMock); // convertOrThrowException
+
+      assertThrows(BadInputException.class, () -> instance.markAsAborted(sellPojoMock));
+      verifyNoInteractions(stockReservationServiceMock);
     }
   }
 
@@ -191,34 +263,37 @@ class SalesProcessServiceImplTest {
     @Test
     void markAsFailed_SellStatus_IsNotStarted_BadInputException() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(999);
       sellStatusMock.setName("status");
 
       Sell sellMock = new Sell();
       sellMock.setStatus(sellStatusMock);
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
 
       assertThrows(BadInputException.class, () -> instance.markAsFailed(sellPojoMock));
+      verify(salesRepositoryMock, never()).setStatus(any(), any(), any());
     }
 
     @Test
     void markAsFailed_SellStatus_IsNotInRepo_IllegalStateException() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAYMENT_STARTED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAYMENT_STARTED);
 
       Sell sellMock = new Sell();
       sellMock.setStatus(sellStatusMock);
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.empty());
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(anyInt())).thenThrow(IllegalStateException.class);
 
       assertThrows(IllegalStateException.class, () -> instance.markAsFailed(sellPojoMock));
     }
@@ -226,20 +301,29 @@ class SalesProcessServiceImplTest {
     @Test
     void markAsFailed_ShouldReturn_SellPojo_WithStatusFailed() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAYMENT_STARTED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAYMENT_STARTED);
+      SellStatus targetStatusMock = new SellStatus();
+      targetStatusMock.setCode(SELL_STATUS_PAYMENT_FAILED_CODE);
+      targetStatusMock.setName(SELL_STATUS_PAYMENT_FAILED);
 
       Sell sellMock = new Sell();
+      sellMock.setId(1L);
       sellMock.setStatus(sellStatusMock);
+      sellMock.setDetails(List.of());
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.of(sellStatusMock));
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(SELL_STATUS_PAYMENT_FAILED_CODE)).thenReturn(targetStatusMock);
+      when(salesRepositoryMock.setStatus(1L, sellStatusMock, targetStatusMock)).thenReturn(1);
       when(sellConverterServiceMock.convertToPojo(any())).thenReturn(sellPojoMock); // convertOrThrowException
 
       assertEquals(SELL_STATUS_PAYMENT_FAILED, instance.markAsFailed(sellPojoMock).getStatus());
+      verify(salesRepositoryMock).setStatus(1L, sellStatusMock, targetStatusMock);
+      verify(stockReservationServiceMock).release(List.of());
     }
   }
 
@@ -249,34 +333,37 @@ class SalesProcessServiceImplTest {
     @Test
     void markAsPaid__SellStatus_IsNotStarted_BadInputException() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(999);
       sellStatusMock.setName("status");
 
       Sell sellMock = new Sell();
       sellMock.setStatus(sellStatusMock);
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
 
       assertThrows(BadInputException.class, () -> instance.markAsPaid(sellPojoMock));
+      verify(salesRepositoryMock, never()).setStatus(any(), any(), any());
     }
 
     @Test
     void markAsPaid_SellStatus_IsNotInRepo_IllegalStateException() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAYMENT_STARTED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAYMENT_STARTED);
 
       Sell sellMock = new Sell();
       sellMock.setStatus(sellStatusMock);
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.empty());
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(anyInt())).thenThrow(IllegalStateException.class);
 
       assertThrows(IllegalStateException.class, () -> instance.markAsPaid(sellPojoMock));
     }
@@ -284,47 +371,62 @@ class SalesProcessServiceImplTest {
     @Test
     void markAsPaid_ShouldReturn_SellPojo_WithStatusUnconfirmed() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAYMENT_STARTED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAYMENT_STARTED);
+      SellStatus targetStatusMock = new SellStatus();
+      targetStatusMock.setCode(SELL_STATUS_PAID_UNCONFIRMED_CODE);
+      targetStatusMock.setName(SELL_STATUS_PAID_UNCONFIRMED);
 
       Sell sellMock = new Sell();
+      sellMock.setId(1L);
       sellMock.setStatus(sellStatusMock);
+      sellMock.setDetails(List.of());
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.of(sellStatusMock));
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(SELL_STATUS_PAID_UNCONFIRMED_CODE)).thenReturn(targetStatusMock);
+      when(salesRepositoryMock.setStatus(1L, sellStatusMock, targetStatusMock)).thenReturn(1);
       when(sellConverterServiceMock.convertToPojo(any())).thenReturn(sellPojoMock); // convertOrThrowException
 
       assertEquals(SELL_STATUS_PAID_UNCONFIRMED, instance.markAsPaid(sellPojoMock).getStatus());
+      verify(salesRepositoryMock).setStatus(1L, sellStatusMock, targetStatusMock);
     }
 
     @Test
     void markAsPaid_ShouldReturn_SellPojo_WithCorrectDetails() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAYMENT_STARTED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAYMENT_STARTED);
+      SellStatus targetStatusMock = new SellStatus();
+      targetStatusMock.setCode(SELL_STATUS_PAID_UNCONFIRMED_CODE);
+      targetStatusMock.setName(SELL_STATUS_PAID_UNCONFIRMED);
 
-      Sell sellMock = new Sell();
-      sellMock.setStatus(sellStatusMock);
-
+      Product productMock = productsHelper.productEntityAfterCreationWithoutCategory();
       SellDetail sellDetailMock = new SellDetail();
       sellDetailMock.setId(1L);
       sellDetailMock.setUnits(11);
       sellDetailMock.setUnitValue(111);
-      List<SellDetail> sellDetailsMock = List.of(sellDetailMock);
+      sellDetailMock.setProduct(productMock);
+
+      Sell sellMock = new Sell();
+      sellMock.setId(1L);
+      sellMock.setStatus(sellStatusMock);
+      sellMock.setDetails(List.of(sellDetailMock));
 
       ProductPojo productPojoMock = productsHelper.productPojoAfterCreationWithoutCategory();
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.of(sellStatusMock));
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(SELL_STATUS_PAID_UNCONFIRMED_CODE)).thenReturn(targetStatusMock);
+      when(salesRepositoryMock.setStatus(1L, sellStatusMock, targetStatusMock)).thenReturn(1);
       when(sellConverterServiceMock.convertToPojo(any())).thenReturn(sellPojoMock); // convertOrThrowException
-      when(sellDetailsRepositoryMock.findBySellId(any())).thenReturn(sellDetailsMock);
-      when(productConverterServiceMock.convertToPojo(any())).thenReturn(productPojoMock);
+      when(productConverterServiceMock.convertToPojos(List.of(productMock))).thenReturn(List.of(productPojoMock));
 
       Collection<SellDetailPojo> actualSellDetailsPojo = instance.markAsPaid(sellPojoMock).getDetails();
       SellDetailPojo actualSellDetailPojo = actualSellDetailsPojo.iterator().next();
@@ -343,34 +445,37 @@ class SalesProcessServiceImplTest {
     @Test
     void markAsConfirmed__SellStatus_IsNotStarted_BadInputException() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(999);
       sellStatusMock.setName("status");
 
       Sell sellMock = new Sell();
       sellMock.setStatus(sellStatusMock);
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
 
       assertThrows(BadInputException.class, () -> instance.markAsConfirmed(sellPojoMock));
+      verify(salesRepositoryMock, never()).setStatus(any(), any(), any());
     }
 
     @Test
     void markAsConfirmed_SellStatus_IsNotInRepo_IllegalStateException() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAID_UNCONFIRMED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAID_UNCONFIRMED);
 
       Sell sellMock = new Sell();
       sellMock.setStatus(sellStatusMock);
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.empty());
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(anyInt())).thenThrow(IllegalStateException.class);
 
       assertThrows(IllegalStateException.class, () -> instance.markAsConfirmed(sellPojoMock));
     }
@@ -378,47 +483,62 @@ class SalesProcessServiceImplTest {
     @Test
     void markAsConfirmed_ShouldReturn_SellPojo_WithStatusConfirmed() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAID_UNCONFIRMED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAID_UNCONFIRMED);
+      SellStatus targetStatusMock = new SellStatus();
+      targetStatusMock.setCode(SELL_STATUS_PAID_CONFIRMED_CODE);
+      targetStatusMock.setName(SELL_STATUS_PAID_CONFIRMED);
 
       Sell sellMock = new Sell();
+      sellMock.setId(1L);
       sellMock.setStatus(sellStatusMock);
+      sellMock.setDetails(List.of());
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.of(sellStatusMock));
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(SELL_STATUS_PAID_CONFIRMED_CODE)).thenReturn(targetStatusMock);
+      when(salesRepositoryMock.setStatus(1L, sellStatusMock, targetStatusMock)).thenReturn(1);
       when(sellConverterServiceMock.convertToPojo(any())).thenReturn(sellPojoMock); // convertOrThrowException
 
       assertEquals(SELL_STATUS_PAID_CONFIRMED, instance.markAsConfirmed(sellPojoMock).getStatus());
+      verify(salesRepositoryMock).setStatus(1L, sellStatusMock, targetStatusMock);
     }
 
     @Test
     void markAsConfirmed_ShouldReturn_SellPojo_WithCorrectDetails() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAID_UNCONFIRMED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAID_UNCONFIRMED);
+      SellStatus targetStatusMock = new SellStatus();
+      targetStatusMock.setCode(SELL_STATUS_PAID_CONFIRMED_CODE);
+      targetStatusMock.setName(SELL_STATUS_PAID_CONFIRMED);
 
-      Sell sellMock = new Sell();
-      sellMock.setStatus(sellStatusMock);
-
+      Product productMock = productsHelper.productEntityAfterCreationWithoutCategory();
       SellDetail sellDetailMock = new SellDetail();
       sellDetailMock.setId(1L);
       sellDetailMock.setUnits(11);
       sellDetailMock.setUnitValue(111);
-      List<SellDetail> sellDetailsMock = List.of(sellDetailMock);
+      sellDetailMock.setProduct(productMock);
+
+      Sell sellMock = new Sell();
+      sellMock.setId(1L);
+      sellMock.setStatus(sellStatusMock);
+      sellMock.setDetails(List.of(sellDetailMock));
 
       ProductPojo productPojoMock = productsHelper.productPojoAfterCreationWithoutCategory();
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.of(sellStatusMock));
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(SELL_STATUS_PAID_CONFIRMED_CODE)).thenReturn(targetStatusMock);
+      when(salesRepositoryMock.setStatus(1L, sellStatusMock, targetStatusMock)).thenReturn(1);
       when(sellConverterServiceMock.convertToPojo(any())).thenReturn(sellPojoMock); // convertOrThrowException
-      when(sellDetailsRepositoryMock.findBySellId(any())).thenReturn(sellDetailsMock);
-      when(productConverterServiceMock.convertToPojo(any())).thenReturn(productPojoMock);
+      when(productConverterServiceMock.convertToPojos(List.of(productMock))).thenReturn(List.of(productPojoMock));
 
       Collection<SellDetailPojo> actualSellDetailsPojo = instance.markAsConfirmed(sellPojoMock).getDetails();
       SellDetailPojo actualSellDetailPojo = actualSellDetailsPojo.iterator().next();
@@ -437,34 +557,37 @@ class SalesProcessServiceImplTest {
     @Test
     void markAsRejected__SellStatus_IsNotStarted_BadInputException() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(999);
       sellStatusMock.setName("status");
 
       Sell sellMock = new Sell();
       sellMock.setStatus(sellStatusMock);
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
 
       assertThrows(BadInputException.class, () -> instance.markAsRejected(sellPojoMock));
+      verify(salesRepositoryMock, never()).setStatus(any(), any(), any());
     }
 
     @Test
     void markAsRejected_SellStatus_IsNotInRepo_IllegalStateException() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAID_UNCONFIRMED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAID_UNCONFIRMED);
 
       Sell sellMock = new Sell();
       sellMock.setStatus(sellStatusMock);
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.empty());
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(anyInt())).thenThrow(IllegalStateException.class);
 
       assertThrows(IllegalStateException.class, () -> instance.markAsRejected(sellPojoMock));
     }
@@ -472,47 +595,63 @@ class SalesProcessServiceImplTest {
     @Test
     void markAsRejected_ShouldReturn_SellPojo_WithStatusRejected() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAID_UNCONFIRMED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAID_UNCONFIRMED);
+      SellStatus targetStatusMock = new SellStatus();
+      targetStatusMock.setCode(SELL_STATUS_REJECTED_CODE);
+      targetStatusMock.setName(SELL_STATUS_REJECTED);
 
       Sell sellMock = new Sell();
+      sellMock.setId(1L);
       sellMock.setStatus(sellStatusMock);
+      sellMock.setDetails(List.of());
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.of(sellStatusMock));
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(SELL_STATUS_REJECTED_CODE)).thenReturn(targetStatusMock);
+      when(salesRepositoryMock.setStatus(1L, sellStatusMock, targetStatusMock)).thenReturn(1);
       when(sellConverterServiceMock.convertToPojo(any())).thenReturn(sellPojoMock); // convertOrThrowException
 
       assertEquals(SELL_STATUS_REJECTED, instance.markAsRejected(sellPojoMock).getStatus());
+      verify(salesRepositoryMock).setStatus(1L, sellStatusMock, targetStatusMock);
+      verify(stockReservationServiceMock).release(List.of());
     }
 
     @Test
     void markAsRejected_ShouldReturn_SellPojo_WithCorrectDetails() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAID_UNCONFIRMED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAID_UNCONFIRMED);
+      SellStatus targetStatusMock = new SellStatus();
+      targetStatusMock.setCode(SELL_STATUS_REJECTED_CODE);
+      targetStatusMock.setName(SELL_STATUS_REJECTED);
 
-      Sell sellMock = new Sell();
-      sellMock.setStatus(sellStatusMock);
-
+      Product productMock = productsHelper.productEntityAfterCreationWithoutCategory();
       SellDetail sellDetailMock = new SellDetail();
       sellDetailMock.setId(1L);
       sellDetailMock.setUnits(11);
       sellDetailMock.setUnitValue(111);
-      List<SellDetail> sellDetailsMock = List.of(sellDetailMock);
+      sellDetailMock.setProduct(productMock);
+
+      Sell sellMock = new Sell();
+      sellMock.setId(1L);
+      sellMock.setStatus(sellStatusMock);
+      sellMock.setDetails(List.of(sellDetailMock));
 
       ProductPojo productPojoMock = productsHelper.productPojoAfterCreationWithoutCategory();
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.of(sellStatusMock));
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(SELL_STATUS_REJECTED_CODE)).thenReturn(targetStatusMock);
+      when(salesRepositoryMock.setStatus(1L, sellStatusMock, targetStatusMock)).thenReturn(1);
       when(sellConverterServiceMock.convertToPojo(any())).thenReturn(sellPojoMock); // convertOrThrowException
-      when(sellDetailsRepositoryMock.findBySellId(any())).thenReturn(sellDetailsMock);
-      when(productConverterServiceMock.convertToPojo(any())).thenReturn(productPojoMock);
+      when(productConverterServiceMock.convertToPojos(List.of(productMock))).thenReturn(List.of(productPojoMock));
 
       Collection<SellDetailPojo> actualSellDetailsPojo = instance.markAsRejected(sellPojoMock).getDetails();
       SellDetailPojo actualSellDetailPojo = actualSellDetailsPojo.iterator().next();
@@ -531,34 +670,37 @@ class SalesProcessServiceImplTest {
     @Test
     void markAsCompleted__SellStatus_IsNotStarted_BadInputException() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(999);
       sellStatusMock.setName("status");
 
       Sell sellMock = new Sell();
       sellMock.setStatus(sellStatusMock);
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
 
       assertThrows(BadInputException.class, () -> instance.markAsCompleted(sellPojoMock));
+      verify(salesRepositoryMock, never()).setStatus(any(), any(), any());
     }
 
     @Test
     void markAsCompleted_SellStatus_IsNotInRepo_IllegalStateException() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAID_CONFIRMED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAID_CONFIRMED);
 
       Sell sellMock = new Sell();
       sellMock.setStatus(sellStatusMock);
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.empty());
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(anyInt())).thenThrow(IllegalStateException.class);
 
       assertThrows(IllegalStateException.class, () -> instance.markAsCompleted(sellPojoMock));
     }
@@ -566,47 +708,63 @@ class SalesProcessServiceImplTest {
     @Test
     void markAsCompleted_ShouldReturn_SellPojo_WithStatusCompleted() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAID_CONFIRMED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAID_CONFIRMED);
+      SellStatus targetStatusMock = new SellStatus();
+      targetStatusMock.setCode(SELL_STATUS_COMPLETED_CODE);
+      targetStatusMock.setName(SELL_STATUS_COMPLETED);
 
       Sell sellMock = new Sell();
+      sellMock.setId(1L);
       sellMock.setStatus(sellStatusMock);
+      sellMock.setDetails(List.of());
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.of(sellStatusMock));
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(SELL_STATUS_COMPLETED_CODE)).thenReturn(targetStatusMock);
+      when(salesRepositoryMock.setStatus(1L, sellStatusMock, targetStatusMock)).thenReturn(1);
       when(sellConverterServiceMock.convertToPojo(any())).thenReturn(sellPojoMock); // convertOrThrowException
 
       assertEquals(SELL_STATUS_COMPLETED, instance.markAsCompleted(sellPojoMock).getStatus());
+      verify(salesRepositoryMock).setStatus(1L, sellStatusMock, targetStatusMock);
+      verifyNoInteractions(stockReservationServiceMock);
     }
 
     @Test
     void markAsCompleted_ShouldReturn_SellPojo_WithCorrectDetails() throws BadInputException {
       // Setup mock objects
-      SellPojo sellPojoMock = SellPojo.builder().build();
+      SellPojo sellPojoMock = SellPojo.builder().buyOrder(1L).build();
 
       SellStatus sellStatusMock = new SellStatus();
+      sellStatusMock.setCode(SELL_STATUS_PAID_CONFIRMED_CODE);
       sellStatusMock.setName(SELL_STATUS_PAID_CONFIRMED);
+      SellStatus targetStatusMock = new SellStatus();
+      targetStatusMock.setCode(SELL_STATUS_COMPLETED_CODE);
+      targetStatusMock.setName(SELL_STATUS_COMPLETED);
 
-      Sell sellMock = new Sell();
-      sellMock.setStatus(sellStatusMock);
-
+      Product productMock = productsHelper.productEntityAfterCreationWithoutCategory();
       SellDetail sellDetailMock = new SellDetail();
       sellDetailMock.setId(1L);
       sellDetailMock.setUnits(11);
       sellDetailMock.setUnitValue(111);
-      List<SellDetail> sellDetailsMock = List.of(sellDetailMock);
+      sellDetailMock.setProduct(productMock);
+
+      Sell sellMock = new Sell();
+      sellMock.setId(1L);
+      sellMock.setStatus(sellStatusMock);
+      sellMock.setDetails(List.of(sellDetailMock));
 
       ProductPojo productPojoMock = productsHelper.productPojoAfterCreationWithoutCategory();
 
       // Stubbing
-      when(crudServiceMock.getExisting(any(SellPojo.class))).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
-      when(sellStatusesRepositoryMock.findByName(anyString())).thenReturn(Optional.of(sellStatusMock));
+      when(salesRepositoryMock.findByIdWithDetails(anyLong())).thenReturn(Optional.of(sellMock)); // fetchExistingOrThrowException
+      when(statusesRegistryServiceMock.getByCode(SELL_STATUS_COMPLETED_CODE)).thenReturn(targetStatusMock);
+      when(salesRepositoryMock.setStatus(1L, sellStatusMock, targetStatusMock)).thenReturn(1);
       when(sellConverterServiceMock.convertToPojo(any())).thenReturn(sellPojoMock); // convertOrThrowException
-      when(sellDetailsRepositoryMock.findBySellId(any())).thenReturn(sellDetailsMock);
-      when(productConverterServiceMock.convertToPojo(any())).thenReturn(productPojoMock);
+      when(productConverterServiceMock.convertToPojos(List.of(productMock))).thenReturn(List.of(productPojoMock));
 
       Collection<SellDetailPojo> actualSellDetailsPojo = instance.markAsCompleted(sellPojoMock).getDetails();
       SellDetailPojo actualSellDetailPojo = actualSellDetailsPojo.iterator().next();
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.common.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.trebol.config.IntegrationProperties;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.trebol.testing.TestConstants.ANY;
+
+class IntegrationExecutorTest {
+  IntegrationExecutor instance;
+
+  @AfterEach
+  void afterEach() {
+    instance.destroy();
+  }
+
+  @Test
+  void completes_with_the_result_of_tasks() throws Exception {
+    instance = new IntegrationExecutor(this.properties(1, 1));
+    assertEquals(ANY, instance.supply(() -> ANY).get(1, TimeUnit.SECONDS));
+    this.awaitCompletedTaskCount(1);
+  }
+
+  @Test
+  void completes_with_the_exceptions_thrown_by_tasks() {
+    instance = new IntegrationExecutor(this.properties(1, 1));
+    Exception failure = new Exception(ANY);
+    CompletableFuture<Object> result = instance.supply(() -> {
+      throw failure;
+    });
+    ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+    assertEquals(failure, thrown.getCause());
+  }
+
+  @Test
+  void rejects_tasks_when_workers_and_queue_are_full() throws Exception {
+    instance = new IntegrationExecutor(this.properties(1, 0));
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Boolean> blocking = instance.supply(() -> release.await(1, TimeUnit.SECONDS));
+
+    CompletableFuture<String> rejected = instance.supply(() -> ANY);
+
+    assertTrue(rejected.isCompletedExceptionally());
+    ExecutionException thrown = assertThrows(ExecutionException.class, rejected::get);
+    assertInstanceOf(TaskRejectedException.class, thrown.getCause());
+    assertEquals(1, instance.getRejectedTaskCount());
+    release.countDown();
+    assertTrue(blocking.get(1, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Workers count a task as completed only after handing its result, so the count may lag behind for a moment.
+   */
+  private void awaitCompletedTaskCount(long expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    while (instance.getCompletedTaskCount() != expected && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(expected, instance.getCompletedTaskCount());
+  }
+
+  private IntegrationProperties properties(int poolSize, int queueCapacity) {
+    IntegrationProperties properties = new IntegrationProperties();
+    properties.setCorePoolSize(poolSize);
+    properties.setMaxPoolSize(poolSize);
+    properties.setQueueCapacity(queueCapacity);
+    return properties;
+  }
+}
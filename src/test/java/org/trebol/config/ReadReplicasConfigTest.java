@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.env.MockEnvironment;
+import org.trebol.jpa.ReadReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadReplicasConfigTest {
+  static final String PRIMARY_URL = "jdbc:h2:mem:read-replicas-config-primary";
+  static final String REPLICA_URL = "jdbc:h2:mem:read-replicas-config-replica";
+  ReadReplicasConfig instance;
+  Map<Object, DataSource> pools;
+
+  @BeforeEach
+  void beforeEach() throws Exception {
+    DataSourceProperties primaryProperties = new DataSourceProperties();
+    primaryProperties.setUrl(PRIMARY_URL);
+    primaryProperties.setUsername("sa");
+    primaryProperties.afterPropertiesSet();
+    ReadReplicasProperties replicasProperties = new ReadReplicasProperties();
+    replicasProperties.setUrls(List.of(REPLICA_URL));
+    MockEnvironment environment = new MockEnvironment()
+      .withProperty("spring.datasource.hikari.maximum-pool-size", "7")
+      .withProperty("spring.datasource.hikari.connection-timeout", "12345")
+      .withProperty("spring.datasource.hikari.pool-name", "trebol");
+    instance = new ReadReplicasConfig(primaryProperties, replicasProperties, environment);
+  }
+
+  @AfterEach
+  void afterEach() {
+    if (pools != null) {
+      pools.values().forEach(pool -> ((HikariDataSource) pool).close());
+    }
+  }
+
+  @Test
+  void applies_pool_settings_to_primary_and_replicas() {
+    DataSource dataSource = instance.dataSource();
+    ReadReplicaRoutingDataSource routingDataSource = (ReadReplicaRoutingDataSource)
+      ((LazyConnectionDataSourceProxy) dataSource).getTargetDataSource();
+    pools = routingDataSource.getResolvedDataSources();
+
+    HikariDataSource primary = (HikariDataSource) pools.get(ReadReplicaRoutingDataSource.PRIMARY_KEY);
+    HikariDataSource replica = (HikariDataSource) pools.get(ReadReplicaRoutingDataSource.REPLICA_KEY_PREFIX + 0);
+    assertEquals(PRIMARY_URL, primary.getJdbcUrl());
+    assertEquals(REPLICA_URL, replica.getJdbcUrl());
+    assertEquals("sa", replica.getUsername());
+    for (HikariDataSource pool : List.of(primary, replica)) {
+      assertEquals(7, pool.getMaximumPoolSize());
+      assertEquals(12345, pool.getConnectionTimeout());
+    }
+    assertEquals("trebol", primary.getPoolName());
+    assertEquals("trebol-replica-0", replica.getPoolName());
+  }
+}
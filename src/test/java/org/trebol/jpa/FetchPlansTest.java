@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa;
+
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.trebol.jpa.entities.*;
+import org.trebol.jpa.repositories.ProductListItemsRepository;
+import org.trebol.jpa.repositories.SalesRepository;
+import org.trebol.testing.DatabaseIntegrationTest;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads entities outside of transactions, as controllers do now that the persistence context is not kept open
+ * during the whole request, so that any association missing from their fetch plans fails with a lazy load.
+ */
+class FetchPlansTest extends DatabaseIntegrationTest {
+  static final String TOKEN = "fetch-plans-token-0000000000000000000000000000000000000000000000";
+  @Autowired ApplicationContext applicationContext;
+  @Autowired SalesRepository salesRepository;
+  @Autowired ProductListItemsRepository listItemsRepository;
+  Sell sell;
+  ProductList productList;
+
+  @BeforeEach
+  void beforeEach() {
+    transaction.executeWithoutResult(status -> {
+      ProductCategory category = this.persist(ProductCategory.builder().code("fetch-plans").name("Fetch plans").build());
+      Product product = this.persist(Product.builder().name("Fetch plans product").barcode("fetch-plans").price(1000)
+        .productCategory(category).build());
+      Person person = Person.builder().idNumber("fetch-plans").firstName("first").lastName("last").email("fetch@plans.com")
+        .phone1("").phone2("").build();
+      sell = this.persist(Sell.builder()
+        .transactionToken(TOKEN)
+        .customer(this.persist(Customer.builder().person(person).build()))
+        .paymentType(entityManager.find(PaymentType.class, 1L))
+        .status(entityManager.find(SellStatus.class, 1L))
+        .billingType(entityManager.find(BillingType.class, 1L))
+        .billingAddress(this.persist(Address.builder().city("city").municipality("municipality").firstLine("line").build()))
+        .details(List.of(SellDetail.builder().units(1).unitValue(1000).description("detail").product(product).build()))
+        .build());
+      productList = this.persist(ProductList.builder().name("Fetch plans").code("fetch-plans").build());
+      this.persist(ProductListItem.builder().list(productList).product(product).build());
+    });
+  }
+
+  @Override
+  protected void deleteTestData() {
+    Product product = sell.getDetails().iterator().next().getProduct();
+    entityManager.createQuery("DELETE FROM ProductListItem i WHERE i.list.id = :id")
+      .setParameter("id", productList.getId())
+      .executeUpdate();
+    entityManager.createQuery("DELETE FROM SellDetail d WHERE d.sell.id = :id")
+      .setParameter("id", sell.getId())
+      .executeUpdate();
+    this.delete(ProductList.class, productList.getId());
+    this.delete(Sell.class, sell.getId());
+    this.delete(Customer.class, sell.getCustomer().getId());
+    this.delete(Person.class, sell.getCustomer().getPerson().getId());
+    this.delete(Address.class, sell.getBillingAddress().getId());
+    this.delete(Product.class, product.getId());
+    this.delete(ProductCategory.class, product.getProductCategory().getId());
+  }
+
+  @Test
+  void does_not_keep_persistence_contexts_open_during_requests() {
+    assertEquals(0, applicationContext.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class).length);
+  }
+
+  @Test
+  void fails_when_reading_associations_that_were_not_fetched() {
+    Sell found = salesRepository.findById(sell.getId()).orElseThrow();
+    assertThrows(LazyInitializationException.class, () -> found.getStatus().getName());
+  }
+
+  @Test
+  void fetches_sales_for_lists() {
+    List<Sell> found = salesRepository.deepFindAllByIds(List.of(sell.getId()));
+    assertEquals(1, found.size());
+    Sell target = found.get(0);
+    assertEquals("fetch-plans", target.getCustomer().getPerson().getIdNumber());
+    assertEquals("WebPay Plus", target.getPaymentType().getName());
+    assertEquals("Returned", target.getStatus().getName());
+    assertEquals("Bill", target.getBillingType().getName());
+    assertEquals("city", target.getBillingAddress().getCity());
+    assertNull(target.getBillingCompany());
+    assertNull(target.getShipper());
+    assertNull(target.getShippingAddress());
+    assertNull(target.getSalesperson());
+  }
+
+  @Test
+  void fetches_sales_in_detail() {
+    Optional<Sell> found = salesRepository.findOne(QSell.sell.id.eq(sell.getId()));
+    assertTrue(found.isPresent());
+    Sell target = found.get();
+    assertEquals("fetch-plans", target.getCustomer().getPerson().getIdNumber());
+    assertEquals("Returned", target.getStatus().getName());
+    assertEquals(1, target.getDetails().size());
+    SellDetail detail = target.getDetails().iterator().next();
+    assertEquals("Fetch plans", detail.getProduct().getProductCategory().getName());
+  }
+
+  @Test
+  void fetches_sales_for_receipts() {
+    Optional<Sell> found = salesRepository.findByTransactionToken(TOKEN);
+    assertTrue(found.isPresent());
+    Sell target = found.get();
+    assertEquals("Returned", target.getStatus().getName());
+    assertEquals(1, target.getDetails().size());
+    assertEquals("fetch-plans", target.getDetails().iterator().next().getProduct().getBarcode());
+  }
+
+  @Test
+  void fetches_products_in_lists() {
+    Page<ProductListItem> found = listItemsRepository.findAll(
+      QProductListItem.productListItem.list.id.eq(productList.getId()), PageRequest.of(0, 10));
+    assertEquals(1, found.getNumberOfElements());
+    assertEquals("Fetch plans", found.getContent().get(0).getProduct().getProductCategory().getName());
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.trebol.jpa.entities.Product;
+import org.trebol.jpa.entities.QProduct;
+import org.trebol.jpa.repositories.ProductsRepository;
+import org.trebol.jpa.services.IdentifierSequencesService;
+import org.trebol.testing.DatabaseIntegrationTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Inserts a product with an identifier ahead of its sequence, as rows given their identifiers by auto-increment
+ * columns could be, and checks that the sequence is moved past it.
+ */
+class IdentifierSequencesTest extends DatabaseIntegrationTest {
+  static final String BARCODE_PREFIX = "identifier-sequences";
+  @Autowired ProductsRepository productsRepository;
+  @Autowired IdentifierSequencesService identifierSequencesService;
+
+  @Override
+  protected void deleteTestData() {
+    productsRepository.deleteWhere(QProduct.product.barcode.startsWith(BARCODE_PREFIX));
+  }
+
+  @Test
+  void moves_sequences_past_existing_identifiers() {
+    long existingId = this.nextProductsSequenceValue() + 1000;
+    transaction.executeWithoutResult(status -> entityManager.createNativeQuery(
+        "INSERT INTO products (product_id, product_name, product_code, product_price, product_stock_current, " +
+          "product_stock_critical, product_version) VALUES (?, 'Identifier sequences', ?, 1000, 0, 0, 0)")
+      .setParameter(1, existingId)
+      .setParameter(2, BARCODE_PREFIX)
+      .executeUpdate());
+
+    assertTrue(identifierSequencesService.advancePastExistingIdentifiers() >= 1);
+
+    assertTrue(this.nextProductsSequenceValue() - 50 >= existingId);
+    Product created = productsRepository.saveAndFlush(Product.builder().name("Identifier sequences 2")
+      .barcode(BARCODE_PREFIX + "-2").price(1000).build());
+    assertNotEquals(existingId, created.getId());
+  }
+
+  @Test
+  void keeps_sequences_that_are_ahead_of_existing_identifiers() {
+    identifierSequencesService.advancePastExistingIdentifiers();
+
+    assertEquals(0, identifierSequencesService.advancePastExistingIdentifiers());
+  }
+
+  private long nextProductsSequenceValue() {
+    return transaction.execute(status -> ((Number) entityManager
+      .createNativeQuery("SELECT NEXT VALUE FOR products_seq")
+      .getSingleResult()).longValue());
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.trebol.jpa.entities.ProductCategory;
+import org.trebol.jpa.entities.QProductCategory;
+import org.trebol.jpa.repositories.ProductsCategoriesRepository;
+import org.trebol.jpa.services.impl.ProductCategoryTreeResolverServiceImpl;
+import org.trebol.testing.DatabaseIntegrationTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Leaves the paths of categories as they could be found in databases created before paths existed, and checks that
+ * they are filled on startup.
+ */
+class ProductCategoryPathsTest
+  extends DatabaseIntegrationTest {
+  static final String CODE_PREFIX = "category-paths";
+  @Autowired ProductsCategoriesRepository categoriesRepository;
+  @Autowired ProductCategoryTreeResolverServiceImpl categoryTreeResolver;
+  ProductCategory root;
+  ProductCategory child;
+
+  @BeforeEach
+  void beforeEach() {
+    transaction.executeWithoutResult(status -> {
+      root = this.persist(ProductCategory.builder().code(CODE_PREFIX + "-root").name("Category paths").build());
+      child = this.persist(ProductCategory.builder().code(CODE_PREFIX + "-child").name("Category paths")
+        .parent(root).path(root.getDescendantsPath()).build());
+    });
+  }
+
+  @Override
+  protected void deleteTestData() {
+    entityManager.createQuery("UPDATE ProductCategory c SET c.parent = NULL WHERE c.code LIKE :code")
+      .setParameter("code", CODE_PREFIX + "%")
+      .executeUpdate();
+    categoriesRepository.deleteWhere(QProductCategory.productCategory.code.startsWith(CODE_PREFIX));
+  }
+
+  @Test
+  void does_not_find_missing_paths_when_all_are_set() {
+    assertFalse(categoriesRepository.existsWithMissingPath());
+  }
+
+  @Test
+  void fills_paths_left_as_those_of_categories_without_parent() {
+    this.setPath(child, ProductCategory.PATH_SEPARATOR);
+
+    assertTrue(categoriesRepository.existsWithMissingPath());
+    categoryTreeResolver.fillMissingPaths();
+
+    assertEquals(root.getDescendantsPath(), this.readPath(child));
+  }
+
+  @Test
+  void fills_paths_left_empty() {
+    this.setPath(root, "");
+    this.setPath(child, "");
+
+    assertTrue(categoriesRepository.existsWithMissingPath());
+    categoryTreeResolver.fillMissingPaths();
+
+    assertEquals(ProductCategory.PATH_SEPARATOR, this.readPath(root));
+    assertEquals(root.getDescendantsPath(), this.readPath(child));
+  }
+
+  private void setPath(ProductCategory category, String path) {
+    transaction.executeWithoutResult(status -> entityManager
+      .createNativeQuery("UPDATE product_categories SET product_category_path = ? WHERE product_category_id = ?")
+      .setParameter(1, path)
+      .setParameter(2, category.getId())
+      .executeUpdate());
+  }
+
+  private String readPath(ProductCategory category) {
+    return categoriesRepository.findById(category.getId()).orElseThrow().getPath();
+  }
+}
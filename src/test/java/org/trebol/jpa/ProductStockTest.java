@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.trebol.api.models.ProductPojo;
+import org.trebol.common.exceptions.BadInputException;
+import org.trebol.jpa.entities.Product;
+import org.trebol.jpa.entities.QProduct;
+import org.trebol.jpa.entities.SellDetail;
+import org.trebol.jpa.repositories.ProductsRepository;
+import org.trebol.jpa.services.StockReservationService;
+import org.trebol.jpa.services.crud.ProductsCrudService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Sets the stock of a product through the same model that the API reads from requests,
+ * and reserves it as checkouts do, with the product that they find by its barcode.
+ */
+@SpringBootTest
+class ProductStockTest {
+  static final String BARCODE = "product-stock-test";
+  @Autowired ObjectMapper objectMapper;
+  @Autowired ProductsCrudService productsCrudService;
+  @Autowired ProductsRepository productsRepository;
+  @Autowired StockReservationService stockReservationService;
+
+  @AfterEach
+  void afterEach() {
+    productsCrudService.delete(QProduct.product.barcode.eq(BARCODE));
+  }
+
+  @Test
+  void reserves_the_stock_that_products_are_created_with() throws Exception {
+    productsCrudService.create(this.readProduct("{\"name\":\"Product stock test\",\"barcode\":\"" + BARCODE +
+      "\",\"price\":1000,\"currentStock\":3}"));
+
+    this.checkout(2);
+
+    assertEquals(1, this.getStock());
+    assertThrows(BadInputException.class, () -> this.checkout(2));
+    assertEquals(1, this.getStock());
+  }
+
+  @Test
+  void keeps_the_stock_of_products_updated_without_it() throws Exception {
+    productsCrudService.create(this.readProduct("{\"name\":\"Product stock test\",\"barcode\":\"" + BARCODE +
+      "\",\"price\":1000,\"currentStock\":3}"));
+
+    productsCrudService.update(this.readProduct("{\"name\":\"Product stock test\",\"barcode\":\"" + BARCODE +
+      "\",\"price\":2000}"));
+
+    assertEquals(3, this.getStock());
+    this.checkout(3);
+    assertEquals(0, this.getStock());
+  }
+
+  @Test
+  void changes_the_stock_of_products_updated_with_it() throws Exception {
+    productsCrudService.create(this.readProduct("{\"name\":\"Product stock test\",\"barcode\":\"" + BARCODE +
+      "\",\"price\":1000}"));
+    assertEquals(0, this.getStock());
+
+    productsCrudService.update(this.readProduct("{\"barcode\":\"" + BARCODE + "\",\"currentStock\":4}"));
+
+    assertEquals(4, this.getStock());
+    this.checkout(4);
+    assertEquals(0, this.getStock());
+  }
+
+  private ProductPojo readProduct(String json) throws Exception {
+    return objectMapper.readValue(json, ProductPojo.class);
+  }
+
+  private void checkout(int units) throws BadInputException {
+    Product product = productsRepository.findByBarcode(BARCODE).orElseThrow();
+    stockReservationService.reserve(List.of(SellDetail.builder().product(product).units(units).build()));
+  }
+
+  private int getStock() {
+    return productsRepository.findByBarcode(BARCODE).orElseThrow().getStockCurrent();
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadReplicaRoutingDataSourceTest {
+  static final String QUERY = "SELECT name FROM instance";
+  JdbcTemplate jdbcTemplate;
+  TransactionTemplate readOnlyTransaction;
+  TransactionTemplate readWriteTransaction;
+
+  @BeforeEach
+  void beforeEach() {
+    DataSource primary = this.instance("primary");
+    DataSource replica1 = this.instance("replica1");
+    DataSource replica2 = this.instance("replica2");
+    ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(primary, List.of(replica1, replica2));
+    routingDataSource.afterPropertiesSet();
+    DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+    readWriteTransaction = new TransactionTemplate(transactionManager);
+  }
+
+  @AfterEach
+  void afterEach() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  void routes_read_only_transactions_to_replicas_taking_turns() {
+    assertEquals("replica1", readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject(QUERY, String.class)));
+    assertEquals("replica2", readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject(QUERY, String.class)));
+    assertEquals("replica1", readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject(QUERY, String.class)));
+  }
+
+  @Test
+  void routes_everything_else_to_primary() {
+    assertEquals("primary", readWriteTransaction.execute(status -> jdbcTemplate.queryForObject(QUERY, String.class)));
+    assertEquals("primary", jdbcTemplate.queryForObject(QUERY, String.class));
+  }
+
+  @Test
+  void reads_from_primary_for_the_rest_of_a_request_after_writing_to_it() {
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    assertEquals("replica1", readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject(QUERY, String.class)));
+    readWriteTransaction.executeWithoutResult(status -> jdbcTemplate.update("UPDATE instance SET name = name"));
+    assertEquals("primary", readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject(QUERY, String.class)));
+
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    assertEquals("replica2", readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject(QUERY, String.class)));
+  }
+
+  private DataSource instance(String name) {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+    JdbcTemplate template = new JdbcTemplate(dataSource);
+    template.execute("DROP TABLE IF EXISTS instance");
+    template.execute("CREATE TABLE instance (name VARCHAR(20))");
+    template.update("INSERT INTO instance (name) VALUES (?)", name);
+    return dataSource;
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.trebol.jpa.entities.*;
+import org.trebol.jpa.repositories.ProductsRepository;
+import org.trebol.jpa.services.crud.SalesCrudService;
+import org.trebol.testing.DatabaseIntegrationTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Deletes sales along with their details, as the data endpoints do, from products that had their stock taken
+ * when the sales were created.
+ */
+class SalesDeletionTest
+  extends DatabaseIntegrationTest {
+  static final String CODE = "sales-deletion";
+  static final long SELL_STATUS_PENDING_ID = 7L;
+  static final long SELL_STATUS_PAID_CONFIRMED_ID = 10L;
+  @Autowired SalesCrudService salesCrudService;
+  @Autowired ProductsRepository productsRepository;
+  Product product;
+  Customer customer;
+  Address address;
+
+  @BeforeEach
+  void beforeEach() {
+    transaction.executeWithoutResult(status -> {
+      product = this.persist(Product.builder().name("Sales deletion").barcode(CODE).price(1000).stockCurrent(3)
+        .build());
+      Person person = Person.builder().idNumber(CODE).firstName("first").lastName("last").email("sales@deletion.com")
+        .phone1("").phone2("").build();
+      customer = this.persist(Customer.builder().person(person).build());
+      address = this.persist(Address.builder().city("city").municipality("municipality").firstLine("line").build());
+    });
+  }
+
+  @Override
+  protected void deleteTestData() {
+    entityManager.createQuery("DELETE FROM SellDetail d WHERE d.sell.id IN " +
+        "(SELECT s.id FROM Sell s WHERE s.customer.id = :id)")
+      .setParameter("id", customer.getId())
+      .executeUpdate();
+    entityManager.createQuery("DELETE FROM Sell s WHERE s.customer.id = :id")
+      .setParameter("id", customer.getId())
+      .executeUpdate();
+    this.delete(Customer.class, customer.getId());
+    this.delete(Person.class, customer.getPerson().getId());
+    this.delete(Address.class, address.getId());
+    this.delete(Product.class, product.getId());
+  }
+
+  @Test
+  void puts_back_the_stock_of_sales_waiting_for_payment() {
+    Long sellId = this.persistSell(SELL_STATUS_PENDING_ID, 2);
+
+    salesCrudService.delete(QSell.sell.id.eq(sellId));
+
+    assertEquals(5, this.getStock());
+    assertEquals(0, this.countDetails(sellId));
+  }
+
+  @Test
+  void keeps_the_stock_of_sales_that_were_paid() {
+    Long sellId = this.persistSell(SELL_STATUS_PAID_CONFIRMED_ID, 2);
+
+    salesCrudService.delete(QSell.sell.id.eq(sellId));
+
+    assertEquals(3, this.getStock());
+    assertEquals(0, this.countDetails(sellId));
+  }
+
+  private Long persistSell(long statusId, int units) {
+    return transaction.execute(status -> this.persist(Sell.builder()
+      .customer(customer)
+      .paymentType(entityManager.find(PaymentType.class, 1L))
+      .status(entityManager.find(SellStatus.class, statusId))
+      .billingType(entityManager.find(BillingType.class, 1L))
+      .billingAddress(address)
+      .details(List.of(SellDetail.builder().units(units).unitValue(1000).description("detail")
+        .product(entityManager.getReference(Product.class, product.getId())).build()))
+      .build()).getId());
+  }
+
+  private int getStock() {
+    return productsRepository.findByBarcode(CODE).orElseThrow().getStockCurrent();
+  }
+
+  private long countDetails(Long sellId) {
+    return transaction.execute(status -> entityManager
+      .createQuery("SELECT COUNT(d) FROM SellDetail d WHERE d.sell.id = :id", Long.class)
+      .setParameter("id", sellId)
+      .getSingleResult());
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.trebol.api.models.ShipperPojo;
+import org.trebol.jpa.entities.QShipper;
+import org.trebol.jpa.entities.SellStatus;
+import org.trebol.jpa.repositories.SellStatusesRepository;
+import org.trebol.jpa.repositories.ShippersRepository;
+import org.trebol.jpa.services.crud.ShippersCrudService;
+import org.trebol.testing.DatabaseIntegrationTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecondLevelCacheTest extends DatabaseIntegrationTest {
+  static final String SHIPPER_NAME = "second-level-cache";
+  static final String RENAMED_SHIPPER_NAME = "second-level-cache-renamed";
+  @Autowired SecondLevelCacheMetrics metrics;
+  @Autowired SellStatusesRepository sellStatusesRepository;
+  @Autowired ShippersRepository shippersRepository;
+  @Autowired ShippersCrudService shippersCrudService;
+
+  @Override
+  protected void deleteTestData() {
+    shippersRepository.deleteWhere(QShipper.shipper.name.in(SHIPPER_NAME, RENAMED_SHIPPER_NAME));
+  }
+
+  @Test
+  void reads_reference_data_entities_from_the_cache() {
+    transaction.executeWithoutResult(status -> entityManager.find(SellStatus.class, 1L));
+    long hitCount = metrics.getHitCount(SellStatus.class);
+
+    SellStatus cached = transaction.execute(status -> entityManager.find(SellStatus.class, 1L));
+
+    assertNotNull(cached);
+    assertEquals(hitCount + 1, metrics.getHitCount(SellStatus.class));
+  }
+
+  @Test
+  void reads_lookups_by_name_from_the_cache() {
+    assertTrue(sellStatusesRepository.findByName("Returned").isPresent());
+    long queryHitCount = metrics.getQueryHitCount();
+    long queryMissCount = metrics.getQueryMissCount();
+
+    assertTrue(sellStatusesRepository.findByName("Returned").isPresent());
+
+    assertEquals(queryHitCount + 1, metrics.getQueryHitCount());
+    assertEquals(queryMissCount, metrics.getQueryMissCount());
+  }
+
+  @Test
+  void evicts_lookups_by_name_when_reference_data_is_updated() throws Exception {
+    ShipperPojo created = shippersCrudService.create(ShipperPojo.builder().name(SHIPPER_NAME).build());
+    assertTrue(shippersRepository.findByName(SHIPPER_NAME).isPresent());
+
+    shippersCrudService.update(ShipperPojo.builder().name(RENAMED_SHIPPER_NAME).build(), QShipper.shipper.id.eq(created.getId()));
+
+    assertTrue(shippersRepository.findByName(SHIPPER_NAME).isEmpty());
+    assertTrue(shippersRepository.findByName(RENAMED_SHIPPER_NAME).isPresent());
+    shippersCrudService.delete(QShipper.shipper.name.eq(RENAMED_SHIPPER_NAME));
+    assertTrue(shippersRepository.findByName(RENAMED_SHIPPER_NAME).isEmpty());
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.trebol.common.exceptions.BadInputException;
+import org.trebol.jpa.entities.Product;
+import org.trebol.jpa.entities.SellDetail;
+import org.trebol.jpa.repositories.ProductsRepository;
+import org.trebol.jpa.services.StockReservationService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs many concurrent checkouts of a single product, which all contend for the same row,
+ * to show that stock is never oversold and to measure how many reservations are made per second.
+ */
+@SpringBootTest
+class StockReservationThroughputTest {
+  static final String BARCODE = "stock-reservation-hot-product";
+  static final int STOCK = 500;
+  static final int THREADS = 16;
+  static final int ATTEMPTS_PER_THREAD = 50;
+  final Logger logger = LoggerFactory.getLogger(StockReservationThroughputTest.class);
+  @Autowired ProductsRepository productsRepository;
+  @Autowired StockReservationService stockReservationService;
+  Product product;
+
+  @BeforeEach
+  void beforeEach() {
+    product = productsRepository.saveAndFlush(Product.builder().name("Stock reservation hot product").barcode(BARCODE)
+      .price(1000).stockCurrent(STOCK).build());
+  }
+
+  @AfterEach
+  void afterEach() {
+    productsRepository.deleteById(product.getId());
+  }
+
+  @Test
+  void never_reserves_more_units_than_in_stock() throws Exception {
+    List<SellDetail> details = List.of(SellDetail.builder().product(product).units(1).build());
+    AtomicInteger reserved = new AtomicInteger();
+    AtomicInteger rejected = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<?>> workers = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      workers.add(executor.submit(() -> {
+        start.await();
+        for (int j = 0; j < ATTEMPTS_PER_THREAD; j++) {
+          try {
+            stockReservationService.reserve(details);
+            reserved.incrementAndGet();
+          } catch (BadInputException e) {
+            rejected.incrementAndGet();
+          }
+        }
+        return null;
+      }));
+    }
+    long startNanos = System.nanoTime();
+    start.countDown();
+    for (Future<?> worker : workers) {
+      worker.get();
+    }
+    long elapsedNanos = System.nanoTime() - startNanos;
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    assertEquals(STOCK, reserved.get());
+    assertEquals(THREADS * ATTEMPTS_PER_THREAD - STOCK, rejected.get());
+    assertEquals(0, productsRepository.findById(product.getId()).orElseThrow().getStockCurrent());
+    logger.info("Made {} reservations of a single product from {} threads at {} per second",
+      reserved.get(), THREADS, (long) (reserved.get() / (elapsedNanos / 1e9)));
+  }
+}
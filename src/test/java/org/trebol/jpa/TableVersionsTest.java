@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.trebol.jpa.entities.Product;
+import org.trebol.jpa.entities.ProductCategory;
+import org.trebol.jpa.entities.QProduct;
+import org.trebol.jpa.repositories.ProductsRepository;
+import org.trebol.jpa.repositories.ShippersRepository;
+import org.trebol.testing.DatabaseIntegrationTest;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableVersionsTest extends DatabaseIntegrationTest {
+  static final String BARCODE = "table-versions";
+  @Autowired DataSource dataSource;
+  @Autowired ProductsRepository productsRepository;
+  @Autowired ShippersRepository shippersRepository;
+
+  @Override
+  protected void deleteTestData() {
+    productsRepository.deleteWhere(QProduct.product.barcode.eq(BARCODE));
+  }
+
+  @Test
+  void changes_tag_when_entities_are_written() {
+    String tag = this.readProductsTag();
+
+    Product product = productsRepository.saveAndFlush(this.newProduct());
+    String tagAfterInsert = this.readProductsTag();
+    assertNotEquals(tag, tagAfterInsert);
+
+    product.setName("Table versions renamed");
+    productsRepository.saveAndFlush(product);
+    assertNotEquals(tagAfterInsert, this.readProductsTag());
+  }
+
+  @Test
+  void changes_tag_when_entities_are_deleted_in_bulk() {
+    productsRepository.saveAndFlush(this.newProduct());
+    String tag = this.readProductsTag();
+
+    transaction.executeWithoutResult(status -> productsRepository.deleteWhere(QProduct.product.barcode.eq(BARCODE)));
+
+    assertNotEquals(tag, this.readProductsTag());
+  }
+
+  @Test
+  void changes_tag_of_related_tables_only_when_these_are_written() {
+    String categoriesTag = productsRepository.findVersionTag(ProductCategory.class).orElseThrow();
+    String categoriesOnlyTag = categoriesTag.substring(categoriesTag.indexOf('-'));
+
+    productsRepository.saveAndFlush(this.newProduct());
+
+    String newCategoriesTag = productsRepository.findVersionTag(ProductCategory.class).orElseThrow();
+    assertNotEquals(categoriesTag, newCategoriesTag);
+    assertEquals(categoriesOnlyTag, newCategoriesTag.substring(newCategoriesTag.indexOf('-')));
+  }
+
+  @Test
+  void keeps_tag_when_transaction_is_rolled_back() {
+    String tag = this.readProductsTag();
+
+    transaction.executeWithoutResult(status -> {
+      productsRepository.saveAndFlush(this.newProduct());
+      status.setRollbackOnly();
+    });
+
+    assertEquals(tag, this.readProductsTag());
+  }
+
+  @Test
+  void rolls_back_transaction_when_versions_cannot_be_increased() {
+    String tag = this.readProductsTag();
+
+    assertThrows(DataAccessException.class, () -> transaction.executeWithoutResult(status -> {
+      productsRepository.saveAndFlush(this.newProduct());
+      this.unbindConnectionUntilCompletion();
+    }));
+
+    assertTrue(productsRepository.findByBarcode(BARCODE).isEmpty());
+    assertEquals(tag, this.readProductsTag());
+  }
+
+  @Test
+  void keeps_tag_when_only_stock_changes() {
+    Product product = productsRepository.saveAndFlush(this.newProduct());
+    String tag = this.readProductsTag();
+
+    transaction.executeWithoutResult(status -> productsRepository.takeStock(product.getId(), 1));
+
+    assertEquals(tag, this.readProductsTag());
+  }
+
+  @Test
+  void reads_no_tag_for_untracked_tables() {
+    assertEquals(Optional.empty(), shippersRepository.findVersionTag());
+  }
+
+  private String readProductsTag() {
+    return productsRepository.findVersionTag().orElseThrow();
+  }
+
+  /**
+   * Hides the connection of the current transaction from the interceptor, as if it had not been bound to it.
+   */
+  private void unbindConnectionUntilCompletion() {
+    Object connectionHolder = TransactionSynchronizationManager.unbindResource(dataSource);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        TransactionSynchronizationManager.bindResource(dataSource, connectionHolder);
+      }
+    });
+  }
+
+  private Product newProduct() {
+    return Product.builder().name("Table versions").barcode(BARCODE).price(1000).stockCurrent(10).build();
+  }
+}
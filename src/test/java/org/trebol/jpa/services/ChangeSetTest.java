@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services;
+
+import org.junit.jupiter.api.Test;
+import org.trebol.jpa.entities.Product;
+import org.trebol.jpa.entities.ProductCategory;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.trebol.testing.TestConstants.ANY;
+import static org.trebol.testing.TestConstants.ID_1L;
+
+class ChangeSetTest {
+
+  @Test
+  void sets_and_records_only_values_that_differ() {
+    Product product = Product.builder().name(ANY).price(1000).build();
+    ChangeSet changeSet = new ChangeSet();
+
+    boolean nameChanged = changeSet.set("name", ANY, product::getName, product::setName);
+    boolean priceChanged = changeSet.set("price", 2000, product::getPrice, product::setPrice);
+
+    assertFalse(nameChanged);
+    assertTrue(priceChanged);
+    assertEquals(2000, product.getPrice());
+    assertEquals(Set.of("price"), changeSet.getChangedProperties());
+  }
+
+  @Test
+  void compares_references_by_their_identifiers() {
+    ProductCategory current = ProductCategory.builder().id(ID_1L).code(ANY).build();
+    Product product = Product.builder().productCategory(current).build();
+    ProductCategory sameIdentifier = ProductCategory.builder().id(ID_1L).build();
+    ChangeSet changeSet = new ChangeSet();
+
+    changeSet.setReference("productCategory", sameIdentifier, product::getProductCategory, ProductCategory::getId,
+      product::setProductCategory);
+
+    assertTrue(changeSet.isEmpty());
+    assertSame(current, product.getProductCategory());
+  }
+
+  @Test
+  void considers_unsaved_and_missing_references_as_changes() {
+    Product product = Product.builder().productCategory(ProductCategory.builder().id(ID_1L).build()).build();
+    ProductCategory unsaved = ProductCategory.builder().code(ANY).build();
+    ChangeSet changeSet = new ChangeSet();
+
+    changeSet.setReference("productCategory", unsaved, product::getProductCategory, ProductCategory::getId,
+      product::setProductCategory);
+    assertSame(unsaved, product.getProductCategory());
+
+    changeSet = new ChangeSet();
+    changeSet.setReference("productCategory", null, product::getProductCategory, ProductCategory::getId,
+      product::setProductCategory);
+    assertNull(product.getProductCategory());
+    assertEquals(Set.of("productCategory"), changeSet.getChangedProperties());
+  }
+
+  @Test
+  void records_changes_of_associated_entities_with_a_prefix() {
+    ChangeSet productChanges = new ChangeSet();
+    Product product = new Product();
+    productChanges.set("name", ANY, product::getName, product::setName);
+    productChanges.set("barcode", ANY, product::getBarcode, product::setBarcode);
+    ChangeSet changeSet = new ChangeSet();
+
+    changeSet.addAll("product", productChanges);
+
+    assertEquals(List.of("product.name", "product.barcode"), List.copyOf(changeSet.getChangedProperties()));
+  }
+}
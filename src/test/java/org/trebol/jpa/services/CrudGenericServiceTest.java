@@ -21,26 +21,43 @@
 package org.trebol.jpa.services;
 
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Path;
 import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QTuple;
+import com.querydsl.core.types.dsl.PathBuilder;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.trebol.api.models.BatchResultPojo;
 import org.trebol.api.models.DataPagePojo;
 import org.trebol.common.exceptions.BadInputException;
+import org.trebol.jpa.ListProjection;
 import org.trebol.jpa.Repository;
 import org.trebol.jpa.services.crud.CrudGenericService;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class CrudGenericServiceTest {
@@ -55,6 +72,9 @@ class CrudGenericServiceTest {
   final List<GenericEntity> persistedEntityList = List.of(persistedEntity);
   final List<GenericPojo> persistedPojoList = List.of(persistedPojo);
   final PageRequest simplePageRequest = PageRequest.of(0, 10);
+  static final PathBuilder<GenericEntity> ENTITY_PATH = new PathBuilder<>(GenericEntity.class, "genericEntity");
+  final ListProjection<GenericPojo> listProjection = ListProjection.of(
+    Projections.constructor(GenericPojo.class, ENTITY_PATH.getNumber("id", Long.class), ENTITY_PATH.getString("name")));
 
   @Test
   void sanity_checks() {
@@ -82,19 +102,68 @@ class CrudGenericServiceTest {
     verify(genericConverterMock).convertToPojo(persistedEntity);
   }
 
+  @Test
+  void creates_data_in_batch_reporting_each_item()
+    throws BadInputException {
+    GenericPojo existingPojo = new GenericPojo(null, "existing");
+    when(genericConverterMock.convertToNewEntity(newPojo)).thenReturn(newEntity);
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_existing_entity_matching(existingPojo);
+
+    BatchResultPojo result = service.createAll(List.of(newPojo, existingPojo));
+
+    assertEquals(1, result.getCreatedCount());
+    assertEquals(1, result.getFailedCount());
+    assertTrue(result.getItems().get(0).isCreated());
+    assertFalse(result.getItems().get(1).isCreated());
+    assertEquals(1, result.getItems().get(1).getIndex());
+    assertNotNull(result.getItems().get(1).getError());
+    verify(genericRepositoryMock).saveAll(List.of(newEntity));
+    verify(genericRepositoryMock).flushAndClear();
+  }
+
+  @Test
+  void creates_data_in_batch_using_chunks()
+    throws BadInputException {
+    List<GenericPojo> inputs = new ArrayList<>();
+    for (int i = 0; i < 120; i++) {
+      inputs.add(newPojo);
+    }
+    when(genericConverterMock.convertToNewEntity(newPojo)).thenReturn(newEntity);
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_without_existing_entity();
+
+    BatchResultPojo result = service.createAll(inputs);
+
+    assertEquals(120, result.getCreatedCount());
+    assertEquals(0, result.getFailedCount());
+    verify(genericRepositoryMock, times(3)).saveAll(anyList());
+    verify(genericRepositoryMock, times(3)).flushAndClear();
+  }
+
+  @Test
+  void does_not_save_anything_in_batch_when_all_items_fail() {
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_existing_entity();
+
+    BatchResultPojo result = service.createAll(List.of(newPojo));
+
+    assertEquals(0, result.getCreatedCount());
+    assertEquals(1, result.getFailedCount());
+    verify(genericRepositoryMock, never()).saveAll(anyList());
+    verify(genericRepositoryMock, never()).flushAndClear();
+  }
+
   @Test
   void reads_plural_data_without_items() {
     DataPagePojo<GenericPojo> expectedResult = new DataPagePojo<>();
     expectedResult.setPageSize(10);
     PageImpl<GenericEntity> emptyPage = new PageImpl<>(emptyEntityList);
-    when(genericRepositoryMock.findAll(simplePageRequest)).thenReturn(emptyPage);
+    when(genericRepositoryMock.findPage(null, simplePageRequest)).thenReturn(emptyPage);
 
     CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_without_existing_entity();
-    DataPagePojo<GenericPojo> result = service.readMany(0, 10, null, null);
+    DataPagePojo<GenericPojo> result = service.readMany(0, 10, null, null, CountMode.EXACT, null);
 
     assertNotNull(result);
     assertEquals(expectedResult, result);
-    verify(genericRepositoryMock).findAll(simplePageRequest);
+    verify(genericRepositoryMock).findPage(null, simplePageRequest);
   }
 
   @Test
@@ -103,19 +172,172 @@ class CrudGenericServiceTest {
     DataPagePojo<GenericPojo> expectedResult = new DataPagePojo<>(persistedPojoList, 0, 1, 10);
     PageImpl<GenericEntity> singleItemPage = new PageImpl<>(persistedEntityList);
 
-    when(genericRepositoryMock.count(filters)).thenReturn(1L);
-    when(genericRepositoryMock.findAll(filters, simplePageRequest)).thenReturn(singleItemPage);
-    when(genericConverterMock.convertToPojo(persistedEntity)).thenReturn(persistedPojo);
+    when(genericRepositoryMock.findPage(filters, simplePageRequest)).thenReturn(singleItemPage);
+    when(genericConverterMock.convertToPojos(persistedEntityList)).thenReturn(persistedPojoList);
     CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_existing_entity();
 
-    DataPagePojo<GenericPojo> result = service.readMany(0, 10, null, filters);
+    DataPagePojo<GenericPojo> result = service.readMany(0, 10, null, filters, CountMode.EXACT, null);
 
     assertEquals(expectedResult, result);
-    verify(genericRepositoryMock).count(filters);
-    verify(genericRepositoryMock).findAll(filters, simplePageRequest);
-    verify(genericConverterMock).convertToPojo(persistedEntity);
+    verify(genericRepositoryMock).findPage(filters, simplePageRequest);
+    verify(genericConverterMock).convertToPojos(persistedEntityList);
+  }
+
+  @Test
+  void reads_plural_data_without_counting_items() {
+    Predicate filters = new BooleanBuilder();
+    when(genericRepositoryMock.findSlice(filters, simplePageRequest)).thenReturn(new SliceImpl<>(persistedEntityList, simplePageRequest, true));
+    when(genericConverterMock.convertToPojos(persistedEntityList)).thenReturn(persistedPojoList);
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_existing_entity();
+
+    DataPagePojo<GenericPojo> result = service.readMany(0, 10, null, filters, CountMode.NONE, null);
+
+    assertEquals(persistedPojoList, result.getItems());
+    assertEquals(0L, result.getTotalCount());
+    assertTrue(result.getHasNext());
+    verify(genericRepositoryMock).findSlice(filters, simplePageRequest);
+    verify(genericRepositoryMock, never()).findPage(any(), any());
+    verify(genericRepositoryMock, never()).count(any(Predicate.class));
   }
 
+  @Test
+  void reads_plural_data_reusing_estimated_count_of_items() {
+    Predicate filters = new BooleanBuilder();
+    when(genericRepositoryMock.findPage(filters, simplePageRequest)).thenReturn(new PageImpl<>(persistedEntityList, simplePageRequest, 25));
+    when(genericRepositoryMock.findSlice(filters, simplePageRequest)).thenReturn(new SliceImpl<>(persistedEntityList, simplePageRequest, true));
+    when(genericConverterMock.convertToPojos(persistedEntityList)).thenReturn(persistedPojoList);
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_existing_entity();
+
+    DataPagePojo<GenericPojo> firstResult = service.readMany(0, 10, null, filters, CountMode.ESTIMATE, null);
+    DataPagePojo<GenericPojo> secondResult = service.readMany(0, 10, null, filters, CountMode.ESTIMATE, null);
+
+    assertEquals(25L, firstResult.getTotalCount());
+    assertEquals(25L, secondResult.getTotalCount());
+    assertTrue(secondResult.getHasNext());
+    verify(genericRepositoryMock).findPage(filters, simplePageRequest);
+    verify(genericRepositoryMock).findSlice(filters, simplePageRequest);
+  }
+
+  @Test
+  void reads_plural_data_using_keyset_pagination()
+    throws BadInputException {
+    Predicate filters = new BooleanBuilder();
+    PageRequest keysetPageRequest = PageRequest.of(0, 1, Sort.by(Sort.Order.asc("id").nullsFirst()));
+    when(genericRepositoryMock.count(filters)).thenReturn(2L);
+    when(genericRepositoryMock.findSlice(any(Predicate.class), eq(keysetPageRequest))).thenReturn(
+      new SliceImpl<>(persistedEntityList, keysetPageRequest, true),
+      new SliceImpl<>(emptyEntityList));
+    when(genericConverterMock.convertToPojos(persistedEntityList)).thenReturn(persistedPojoList);
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_existing_entity();
+
+    DataPagePojo<GenericPojo> firstPage = service.readMany(null, 1, null, filters, CountMode.EXACT, null);
+    DataPagePojo<GenericPojo> secondPage = service.readMany(firstPage.getNextCursor(), 1, null, filters, CountMode.EXACT, null);
+
+    assertEquals(persistedPojoList, firstPage.getItems());
+    assertEquals(2L, firstPage.getTotalCount());
+    assertNotNull(firstPage.getNextCursor());
+    assertTrue(secondPage.getItems().isEmpty());
+    assertNull(secondPage.getNextCursor());
+    ArgumentCaptor<Predicate> seekFilters = ArgumentCaptor.forClass(Predicate.class);
+    verify(genericRepositoryMock, times(2)).findSlice(seekFilters.capture(), eq(keysetPageRequest));
+    assertEquals(filters, seekFilters.getAllValues().get(0));
+    assertTrue(seekFilters.getAllValues().get(1).toString().contains("genericEntity.id > 1"));
+  }
+
+  @Test
+  void errors_when_reading_plural_data_with_malformed_cursor() {
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_existing_entity();
+    Sort order = Sort.by("name");
+
+    assertThrows(BadInputException.class, () -> service.readMany("%not-base64%", 10, order, null, CountMode.NONE, null));
+    assertThrows(BadInputException.class, () -> service.readMany("e30", 10, order, null, CountMode.NONE, null));
+  }
+
+  @Test
+  void reads_plural_data_through_list_projection() {
+    Predicate filters = new BooleanBuilder();
+    when(genericRepositoryMock.findPage(listProjection, filters, simplePageRequest)).thenReturn(new PageImpl<>(persistedPojoList));
+    List<GenericPojo> completedItems = new ArrayList<>();
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_list_projection(completedItems);
+
+    DataPagePojo<GenericPojo> result = service.readMany(0, 10, null, filters, CountMode.EXACT, null);
+
+    assertEquals(persistedPojoList, result.getItems());
+    assertEquals(persistedPojoList, completedItems);
+    verify(genericRepositoryMock, never()).findPage(any(Predicate.class), any());
+    verifyNoInteractions(genericConverterMock);
+  }
+
+  @Test
+  void reads_plural_data_through_list_projection_completing_only_requested_fields() {
+    Set<String> fields = Set.of("name");
+    when(genericRepositoryMock.findSlice(listProjection, null, simplePageRequest)).thenReturn(new SliceImpl<>(persistedPojoList));
+    List<Set<String>> completedFields = new ArrayList<>();
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_list_projection(new ArrayList<>(), completedFields);
+
+    DataPagePojo<GenericPojo> result = service.readMany(0, 10, null, null, CountMode.NONE, fields);
+
+    assertEquals(persistedPojoList, result.getItems());
+    assertEquals(List.of(fields), completedFields);
+    verifyNoInteractions(genericConverterMock);
+  }
+
+  @Test
+  void reads_plural_data_through_list_projection_using_keyset_pagination()
+    throws BadInputException {
+    PageRequest keysetPageRequest = PageRequest.of(0, 1, Sort.by(Sort.Order.asc("name").nullsFirst(), Sort.Order.asc("id")));
+    QTuple rowsSelection = Projections.tuple(listProjection.getSelection(), ENTITY_PATH.getNumber("id", Long.class));
+    when(genericRepositoryMock.findSlice(any(ListProjection.class), isNull(), eq(keysetPageRequest))).thenReturn(
+      new SliceImpl<>(List.of(rowsSelection.newInstance(persistedPojo, persistedEntity.getId())), keysetPageRequest, true));
+    when(genericRepositoryMock.findAll(any(ListProjection.class), any(Predicate.class))).thenReturn(List.of(persistedEntity.getName()));
+    List<GenericPojo> completedItems = new ArrayList<>();
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_list_projection(completedItems);
+
+    DataPagePojo<GenericPojo> result = service.readMany(null, 1, Sort.by("name"), null, CountMode.NONE, null);
+
+    assertEquals(persistedPojoList, result.getItems());
+    assertEquals(persistedPojoList, completedItems);
+    assertNotNull(result.getNextCursor());
+    verify(genericRepositoryMock).findAll(any(ListProjection.class), eq(ENTITY_PATH.getNumber("id", Long.class).eq(persistedEntity.getId())));
+    verifyNoInteractions(genericConverterMock);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void reads_all_data_in_chunks() {
+    doAnswer(invocation -> {
+      Consumer<List<GenericEntity>> chunkAction = invocation.getArgument(3);
+      chunkAction.accept(persistedEntityList);
+      return null;
+    }).when(genericRepositoryMock).scrollAll(isNull(), eq(Sort.by("id")), anyInt(), any(Consumer.class));
+    when(genericConverterMock.convertToPojos(persistedEntityList)).thenReturn(persistedPojoList);
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_without_existing_entity();
+    List<GenericPojo> result = new ArrayList<>();
+
+    service.readAll(null, null, null, result::add);
+
+    assertEquals(persistedPojoList, result);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void reads_all_data_through_list_projection() {
+    Sort order = Sort.by("name");
+    doAnswer(invocation -> {
+      Consumer<List<GenericPojo>> chunkAction = invocation.getArgument(4);
+      chunkAction.accept(persistedPojoList);
+      return null;
+    }).when(genericRepositoryMock).scrollAll(eq(listProjection), isNull(), eq(order), anyInt(), any(Consumer.class));
+    List<GenericPojo> completedItems = new ArrayList<>();
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_list_projection(completedItems);
+    List<GenericPojo> result = new ArrayList<>();
+
+    service.readAll(order, null, null, result::add);
+
+    assertEquals(persistedPojoList, result);
+    assertEquals(persistedPojoList, completedItems);
+    verifyNoInteractions(genericConverterMock);
+  }
 
   @Test
   void reads_singular_data()
@@ -133,14 +355,25 @@ class CrudGenericServiceTest {
     verify(genericConverterMock).convertToPojo(persistedEntity);
   }
 
+  @Test
+  void reads_version_tag_only_for_versioned_entities() {
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_existing_entity();
+
+    assertEquals(Optional.empty(), service.readVersionTag());
+    verify(genericRepositoryMock, never()).findVersionTag();
+
+    when(genericRepositoryMock.isVersioned()).thenReturn(true);
+    when(genericRepositoryMock.findVersionTag()).thenReturn(Optional.of("1"));
+    assertEquals(Optional.of("1"), service.readVersionTag());
+  }
+
   @Test
   void updates_data()
     throws BadInputException, EntityNotFoundException {
     GenericPojo updatingPojo = new GenericPojo(1L, "test2");
-    GenericEntity updatedEntity = new GenericEntity(1L, "test2");
-    when(genericPatchServiceMock.patchExistingEntity(updatingPojo, persistedEntity)).thenReturn(updatedEntity);
-    when(genericRepositoryMock.saveAndFlush(updatedEntity)).thenReturn(updatedEntity);
-    when(genericConverterMock.convertToPojo(updatedEntity)).thenReturn(updatingPojo);
+    when(genericPatchServiceMock.patchExistingEntity(updatingPojo, persistedEntity)).thenReturn(this.nameChange("test2"));
+    when(genericRepositoryMock.saveAndFlush(persistedEntity)).thenReturn(persistedEntity);
+    when(genericConverterMock.convertToPojo(persistedEntity)).thenReturn(updatingPojo);
     CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_existing_entity();
 
     GenericPojo result = service.update(updatingPojo);
@@ -148,8 +381,21 @@ class CrudGenericServiceTest {
     assertNotNull(result);
     assertEquals(updatingPojo, result);
     verify(genericPatchServiceMock).patchExistingEntity(updatingPojo, persistedEntity);
-    verify(genericRepositoryMock).saveAndFlush(updatedEntity);
-    verify(genericConverterMock).convertToPojo(updatedEntity);
+    verify(genericRepositoryMock).saveAndFlush(persistedEntity);
+    verify(genericConverterMock).convertToPojo(persistedEntity);
+  }
+
+  @Test
+  void does_not_persist_data_when_nothing_changed()
+    throws BadInputException, EntityNotFoundException {
+    GenericPojo updatingPojo = new GenericPojo(1L, "test");
+    when(genericPatchServiceMock.patchExistingEntity(updatingPojo, persistedEntity)).thenReturn(new ChangeSet());
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_existing_entity();
+
+    GenericPojo result = service.update(updatingPojo);
+
+    assertEquals(updatingPojo, result);
+    verify(genericRepositoryMock, never()).saveAndFlush(any());
   }
 
   @Test
@@ -157,11 +403,10 @@ class CrudGenericServiceTest {
     throws BadInputException, EntityNotFoundException {
     Predicate filters = new BooleanBuilder();
     GenericPojo updatingPojo = new GenericPojo(1L, "test2");
-    GenericEntity updatedEntity = new GenericEntity(1L, "test2");
     when(genericRepositoryMock.findOne(filters)).thenReturn(Optional.of(persistedEntity));
-    when(genericPatchServiceMock.patchExistingEntity(updatingPojo, persistedEntity)).thenReturn(updatedEntity);
-    when(genericRepositoryMock.saveAndFlush(updatedEntity)).thenReturn(updatedEntity);
-    when(genericConverterMock.convertToPojo(updatedEntity)).thenReturn(updatingPojo);
+    when(genericPatchServiceMock.patchExistingEntity(updatingPojo, persistedEntity)).thenReturn(this.nameChange("test2"));
+    when(genericRepositoryMock.saveAndFlush(persistedEntity)).thenReturn(persistedEntity);
+    when(genericConverterMock.convertToPojo(persistedEntity)).thenReturn(updatingPojo);
 
     CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_existing_entity();
     GenericPojo result = service.update(updatingPojo, filters);
@@ -169,23 +414,97 @@ class CrudGenericServiceTest {
     assertEquals(updatingPojo, result);
     verify(genericRepositoryMock).findOne(filters);
     verify(genericPatchServiceMock).patchExistingEntity(updatingPojo, persistedEntity);
-    verify(genericRepositoryMock).saveAndFlush(updatedEntity);
-    verify(genericConverterMock).convertToPojo(updatedEntity);
+    verify(genericRepositoryMock).saveAndFlush(persistedEntity);
+    verify(genericConverterMock).convertToPojo(persistedEntity);
+  }
+
+  @Test
+  void updates_data_in_bulk_using_chunks()
+    throws BadInputException, EntityNotFoundException {
+    Predicate filters = new BooleanBuilder();
+    Map<Path<?>, Object> values = Map.of(ENTITY_PATH.getString("name"), "test");
+    List<Long> firstChunk = new ArrayList<>();
+    for (long id = 1; id <= 500; id++) {
+      firstChunk.add(id);
+    }
+    List<Long> lastChunk = List.of(501L);
+    when(genericRepositoryMock.findIds(filters, null, 500)).thenReturn(firstChunk);
+    when(genericRepositoryMock.findIds(filters, 500L, 500)).thenReturn(lastChunk);
+    when(genericRepositoryMock.updateByIds(firstChunk, values)).thenReturn(500L);
+    when(genericRepositoryMock.updateByIds(lastChunk, values)).thenReturn(1L);
+
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_bulk_update_values(values);
+    long result = service.updateAll(newPojo, filters);
+
+    assertEquals(501L, result);
+  }
+
+  @Test
+  void errors_when_updating_data_in_bulk_without_applicable_changes() {
+    Predicate filters = new BooleanBuilder();
+
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_without_existing_entity();
+
+    assertThrows(BadInputException.class, () -> service.updateAll(newPojo, filters));
+    verifyNoInteractions(genericRepositoryMock);
+  }
+
+  @Test
+  void errors_when_updating_data_in_bulk_but_is_unable_to_find_it() {
+    Predicate filters = new BooleanBuilder();
+    Map<Path<?>, Object> values = Map.of(ENTITY_PATH.getString("name"), "test");
+    when(genericRepositoryMock.findIds(filters, null, 500)).thenReturn(List.of());
+
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_bulk_update_values(values);
+
+    assertThrows(EntityNotFoundException.class, () -> service.updateAll(newPojo, filters));
   }
 
   @Test
   void deletes_data()
     throws EntityNotFoundException {
-    PageImpl<GenericEntity> persistedEntityPage = new PageImpl<>(persistedEntityList);
     Predicate filters = new BooleanBuilder();
-    when(genericRepositoryMock.count(filters)).thenReturn(1L);
-    when(genericRepositoryMock.findAll(filters)).thenReturn(persistedEntityPage);
+    List<Long> ids = List.of(1L);
+    when(genericRepositoryMock.findIds(eq(filters), anyInt())).thenReturn(ids);
+    when(genericRepositoryMock.deleteByIds(ids)).thenReturn(1L);
 
     CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_existing_entity();
-    service.delete(filters);
+    long result = service.delete(filters);
 
-    verify(genericRepositoryMock).findAll(filters);
-    verify(genericRepositoryMock).deleteAll(persistedEntityPage);
+    assertEquals(1L, result);
+    verify(genericRepositoryMock).deleteByIds(ids);
+    verify(genericRepositoryMock, never()).findAll(any(Predicate.class));
+  }
+
+  @Test
+  void deletes_data_in_chunks()
+    throws EntityNotFoundException {
+    Predicate filters = new BooleanBuilder();
+    List<Long> firstChunk = new ArrayList<>();
+    for (long id = 1; id <= 500; id++) {
+      firstChunk.add(id);
+    }
+    List<Long> lastChunk = List.of(501L);
+    when(genericRepositoryMock.findIds(eq(filters), anyInt())).thenReturn(firstChunk, lastChunk);
+    when(genericRepositoryMock.deleteByIds(firstChunk)).thenReturn(500L);
+    when(genericRepositoryMock.deleteByIds(lastChunk)).thenReturn(1L);
+
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_existing_entity();
+    long result = service.delete(filters);
+
+    assertEquals(501L, result);
+    verify(genericRepositoryMock, times(2)).findIds(eq(filters), anyInt());
+  }
+
+  @Test
+  void errors_when_deleting_data_but_is_unable_to_find_it() {
+    Predicate filters = new BooleanBuilder();
+    when(genericRepositoryMock.findIds(eq(filters), anyInt())).thenReturn(List.of());
+
+    CrudGenericService<GenericPojo, GenericEntity> service = this.instantiate_with_existing_entity();
+
+    assertThrows(EntityNotFoundException.class, () -> service.delete(filters));
+    verify(genericRepositoryMock, never()).deleteByIds(anyList());
   }
 
   @Test
@@ -206,6 +525,36 @@ class CrudGenericServiceTest {
     assertNull(genericPojo);
   }
 
+  private CrudGenericService<GenericPojo, GenericEntity> instantiate_with_list_projection(List<GenericPojo> completedItems) {
+    return this.instantiate_with_list_projection(completedItems, new ArrayList<>());
+  }
+
+  private CrudGenericService<GenericPojo, GenericEntity> instantiate_with_list_projection(
+    List<GenericPojo> completedItems,
+    List<Set<String>> completedFields
+  ) {
+    return new CrudGenericService<>(
+      genericRepositoryMock,
+      genericConverterMock,
+      genericPatchServiceMock) {
+      @Override
+      public Optional<GenericEntity> getExisting(GenericPojo example) {
+        return Optional.empty();
+      }
+
+      @Override
+      protected Optional<ListProjection<GenericPojo>> getListProjection() {
+        return Optional.of(listProjection);
+      }
+
+      @Override
+      protected void completeListItems(List<GenericPojo> items, Set<String> fields) {
+        completedItems.addAll(items);
+        completedFields.add(fields);
+      }
+    };
+  }
+
   private CrudGenericService<GenericPojo, GenericEntity> instantiate_without_existing_entity() {
     return new CrudGenericService<>(
       genericRepositoryMock,
@@ -218,6 +567,35 @@ class CrudGenericServiceTest {
     };
   }
 
+  private CrudGenericService<GenericPojo, GenericEntity> instantiate_with_existing_entity_matching(GenericPojo existingPojo) {
+    return new CrudGenericService<>(
+      genericRepositoryMock,
+      genericConverterMock,
+      genericPatchServiceMock) {
+      @Override
+      public Optional<GenericEntity> getExisting(GenericPojo example) {
+        return existingPojo.equals(example) ? Optional.of(persistedEntity) : Optional.empty();
+      }
+    };
+  }
+
+  private CrudGenericService<GenericPojo, GenericEntity> instantiate_with_bulk_update_values(Map<Path<?>, Object> values) {
+    return new CrudGenericService<>(
+      genericRepositoryMock,
+      genericConverterMock,
+      genericPatchServiceMock) {
+      @Override
+      public Optional<GenericEntity> getExisting(GenericPojo example) {
+        return Optional.empty();
+      }
+
+      @Override
+      protected Map<Path<?>, Object> getBulkUpdateValues(GenericPojo changes) {
+        return values;
+      }
+    };
+  }
+
   private CrudGenericService<GenericPojo, GenericEntity> instantiate_with_existing_entity() {
     return new CrudGenericService<>(
       genericRepositoryMock,
@@ -229,4 +607,10 @@ class CrudGenericServiceTest {
       }
     };
   }
+
+  private ChangeSet nameChange(String newName) {
+    ChangeSet changeSet = new ChangeSet();
+    changeSet.set("name", newName, persistedEntity::getName, name -> { });
+    return changeSet;
+  }
 }
@@ -21,8 +21,10 @@
 package org.trebol.jpa.services;
 
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 
 @AllArgsConstructor
+@Getter
 public class GenericEntity {
   private final Long id;
   private final String name;
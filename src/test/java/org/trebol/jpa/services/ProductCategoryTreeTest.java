@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.trebol.api.models.ProductCategoryPojo;
+import org.trebol.jpa.entities.ProductCategory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCategoryTreeTest {
+  ProductCategoryTree instance;
+
+  /**
+   * A (1)
+   * - C (3)
+   *   - D (4)
+   * - B (2)
+   * E (5)
+   */
+  @BeforeEach
+  void beforeEach() {
+    instance = new ProductCategoryTree(7L, List.of(
+      ProductCategory.builder().id(4L).code("d").name("D").path("/1/3/").version(1L).build(),
+      ProductCategory.builder().id(2L).code("b").name("B").path("/1/").build(),
+      ProductCategory.builder().id(5L).code("e").name("E").path("/").build(),
+      ProductCategory.builder().id(1L).code("a").name("A").path("/").version(2L).build(),
+      ProductCategory.builder().id(3L).code("c").name("C").path("/1/").build()
+    ));
+  }
+
+  @Test
+  void provides_ids_of_descendants() {
+    assertArrayEquals(new long[]{2L, 3L, 4L}, instance.getDescendantIds(1L));
+    assertArrayEquals(new long[]{4L}, instance.getDescendantIds("c"));
+    assertArrayEquals(new long[0], instance.getDescendantIds("e"));
+  }
+
+  @Test
+  void provides_ids_of_whole_subtrees() {
+    assertArrayEquals(new long[]{1L, 2L, 3L, 4L}, instance.getSubtreeIds("a"));
+    assertArrayEquals(new long[]{5L}, instance.getSubtreeIds("e"));
+  }
+
+  @Test
+  void provides_ids_of_categories_by_their_code() {
+    assertEquals(3L, instance.findId("c"));
+    assertEquals(5L, instance.findId("e"));
+  }
+
+  @Test
+  void provides_no_ids_for_categories_that_do_not_exist() {
+    assertArrayEquals(new long[0], instance.getDescendantIds(99L));
+    assertArrayEquals(new long[0], instance.getSubtreeIds("z"));
+    assertNull(instance.findId("z"));
+  }
+
+  @Test
+  void does_not_expose_its_own_arrays() {
+    instance.getSubtreeIds("a")[0] = 99L;
+
+    assertArrayEquals(new long[]{1L, 2L, 3L, 4L}, instance.getSubtreeIds("a"));
+  }
+
+  @Test
+  void leaves_out_categories_whose_parent_does_not_exist() {
+    ProductCategoryTree tree = new ProductCategoryTree(1L, List.of(
+      ProductCategory.builder().id(1L).code("a").name("A").path("/").build(),
+      ProductCategory.builder().id(2L).code("b").name("B").path("/9/").build()
+    ));
+
+    assertEquals(1, tree.size());
+    assertArrayEquals(new long[0], tree.getSubtreeIds("b"));
+  }
+
+  @Test
+  void nests_new_models_ordered_by_name() {
+    List<ProductCategoryPojo> roots = instance.toPojos();
+
+    assertEquals(List.of("a", "e"), codesOf(roots));
+    assertEquals(List.of("b", "c"), codesOf(roots.get(0).getChildren()));
+    assertEquals(List.of("d"), codesOf(roots.get(0).getChildren().get(1).getChildren()));
+    assertNull(roots.get(1).getChildren());
+    assertNotSame(roots.get(0), instance.toPojos().get(0));
+  }
+
+  @Test
+  void adds_up_amounts_along_subtrees() {
+    Map<String, Long> result = instance.sumSubtrees(Map.of(4L, 3L, 2L, 1L, 5L, 2L, 99L, 7L));
+
+    assertEquals(Map.of("a", 4L, "b", 1L, "c", 3L, "d", 3L, "e", 2L), result);
+    assertEquals(List.of("a", "b", "c", "d", "e"), List.copyOf(result.keySet()));
+  }
+
+  @Test
+  void tags_its_version_with_the_amount_of_categories_their_max_id_and_their_versions() {
+    assertEquals(7L, instance.getVersion());
+    assertEquals("5-5-3", instance.getVersionTag());
+  }
+
+  private static List<String> codesOf(List<ProductCategoryPojo> categories) {
+    return categories.stream()
+      .map(ProductCategoryPojo::getCode)
+      .collect(Collectors.toList());
+  }
+}
@@ -24,9 +24,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.trebol.api.models.ImagePojo;
 import org.trebol.jpa.entities.Image;
+import org.trebol.jpa.services.impl.LookupCacheServiceImpl;
+
+import javax.persistence.EntityManager;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
 import static org.trebol.testing.TestConstants.ANY;
 
 class ImagesConverterServiceImplTest {
@@ -34,7 +38,7 @@ class ImagesConverterServiceImplTest {
 
   @BeforeEach
   void beforeEach() {
-    instance = new ImagesConverterServiceImpl();
+    instance = new ImagesConverterServiceImpl(new LookupCacheServiceImpl(mock(EntityManager.class)));
   }
 
   @Test
@@ -24,9 +24,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.trebol.api.models.ProductCategoryPojo;
 import org.trebol.jpa.entities.ProductCategory;
+import org.trebol.jpa.services.impl.LookupCacheServiceImpl;
 import org.trebol.testing.ProductCategoriesTestHelper;
 
+import javax.persistence.EntityManager;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 import static org.trebol.testing.TestConstants.ANY;
 import static org.trebol.testing.TestConstants.ID_1L;
 
@@ -36,7 +40,7 @@ class ProductCategoriesConverterServiceImplTest {
 
   @BeforeEach
   void beforeEach() {
-    instance = new ProductCategoriesConverterServiceImpl();
+    instance = new ProductCategoriesConverterServiceImpl(new LookupCacheServiceImpl(mock(EntityManager.class)));
     productCategoriesTestHelper.resetProductCategories();
   }
 
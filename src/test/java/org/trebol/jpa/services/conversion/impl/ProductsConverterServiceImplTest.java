@@ -39,11 +39,12 @@ import org.trebol.jpa.services.conversion.ProductCategoriesConverterService;
 import org.trebol.testing.ProductsTestHelper;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ProductsConverterServiceImplTest {
@@ -88,6 +89,32 @@ class ProductsConverterServiceImplTest {
     assertEquals(expectedImagePojo, result.getImages().iterator().next());
   }
 
+  @Test
+  void converts_many_to_pojos_fetching_images_at_once() {
+    Product first = productsTestHelper.productEntityAfterCreationWithoutCategory();
+    Product second = Product.builder()
+      .id(first.getId() + 1)
+      .name("second")
+      .build();
+    List<ProductImage> existingImages = List.of(
+      ProductImage.builder()
+        .image(Image.builder().build())
+        .product(second)
+        .build()
+    );
+    ImagePojo expectedImagePojo = ImagePojo.builder().build();
+    when(productImagesRepositoryMock.deepFindProductImagesByProductIds(anyCollection())).thenReturn(existingImages);
+    when(imagesConverterServiceMock.convertToPojo(any(Image.class))).thenReturn(expectedImagePojo);
+    List<ProductPojo> result = instance.convertToPojos(List.of(first, second));
+    assertEquals(2, result.size());
+    assertEquals(first.getId(), result.get(0).getId());
+    assertTrue(result.get(0).getImages().isEmpty());
+    assertEquals(second.getId(), result.get(1).getId());
+    assertEquals(Set.of(expectedImagePojo), result.get(1).getImages());
+    verify(productImagesRepositoryMock).deepFindProductImagesByProductIds(Set.of(first.getId(), second.getId()));
+    verify(productImagesRepositoryMock, never()).deepFindProductImagesByProductId(anyLong());
+  }
+
   @Test
   void converts_to_new_entity() {
     ProductPojo input = productsTestHelper.productPojoBeforeCreationWithoutCategory();
@@ -28,9 +28,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.trebol.api.models.*;
 import org.trebol.jpa.entities.*;
+import org.trebol.jpa.repositories.SalesRepository;
 import org.trebol.jpa.services.conversion.*;
 import org.trebol.testing.SalesTestHelper;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -46,6 +49,7 @@ class SalesConverterServiceImplTest {
   @Mock BillingCompaniesConverterService billingCompaniesConverterMock;
   @Mock AddressesConverterService addressesConverterServiceMock;
   @Mock ShippersConverterService shippersConverterServiceMock;
+  @Mock SalesRepository salesRepositoryMock;
   final SalesTestHelper salesTestHelper = new SalesTestHelper();
 
   @BeforeEach
@@ -123,4 +127,22 @@ class SalesConverterServiceImplTest {
     assertEquals(expectedBillingCompanyPojo, result.getBillingCompany());
     verify(billingCompaniesConverterMock).convertToPojo(sell.getBillingCompany());
   }
+
+  @Test
+  void converts_many_to_pojos_fetching_relationships_at_once() {
+    Sell sell = salesTestHelper.sellEntityAfterCreation();
+    when(customersConverterMock.convertToPojo(any(Customer.class))).thenReturn(CustomerPojo.builder().build());
+    when(addressesConverterServiceMock.convertToPojo(any(Address.class))).thenReturn(AddressPojo.builder().build());
+    List<SellPojo> result = instance.convertToPojos(List.of(sell));
+    assertEquals(1, result.size());
+    assertEquals(sell.getId(), result.get(0).getBuyOrder());
+    verify(salesRepositoryMock).deepFindAllByIds(List.of(sell.getId()));
+  }
+
+  @Test
+  void does_not_query_anything_when_converting_no_sales() {
+    List<SellPojo> result = instance.convertToPojos(List.of());
+    assertTrue(result.isEmpty());
+    verifyNoInteractions(salesRepositoryMock);
+  }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services.crud;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import org.junit.jupiter.api.Test;
+import org.trebol.jpa.entities.QProduct;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountEstimateCacheTest {
+  private static final QProduct BASE_PATH = QProduct.product;
+
+  @Test
+  void reuses_counts_for_equivalent_filters() {
+    CountEstimateCache cache = new CountEstimateCache(Duration.ofMinutes(1), 10);
+    Predicate filters = new BooleanBuilder()
+      .and(BASE_PATH.name.eq("a"))
+      .and(BASE_PATH.barcode.eq("b"));
+    Predicate reorderedFilters = new BooleanBuilder()
+      .and(BASE_PATH.barcode.eq("b"))
+      .and(BASE_PATH.name.eq("a"));
+
+    cache.put(filters, 42L);
+
+    assertEquals(Optional.of(42L), cache.get(reorderedFilters));
+    assertEquals(Optional.empty(), cache.get(BASE_PATH.name.eq("a")));
+    assertEquals(Optional.empty(), cache.get(null));
+  }
+
+  @Test
+  void forgets_expired_counts() {
+    CountEstimateCache cache = new CountEstimateCache(Duration.ZERO, 10);
+
+    cache.put(null, 42L);
+
+    assertEquals(Optional.empty(), cache.get(null));
+  }
+
+  @Test
+  void stays_within_its_size_bounds() {
+    CountEstimateCache cache = new CountEstimateCache(Duration.ofMinutes(1), 1);
+
+    cache.put(BASE_PATH.name.eq("a"), 1L);
+    cache.put(BASE_PATH.name.eq("b"), 2L);
+
+    assertEquals(Optional.empty(), cache.get(BASE_PATH.name.eq("a")));
+    assertEquals(Optional.of(2L), cache.get(BASE_PATH.name.eq("b")));
+  }
+}
@@ -25,17 +25,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.trebol.api.models.BillingTypePojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.BillingType;
 import org.trebol.jpa.repositories.BillingTypesRepository;
+import org.trebol.jpa.services.impl.LookupCacheServiceImpl;
 
+import javax.persistence.EntityManager;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.trebol.testing.TestConstants.ANY;
@@ -44,6 +48,7 @@ import static org.trebol.testing.TestConstants.ANY;
 class BillingTypesCrudServiceImplTest {
   @InjectMocks BillingTypesCrudServiceImpl instance;
   @Mock BillingTypesRepository billingTypesRepositoryMock;
+  @Spy LookupCacheServiceImpl lookupCacheService = new LookupCacheServiceImpl(mock(EntityManager.class));
 
   @Test
   void finds_by_name() throws BadInputException {
@@ -20,30 +20,45 @@
 
 package org.trebol.jpa.services.crud.impl;
 
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.trebol.api.models.BatchResultPojo;
 import org.trebol.api.models.CustomerPojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Customer;
 import org.trebol.jpa.repositories.CustomersRepository;
+import org.trebol.jpa.repositories.PeopleRepository;
 import org.trebol.testing.CustomersTestHelper;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Path;
+import javax.validation.Validator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class CustomersCrudServiceImplTest {
   @InjectMocks CustomersCrudServiceImpl instance;
   @Mock CustomersRepository customersRepositoryMock;
+  @Mock PeopleRepository peopleRepositoryMock;
+  @Mock Validator validatorMock;
   final CustomersTestHelper customersHelper = new CustomersTestHelper();
 
   @BeforeEach
@@ -63,4 +78,38 @@ class CustomersCrudServiceImplTest {
     assertTrue(match.isPresent());
     assertEquals(expectedResult, match.get());
   }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void reports_invalid_customers_in_batch() {
+    CustomerPojo input = CustomerPojo.builder().build();
+    ConstraintViolation<CustomerPojo> violation = mock(ConstraintViolation.class);
+    Path path = mock(Path.class);
+    when(path.toString()).thenReturn("person");
+    when(violation.getPropertyPath()).thenReturn(path);
+    when(violation.getMessage()).thenReturn("must not be null");
+    when(validatorMock.validate(input)).thenReturn(Set.of(violation));
+
+    BatchResultPojo result = instance.createAll(List.of(input));
+
+    assertEquals(0, result.getCreatedCount());
+    assertEquals(1, result.getFailedCount());
+    assertEquals("Invalid customer: person must not be null", result.getItems().get(0).getError());
+    verifyNoInteractions(customersRepositoryMock);
+  }
+
+  @Test
+  void deletes_customers_along_with_their_people() {
+    List<Long> ids = List.of(1L);
+    List<Long> personIds = List.of(2L);
+    when(customersRepositoryMock.findIds(any(Predicate.class), anyInt())).thenReturn(ids);
+    when(customersRepositoryMock.findPersonIdsByIds(ids)).thenReturn(personIds);
+    when(customersRepositoryMock.deleteByIds(ids)).thenReturn(1L);
+
+    long result = instance.delete(new BooleanBuilder());
+
+    assertEquals(1L, result);
+    verify(customersRepositoryMock).deleteByIds(ids);
+    verify(peopleRepositoryMock).deleteByIds(personIds);
+  }
 }
@@ -26,18 +26,22 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.trebol.api.models.ImagePojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Image;
 import org.trebol.jpa.repositories.ImagesRepository;
+import org.trebol.jpa.services.impl.LookupCacheServiceImpl;
 import org.trebol.testing.ImagesTestHelper;
 
+import javax.persistence.EntityManager;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -45,6 +49,7 @@ import static org.mockito.Mockito.when;
 class ImagesCrudServiceImplTest {
   @InjectMocks ImagesCrudServiceImpl instance;
   @Mock ImagesRepository imagesRepositoryMock;
+  @Spy LookupCacheServiceImpl lookupCacheService = new LookupCacheServiceImpl(mock(EntityManager.class));
   final ImagesTestHelper imagesHelper = new ImagesTestHelper();
 
   @BeforeEach
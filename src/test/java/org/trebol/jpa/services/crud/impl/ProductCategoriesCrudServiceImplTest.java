@@ -26,18 +26,32 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.trebol.api.models.ProductCategoryPojo;
+import org.trebol.api.services.ResponseCacheService;
 import org.trebol.common.exceptions.BadInputException;
+import org.trebol.config.ApiProperties;
 import org.trebol.jpa.entities.ProductCategory;
 import org.trebol.jpa.repositories.ProductsCategoriesRepository;
+import org.trebol.jpa.services.ChangeSet;
+import org.trebol.jpa.services.ProductCategoryTreeResolverService;
+import org.trebol.jpa.services.conversion.ProductCategoriesConverterService;
+import org.trebol.jpa.services.impl.LookupCacheServiceImpl;
+import org.trebol.jpa.services.patch.ProductCategoriesPatchService;
 import org.trebol.testing.ProductCategoriesTestHelper;
 
+import javax.persistence.EntityManager;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -45,6 +59,12 @@ import static org.mockito.Mockito.when;
 class ProductCategoriesCrudServiceImplTest {
   @InjectMocks ProductCategoriesCrudServiceImpl instance;
   @Mock ProductsCategoriesRepository categoriesRepositoryMock;
+  @Mock ProductCategoriesConverterService categoriesConverterMock;
+  @Mock ProductCategoriesPatchService categoriesPatchServiceMock;
+  @Mock ApiProperties apiPropertiesMock;
+  @Mock ProductCategoryTreeResolverService treeResolverServiceMock;
+  @Mock ResponseCacheService responseCacheServiceMock;
+  @Spy LookupCacheServiceImpl lookupCacheService = new LookupCacheServiceImpl(mock(EntityManager.class));
   final ProductCategoriesTestHelper categoriesHelper = new ProductCategoriesTestHelper();
 
   @BeforeEach
@@ -64,4 +84,94 @@ class ProductCategoriesCrudServiceImplTest {
     assertTrue(match.isPresent());
     assertEquals(expectedResult, match.get());
   }
+
+  @Test
+  void places_new_categories_below_their_parent() throws BadInputException {
+    ProductCategory parent = ProductCategory.builder().id(1L).code("parent").name("Parent").path("/").build();
+    ProductCategory newCategory = ProductCategory.builder().code("child").name("Child").build();
+    ProductCategoryPojo input = ProductCategoryPojo.builder().code("child").name("Child")
+      .parent(ProductCategoryPojo.builder().code("parent").build())
+      .build();
+    when(apiPropertiesMock.getMaxCategoryFetchingRecursionDepth()).thenReturn(2);
+    when(categoriesRepositoryMock.findByCode("child")).thenReturn(Optional.empty());
+    when(categoriesRepositoryMock.findByCode("parent")).thenReturn(Optional.of(parent));
+    when(categoriesConverterMock.convertToNewEntity(input)).thenReturn(newCategory);
+
+    instance.create(input);
+
+    verify(categoriesRepositoryMock).saveAndFlush(newCategory);
+    verify(treeResolverServiceMock).refreshTree();
+    assertEquals(parent, newCategory.getParent());
+    assertEquals("/1/", newCategory.getPath());
+  }
+
+  @Test
+  void does_not_nest_new_categories_deeper_than_allowed() throws BadInputException {
+    ProductCategory parent = ProductCategory.builder().id(2L).code("parent").name("Parent").path("/1/").build();
+    ProductCategoryPojo input = ProductCategoryPojo.builder().code("child").name("Child")
+      .parent(ProductCategoryPojo.builder().code("parent").build())
+      .build();
+    when(apiPropertiesMock.getMaxCategoryFetchingRecursionDepth()).thenReturn(2);
+    when(categoriesRepositoryMock.findByCode("child")).thenReturn(Optional.empty());
+    when(categoriesRepositoryMock.findByCode("parent")).thenReturn(Optional.of(parent));
+    when(categoriesConverterMock.convertToNewEntity(input)).thenReturn(new ProductCategory());
+
+    assertThrows(BadInputException.class, () -> instance.create(input));
+    verify(categoriesRepositoryMock, never()).saveAndFlush(any());
+    verify(treeResolverServiceMock, never()).refreshTree();
+  }
+
+  @Test
+  void moves_categories_along_with_their_descendants() throws BadInputException {
+    ProductCategory existing = ProductCategory.builder().id(2L).code("moved").name("Moved").path("/").build();
+    ProductCategory newParent = ProductCategory.builder().id(5L).code("parent").name("Parent").path("/4/").build();
+    ProductCategoryPojo changes = ProductCategoryPojo.builder().code("moved")
+      .parent(ProductCategoryPojo.builder().code("parent").build())
+      .build();
+    when(apiPropertiesMock.getMaxCategoryFetchingRecursionDepth()).thenReturn(4);
+    when(categoriesRepositoryMock.findByCode("moved")).thenReturn(Optional.of(existing));
+    when(categoriesRepositoryMock.findByCode("parent")).thenReturn(Optional.of(newParent));
+    when(categoriesRepositoryMock.findPathsByPathStartingWith("/2/")).thenReturn(List.of("/2/"));
+    when(categoriesPatchServiceMock.patchExistingEntity(changes, existing)).thenReturn(new ChangeSet());
+
+    instance.update(changes);
+
+    assertEquals(newParent, existing.getParent());
+    assertEquals("/4/5/", existing.getPath());
+    verify(categoriesRepositoryMock).saveAndFlush(existing);
+    verify(categoriesRepositoryMock).replacePathPrefix("/2/", "/4/5/2/");
+    verify(treeResolverServiceMock).refreshTree();
+  }
+
+  @Test
+  void does_not_move_categories_below_their_own_descendants() throws BadInputException {
+    ProductCategory existing = ProductCategory.builder().id(2L).code("moved").name("Moved").path("/").build();
+    ProductCategory descendant = ProductCategory.builder().id(3L).code("descendant").name("Descendant").path("/2/").build();
+    ProductCategoryPojo changes = ProductCategoryPojo.builder().code("moved")
+      .parent(ProductCategoryPojo.builder().code("descendant").build())
+      .build();
+    when(categoriesRepositoryMock.findByCode("moved")).thenReturn(Optional.of(existing));
+    when(categoriesRepositoryMock.findByCode("descendant")).thenReturn(Optional.of(descendant));
+    when(categoriesPatchServiceMock.patchExistingEntity(changes, existing)).thenReturn(new ChangeSet());
+
+    assertThrows(BadInputException.class, () -> instance.update(changes));
+    assertEquals("/", existing.getPath());
+    verify(categoriesRepositoryMock, never()).replacePathPrefix(anyString(), anyString());
+  }
+
+  @Test
+  void does_not_move_categories_when_their_descendants_would_be_nested_deeper_than_allowed() throws BadInputException {
+    ProductCategory existing = ProductCategory.builder().id(2L).code("moved").name("Moved").path("/").build();
+    ProductCategory newParent = ProductCategory.builder().id(5L).code("parent").name("Parent").path("/").build();
+    ProductCategoryPojo changes = ProductCategoryPojo.builder().code("moved")
+      .parent(ProductCategoryPojo.builder().code("parent").build())
+      .build();
+    when(apiPropertiesMock.getMaxCategoryFetchingRecursionDepth()).thenReturn(3);
+    when(categoriesRepositoryMock.findByCode("moved")).thenReturn(Optional.of(existing));
+    when(categoriesRepositoryMock.findByCode("parent")).thenReturn(Optional.of(newParent));
+    when(categoriesRepositoryMock.findPathsByPathStartingWith("/2/")).thenReturn(List.of("/2/", "/2/3/"));
+    when(categoriesPatchServiceMock.patchExistingEntity(changes, existing)).thenReturn(new ChangeSet());
+
+    assertThrows(BadInputException.class, () -> instance.update(changes));
+  }
 }
@@ -28,7 +28,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.trebol.api.models.ProductListPojo;
+import org.trebol.api.services.ResponseCacheService;
+import org.trebol.api.services.ResponseCacheSource;
 import org.trebol.jpa.entities.ProductList;
+import org.trebol.jpa.entities.QProductListItem;
 import org.trebol.jpa.repositories.ProductListItemsRepository;
 import org.trebol.jpa.repositories.ProductListsRepository;
 
@@ -45,6 +48,7 @@ class ProductListCrudServiceImplTest {
   @InjectMocks ProductListsCrudServiceImpl instance;
   @Mock ProductListsRepository productListRepositoryMock;
   @Mock ProductListItemsRepository productListItemRepositoryMock;
+  @Mock ResponseCacheService responseCacheServiceMock;
 
   @Test
   void matches_productlist_from_name() {
@@ -81,22 +85,20 @@ class ProductListCrudServiceImplTest {
 
   @Test
   void deletes_lists() {
-    List<ProductList> productListsMock = List.of(
-      ProductList.builder()
-        .id(1L)
-        .build()
-    );
-    when(productListRepositoryMock.count(any(Predicate.class))).thenReturn(1L);
-    when(productListRepositoryMock.findAll(any(Predicate.class))).thenReturn(productListsMock);
-    instance.delete(new BooleanBuilder());
-    verify(productListItemRepositoryMock, times(productListsMock.size())).deleteByListId(1L);
-    verify(productListRepositoryMock).deleteAll(productListsMock);
+    List<Long> ids = List.of(1L);
+    when(productListRepositoryMock.findIds(any(Predicate.class), anyInt())).thenReturn(ids);
+    when(productListRepositoryMock.deleteByIds(ids)).thenReturn(1L);
+    long result = instance.delete(new BooleanBuilder());
+    assertEquals(1L, result);
+    verify(productListItemRepositoryMock).deleteWhere(QProductListItem.productListItem.list.id.in(ids));
+    verify(productListRepositoryMock).deleteByIds(ids);
+    verify(responseCacheServiceMock).invalidate(ResponseCacheSource.PRODUCT_LISTS);
   }
 
   @Test
   void attempting_to_delete_nothing_throws_EntityNotFoundException() {
     BooleanBuilder input = new BooleanBuilder();
-    when(productListRepositoryMock.count(any(Predicate.class))).thenReturn(0L);
+    when(productListRepositoryMock.findIds(any(Predicate.class), anyInt())).thenReturn(List.of());
     assertThrows(EntityNotFoundException.class, () -> instance.delete(input));
   }
 }
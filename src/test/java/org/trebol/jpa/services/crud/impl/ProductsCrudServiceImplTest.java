@@ -20,38 +20,67 @@
 
 package org.trebol.jpa.services.crud.impl;
 
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.trebol.api.models.BatchResultPojo;
+import org.trebol.api.models.DataPagePojo;
 import org.trebol.api.models.ImagePojo;
 import org.trebol.api.models.ProductCategoryPojo;
 import org.trebol.api.models.ProductPojo;
+import org.trebol.api.services.ResponseCacheService;
 import org.trebol.common.exceptions.BadInputException;
+import org.trebol.jpa.ListProjection;
 import org.trebol.jpa.entities.Image;
 import org.trebol.jpa.entities.Product;
 import org.trebol.jpa.entities.ProductCategory;
+import org.trebol.jpa.entities.ProductImage;
+import org.trebol.jpa.entities.QProduct;
+import org.trebol.jpa.entities.QProductImage;
+import org.trebol.jpa.entities.QProductListItem;
+import org.trebol.jpa.projections.ProductsProjection;
 import org.trebol.jpa.repositories.ProductImagesRepository;
+import org.trebol.jpa.repositories.ProductListItemsRepository;
 import org.trebol.jpa.repositories.ProductsRepository;
 import org.trebol.jpa.services.conversion.ImagesConverterService;
 import org.trebol.jpa.services.conversion.ProductCategoriesConverterService;
 import org.trebol.jpa.services.conversion.ProductsConverterService;
+import org.trebol.jpa.services.CountMode;
+import org.trebol.jpa.services.ProductSearchIndexService;
 import org.trebol.jpa.services.crud.ImagesCrudService;
 import org.trebol.jpa.services.crud.ProductCategoriesCrudService;
+import org.trebol.jpa.services.impl.LookupCacheServiceImpl;
 import org.trebol.testing.ImagesTestHelper;
 import org.trebol.testing.ProductCategoriesTestHelper;
 import org.trebol.testing.ProductsTestHelper;
 
 import javax.persistence.EntityExistsException;
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Path;
+import javax.validation.Validator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.trebol.testing.TestConstants.ANY;
+import static org.trebol.testing.TestConstants.ID_1L;
 
 @ExtendWith(MockitoExtension.class)
 class ProductsCrudServiceImplTest {
@@ -59,10 +88,15 @@ class ProductsCrudServiceImplTest {
   @Mock ProductsRepository productsRepositoryMock;
   @Mock ProductsConverterService productsConverterMock;
   @Mock ProductImagesRepository productImagesRepositoryMock;
+  @Mock ProductListItemsRepository listItemsRepositoryMock;
   @Mock ImagesCrudService imagesCrudServiceMock;
   @Mock ProductCategoriesCrudService categoriesCrudServiceMock;
   @Mock ProductCategoriesConverterService categoriesConverterMock;
   @Mock ImagesConverterService imagesConverterMock;
+  @Mock Validator validatorMock;
+  @Mock ProductSearchIndexService searchIndexServiceMock;
+  @Mock ResponseCacheService responseCacheServiceMock;
+  @Spy LookupCacheServiceImpl lookupCacheService = new LookupCacheServiceImpl(mock(EntityManager.class));
   final ProductsTestHelper productsHelper = new ProductsTestHelper();
   final ProductCategoriesTestHelper categoriesHelper = new ProductCategoriesTestHelper();
   final ImagesTestHelper imagesHelper = new ImagesTestHelper();
@@ -102,6 +136,8 @@ class ProductsCrudServiceImplTest {
     ProductPojo result = instance.create(input);
 
     verify(productsRepositoryMock).saveAndFlush(inputEntity);
+    verify(searchIndexServiceMock).index(List.of(expectedResult));
+    verifyNoInteractions(validatorMock);
     assertNotNull(result);
     assertEquals(expectedResult, result);
     assertNull(result.getImages());
@@ -206,4 +242,121 @@ class ProductsCrudServiceImplTest {
     assertEquals(expectedResultCategory, result.getCategory());
     assertEquals(expectedResult, result);
   }
+
+  @Test
+  void creates_products_in_batch_linking_their_categories_and_images()
+    throws BadInputException {
+    ProductPojo input = productsHelper.productPojoBeforeCreationWithoutCategory();
+    input.setCategory(categoriesHelper.productCategoryPojoBeforeCreation());
+    input.setImages(List.of(imagesHelper.imagePojoBeforeCreation()));
+    Product inputEntity = productsHelper.productEntityBeforeCreationWithoutCategory();
+    ProductCategory categoryEntity = categoriesHelper.productCategoryEntityAfterCreation();
+    Image imageEntity = imagesHelper.imageEntityAfterCreation();
+    when(productsConverterMock.convertToNewEntity(any(ProductPojo.class))).thenReturn(inputEntity);
+    when(categoriesCrudServiceMock.getExisting(any(ProductCategoryPojo.class))).thenReturn(Optional.of(categoryEntity));
+    when(imagesCrudServiceMock.getExisting(any(ImagePojo.class))).thenReturn(Optional.of(imageEntity));
+    when(productsRepositoryMock.saveAll(List.of(inputEntity))).then(invocation -> {
+      inputEntity.setId(ID_1L);
+      return List.of(inputEntity);
+    });
+
+    BatchResultPojo result = instance.createAll(List.of(input));
+
+    assertEquals(1, result.getCreatedCount());
+    assertEquals(categoryEntity, inputEntity.getProductCategory());
+    verify(productsRepositoryMock).saveAll(List.of(inputEntity));
+    verify(productImagesRepositoryMock).saveAll(List.of(new ProductImage(inputEntity, imageEntity)));
+    verify(productsRepositoryMock).findAll(ProductsProjection.LIST_VIEW, QProduct.product.id.in(List.of(ID_1L)));
+    verify(productsRepositoryMock).flushAndClear();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void reports_invalid_products_in_batch() {
+    ProductPojo input = ProductPojo.builder().build();
+    ConstraintViolation<ProductPojo> violation = mock(ConstraintViolation.class);
+    Path path = mock(Path.class);
+    when(path.toString()).thenReturn("name");
+    when(violation.getPropertyPath()).thenReturn(path);
+    when(violation.getMessage()).thenReturn("must not be blank");
+    when(validatorMock.validate(input)).thenReturn(Set.of(violation));
+
+    BatchResultPojo result = instance.createAll(List.of(input));
+
+    assertEquals(0, result.getCreatedCount());
+    assertEquals(1, result.getFailedCount());
+    assertEquals("Invalid product: name must not be blank", result.getItems().get(0).getError());
+    verifyNoInteractions(productsConverterMock);
+  }
+
+  @Test
+  void moves_products_to_another_category_in_bulk_and_reindexes_them()
+    throws BadInputException {
+    ProductPojo input = ProductPojo.builder().category(categoriesHelper.productCategoryPojoForFetch()).build();
+    ProductCategory categoryEntity = categoriesHelper.productCategoryEntityAfterCreation();
+    Predicate filters = QProduct.product.productCategory.code.eq(ANY);
+    List<Long> ids = List.of(ID_1L);
+    List<ProductPojo> updatedProducts = List.of(productsHelper.productPojoAfterCreationWithoutCategory());
+    when(productsRepositoryMock.findAll(ProductsProjection.LIST_VIEW, QProduct.product.id.in(ids))).thenReturn(updatedProducts);
+    when(categoriesCrudServiceMock.getExisting(any(ProductCategoryPojo.class))).thenReturn(Optional.of(categoryEntity));
+    when(productsRepositoryMock.findIds(eq(filters), isNull(), anyInt())).thenReturn(ids);
+    when(productsRepositoryMock.updateByIds(ids, Map.of(QProduct.product.productCategory, categoryEntity))).thenReturn(1L);
+
+    long result = instance.updateAll(input, filters);
+
+    assertEquals(1L, result);
+    verify(searchIndexServiceMock).index(updatedProducts);
+  }
+
+  @Test
+  void does_not_update_unique_properties_of_products_in_bulk() {
+    ProductPojo input = ProductPojo.builder().barcode(ANY).build();
+    Predicate filters = QProduct.product.price.gt(0);
+
+    assertThrows(BadInputException.class, () -> instance.updateAll(input, filters));
+    verifyNoInteractions(productsRepositoryMock);
+  }
+
+  @Test
+  void deletes_products_along_with_their_images_list_items_and_search_index_entries() {
+    List<Long> ids = List.of(ID_1L);
+    when(productsRepositoryMock.findIds(any(Predicate.class), anyInt())).thenReturn(ids);
+    when(productsRepositoryMock.deleteByIds(ids)).thenReturn(1L);
+
+    long result = instance.delete(QProduct.product.barcode.eq(ANY));
+
+    assertEquals(1L, result);
+    verify(productImagesRepositoryMock).deleteWhere(QProductImage.productImage.product.id.in(ids));
+    verify(listItemsRepositoryMock).deleteWhere(QProductListItem.productListItem.product.id.in(ids));
+    verify(productsRepositoryMock).deleteByIds(ids);
+    verify(searchIndexServiceMock).remove(ids);
+  }
+
+  @Test
+  void reads_products_with_their_images_through_list_projection() {
+    ProductPojo product = ProductPojo.builder().id(ID_1L).build();
+    ImagePojo image = ImagePojo.builder().code(ANY).build();
+    Tuple imageRow = Projections.tuple(ProductsProjection.IMAGE_PRODUCT_ID, ProductsProjection.IMAGE).newInstance(ID_1L, image);
+    when(productsRepositoryMock.findPage(eq(ProductsProjection.LIST_VIEW), isNull(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(product)));
+    when(productImagesRepositoryMock.findAll(eq(ProductsProjection.IMAGES_VIEW), any(Predicate.class))).thenReturn(List.of(imageRow));
+
+    DataPagePojo<ProductPojo> result = instance.readMany(0, 10, null, null, CountMode.EXACT, null);
+
+    assertEquals(List.of(product), result.getItems());
+    assertEquals(Set.of(image), product.getImages());
+    verify(productImagesRepositoryMock).findAll(ProductsProjection.IMAGES_VIEW, ProductsProjection.IMAGE_PRODUCT_ID.in(List.of(ID_1L)));
+    verifyNoInteractions(productsConverterMock);
+  }
+
+  @Test
+  void reads_products_without_their_images_unless_requested() {
+    ProductPojo product = ProductPojo.builder().id(ID_1L).build();
+    when(productsRepositoryMock.findPage(any(ListProjection.class), isNull(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(product)));
+
+    DataPagePojo<ProductPojo> result = instance.readMany(0, 10, null, null, CountMode.EXACT, Set.of("name", "price"));
+
+    assertEquals(List.of(product), result.getItems());
+    assertNull(product.getImages());
+    verifyNoInteractions(productImagesRepositoryMock);
+  }
 }
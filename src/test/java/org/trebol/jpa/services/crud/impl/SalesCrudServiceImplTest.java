@@ -29,35 +29,53 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.trebol.api.models.AddressPojo;
+import org.trebol.api.models.BillingCompanyPojo;
 import org.trebol.api.models.CustomerPojo;
+import org.trebol.api.models.DataPagePojo;
 import org.trebol.api.models.SellDetailPojo;
+import org.trebol.api.models.SalespersonPojo;
 import org.trebol.api.models.SellPojo;
+import org.trebol.api.models.ShipperPojo;
 import org.trebol.common.exceptions.BadInputException;
+import org.trebol.jpa.ListProjection;
 import org.trebol.jpa.entities.*;
+import org.trebol.jpa.projections.SalesProjection;
 import org.trebol.jpa.repositories.AddressesRepository;
 import org.trebol.jpa.repositories.BillingTypesRepository;
 import org.trebol.jpa.repositories.ProductsRepository;
 import org.trebol.jpa.repositories.SalesRepository;
+import org.trebol.jpa.services.ChangeSet;
+import org.trebol.jpa.services.CountMode;
+import org.trebol.jpa.services.StockReservationService;
 import org.trebol.jpa.services.conversion.*;
 import org.trebol.jpa.services.crud.BillingCompaniesCrudService;
 import org.trebol.jpa.services.crud.CustomersCrudService;
+import org.trebol.jpa.services.crud.SalespeopleCrudService;
 import org.trebol.jpa.services.crud.ShippersCrudService;
 import org.trebol.jpa.services.patch.SalesPatchService;
 import org.trebol.testing.CustomersTestHelper;
 import org.trebol.testing.ProductsTestHelper;
 import org.trebol.testing.SalesTestHelper;
+import org.trebol.testing.SalespeopleTestHelper;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.AdditionalMatchers.not;
 import static org.mockito.Mockito.*;
+import static org.trebol.config.Constants.BILLING_TYPE_ENTERPRISE;
+import static org.trebol.testing.SalesTestHelper.SELL_STATUS_CODE;
 import static org.trebol.testing.TestConstants.ANY;
 
 @ExtendWith(MockitoExtension.class)
@@ -76,15 +94,19 @@ class SalesCrudServiceImplTest {
   @Mock AddressesRepository addressesRepositoryMock;
   @Mock ShippersCrudService shippersCrudServiceMock;
   @Mock AddressesConverterService addressesConverterServiceMock;
+  @Mock SalespeopleCrudService salespeopleCrudServiceMock;
+  @Mock StockReservationService stockReservationServiceMock;
   final ProductsTestHelper productsHelper = new ProductsTestHelper();
   final SalesTestHelper salesHelper = new SalesTestHelper();
   final CustomersTestHelper customersHelper = new CustomersTestHelper();
+  final SalespeopleTestHelper salespeopleHelper = new SalespeopleTestHelper();
 
   @BeforeEach
   void beforeEach() {
     productsHelper.resetProducts();
     salesHelper.resetSales();
     customersHelper.resetCustomers();
+    salespeopleHelper.resetSalespeople();
   }
 
   @Test
@@ -185,6 +207,31 @@ class SalesCrudServiceImplTest {
 
     assertNotNull(result);
     assertEquals(expectedResult, result);
+    verify(stockReservationServiceMock).reserve(argThat(details -> details.size() == 1));
+  }
+
+  @Test
+  void does_not_create_sales_of_products_out_of_stock()
+    throws BadInputException {
+    SellPojo input = SellPojo.builder()
+      .customer(customersHelper.customerPojoBeforeCreation())
+      .billingType(ANY)
+      .billingAddress(AddressPojo.builder().build())
+      .details(List.of(
+        SellDetailPojo.builder()
+          .units(1)
+          .product(productsHelper.productPojoBeforeCreationWithoutCategory())
+          .build()
+      ))
+      .build();
+    when(salesConverterMock.convertToNewEntity(any(SellPojo.class))).thenReturn(new Sell());
+    when(customersCrudServiceMock.getExisting(any(CustomerPojo.class))).thenReturn(Optional.empty());
+    when(billingTypesRepositoryMock.findByName(anyString())).thenReturn(Optional.of(new BillingType()));
+    when(productsRepositoryMock.findByBarcode(anyString())).thenReturn(Optional.of(new Product()));
+    doThrow(BadInputException.class).when(stockReservationServiceMock).reserve(anyCollection());
+
+    assertThrows(BadInputException.class, () -> instance.create(input));
+    verify(salesRepositoryMock, never()).saveAndFlush(any());
   }
 
   @Test
@@ -193,11 +240,12 @@ class SalesCrudServiceImplTest {
     SellPojo input = salesHelper.sellPojoAfterCreation();
     Instant updatedDate = Instant.now().minus(Duration.ofHours(1L));
     input.setDate(updatedDate);
-    Sell internalResult = new Sell(salesHelper.sellEntityAfterCreation());
-    internalResult.setDate(updatedDate);
-    when(salesRepositoryMock.findOne(any(Predicate.class))).thenReturn(Optional.of(salesHelper.sellEntityAfterCreation()));
-    when(salesPatchServiceMock.patchExistingEntity(any(SellPojo.class), any(Sell.class))).thenReturn(internalResult);
-    when(salesRepositoryMock.saveAndFlush(any(Sell.class))).thenReturn(internalResult);
+    Sell matchingEntity = salesHelper.sellEntityAfterCreation();
+    ChangeSet changes = new ChangeSet();
+    changes.set("date", updatedDate, matchingEntity::getDate, matchingEntity::setDate);
+    when(salesRepositoryMock.findOne(any(Predicate.class))).thenReturn(Optional.of(matchingEntity));
+    when(salesPatchServiceMock.patchExistingEntity(any(SellPojo.class), any(Sell.class))).thenReturn(changes);
+    when(salesRepositoryMock.saveAndFlush(any(Sell.class))).thenReturn(matchingEntity);
     when(salesConverterMock.convertToPojo(any(Sell.class))).thenReturn(input);
 
     SellPojo result = instance.update(input, new BooleanBuilder());
@@ -212,11 +260,12 @@ class SalesCrudServiceImplTest {
     SellPojo input = salesHelper.sellPojoAfterCreation();
     Sell matchingEntity = salesHelper.sellEntityAfterCreation();
     when(salesRepositoryMock.findOne(any(Predicate.class))).thenReturn(Optional.of(matchingEntity));
-    when(salesPatchServiceMock.patchExistingEntity(any(SellPojo.class), any(Sell.class))).thenReturn(matchingEntity);
+    when(salesPatchServiceMock.patchExistingEntity(any(SellPojo.class), any(Sell.class))).thenReturn(new ChangeSet());
 
     SellPojo result = instance.update(input, new BooleanBuilder());
 
     verify(salesPatchServiceMock).patchExistingEntity(input, matchingEntity);
+    verify(salesRepositoryMock, never()).saveAndFlush(any(Sell.class));
     assertEquals(input, result);
   }
 
@@ -226,4 +275,57 @@ class SalesCrudServiceImplTest {
     when(salesRepositoryMock.findOne(any(Predicate.class))).thenReturn(Optional.empty());
     assertThrows(EntityNotFoundException.class, () -> instance.readOne(anyPredicate));
   }
+
+  @Test
+  void reassigns_salesperson_of_sales_in_bulk()
+    throws BadInputException {
+    SellPojo input = SellPojo.builder().salesperson(salespeopleHelper.salespersonPojoForFetch()).build();
+    Salesperson salesperson = salespeopleHelper.salespersonEntityAfterCreation();
+    Predicate filters = QSell.sell.status.code.eq(SELL_STATUS_CODE);
+    List<Long> ids = List.of(1L, 2L);
+    when(salespeopleCrudServiceMock.getExisting(any(SalespersonPojo.class))).thenReturn(Optional.of(salesperson));
+    when(salesRepositoryMock.findIds(filters, null, 500)).thenReturn(ids);
+    when(salesRepositoryMock.updateByIds(ids, Map.of(QSell.sell.salesperson, salesperson))).thenReturn(2L);
+
+    long result = instance.updateAll(input, filters);
+
+    assertEquals(2L, result);
+  }
+
+  @Test
+  void does_not_reassign_sales_in_bulk_to_nonexistent_shippers()
+    throws BadInputException {
+    SellPojo input = SellPojo.builder().shipper(ShipperPojo.builder().name(ANY).build()).build();
+    BooleanBuilder filters = new BooleanBuilder();
+    when(shippersCrudServiceMock.getExisting(any(ShipperPojo.class))).thenReturn(Optional.empty());
+
+    assertThrows(BadInputException.class, () -> instance.updateAll(input, filters));
+    verify(salesRepositoryMock, never()).updateByIds(anyCollection(), anyMap());
+  }
+
+  @Test
+  void reads_sales_through_list_projection() {
+    SellPojo sell = SellPojo.builder()
+      .buyOrder(1L)
+      .billingType(BILLING_TYPE_ENTERPRISE)
+      .billingCompany(BillingCompanyPojo.builder().name(ANY).build())
+      .build();
+    when(salesRepositoryMock.findSlice(eq(SalesProjection.LIST_VIEW), isNull(), any(Pageable.class)))
+      .thenReturn(new SliceImpl<>(List.of(sell)));
+
+    DataPagePojo<SellPojo> result = instance.readMany(0, 10, null, null, CountMode.NONE, null);
+
+    assertEquals(List.of(sell), result.getItems());
+    verifyNoInteractions(salesConverterMock);
+  }
+
+  @Test
+  void reads_only_requested_fields_of_sales() {
+    when(salesRepositoryMock.findSlice(any(ListProjection.class), isNull(), any(Pageable.class)))
+      .thenReturn(new SliceImpl<>(List.of()));
+
+    instance.readMany(0, 10, null, null, CountMode.NONE, Set.of("buyOrder", "date"));
+
+    verify(salesRepositoryMock).findSlice(not(eq(SalesProjection.LIST_VIEW)), isNull(), any(Pageable.class));
+  }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.trebol.api.models.ImagePojo;
+import org.trebol.jpa.entities.Image;
+
+import javax.persistence.EntityManager;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.trebol.testing.TestConstants.ANY;
+import static org.trebol.testing.TestConstants.ID_1L;
+
+@ExtendWith(MockitoExtension.class)
+class LookupCacheServiceImplTest {
+  @InjectMocks LookupCacheServiceImpl instance;
+  @Mock(answer = Answers.RETURNS_DEEP_STUBS) EntityManager entityManagerMock;
+  final Image image = Image.builder().id(ID_1L).filename(ANY).build();
+  final AtomicInteger finderCalls = new AtomicInteger();
+  final Supplier<Optional<Image>> finder = () -> {
+    finderCalls.incrementAndGet();
+    return Optional.of(image);
+  };
+
+  @BeforeEach
+  void beforeEach() {
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+  }
+
+  @AfterEach
+  void afterEach() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  void remembers_entities_found_during_a_request() {
+    assertEquals(Optional.of(image), instance.lookup(Image.class, "filename", ANY, finder));
+    assertEquals(Optional.of(image), instance.lookup(Image.class, "filename", ANY, finder));
+    assertEquals(1, finderCalls.get());
+    assertEquals(1, instance.getHitCount());
+    assertEquals(1, instance.getMissCount());
+
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    instance.lookup(Image.class, "filename", ANY, finder);
+    assertEquals(2, finderCalls.get());
+  }
+
+  @Test
+  void does_not_remember_anything_outside_of_requests_nor_missing_entities() {
+    RequestContextHolder.resetRequestAttributes();
+    instance.lookup(Image.class, "filename", ANY, finder);
+    instance.lookup(Image.class, "filename", ANY, finder);
+    assertEquals(2, finderCalls.get());
+
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    instance.lookup(Image.class, "filename", ANY, Optional::empty);
+    assertTrue(instance.lookup(Image.class, "filename", ANY, finder).isPresent());
+    assertEquals(3, finderCalls.get());
+  }
+
+  @Test
+  void reuses_conversions_during_a_request() {
+    AtomicInteger conversions = new AtomicInteger();
+    Supplier<ImagePojo> converter = () -> {
+      conversions.incrementAndGet();
+      return ImagePojo.builder().id(ID_1L).build();
+    };
+    ImagePojo first = instance.convert(Image.class, ID_1L, ImagePojo.class, converter);
+    ImagePojo second = instance.convert(Image.class, ID_1L, ImagePojo.class, converter);
+    instance.convert(Image.class, null, ImagePojo.class, converter);
+    assertSame(first, second);
+    assertEquals(2, conversions.get());
+  }
+
+  @Test
+  void forgets_everything_when_data_is_updated_or_deleted() {
+    LookupCacheServiceImpl.InvalidatingStatementInspector inspector = new LookupCacheServiceImpl.InvalidatingStatementInspector();
+    instance.lookup(Image.class, "filename", ANY, finder);
+    inspector.inspect("select image_id from images");
+    instance.lookup(Image.class, "filename", ANY, finder);
+    assertEquals(1, finderCalls.get());
+    inspector.inspect(" UPDATE images set image_url=? where image_id=?");
+    instance.lookup(Image.class, "filename", ANY, finder);
+    assertEquals(2, finderCalls.get());
+  }
+
+  @Test
+  void hands_out_references_to_entities_remembered_from_another_transaction() {
+    Image reference = Image.builder().id(ID_1L).build();
+    instance.lookup(Image.class, "filename", ANY, finder);
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    try {
+      when(entityManagerMock.contains(image)).thenReturn(false);
+      when(entityManagerMock.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(image)).thenReturn(ID_1L);
+      when(entityManagerMock.getReference(Image.class, ID_1L)).thenReturn(reference);
+      assertEquals(Optional.of(reference), instance.lookup(Image.class, "filename", ANY, finder));
+    } finally {
+      TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+  }
+}
@@ -23,16 +23,19 @@ package org.trebol.jpa.services.impl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.trebol.config.ApiProperties;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.trebol.jpa.entities.ProductCategory;
 import org.trebol.jpa.repositories.ProductsCategoriesRepository;
+import org.trebol.jpa.services.ProductCategoryTree;
 
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -43,9 +46,8 @@ import static org.trebol.testing.TestConstants.ANY;
 class ProductCategoryTreeResolverServiceImplTest {
   @InjectMocks ProductCategoryTreeResolverServiceImpl instance;
   @Mock ProductsCategoriesRepository repositoryMock;
-  @Mock ApiProperties apiPropertiesMock;
+  @Mock PlatformTransactionManager transactionManagerMock;
   List<ProductCategory> descendants;
-  List<Long> descendantIds;
   ProductCategory root;
 
   @BeforeEach
@@ -62,61 +64,125 @@ class ProductCategoryTreeResolverServiceImplTest {
         .code(ANY)
         .name(ANY)
         .parent(root)
+        .path("/1/")
         .build()
     );
-    descendantIds = descendants.stream()
-      .map(ProductCategory::getId)
-      .collect(Collectors.toList());
   }
 
   @Test
-  void collects_all_descendants_until_max_depth_is_reached() {
-    when(apiPropertiesMock.getMaxCategoryFetchingRecursionDepth()).thenReturn(4);
-    when(repositoryMock.findByParent(any(ProductCategory.class))).thenReturn(descendants);
+  void collects_all_descendants_by_the_path_of_the_root() {
+    when(repositoryMock.findByPathStartingWith(anyString())).thenReturn(descendants);
 
     List<ProductCategory> result = instance.getBranchesFromRoot(root);
 
-    assertNotNull(result);
-    assertFalse(result.isEmpty());
-    assertEquals(5, result.size()); // immediate descendant of root plus four more branches from the tree
-    assertEquals(result.get(2), result.get(1));
+    verify(repositoryMock).findByPathStartingWith("/1/");
+    assertEquals(descendants, result);
   }
 
   @Test
-  void given_an_id_collects_all_ids_of_its_descendants_until_max_depth_is_reached() {
-    when(apiPropertiesMock.getMaxCategoryFetchingRecursionDepth()).thenReturn(1);
-    when(repositoryMock.findIdsByParentId(anyLong())).thenReturn(descendantIds);
+  void given_an_id_collects_all_ids_of_its_descendants() {
+    when(repositoryMock.findAll()).thenReturn(List.of(root, descendants.get(0)));
 
     List<Long> result = instance.getBranchIdsFromRootId(root.getId());
 
-    assertNotNull(result);
-    assertFalse(result.isEmpty());
-    assertEquals(2, result.size()); // immediate descendant of root and another of its own
+    assertEquals(List.of(2L), result);
   }
 
   @Test
-  void given_a_code_collects_all_ids_of_its_descendants_until_max_depth_is_reached() {
-    when(apiPropertiesMock.getMaxCategoryFetchingRecursionDepth()).thenReturn(0);
-    when(repositoryMock.findByCode(anyString())).thenReturn(Optional.of(root));
-    when(repositoryMock.findIdsByParentId(anyLong())).thenReturn(descendantIds);
+  void given_a_code_collects_all_ids_of_its_descendants() {
+    when(repositoryMock.findAll()).thenReturn(List.of(root, descendants.get(0)));
 
     List<Long> result = instance.getBranchIdsFromRootCode(root.getCode());
 
-    verify(repositoryMock).findIdsByParentId(root.getId());
-    assertNotNull(result);
-    assertFalse(result.isEmpty());
-    assertEquals(1, result.size()); // just the immediate descendant of root
+    assertEquals(List.of(2L), result);
   }
 
   @Test
-  void short_circuits_when_root_by_code_does_not_exist() {
-    when(repositoryMock.findByCode(anyString())).thenReturn(Optional.empty());
+  void collects_no_ids_when_root_does_not_exist() {
+    when(repositoryMock.findAll()).thenReturn(List.of(root, descendants.get(0)));
 
-    List<Long> result = instance.getBranchIdsFromRootCode(root.getCode());
+    assertTrue(instance.getBranchIdsFromRootCode("missing").isEmpty());
+    assertTrue(instance.getBranchIdsFromRootId(99L).isEmpty());
+  }
+
+  @Test
+  void builds_the_tree_only_once_until_refreshed() {
+    when(repositoryMock.findAll()).thenReturn(List.of(root));
+
+    ProductCategoryTree first = instance.getTree();
+    ProductCategoryTree second = instance.getTree();
+
+    verify(repositoryMock, times(1)).findAll();
+    assertSame(first, second);
+  }
+
+  @Test
+  void rebuilds_the_tree_after_being_refreshed() {
+    when(repositoryMock.findAll()).thenReturn(List.of(root)).thenReturn(List.of(root, descendants.get(0)));
+
+    ProductCategoryTree first = instance.getTree();
+    instance.refreshTree();
+    ProductCategoryTree second = instance.getTree();
+
+    verify(repositoryMock, times(2)).findAll();
+    assertNotSame(first, second);
+    assertTrue(second.getVersion() > first.getVersion());
+    assertEquals(2, second.size());
+  }
+
+  @Test
+  void reads_the_tree_in_a_new_read_write_transaction() {
+    when(repositoryMock.findAll()).thenReturn(List.of(root));
+
+    instance.getTree();
+
+    ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+    verify(transactionManagerMock).getTransaction(definition.capture());
+    assertFalse(definition.getValue().isReadOnly());
+    assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+  }
+
+  @Test
+  void rebuilds_the_tree_as_soon_as_the_transaction_commits() {
+    when(repositoryMock.findAll()).thenReturn(List.of(root)).thenReturn(List.of(root, descendants.get(0)));
+    ProductCategoryTree first = instance.getTree();
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      instance.refreshTree();
+      verify(repositoryMock, times(1)).findAll();
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    verify(repositoryMock, times(2)).findAll();
+    ProductCategoryTree second = instance.getTree();
+    verify(repositoryMock, times(2)).findAll();
+    assertTrue(second.getVersion() > first.getVersion());
+    assertEquals(2, second.size());
+  }
+
+  @Test
+  void fills_paths_of_categories_that_are_missing_them() {
+    ProductCategory child = ProductCategory.builder().id(2L).code("child").name(ANY).parent(root).build();
+    ProductCategory grandchild = ProductCategory.builder().id(3L).code("grandchild").name(ANY).parent(child).build();
+    when(repositoryMock.existsWithMissingPath()).thenReturn(true);
+    when(repositoryMock.findAll()).thenReturn(List.of(grandchild, root, child));
+
+    instance.fillMissingPaths();
+
+    assertEquals("/", root.getPath());
+    assertEquals("/1/", child.getPath());
+    assertEquals("/1/2/", grandchild.getPath());
+  }
+
+  @Test
+  void does_not_fill_paths_when_none_are_missing() {
+    when(repositoryMock.existsWithMissingPath()).thenReturn(false);
+
+    instance.fillMissingPaths();
 
-    verify(apiPropertiesMock, times(0)).getMaxCategoryFetchingRecursionDepth();
-    verify(repositoryMock, times(0)).findIdsByParentId(anyLong());
-    assertNotNull(result);
-    assertTrue(result.isEmpty());
+    verify(repositoryMock, never()).findAll();
   }
 }
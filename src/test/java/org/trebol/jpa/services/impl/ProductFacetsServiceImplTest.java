@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services.impl;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.Expressions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.trebol.api.models.ProductFacetsPojo;
+import org.trebol.api.models.ProductPriceRangePojo;
+import org.trebol.common.exceptions.BadInputException;
+import org.trebol.config.ApiProperties;
+import org.trebol.jpa.entities.ProductCategory;
+import org.trebol.jpa.entities.QProduct;
+import org.trebol.jpa.repositories.ProductsRepository;
+import org.trebol.jpa.services.ProductCategoryTree;
+import org.trebol.jpa.services.ProductCategoryTreeResolverService;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductFacetsServiceImplTest {
+  @InjectMocks ProductFacetsServiceImpl instance;
+  @Mock ProductsRepository productsRepositoryMock;
+  @Mock ProductCategoryTreeResolverService categoryTreeResolverMock;
+  @Mock ApiProperties apiPropertiesMock;
+
+  @Test
+  void counts_products_by_category_subtree_price_range_and_stock_in_a_single_query() throws BadInputException {
+    Predicate filters = QProduct.product.name.eq("test");
+    when(productsRepositoryMock.aggregate(eq(filters), any(), any())).thenReturn(prices(500, 3999));
+    when(apiPropertiesMock.getProductFacetsMaxPriceRanges()).thenReturn(4);
+    when(productsRepositoryMock.countGroups(eq(filters), any(), any(), any())).thenReturn(List.of(
+      group(2L, 0, 1, 3L),
+      group(2L, 1, 0, 1L),
+      group(1L, 1, 1, 2L),
+      group(null, 3, 0, 4L)
+    ));
+    when(categoryTreeResolverMock.getTree()).thenReturn(new ProductCategoryTree(1L, List.of(
+      ProductCategory.builder().id(1L).code("parent").name("Parent").path("/").build(),
+      ProductCategory.builder().id(2L).code("child").name("Child").path("/1/").build()
+    )));
+
+    ProductFacetsPojo result = instance.readFacets(filters, 1000);
+
+    assertEquals(10L, result.getTotal());
+    assertEquals(Map.of("parent", 6L, "child", 4L), result.getCategories());
+    assertEquals(4L, result.getUncategorized());
+    assertEquals(List.of(
+      ProductPriceRangePojo.builder().from(0).to(1000).count(3L).build(),
+      ProductPriceRangePojo.builder().from(1000).to(2000).count(3L).build(),
+      ProductPriceRangePojo.builder().from(3000).to(4000).count(4L).build()
+    ), result.getPrices());
+    assertEquals(5L, result.getInStock());
+    assertEquals(5L, result.getOutOfStock());
+  }
+
+  @Test
+  void does_not_count_products_when_the_price_step_is_not_positive() {
+    assertThrows(BadInputException.class, () -> instance.readFacets(null, 0));
+    verifyNoInteractions(productsRepositoryMock);
+  }
+
+  @Test
+  void does_not_count_products_when_the_price_step_makes_too_many_price_ranges() {
+    when(productsRepositoryMock.aggregate(isNull(), any(), any())).thenReturn(prices(500, 4000));
+    when(apiPropertiesMock.getProductFacetsMaxPriceRanges()).thenReturn(4);
+
+    assertThrows(BadInputException.class, () -> instance.readFacets(null, 1000));
+    verify(productsRepositoryMock).aggregate(isNull(), any(), any());
+    verifyNoMoreInteractions(productsRepositoryMock);
+  }
+
+  @Test
+  void counts_products_by_any_price_step_when_none_match() throws BadInputException {
+    when(productsRepositoryMock.aggregate(isNull(), any(), any())).thenReturn(prices(null, null));
+    when(categoryTreeResolverMock.getTree()).thenReturn(new ProductCategoryTree(1L, List.of()));
+
+    ProductFacetsPojo result = instance.readFacets(null, 1);
+
+    assertEquals(0L, result.getTotal());
+    assertEquals(List.of(), result.getPrices());
+  }
+
+  private static Tuple prices(Integer lowest, Integer highest) {
+    return Projections.tuple(Expressions.constant(0), Expressions.constant(0))
+      .newInstance(lowest, highest);
+  }
+
+  private static Tuple group(Long categoryId, int priceRange, int inStock, long count) {
+    return Projections.tuple(Expressions.constant(0), Expressions.constant(0), Expressions.constant(0),
+        Expressions.constant(0))
+      .newInstance(categoryId, priceRange, inStock, count);
+  }
+}
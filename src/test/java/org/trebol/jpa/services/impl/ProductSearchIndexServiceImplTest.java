@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services.impl;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.trebol.api.models.ProductCategoryPojo;
+import org.trebol.api.models.ProductPojo;
+import org.trebol.config.ApiProperties;
+import org.trebol.jpa.projections.ProductsProjection;
+import org.trebol.jpa.repositories.ProductsRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexServiceImplTest {
+  ProductSearchIndexServiceImpl instance;
+  @Mock ProductsRepository productsRepositoryMock;
+  @Mock ApiProperties apiPropertiesMock;
+  final ProductPojo coffee = ProductPojo.builder()
+    .id(1L)
+    .name("Café Orgánico")
+    .barcode("CAF-0001")
+    .description("Whole beans, medium roast")
+    .category(ProductCategoryPojo.builder().code("drinks").build())
+    .build();
+  final ProductPojo tea = ProductPojo.builder()
+    .id(2L)
+    .name("Green tea")
+    .barcode("TEA-0002")
+    .description("Goes well with coffee cake")
+    .build();
+
+  @BeforeEach
+  void beforeEach() throws IOException {
+    when(apiPropertiesMock.getProductSearchMaxResults()).thenReturn(10);
+    instance = new ProductSearchIndexServiceImpl(productsRepositoryMock, apiPropertiesMock);
+  }
+
+  @AfterEach
+  void afterEach() throws IOException {
+    instance.destroy();
+  }
+
+  @Test
+  void finds_products_by_words_regardless_of_case_and_accents() {
+    instance.index(List.of(coffee, tea));
+
+    assertEquals(List.of(1L), instance.search("CAFE organico"));
+    assertEquals(List.of(2L), instance.search("green"));
+  }
+
+  @Test
+  void finds_products_while_the_last_word_is_still_being_typed() {
+    instance.index(List.of(coffee, tea));
+
+    assertEquals(List.of(1L), instance.search("café orgá"));
+  }
+
+  @Test
+  void ranks_matches_in_names_above_matches_in_descriptions() {
+    ProductPojo cake = ProductPojo.builder().id(3L).name("Coffee cake").barcode("CAK-0003").build();
+    instance.index(List.of(tea, cake));
+
+    assertEquals(List.of(3L, 2L), instance.search("coffee"));
+  }
+
+  @Test
+  void finds_products_by_the_beginning_of_their_barcode() {
+    instance.index(List.of(coffee, tea));
+
+    assertEquals(List.of(2L), instance.search("tea-0"));
+    assertEquals(List.of(1L), instance.search("caf-0001"));
+  }
+
+  @Test
+  void replaces_and_removes_products() {
+    instance.index(List.of(coffee, tea));
+    ProductPojo renamedTea = ProductPojo.builder().id(2L).name("Black tea").barcode("TEA-0002").build();
+
+    instance.index(List.of(renamedTea));
+    assertTrue(instance.search("green").isEmpty());
+    assertEquals(List.of(2L), instance.search("black"));
+
+    instance.remove(List.of(2L));
+    assertTrue(instance.search("black").isEmpty());
+  }
+
+  @Test
+  void applies_changes_only_after_the_transaction_commits() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      instance.index(List.of(coffee));
+      assertTrue(instance.search("cafe").isEmpty());
+
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+      assertEquals(List.of(1L), instance.search("cafe"));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void rebuilds_from_all_products_in_the_database() {
+    instance.index(List.of(tea));
+    doAnswer(invocation -> {
+      invocation.getArgument(4, Consumer.class).accept(List.of(coffee));
+      return null;
+    }).when(productsRepositoryMock).scrollAll(eq(ProductsProjection.LIST_VIEW), isNull(), any(), anyInt(), any(Consumer.class));
+
+    instance.rebuild();
+
+    assertTrue(instance.search("tea").isEmpty());
+    assertEquals(List.of(1L), instance.search("cafe"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void keeps_previous_contents_when_rebuild_fails() {
+    instance.index(List.of(tea));
+    doAnswer(invocation -> {
+      invocation.getArgument(4, Consumer.class).accept(List.of(coffee));
+      throw new IllegalStateException("connection lost");
+    }).when(productsRepositoryMock).scrollAll(eq(ProductsProjection.LIST_VIEW), isNull(), any(), anyInt(), any(Consumer.class));
+
+    assertThrows(IllegalStateException.class, () -> instance.rebuild());
+    instance.remove(List.of(3L));
+
+    assertEquals(List.of(2L), instance.search("tea"));
+    assertTrue(instance.search("cafe").isEmpty());
+  }
+
+  @Test
+  void keeps_changes_on_disk_after_shutdown(@TempDir Path indexPath) throws IOException {
+    when(apiPropertiesMock.getProductSearchIndexPath()).thenReturn(indexPath.toString());
+    ProductSearchIndexServiceImpl onDisk = new ProductSearchIndexServiceImpl(productsRepositoryMock, apiPropertiesMock);
+    onDisk.index(List.of(coffee));
+    onDisk.destroy();
+
+    ProductSearchIndexServiceImpl reopened = new ProductSearchIndexServiceImpl(productsRepositoryMock, apiPropertiesMock);
+    try {
+      assertEquals(List.of(1L), reopened.search("cafe"));
+    } finally {
+      reopened.destroy();
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void does_not_rebuild_indexes_that_were_closed_cleanly(@TempDir Path indexPath) throws IOException {
+    when(apiPropertiesMock.getProductSearchIndexPath()).thenReturn(indexPath.toString());
+    ProductSearchIndexServiceImpl onDisk = new ProductSearchIndexServiceImpl(productsRepositoryMock, apiPropertiesMock);
+    onDisk.index(List.of(coffee));
+    onDisk.destroy();
+
+    ProductSearchIndexServiceImpl reopened = new ProductSearchIndexServiceImpl(productsRepositoryMock, apiPropertiesMock);
+    try {
+      reopened.initialize();
+
+      verify(productsRepositoryMock, never()).scrollAll(any(), any(), any(), anyInt(), any(Consumer.class));
+      assertEquals(List.of(1L), reopened.search("cafe"));
+      try (Directory directory = FSDirectory.open(indexPath)) {
+        assertTrue(SegmentInfos.readLatestCommit(directory).getUserData().isEmpty());
+      }
+    } finally {
+      reopened.destroy();
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void rebuilds_indexes_left_behind_by_a_crash(@TempDir Path indexPath) throws IOException {
+    when(apiPropertiesMock.getProductSearchIndexPath()).thenReturn(indexPath.toString());
+    try (Directory directory = FSDirectory.open(indexPath);
+         IndexWriter crashedWriter = new IndexWriter(directory, new IndexWriterConfig())) {
+      Document staleDocument = new Document();
+      staleDocument.add(new StringField(ProductSearchIndexServiceImpl.ID_FIELD, "2", Field.Store.YES));
+      crashedWriter.addDocument(staleDocument);
+    }
+    doAnswer(invocation -> {
+      invocation.getArgument(4, Consumer.class).accept(List.of(coffee));
+      return null;
+    }).when(productsRepositoryMock).scrollAll(eq(ProductsProjection.LIST_VIEW), isNull(), any(), anyInt(), any(Consumer.class));
+
+    ProductSearchIndexServiceImpl reopened = new ProductSearchIndexServiceImpl(productsRepositoryMock, apiPropertiesMock);
+    try {
+      reopened.initialize();
+
+      assertEquals(List.of(1L), reopened.search("cafe"));
+      assertEquals(List.of(1L), reopened.search("caf"));
+    } finally {
+      reopened.destroy();
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.trebol.jpa.entities.SellStatus;
+import org.trebol.jpa.repositories.SellStatusesRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.trebol.config.Constants.*;
+
+@ExtendWith(MockitoExtension.class)
+class SellStatusesRegistryServiceImplTest {
+  @InjectMocks SellStatusesRegistryServiceImpl instance;
+  @Mock SellStatusesRepository statusesRepositoryMock;
+  final SellStatus pending = SellStatus.builder().id(1L).code(SELL_STATUS_PENDING_CODE).name(SELL_STATUS_PENDING).build();
+  final SellStatus started = SellStatus.builder().id(2L).code(SELL_STATUS_PAYMENT_STARTED_CODE).name(SELL_STATUS_PAYMENT_STARTED).build();
+
+  @Test
+  void serves_statuses_from_memory_after_loading_them() {
+    when(statusesRepositoryMock.findAll()).thenReturn(List.of(pending, started));
+    instance.reload();
+
+    assertSame(pending, instance.getByCode(SELL_STATUS_PENDING_CODE));
+    assertSame(started, instance.getByCode(SELL_STATUS_PAYMENT_STARTED_CODE));
+    assertSame(pending, instance.getByCode(SELL_STATUS_PENDING_CODE));
+    verify(statusesRepositoryMock, times(1)).findAll();
+  }
+
+  @Test
+  void reloads_once_when_a_code_is_missing() {
+    when(statusesRepositoryMock.findAll()).thenReturn(List.of(pending), List.of(pending, started));
+    instance.reload();
+
+    assertSame(started, instance.getByCode(SELL_STATUS_PAYMENT_STARTED_CODE));
+    verify(statusesRepositoryMock, times(2)).findAll();
+  }
+
+  @Test
+  void throws_IllegalStateException_when_a_code_is_missing_after_reloading() {
+    when(statusesRepositoryMock.findAll()).thenReturn(List.of(pending));
+
+    assertThrows(IllegalStateException.class, () -> instance.getByCode(SELL_STATUS_COMPLETED_CODE));
+    verify(statusesRepositoryMock, times(1)).findAll();
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.jpa.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.trebol.common.exceptions.BadInputException;
+import org.trebol.config.ApiProperties;
+import org.trebol.jpa.entities.Product;
+import org.trebol.jpa.entities.Sell;
+import org.trebol.jpa.entities.SellDetail;
+import org.trebol.jpa.entities.SellStatus;
+import org.trebol.jpa.repositories.ProductsRepository;
+import org.trebol.jpa.repositories.SalesRepository;
+import org.trebol.jpa.services.SellStatusesRegistryService;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.trebol.config.Constants.SELL_STATUS_PAYMENT_CANCELLED_CODE;
+import static org.trebol.config.Constants.SELL_STATUS_PAYMENT_STARTED_CODE;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceImplTest {
+  @InjectMocks StockReservationServiceImpl instance;
+  @Mock ProductsRepository productsRepositoryMock;
+  @Mock SalesRepository salesRepositoryMock;
+  @Mock SellStatusesRegistryService statusesRegistryServiceMock;
+  @Mock ApiProperties apiPropertiesMock;
+  @Mock PlatformTransactionManager transactionManagerMock;
+  final Product firstProduct = Product.builder().id(1L).barcode("first").build();
+  final Product secondProduct = Product.builder().id(2L).barcode("second").build();
+  final List<SellDetail> details = List.of(
+    SellDetail.builder().product(secondProduct).units(2).build(),
+    SellDetail.builder().product(firstProduct).units(1).build(),
+    SellDetail.builder().product(secondProduct).units(1).build());
+
+  @Test
+  void takes_the_stock_of_each_product_once_in_order_of_identifiers() throws BadInputException {
+    when(productsRepositoryMock.takeStock(anyLong(), anyInt())).thenReturn(1);
+
+    instance.reserve(details);
+
+    InOrder inOrder = inOrder(productsRepositoryMock);
+    inOrder.verify(productsRepositoryMock).takeStock(1L, 1);
+    inOrder.verify(productsRepositoryMock).takeStock(2L, 3);
+    verify(productsRepositoryMock, never()).returnStock(anyLong(), anyInt());
+  }
+
+  @Test
+  void puts_back_the_stock_already_taken_when_a_product_does_not_have_enough() {
+    when(productsRepositoryMock.takeStock(1L, 1)).thenReturn(1);
+    when(productsRepositoryMock.takeStock(2L, 3)).thenReturn(0);
+
+    BadInputException exception = assertThrows(BadInputException.class, () -> instance.reserve(details));
+
+    assertTrue(exception.getMessage().contains("second"));
+    verify(productsRepositoryMock).returnStock(1L, 1);
+    verify(productsRepositoryMock, never()).returnStock(eq(2L), anyInt());
+  }
+
+  @Test
+  void puts_back_the_stock_of_each_product() {
+    instance.release(details);
+
+    verify(productsRepositoryMock).returnStock(1L, 1);
+    verify(productsRepositoryMock).returnStock(2L, 3);
+  }
+
+  @Test
+  void aborts_expired_sales_and_releases_their_stock() {
+    SellStatus startedStatus = SellStatus.builder().code(SELL_STATUS_PAYMENT_STARTED_CODE).build();
+    SellStatus abortedStatus = SellStatus.builder().code(SELL_STATUS_PAYMENT_CANCELLED_CODE).build();
+    Sell expiredSell = Sell.builder().id(5L).status(startedStatus).details(details).build();
+    when(apiPropertiesMock.getStockReservationTimeToLiveMinutes()).thenReturn(30);
+    when(salesRepositoryMock.findIds(any(), isNull(), anyInt())).thenReturn(List.of(5L));
+    when(salesRepositoryMock.findByIdWithDetails(5L)).thenReturn(Optional.of(expiredSell));
+    when(statusesRegistryServiceMock.getByCode(SELL_STATUS_PAYMENT_CANCELLED_CODE)).thenReturn(abortedStatus);
+    when(salesRepositoryMock.setStatus(5L, startedStatus, abortedStatus)).thenReturn(1);
+
+    assertEquals(1, instance.releaseExpired());
+    verify(productsRepositoryMock).returnStock(1L, 1);
+    verify(productsRepositoryMock).returnStock(2L, 3);
+  }
+
+  @Test
+  void does_not_release_the_stock_of_sales_whose_status_changed_meanwhile() {
+    SellStatus startedStatus = SellStatus.builder().code(SELL_STATUS_PAYMENT_STARTED_CODE).build();
+    SellStatus abortedStatus = SellStatus.builder().code(SELL_STATUS_PAYMENT_CANCELLED_CODE).build();
+    Sell expiredSell = Sell.builder().id(5L).status(startedStatus).details(details).build();
+    when(apiPropertiesMock.getStockReservationTimeToLiveMinutes()).thenReturn(30);
+    when(salesRepositoryMock.findIds(any(), isNull(), anyInt())).thenReturn(List.of(5L));
+    when(salesRepositoryMock.findByIdWithDetails(5L)).thenReturn(Optional.of(expiredSell));
+    when(statusesRegistryServiceMock.getByCode(SELL_STATUS_PAYMENT_CANCELLED_CODE)).thenReturn(abortedStatus);
+    when(salesRepositoryMock.setStatus(5L, startedStatus, abortedStatus)).thenReturn(0);
+
+    assertEquals(0, instance.releaseExpired());
+    verify(productsRepositoryMock, never()).returnStock(anyLong(), anyInt());
+  }
+}
@@ -26,6 +26,9 @@ import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.trebol.api.models.BillingCompanyPojo;
 import org.trebol.jpa.entities.BillingCompany;
+import org.trebol.jpa.services.ChangeSet;
+
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.trebol.testing.TestConstants.ANY;
@@ -45,8 +48,9 @@ class BillingCompaniesPatchServiceImplTest {
       .idNumber(ANY)
       .name("PIOLO")
       .build();
-    BillingCompany result = instance.patchExistingEntity(input, existingBillingCompany);
-    assertEquals(input.getIdNumber(), result.getIdNumber());
-    assertEquals(input.getName(), result.getName());
+    ChangeSet changes = instance.patchExistingEntity(input, existingBillingCompany);
+    assertEquals(Set.of("name"), changes.getChangedProperties());
+    assertEquals(input.getIdNumber(), existingBillingCompany.getIdNumber());
+    assertEquals(input.getName(), existingBillingCompany.getName());
   }
 }
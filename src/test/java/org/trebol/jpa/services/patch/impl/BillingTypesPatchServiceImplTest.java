@@ -27,6 +27,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.trebol.api.models.BillingTypePojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.BillingType;
+import org.trebol.jpa.services.ChangeSet;
+
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.trebol.testing.TestConstants.ANY;
@@ -44,7 +47,8 @@ class BillingTypesPatchServiceImplTest {
     BillingTypePojo input = BillingTypePojo.builder()
       .name("PIOLO")
       .build();
-    BillingType result = instance.patchExistingEntity(input, existingBillingType);
-    assertEquals(input.getName(), result.getName());
+    ChangeSet changes = instance.patchExistingEntity(input, existingBillingType);
+    assertEquals(Set.of("name"), changes.getChangedProperties());
+    assertEquals(input.getName(), existingBillingType.getName());
   }
 }
@@ -31,25 +31,27 @@ import org.trebol.api.models.PersonPojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Customer;
 import org.trebol.jpa.entities.Person;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.patch.PeoplePatchService;
 import org.trebol.testing.CustomersTestHelper;
-import org.trebol.testing.PeopleTestHelper;
+
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.trebol.testing.TestConstants.ANY;
 
 @ExtendWith(MockitoExtension.class)
 class CustomersPatchServiceImplTest {
   @InjectMocks CustomersPatchServiceImpl instance;
   @Mock PeoplePatchService peopleServiceMock;
   CustomersTestHelper customersTestHelper = new CustomersTestHelper();
-  PeopleTestHelper peopleTestHelper = new PeopleTestHelper();
 
   @BeforeEach
   void beforeEach() {
     customersTestHelper.resetCustomers();
-    peopleTestHelper.resetPeople();
   }
 
   @Test
@@ -58,9 +60,12 @@ class CustomersPatchServiceImplTest {
     CustomerPojo input = CustomerPojo.builder()
       .person(PersonPojo.builder().build())
       .build();
-    Person expectedPerson = peopleTestHelper.personEntityAfterCreation();
-    when(peopleServiceMock.patchExistingEntity(any(PersonPojo.class), any(Person.class))).thenReturn(expectedPerson);
-    Customer actual = instance.patchExistingEntity(input, existingCustomer);
-    assertEquals(expectedPerson, actual.getPerson());
+    Person existingPerson = existingCustomer.getPerson();
+    ChangeSet personChanges = new ChangeSet();
+    personChanges.set("email", ANY, existingPerson::getEmail, existingPerson::setEmail);
+    when(peopleServiceMock.patchExistingEntity(any(PersonPojo.class), any(Person.class))).thenReturn(personChanges);
+    ChangeSet actual = instance.patchExistingEntity(input, existingCustomer);
+    verify(peopleServiceMock).patchExistingEntity(input.getPerson(), existingPerson);
+    assertEquals(Set.of("person.email"), actual.getChangedProperties());
   }
 }
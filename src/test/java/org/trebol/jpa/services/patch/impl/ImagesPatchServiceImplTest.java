@@ -28,6 +28,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.trebol.api.models.ImagePojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Image;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.testing.ImagesTestHelper;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -51,9 +52,9 @@ class ImagesPatchServiceImplTest {
       .filename(ANY)
       .url(ANY)
       .build();
-    Image result = instance.patchExistingEntity(input, existingImage);
-    assertEquals(input.getCode(), result.getCode());
-    assertEquals(input.getFilename(), result.getFilename());
-    assertEquals(input.getUrl(), result.getUrl());
+    ChangeSet changes = instance.patchExistingEntity(input, existingImage);
+    assertEquals(input.getCode(), existingImage.getCode());
+    assertEquals(input.getFilename(), existingImage.getFilename());
+    assertEquals(input.getUrl(), existingImage.getUrl());
   }
 }
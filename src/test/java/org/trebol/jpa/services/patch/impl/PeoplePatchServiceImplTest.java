@@ -27,6 +27,7 @@ import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.trebol.api.models.PersonPojo;
 import org.trebol.jpa.entities.Person;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.testing.PeopleTestHelper;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -52,11 +53,11 @@ class PeoplePatchServiceImplTest {
       .phone1(ANY)
       .phone2(ANY)
       .build();
-    Person result = instance.patchExistingEntity(input, existingPerson);
-    assertEquals(input.getEmail(), result.getEmail());
-    assertEquals(input.getFirstName(), result.getFirstName());
-    assertEquals(input.getLastName(), result.getLastName());
-    assertEquals(input.getPhone1(), result.getPhone1());
-    assertEquals(input.getPhone2(), result.getPhone2());
+    ChangeSet changes = instance.patchExistingEntity(input, existingPerson);
+    assertEquals(input.getEmail(), existingPerson.getEmail());
+    assertEquals(input.getFirstName(), existingPerson.getFirstName());
+    assertEquals(input.getLastName(), existingPerson.getLastName());
+    assertEquals(input.getPhone1(), existingPerson.getPhone1());
+    assertEquals(input.getPhone2(), existingPerson.getPhone2());
   }
 }
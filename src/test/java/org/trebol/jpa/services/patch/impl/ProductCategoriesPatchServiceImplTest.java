@@ -27,8 +27,11 @@ import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.trebol.api.models.ProductCategoryPojo;
 import org.trebol.jpa.entities.ProductCategory;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.testing.ProductCategoriesTestHelper;
 
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.trebol.testing.TestConstants.ANY;
 
@@ -48,7 +51,8 @@ class ProductCategoriesPatchServiceImplTest {
     ProductCategoryPojo input = ProductCategoryPojo.builder()
       .name(ANY + " ")
       .build();
-    ProductCategory result = instance.patchExistingEntity(input, existingCategory);
-    assertEquals(input.getName(), result.getName());
+    ChangeSet changes = instance.patchExistingEntity(input, existingCategory);
+    assertEquals(Set.of("name"), changes.getChangedProperties());
+    assertEquals(input.getName(), existingCategory.getName());
   }
 }
@@ -29,11 +29,12 @@ import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Product;
 import org.trebol.jpa.entities.ProductList;
 import org.trebol.jpa.entities.ProductListItem;
+import org.trebol.jpa.services.ChangeSet;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.trebol.testing.TestConstants.ANY;
 
 @ExtendWith(MockitoExtension.class)
@@ -56,10 +57,9 @@ class ProductListPatchServiceImplTest {
       .name(ANY + " ")
       .code(ANY + " ")
       .build();
-    ProductList actual = instance.patchExistingEntity(input, existingProductList);
-    assertEquals(input.getCode(), actual.getCode());
-    assertEquals(input.getName(), actual.getName());
-    assertNotEquals(input.getCode(), existingProductList.getCode());
-    assertNotEquals(input.getName(), existingProductList.getName());
+    ChangeSet changes = instance.patchExistingEntity(input, existingProductList);
+    assertEquals(Set.of("name", "code"), changes.getChangedProperties());
+    assertEquals(input.getCode(), existingProductList.getCode());
+    assertEquals(input.getName(), existingProductList.getName());
   }
 }
@@ -28,9 +28,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.trebol.api.models.ProductPojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Product;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.testing.ProductsTestHelper;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.trebol.testing.TestConstants.ANY;
 
 @ExtendWith(MockitoExtension.class)
@@ -55,12 +57,26 @@ class ProductsPatchServiceImplTest {
       .currentStock(5)
       .criticalStock(1)
       .build();
-    Product result = instance.patchExistingEntity(input, existingProduct);
-    assertEquals(input.getName(), result.getName());
-    assertEquals(input.getBarcode(), result.getBarcode());
-    assertEquals(input.getPrice(), result.getPrice());
-    assertEquals(input.getDescription(), result.getDescription());
-    assertEquals(input.getCurrentStock(), result.getStockCurrent());
-    assertEquals(input.getCriticalStock(), result.getStockCritical());
+    ChangeSet changes = instance.patchExistingEntity(input, existingProduct);
+    assertEquals(input.getName(), existingProduct.getName());
+    assertEquals(input.getBarcode(), existingProduct.getBarcode());
+    assertEquals(input.getPrice(), existingProduct.getPrice());
+    assertEquals(input.getDescription(), existingProduct.getDescription());
+    assertEquals(input.getCurrentStock(), existingProduct.getStockCurrent());
+    assertEquals(input.getCriticalStock(), existingProduct.getStockCritical());
+  }
+
+  @Test
+  void does_not_change_properties_with_the_same_values() throws BadInputException {
+    Product existingProduct = productsTestHelper.productEntityAfterCreationWithoutCategory();
+    ProductPojo input = ProductPojo.builder()
+      .barcode(existingProduct.getBarcode())
+      .name(existingProduct.getName())
+      .price(existingProduct.getPrice())
+      .description(existingProduct.getDescription())
+      .currentStock(existingProduct.getStockCurrent())
+      .build();
+    ChangeSet changes = instance.patchExistingEntity(input, existingProduct);
+    assertTrue(changes.isEmpty());
   }
 }
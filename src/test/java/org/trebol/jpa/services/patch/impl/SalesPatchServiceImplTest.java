@@ -33,6 +33,7 @@ import org.trebol.api.models.SellPojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.*;
 import org.trebol.jpa.repositories.*;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.RegexMatcherAdapterService;
 import org.trebol.jpa.services.conversion.AddressesConverterService;
 import org.trebol.jpa.services.conversion.BillingCompaniesConverterService;
@@ -42,6 +43,7 @@ import org.trebol.testing.SalesTestHelper;
 
 import javax.validation.Validator;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -186,7 +188,8 @@ class SalesPatchServiceImplTest {
         .build())
       .build();
     when(customersServiceMock.getExisting(any(CustomerPojo.class))).thenReturn(Optional.of(existingCustomer));
-    Sell succesfulResult = instance.patchExistingEntity(sellPojo, existingSell);
-    assertEquals(sellPojo.getCustomer().getPerson().getIdNumber(), succesfulResult.getCustomer().getPerson().getIdNumber());
+    ChangeSet succesfulResult = instance.patchExistingEntity(sellPojo, existingSell);
+    assertEquals(Set.of("customer"), succesfulResult.getChangedProperties());
+    assertEquals(sellPojo.getCustomer().getPerson().getIdNumber(), existingSell.getCustomer().getPerson().getIdNumber());
   }
 }
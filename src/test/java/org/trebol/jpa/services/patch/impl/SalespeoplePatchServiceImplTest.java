@@ -31,11 +31,17 @@ import org.trebol.api.models.SalespersonPojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Person;
 import org.trebol.jpa.entities.Salesperson;
+import org.trebol.jpa.services.ChangeSet;
 import org.trebol.jpa.services.patch.PeoplePatchService;
 
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.trebol.testing.TestConstants.ANY;
 import static org.trebol.testing.TestConstants.ID_1L;
 
 @ExtendWith(MockitoExtension.class)
@@ -60,20 +66,24 @@ class SalespeoplePatchServiceImplTest {
 
   @Test
   void passes_person_profile_data() throws BadInputException {
-    when(peoplePatchServiceMock.patchExistingEntity(nullable(PersonPojo.class), nullable(Person.class))).thenReturn(person);
+    ChangeSet personChanges = new ChangeSet();
+    personChanges.set("firstName", ANY, person::getFirstName, person::setFirstName);
+    when(peoplePatchServiceMock.patchExistingEntity(any(PersonPojo.class), any(Person.class))).thenReturn(personChanges);
 
-    Salesperson actual = instance.patchExistingEntity(salespersonPojo, salesperson);
+    ChangeSet actual = instance.patchExistingEntity(salespersonPojo, salesperson);
 
-    assertNotNull(actual.getPerson());
-    assertEquals(person, actual.getPerson());
+    verify(peoplePatchServiceMock).patchExistingEntity(salespersonPojo.getPerson(), person);
+    assertEquals(Set.of("person.firstName"), actual.getChangedProperties());
   }
 
   @Test
   void passes_null_person_profile() throws BadInputException {
     salespersonPojo.setPerson(null);
 
-    Salesperson result = instance.patchExistingEntity(salespersonPojo, salesperson);
+    ChangeSet result = instance.patchExistingEntity(salespersonPojo, salesperson);
 
-    assertNull(result.getPerson());
+    verifyNoInteractions(peoplePatchServiceMock);
+    assertTrue(result.isEmpty());
+    assertEquals(person, salesperson.getPerson());
   }
 }
@@ -29,6 +29,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.trebol.api.models.SellStatusPojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.SellStatus;
+import org.trebol.jpa.services.ChangeSet;
+
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.trebol.testing.TestConstants.ANY;
@@ -57,7 +60,8 @@ class SellStatusesPatchServiceImplTest {
   @Test
   void patches_entity_data() throws BadInputException {
     sellStatusPojo.setName("PIOLO");
-    SellStatus actual = instance.patchExistingEntity(sellStatusPojo, sellStatus);
-    assertEquals(1L, actual.getId());
+    ChangeSet changes = instance.patchExistingEntity(sellStatusPojo, sellStatus);
+    assertEquals(Set.of("name"), changes.getChangedProperties());
+    assertEquals(1L, sellStatus.getId());
   }
 }
@@ -29,6 +29,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.trebol.api.models.ShipperPojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.Shipper;
+import org.trebol.jpa.services.ChangeSet;
+
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.trebol.testing.TestConstants.ANY;
@@ -57,7 +60,8 @@ class ShippersPatchServiceImplTest {
   @Test
   void patches_entity_data() throws BadInputException {
     shipperPojo.setName("PIOLO");
-    Shipper actual = instance.patchExistingEntity(shipperPojo, shipper);
-    assertEquals(1L, actual.getId());
+    ChangeSet changes = instance.patchExistingEntity(shipperPojo, shipper);
+    assertEquals(Set.of("name"), changes.getChangedProperties());
+    assertEquals(1L, shipper.getId());
   }
 }
@@ -29,6 +29,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.trebol.api.models.UserRolePojo;
 import org.trebol.common.exceptions.BadInputException;
 import org.trebol.jpa.entities.UserRole;
+import org.trebol.jpa.services.ChangeSet;
+
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -57,7 +60,8 @@ class UserRolesPatchServiceImplTest {
 
   @Test
   void patches_entity_data() throws BadInputException {
-    UserRole actual = instance.patchExistingEntity(userRolePojo, userRole);
-    assertEquals(1L, actual.getId());
+    ChangeSet changes = instance.patchExistingEntity(userRolePojo, userRole);
+    assertEquals(Set.of(), changes.getChangedProperties());
+    assertEquals(1L, userRole.getId());
   }
 }
@@ -36,8 +36,10 @@ import org.trebol.jpa.entities.User;
 import org.trebol.jpa.entities.UserRole;
 import org.trebol.jpa.repositories.PeopleRepository;
 import org.trebol.jpa.repositories.UserRolesRepository;
+import org.trebol.jpa.services.ChangeSet;
 
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -95,7 +97,9 @@ class UsersPatchServiceImplTest {
     when(rolesRepositoryMock.findByName(anyString())).thenReturn(Optional.of(role));
     when(passwordEncoderMock.encode(anyString())).thenReturn(ANY);
     when(peopleRepositoryMock.findByIdNumber(anyString())).thenReturn(Optional.of(person));
-    User actual = instance.patchExistingEntity(userPojo, user);
-    assertEquals(ANY + " ", actual.getPerson().getIdNumber());
+    ChangeSet changes = instance.patchExistingEntity(userPojo, user);
+    assertEquals(Set.of("name", "password"), changes.getChangedProperties());
+    assertEquals(ANY, user.getName());
+    assertEquals(ANY + " ", user.getPerson().getIdNumber());
   }
 }
@@ -42,7 +42,9 @@ class ImagesPredicateServiceImplTest {
       instance.parseMap(Map.of("code", "code test")),
       instance.parseMap(Map.of("filename", "filename test")),
       instance.parseMap(Map.of("codeLike", "code portion")),
-      instance.parseMap(Map.of("filenameLike", "filename portion")));
+      instance.parseMap(Map.of("filenameLike", "filename portion")),
+      instance.parseMap(Map.of("ids", "1,2")),
+      instance.parseMap(Map.of("codes", "code test,other code")));
     Set<Predicate> distinctPredicates = new HashSet<>(predicates);
     assertEquals(predicates.size(), distinctPredicates.size());
   }
@@ -50,7 +50,9 @@ class ProductCategoriesPredicateServiceImplTest {
       instance.parseMap(Map.of("name", "name test")),
       instance.parseMap(Map.of("nameLike", "name portion")),
       instance.parseMap(Map.of("parentCode", "parent code test")),
-      instance.parseMap(Map.of("parentId", "1")));
+      instance.parseMap(Map.of("parentId", "1")),
+      instance.parseMap(Map.of("ids", "1,2")),
+      instance.parseMap(Map.of("codes", "code test,other code")));
     Set<Predicate> distinctPredicates = new HashSet<>(predicates);
     assertEquals(predicates.size(), distinctPredicates.size());
   }
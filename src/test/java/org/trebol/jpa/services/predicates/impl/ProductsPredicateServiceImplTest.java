@@ -27,7 +27,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.trebol.jpa.entities.ProductCategory;
+import org.trebol.jpa.services.ProductCategoryTree;
 import org.trebol.jpa.services.ProductCategoryTreeResolverService;
+import org.trebol.jpa.services.ProductSearchIndexService;
 
 import java.util.*;
 
@@ -38,10 +41,13 @@ import static org.mockito.Mockito.when;
 class ProductsPredicateServiceImplTest {
   @InjectMocks ProductsPredicateServiceImpl instance;
   @Mock ProductCategoryTreeResolverService categoryTreeResolverMock;
+  @Mock ProductSearchIndexService searchIndexServiceMock;
 
   @Test
   void parses_map() {
-    when(categoryTreeResolverMock.getBranchIdsFromRootCode("category-code")).thenReturn(new ArrayList<>());
+    when(categoryTreeResolverMock.getTree()).thenReturn(new ProductCategoryTree(1L, List.of(
+      ProductCategory.builder().id(1L).code("category-code").name("category").path("/").build())));
+    when(searchIndexServiceMock.search("text")).thenReturn(List.of(1L, 2L));
     Predicate emptyPredicate = new BooleanBuilder();
     List<Predicate> predicates = List.of(emptyPredicate,
       instance.parseMap(Map.of("id", "1")),
@@ -50,7 +56,10 @@ class ProductsPredicateServiceImplTest {
       instance.parseMap(Map.of("categoryCode", "category-code")),
       instance.parseMap(Map.of("barcodeLike", "portion")),
       instance.parseMap(Map.of("nameLike", "portion")),
-      instance.parseMap(Map.of("categoryCodeLike", "portion")));
+      instance.parseMap(Map.of("categoryCodeLike", "portion")),
+      instance.parseMap(Map.of("q", "text")),
+      instance.parseMap(Map.of("ids", "3,4")),
+      instance.parseMap(Map.of("barcodes", "test1, test2")));
     Set<Predicate> distinctPredicates = new HashSet<>(predicates);
     assertEquals(predicates.size(), distinctPredicates.size());
   }
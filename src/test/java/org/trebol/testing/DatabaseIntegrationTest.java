@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2023 The Trebol eCommerce Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.trebol.testing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Base of tests that run against the application context and its database. Tests run outside of any transaction,
+ * opening them through {@link #transaction} where needed, and remove the rows they wrote in {@link #deleteTestData()}.
+ */
+@SpringBootTest
+public abstract class DatabaseIntegrationTest {
+  @Autowired protected EntityManager entityManager;
+  @Autowired private PlatformTransactionManager transactionManager;
+  protected TransactionTemplate transaction;
+
+  @BeforeEach
+  void createTransactionTemplate() {
+    transaction = new TransactionTemplate(transactionManager);
+  }
+
+  @AfterEach
+  void deleteTestDataInTransaction() {
+    transaction.executeWithoutResult(status -> this.deleteTestData());
+  }
+
+  /**
+   * Deletes the rows written by each test. Called within a transaction.
+   */
+  protected abstract void deleteTestData();
+
+  protected <T> T persist(T entity) {
+    entityManager.persist(entity);
+    return entity;
+  }
+
+  protected void delete(Class<?> entityClass, Long id) {
+    entityManager.createQuery("DELETE FROM " + entityClass.getSimpleName() + " e WHERE e.id = :id")
+      .setParameter("id", id)
+      .executeUpdate();
+  }
+}